@@ -18,6 +18,7 @@ package net.tnemc.bukkit.listeners.player;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import net.tnemc.core.TNECore;
 import net.tnemc.core.handlers.player.PlayerCloseEChestHandler;
 import net.tnemc.plugincore.PluginCore;
 import net.tnemc.plugincore.core.compatibility.PlayerProvider;
@@ -42,6 +43,10 @@ public class PlayerCloseInventoryListener implements Listener {
 
       final PlayerProvider provider = PluginCore.server().initializePlayer(event.getPlayer());
       new PlayerCloseEChestHandler().handle(provider);
+      return;
     }
+
+    //any other container may have moved currency items in or out of the inventory.
+    TNECore.eco().itemCache().invalidate(event.getPlayer().getUniqueId());
   }
 }
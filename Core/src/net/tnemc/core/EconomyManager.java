@@ -28,6 +28,7 @@ import net.tnemc.core.account.holdings.handlers.VirtualHandler;
 import net.tnemc.core.config.MainConfig;
 import net.tnemc.core.currency.Currency;
 import net.tnemc.core.currency.CurrencyType;
+import net.tnemc.core.currency.calculations.ItemHoldingsCache;
 import net.tnemc.core.manager.AccountManager;
 import net.tnemc.core.manager.CurrencyManager;
 import net.tnemc.core.manager.PlaceholderManager;
@@ -84,6 +85,7 @@ public class EconomyManager {
   private final TransactionManager transactionManager;
   private final RegionProvider regionProvider;
   private final TopManager topManager;
+  private final ItemHoldingsCache itemCache = new ItemHoldingsCache();
   private final boolean limitCurrency;
   private long reloadTime;
 
@@ -123,6 +125,9 @@ public class EconomyManager {
 
   public void init() {
 
+    this.itemCache.load();
+    this.placeholderManager.cache().load();
+
     //Init our default account manager stuff.
     this.accountManager.addDefaultStatuses();
     this.accountManager.addDefaultTypes();
@@ -136,6 +141,7 @@ public class EconomyManager {
           accountManager.exclusions().add(str);
         }
       }
+      accountManager.names().refresh();
     }
 
     addIdentifier(NORMAL);
@@ -196,6 +202,7 @@ public class EconomyManager {
   public void clearCache() {
 
     accountManager.getAccounts().clear();
+    accountManager.names().clear();
   }
 
   public AccountManager account() {
@@ -228,6 +235,11 @@ public class EconomyManager {
     return topManager;
   }
 
+  public ItemHoldingsCache itemCache() {
+
+    return itemCache;
+  }
+
   public void printInvalid() {
 
     if(!invalidCurrencies.isEmpty()) {
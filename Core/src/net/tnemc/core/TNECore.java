@@ -22,6 +22,7 @@ import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.tnemc.core.account.Account;
 import net.tnemc.core.account.AccountStatus;
 import net.tnemc.core.account.holdings.HoldingsEntry;
+import net.tnemc.core.api.EconomyExecutor;
 import net.tnemc.core.api.TNEAPI;
 import net.tnemc.core.api.callback.TNECallbacks;
 import net.tnemc.core.api.callback.account.AccountCreateCallback;
@@ -36,6 +37,7 @@ import net.tnemc.core.api.callback.transaction.PostTransactionCallback;
 import net.tnemc.core.api.callback.transaction.PreTransactionCallback;
 import net.tnemc.core.api.response.AccountAPIResponse;
 import net.tnemc.core.channel.BalanceHandler;
+import net.tnemc.core.channel.BalanceSyncBuffer;
 import net.tnemc.core.channel.ChannelSecurity;
 import net.tnemc.core.command.parameters.PercentBigDecimal;
 import net.tnemc.core.command.parameters.resolver.AccountResolver;
@@ -52,12 +54,20 @@ import net.tnemc.core.currency.Currency;
 import net.tnemc.core.currency.calculations.ItemCalculations;
 import net.tnemc.core.currency.item.ItemDenomination;
 import net.tnemc.core.currency.parser.ParseMoney;
+import net.tnemc.core.io.storage.feed.ChangeFeed;
+import net.tnemc.core.io.storage.migrate.YAMLMigrator;
+import net.tnemc.core.io.storage.queue.StorageExecutor;
+import net.tnemc.core.io.storage.queue.WriteBehindQueue;
+import net.tnemc.core.io.storage.segment.ReceiptSegments;
 import net.tnemc.core.io.yaml.YamlStorageManager;
+import net.tnemc.core.manager.metrics.MetricRegistry;
+import net.tnemc.core.manager.TransactionManager;
 import net.tnemc.core.manager.Updater;
 import net.tnemc.core.menu.MyBalMenu;
 import net.tnemc.core.menu.MyEcoMenu;
 import net.tnemc.core.menu.TransactionMenu;
 import net.tnemc.core.transaction.Receipt;
+import net.tnemc.core.transaction.bulk.BulkTransactionEngine;
 import net.tnemc.core.utils.MISCUtils;
 import net.tnemc.item.AbstractItemStack;
 import net.tnemc.menu.core.manager.MenuManager;
@@ -109,6 +119,7 @@ public abstract class TNECore extends PluginEngine {
   public static final String version = "0.1.4.3";
   public static final String build = "RELEASE";
   protected static TNECore instance;
+  private static final MetricRegistry metrics = new MetricRegistry();
 
   /* Key Managers and Object instances utilized with TNE */
   protected final YamlStorageManager yamlManager = new YamlStorageManager();
@@ -120,6 +131,13 @@ public abstract class TNECore extends PluginEngine {
   private DataConfig data;
   private MessageConfig messageConfig;
   private Chore<?> autoSaver = null;
+  private final StorageExecutor storageExecutor = new StorageExecutor();
+  private final WriteBehindQueue writeBehind = new WriteBehindQueue();
+  private final BalanceSyncBuffer balanceSync = new BalanceSyncBuffer();
+  private final ChangeFeed changeFeed = new ChangeFeed();
+  private final EconomyExecutor economyExecutor = new EconomyExecutor();
+  private final BulkTransactionEngine bulk = new BulkTransactionEngine();
+  private final ReceiptSegments segments = new ReceiptSegments();
 
   public TNECore() {
 
@@ -147,6 +165,16 @@ public abstract class TNECore extends PluginEngine {
     return instance;
   }
 
+  /**
+   * The {@link MetricRegistry} that holds TNE's counters and latency histograms.
+   *
+   * @return The {@link MetricRegistry}.
+   */
+  public static MetricRegistry metrics() {
+
+    return metrics;
+  }
+
   public static TNEAPI api() {
 
     return instance.api;
@@ -489,15 +517,30 @@ public abstract class TNECore extends PluginEngine {
     MenuManager.instance().addMenu(new MyBalMenu());
     MenuManager.instance().addMenu(new TransactionMenu());
 
+    YAMLMigrator.migrate();
+
     PluginCore.log().debug("Loading All Accounts....");
 
-    this.storage.loadAll(Account.class, "");
+    this.economyManager.account().loadAccounts();
 
     PluginCore.log().debug("Loading All Receipts....");
 
     this.storage.loadAll(Receipt.class, "");
 
     this.economyManager.setReloadTime(new Date().getTime());
+    changeFeed.mark();
+
+    PluginCore.log().debug("Starting Write-Behind Queue....");
+
+    storageExecutor.start();
+    writeBehind.start();
+    balanceSync.start();
+    economyExecutor.start();
+    bulk.start();
+    segments.start();
+
+    registerMetrics();
+    metrics.start();
 
     PluginCore.log().debug("Checking Server account...");
 
@@ -547,7 +590,13 @@ public abstract class TNECore extends PluginEngine {
 
     PluginCore.log().debug("Firing up BalTop Caching System....");
     PluginCore.server().scheduler().createDelayedTask(()->economyManager.getTopManager().load(), new ChoreTime(2), ChoreExecution.SECONDARY);
-    PluginCore.server().scheduler().createRepeatingTask(()->economyManager.getTopManager().load(), new ChoreTime(2), new ChoreTime(MainConfig.yaml().getInt("Core.Commands.Top.Refresh"), TimeUnit.SECONDS), ChoreExecution.SECONDARY);
+
+    //The rankings are kept up to date as holdings change, only item and experience holdings can change
+    //without going through the account, so those are rebuilt on a timer.
+    final int topRefresh = MainConfig.yaml().getInt("Core.Commands.Top.Refresh", 1200);
+    if(topRefresh > 0) {
+      PluginCore.server().scheduler().createRepeatingTask(()->economyManager.getTopManager().refresh(), new ChoreTime(topRefresh, TimeUnit.SECONDS), new ChoreTime(topRefresh, TimeUnit.SECONDS), ChoreExecution.SECONDARY);
+    }
   }
 
   @Override
@@ -556,6 +605,22 @@ public abstract class TNECore extends PluginEngine {
     if(autoSaver != null) {
       autoSaver.cancel();
     }
+    metrics.stop();
+    segments.stop();
+
+    //let the asynchronous API calls that are already running finish before the final save.
+    bulk.stop();
+    economyExecutor.stop();
+
+    if(economyManager != null) {
+      economyManager.account().residency().stop();
+    }
+
+    //send anything that's still waiting to be synced.
+    balanceSync.stop();
+
+    //finish the storage work that's already queued, anything submitted after this runs inline.
+    storageExecutor.stop();
 
     if(storage == null) {
       return;
@@ -566,6 +631,64 @@ public abstract class TNECore extends PluginEngine {
 
     final Optional<Datable<?>> receiptData = Optional.ofNullable(storage.getEngine().datables().get(Receipt.class));
     receiptData.ifPresent(datable->datable.storeAll(storage.getConnector(), null));
+
+    //write anything that was queued while the final save was running.
+    writeBehind.stop();
+  }
+
+  /**
+   * Registers the gauges for the parts of TNE that track their own counts.
+   */
+  private void registerMetrics() {
+
+    final String storage = "Tasks handled by TNE's storage executor.";
+    metrics.gauge("tne_storage_tasks", storage, storageExecutor::submitted, "state", "submitted");
+    metrics.gauge("tne_storage_tasks", storage, storageExecutor::completed, "state", "completed");
+    metrics.gauge("tne_storage_tasks", storage, storageExecutor::failed, "state", "failed");
+    metrics.gauge("tne_storage_tasks", storage, storageExecutor::blocked, "state", "blocked");
+    metrics.gauge("tne_storage_queue", "Storage tasks that are queued or running.", storageExecutor::pending);
+    metrics.gauge("tne_storage_queue_peak", "The most storage tasks that were queued at once.", storageExecutor::peak);
+    metrics.gauge("tne_write_behind_pending", "Changes waiting to be written by the write-behind queue.", writeBehind::pending);
+    metrics.gauge("tne_bulk_active", "Bulk transactions that are currently running.", ()->bulk.active().size());
+    metrics.gauge("tne_accounts_loaded", "Accounts currently held in memory.", ()->economyManager.account().getAccounts().size());
+    metrics.gauge("tne_receipts_loaded", "Receipts currently held in memory.", ()->TransactionManager.receipts().getReceipts().size());
+    metrics.gauge("tne_receipt_segments", "Receipt segment files on disk.", segments::segments);
+    metrics.gauge("tne_receipts_demoted", "Receipts moved to the receipt segments since startup.", segments::demoted);
+  }
+
+  public StorageExecutor storageExecutor() {
+
+    return storageExecutor;
+  }
+
+  public WriteBehindQueue writeBehind() {
+
+    return writeBehind;
+  }
+
+  public BalanceSyncBuffer balanceSync() {
+
+    return balanceSync;
+  }
+
+  public ChangeFeed changeFeed() {
+
+    return changeFeed;
+  }
+
+  public EconomyExecutor economyExecutor() {
+
+    return economyExecutor;
+  }
+
+  public BulkTransactionEngine bulk() {
+
+    return bulk;
+  }
+
+  public ReceiptSegments segments() {
+
+    return segments;
   }
 
   public MainConfig config() {
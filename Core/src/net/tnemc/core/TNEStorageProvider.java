@@ -36,11 +36,10 @@ import net.tnemc.core.io.storage.dialect.impl.MariaDialect;
 import net.tnemc.core.io.storage.dialect.impl.MariaOutdatedDialect;
 import net.tnemc.core.io.storage.dialect.impl.MySQLDialect;
 import net.tnemc.core.io.storage.dialect.impl.MySQLRevampDialect;
+import net.tnemc.core.io.storage.dialect.impl.SQLiteDialect;
 import net.tnemc.core.transaction.Receipt;
 import net.tnemc.plugincore.PluginCore;
 import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
-import net.tnemc.plugincore.core.compatibility.scheduler.ChoreExecution;
-import net.tnemc.plugincore.core.compatibility.scheduler.ChoreTime;
 import net.tnemc.plugincore.core.io.storage.Datable;
 import net.tnemc.plugincore.core.io.storage.StorageConnector;
 import net.tnemc.plugincore.core.io.storage.StorageEngine;
@@ -52,8 +51,11 @@ import net.tnemc.plugincore.core.io.storage.engine.flat.YAML;
 import net.tnemc.plugincore.core.io.storage.engine.sql.MariaDB;
 import net.tnemc.plugincore.core.io.storage.engine.sql.MySQL;
 import net.tnemc.plugincore.core.io.storage.engine.sql.PostgreSQL;
+import net.tnemc.plugincore.core.io.storage.engine.sql.SQLite;
 import org.jetbrains.annotations.NotNull;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Optional;
 
 /**
@@ -122,6 +124,10 @@ public class TNEStorageProvider implements StorageProvider {
         this.engine = new PostgreSQL(new MySQLDialect(prefix));
         this.connector = new SQLConnector();
       }
+      case "sqlite" -> {
+        this.engine = new SQLite(new SQLiteDialect(prefix));
+        this.connector = new SQLConnector();
+      }
       case "mysql-revamp" -> {
         if(maria) {
           this.engine = new MariaDB(prefix, new MySQLRevampDialect(prefix));
@@ -171,6 +177,16 @@ public class TNEStorageProvider implements StorageProvider {
        && this.engine instanceof final StandardSQL sqlEngine
        && sqlEngine.dialect() instanceof final TNEDialect tneDialect) {
 
+      if(tneDialect instanceof final SQLiteDialect sqlite) {
+        try(final ResultSet result = sql.executeQuery(sqlite.journalMode(), new Object[]{})) {
+          if(result.next()) {
+            PluginCore.log().debug("SQLite journal mode: " + result.getString(1), DebugLevel.DETAILED);
+          }
+        } catch(final SQLException e) {
+          e.printStackTrace();
+        }
+      }
+
       sql.executeUpdate(tneDialect.accountsTable(), new Object[]{});
       sql.executeUpdate(tneDialect.accountsNonPlayerTable(), new Object[]{});
       sql.executeUpdate(tneDialect.accountsPlayerTable(), new Object[]{});
@@ -180,9 +196,32 @@ public class TNEStorageProvider implements StorageProvider {
       sql.executeUpdate(tneDialect.receiptsHoldingsTable(), new Object[]{});
       sql.executeUpdate(tneDialect.receiptsParticipantsTable(), new Object[]{});
       sql.executeUpdate(tneDialect.receiptsModifiersTable(), new Object[]{});
+
+      //Used to page receipt history by (performed, uid), tables created before these were added get
+      //them here.
+      index(sql, tneDialect, "receipts", "receipts_performed", "performed, uid");
+      index(sql, tneDialect, "receipts_participants", "receipts_participants_participant", "participant, uid");
+
+      TNECore.instance().changeFeed().prepare(sql, tneDialect);
     }
   }
 
+  private void index(final SQLConnector sql, final TNEDialect tne, final String table,
+                     final String index, final String columns) {
+
+    try(final ResultSet result = sql.executeQuery(tne.index(table, index), new Object[]{})) {
+      if(result.next() && result.getInt("total") > 0) {
+        return;
+      }
+    } catch(final SQLException e) {
+      e.printStackTrace();
+      return;
+    }
+
+    PluginCore.log().inform("Adding the " + index + " index to the " + table + " table, this may take a moment.");
+    sql.executeUpdate(tne.addIndex(table, index, columns), new Object[]{});
+  }
+
   @Override
   public void storeAll(@NotNull final String identifier) {
 
@@ -198,15 +237,13 @@ public class TNEStorageProvider implements StorageProvider {
     final Optional<Datable<?>> data = Optional.ofNullable(engine.datables().get(Account.class));
 
     //Our account storeAll requires no identifier, so we set it to null
-    data.ifPresent(datable->PluginCore.server().scheduler()
-            .createDelayedTask(()->datable.storeAll(connector, null), new ChoreTime(0), ChoreExecution.SECONDARY));
+    data.ifPresent(datable->TNECore.instance().storageExecutor().submit("accounts", ()->datable.storeAll(connector, null)));
 
 
     final Optional<Datable<?>> receiptData = Optional.ofNullable(engine.datables().get(Receipt.class));
 
     //Our account storeAll requires no identifier, so we set it to null
-    receiptData.ifPresent(datable->PluginCore.server().scheduler()
-            .createDelayedTask(()->datable.storeAll(connector, null), new ChoreTime(0), ChoreExecution.SECONDARY));
+    receiptData.ifPresent(datable->TNECore.instance().storageExecutor().submit("receipts", ()->datable.storeAll(connector, null)));
   }
 
   @Override
@@ -216,8 +253,7 @@ public class TNEStorageProvider implements StorageProvider {
     final Optional<Datable<?>> data = Optional.ofNullable(engine.datables().get(Account.class));
 
     //Our account storeAll requires no identifier, so we set it to null
-    data.ifPresent(datable->PluginCore.server().scheduler()
-            .createDelayedTask(()->datable.delete(connector, identifier), new ChoreTime(0), ChoreExecution.SECONDARY));
+    data.ifPresent(datable->TNECore.instance().storageExecutor().submit(identifier, ()->datable.delete(connector, identifier)));
 
   }
 
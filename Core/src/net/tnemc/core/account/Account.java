@@ -22,13 +22,12 @@ import net.tnemc.core.EconomyManager;
 import net.tnemc.core.TNECore;
 import net.tnemc.core.account.holdings.HoldingsEntry;
 import net.tnemc.core.account.holdings.Wallet;
-import net.tnemc.core.channel.BalanceHandler;
 import net.tnemc.core.currency.Currency;
+import net.tnemc.core.manager.TransactionManager;
 import net.tnemc.core.transaction.receipt.ReceiptBox;
 import net.tnemc.core.utils.Identifier;
 import net.tnemc.plugincore.PluginCore;
-import net.tnemc.plugincore.core.compatibility.scheduler.ChoreExecution;
-import net.tnemc.plugincore.core.compatibility.scheduler.ChoreTime;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
 import net.tnemc.plugincore.core.io.maps.MapKey;
 import org.jetbrains.annotations.NotNull;
 
@@ -38,6 +37,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * An object that is used to represent an Account within the economy plugin.
@@ -54,6 +54,9 @@ public class Account extends ReceiptBox {
   protected String pin;
   protected volatile boolean dirty = true;
 
+  //incremented every time holdings are set, used to detect stale transaction snapshots.
+  protected final AtomicLong revision = new AtomicLong();
+
   protected Wallet wallet;
 
   protected AccountStatus status;
@@ -227,30 +230,59 @@ public class Account extends ReceiptBox {
    *
    * @param entry The entry to set in this wallet.
    * @param type  The {@link Identifier identifier} of the holdings handler to use.
+   *
+   * @return True if the holdings were set, otherwise false. This is also false if the account's
+   * lock couldn't be acquired.
    */
   public boolean setHoldings(final @NotNull HoldingsEntry entry, final @NotNull Identifier type) {
 
+    //holdings set outside a transaction take the same lock, transactions already hold it and the
+    //stripes are reentrant, so this only waits on other threads.
+    if(!TransactionManager.locks().lock(identifier, null)) {
+      PluginCore.log().debug("Unable to lock account to set holdings: " + identifier, DebugLevel.STANDARD);
+      return false;
+    }
+
+    try {
+      return set(entry, type);
+    } finally {
+      TransactionManager.locks().unlock(identifier, null);
+    }
+  }
+
+  private boolean set(final @NotNull HoldingsEntry entry, final @NotNull Identifier type) {
+
     final Optional<Currency> currencyObject = TNECore.eco().currency().find(entry.getCurrency());
 
     final String region = TNECore.eco().region().resolve(entry.getRegion());
 
     boolean result = false;
 
-    if(currencyObject.isPresent()) {
-      result = currencyObject.get().type().setHoldings(this,
-                                                       region,
-                                                       currencyObject.get(),
-                                                       type,
-                                                       entry.getAmount());
+    try {
+      if(currencyObject.isPresent()) {
+        result = currencyObject.get().type().setHoldings(this,
+                                                         region,
+                                                         currencyObject.get(),
+                                                         type,
+                                                         entry.getAmount());
+      }
+    } finally {
+
+      //bumped once the write has landed, so a snapshot that read the old holdings always carries
+      //the old revision and is taken again when the transaction refreshes it.
+      changed();
+    }
+
+    if(result) {
+      TNECore.eco().getTopManager().update(this, region, currencyObject.get().getUid());
+      TNECore.instance().writeBehind().holdings(this, region, currencyObject.get().getUid());
     }
 
     if(result && currencyObject.get().isSync()) {
 
       //Send out our update to our proxies.
       if(!PluginCore.instance().getChannelMessageManager().isAffected(identifier.toString()) && !TNECore.eco().account().getLoading().contains(identifier)) {
-        PluginCore.server().scheduler().createDelayedTask(()->{
-          BalanceHandler.send(identifier.toString(), name, region, currencyObject.get().getUid(), entry.getHandler(), entry.getAmount());
-        }, new ChoreTime(1), ChoreExecution.SECONDARY);
+        TNECore.instance().balanceSync().queue(identifier.toString(), name, region, currencyObject.get().getUid(), entry.getHandler(), entry.getAmount());
       } else {
 
         //TODO: Fix plugin core to change this to uuid
@@ -261,6 +293,45 @@ public class Account extends ReceiptBox {
     return result;
   }
 
+  /**
+   * Applies holdings that were read back from storage, such as changes made by another server. This
+   * doesn't queue a write or send the change to other servers since it's already stored, but it
+   * moves the revision on so any transaction snapshot taken before it is taken again. The caller
+   * has to hold the account's lock.
+   *
+   * @param entry The stored entry to apply to this wallet.
+   */
+  public void applyStored(final @NotNull HoldingsEntry entry) {
+
+    try {
+      getWallet().setHoldings(entry);
+      entry.clearDirty();
+    } finally {
+      changed();
+    }
+  }
+
+  /**
+   * Marks the holdings of this account as changed, which moves the revision on and drops any cached
+   * placeholder results for it. This has to happen after the holdings are written.
+   */
+  private void changed() {
+
+    revision.incrementAndGet();
+    TNECore.eco().placeholder().cache().invalidate(identifier.toString());
+  }
+
+  /**
+   * Used to get the holdings revision of this account. This changes every time the holdings are
+   * set, which allows a snapshot of the holdings to be checked for staleness.
+   *
+   * @return The current holdings revision.
+   */
+  public long revision() {
+
+    return revision.get();
+  }
+
   @MapKey
   public UUID getIdentifier() {
 
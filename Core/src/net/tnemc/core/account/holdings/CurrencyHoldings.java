@@ -43,9 +43,26 @@ public class CurrencyHoldings {
    */
   public void setHoldingsEntry(final @NotNull HoldingsEntry entry, final @NotNull Identifier type) {
 
+    entry.markDirty();
     holdings.put(type.asID(), entry);
   }
 
+  /**
+   * Used to determine if any of the {@link HoldingsEntry holdings} in here have changed since they
+   * were last written to storage.
+   *
+   * @return True if any entry is dirty, otherwise false.
+   */
+  public boolean isDirty() {
+
+    for(final HoldingsEntry entry : holdings.values()) {
+      if(entry.isDirty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Used to get the {@link HoldingsEntry holdings} for a specific {@link Identifier}.
    *
@@ -0,0 +1,52 @@
+package net.tnemc.core.account.holdings;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The changes made to a {@link Wallet} since it was last written to storage.
+ *
+ * @param modified The {@link HoldingsEntry entries} that were added or changed.
+ * @param removed  The entries that were deleted, and should be removed from storage.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public record HoldingsChangeset(@NotNull List<HoldingsEntry> modified, @NotNull List<Tombstone> removed) {
+
+  public boolean isEmpty() {
+
+    return modified.isEmpty() && removed.isEmpty();
+  }
+
+  /**
+   * Marks a deleted holdings entry.
+   *
+   * @param region   The region of the deleted entry.
+   * @param currency The currency of the deleted entry.
+   * @param handler  The identifier of the holdings handler of the deleted entry.
+   */
+  public record Tombstone(@NotNull String region, @NotNull UUID currency, @NotNull String handler) {
+
+  }
+}
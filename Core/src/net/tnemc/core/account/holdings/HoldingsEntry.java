@@ -20,12 +20,15 @@ package net.tnemc.core.account.holdings;
 
 import net.tnemc.core.TNECore;
 import net.tnemc.core.account.holdings.modify.HoldingsModifier;
+import net.tnemc.core.account.holdings.modify.HoldingsOperation;
 import net.tnemc.core.currency.Currency;
 import net.tnemc.core.utils.Identifier;
 import net.tnemc.core.utils.Monetary;
+import net.tnemc.core.utils.ScaledAmount;
 import org.jetbrains.annotations.NotNull;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -50,16 +53,27 @@ public class HoldingsEntry {
   private UUID currency;
 
   /**
-   * The {@link BigDecimal amount} that this charge is for.
+   * The amount that this charge is for. This is kept as a {@link ScaledAmount}, so typical balances
+   * are modified as longs, and only become a {@link BigDecimal} when asked for.
    */
-  private BigDecimal amount;
+  private volatile ScaledAmount amount;
+
+  /**
+   * The decimal places of the currency, or -1 if the currency isn't known.
+   */
+  private int scale;
 
   /**
    * The {@link Identifier type} that this should be used for this.
    */
   private Identifier handler = new Identifier("TNE", "VIRTUAL_HOLDINGS");
 
-  private Monetary monetary;
+  private volatile Split split;
+
+  /**
+   * Whether this entry has changed since it was last written to storage.
+   */
+  private volatile boolean dirty = true;
 
   /**
    * Constructs an object that represents a holding's entry.
@@ -74,6 +88,17 @@ public class HoldingsEntry {
 
     this.region = region;
     this.currency = currency;
+    this.scale = scale(currency);
+    this.amount = ScaledAmount.of(amount, scale);
+    this.handler = handler;
+  }
+
+  private HoldingsEntry(final String region, final UUID currency, final ScaledAmount amount,
+                        final Identifier handler, final int scale) {
+
+    this.region = region;
+    this.currency = currency;
+    this.scale = scale;
     this.amount = amount;
     this.handler = handler;
   }
@@ -87,26 +112,49 @@ public class HoldingsEntry {
 
     this.region = modifier.getRegion();
     this.currency = modifier.getCurrency();
-    this.amount = modifier.getModifier();
+    this.scale = scale(currency);
+    this.amount = ScaledAmount.of(modifier.getModifier(), scale);
   }
 
   public void modify(final HoldingsModifier modifier) {
 
-    amount = modifier.modify(amount);
+    amount = apply(amount, modifier);
+    dirty = true;
   }
 
   public HoldingsEntry modifyGrab(final BigDecimal modifier) {
 
-    final HoldingsEntry entry = new HoldingsEntry(region, currency, amount, handler);
-    entry.modify(new HoldingsModifier(region, currency, modifier));
-    return entry;
+    final BigDecimal normalized = (scale >= 0)? modifier.setScale(scale, RoundingMode.DOWN) : modifier;
+    return new HoldingsEntry(region, currency, amount.add(ScaledAmount.of(normalized, scale)), handler, scale);
+  }
+
+  /**
+   * Creates a copy of this entry with the specified amount added to it. Amounts with more decimal
+   * places than the currency are truncated, like {@link #modifyGrab(BigDecimal)} does.
+   *
+   * @param modifier The amount to add, which may be negative.
+   *
+   * @return The modified copy of this entry.
+   */
+  public HoldingsEntry modifyGrab(final ScaledAmount modifier) {
+
+    if(modifier.isScaled() || scale < 0) {
+      return new HoldingsEntry(region, currency, amount.add(modifier), handler, scale);
+    }
+    return modifyGrab(modifier.toBigDecimal());
   }
 
   public HoldingsEntry modifyGrab(final HoldingsModifier modifier) {
 
-    final HoldingsEntry entry = new HoldingsEntry(region, currency, amount, handler);
-    entry.modify(modifier);
-    return entry;
+    return new HoldingsEntry(region, currency, apply(amount, modifier), handler, scale);
+  }
+
+  private ScaledAmount apply(final ScaledAmount value, final HoldingsModifier modifier) {
+
+    if(modifier.getOperation() == HoldingsOperation.ADD && value.isScaled()) {
+      return value.add(modifier.asScaled(scale));
+    }
+    return ScaledAmount.of(modifier.modify(value.toBigDecimal()), scale);
   }
 
   public Optional<Currency> currency() {
@@ -122,6 +170,8 @@ public class HoldingsEntry {
   public void setCurrency(final UUID currency) {
 
     this.currency = currency;
+    this.scale = scale(currency);
+    this.amount = ScaledAmount.of(amount.toBigDecimal(), scale);
   }
 
   public String getRegion() {
@@ -136,23 +186,36 @@ public class HoldingsEntry {
 
   public BigDecimal getAmount() {
 
+    return amount.toBigDecimal();
+  }
+
+  /**
+   * The amount of this entry, as a {@link ScaledAmount}.
+   *
+   * @return The amount.
+   */
+  public ScaledAmount scaled() {
+
     return amount;
   }
 
   public void setAmount(final BigDecimal amount) {
 
-    this.amount = amount;
-    final Optional<Currency> cur = currency();
-    monetary = new Monetary(amount, cur.map(Currency::getDecimalPlaces).orElse(2));
+    this.amount = ScaledAmount.of(amount, scale);
+    this.dirty = true;
   }
 
   public Monetary asMonetary() {
 
-    if(monetary != null) {
-      return monetary;
+    final ScaledAmount current = amount;
+    final Split cached = split;
+    if(cached != null && cached.amount() == current) {
+      return cached.monetary();
     }
-    final Optional<Currency> cur = currency();
-    monetary = new Monetary(amount, cur.map(Currency::getDecimalPlaces).orElse(2));
+
+    final Monetary monetary = (current.isScaled())? new Monetary(current)
+                                                  : new Monetary(current.toBigDecimal(), (scale >= 0)? scale : 2);
+    split = new Split(current, monetary);
     return monetary;
   }
 
@@ -165,4 +228,32 @@ public class HoldingsEntry {
 
     this.handler = handler;
   }
-}
\ No newline at end of file
+
+  public boolean isDirty() {
+
+    return dirty;
+  }
+
+  public void markDirty() {
+
+    dirty = true;
+  }
+
+  public void clearDirty() {
+
+    dirty = false;
+  }
+
+  private static int scale(final UUID currency) {
+
+    final Optional<Currency> cur = TNECore.eco().currency().find(currency);
+    return cur.map(Currency::getDecimalPlaces).orElse(-1);
+  }
+
+  /**
+   * The {@link Monetary} split of an amount, kept with the amount it was made from.
+   */
+  private record Split(ScaledAmount amount, Monetary monetary) {
+
+  }
+}
@@ -106,4 +106,20 @@ public class RegionHoldings {
 
     return holdings.containsKey(currency);
   }
+
+  /**
+   * Used to determine if any of the holdings in this region have changed since they were last
+   * written to storage.
+   *
+   * @return True if any currency holdings are dirty, otherwise false.
+   */
+  public boolean isDirty() {
+
+    for(final CurrencyHoldings currency : holdings.values()) {
+      if(currency.isDirty()) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
\ No newline at end of file
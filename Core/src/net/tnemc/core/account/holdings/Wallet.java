@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -39,6 +40,11 @@ import java.util.concurrent.ConcurrentHashMap;
 public class Wallet {
 
   private final Map<String, RegionHoldings> holdings = new ConcurrentHashMap<>();
+
+  //entries deleted since the last write, so storage knows to remove them.
+  private final Set<HoldingsChangeset.Tombstone> tombstones = ConcurrentHashMap.newKeySet();
+
+  //set until the wallet is first stored, changes after that are tracked by the entries and tombstones.
   private volatile boolean dirty = true;
 
   /**
@@ -152,8 +158,10 @@ public class Wallet {
    */
   public void deleteHoldings(final @NotNull String region) {
 
-    holdings.remove(region);
-    dirty = true;
+    final RegionHoldings removed = holdings.remove(region);
+    if(removed != null) {
+      bury(region, removed);
+    }
   }
 
   /**
@@ -165,8 +173,11 @@ public class Wallet {
   public void deleteHoldings(final @NotNull String region, final @NotNull UUID currency) {
 
     if(holdings.containsKey(region)) {
-      holdings.get(region).getHoldings().remove(currency);
-      dirty = true;
+
+      final CurrencyHoldings removed = holdings.get(region).getHoldings().remove(currency);
+      if(removed != null) {
+        bury(region, currency, removed);
+      }
     }
   }
 
@@ -182,16 +193,33 @@ public class Wallet {
                              final @NotNull Identifier type) {
 
     if(holdings.containsKey(region) && holdings.get(region).getHoldings().containsKey(currency)) {
-      holdings.get(region).getHoldings().get(currency).getHoldings().remove(type.asID());
-      dirty = true;
+      if(holdings.get(region).getHoldings().get(currency).getHoldings().remove(type.asID()) != null) {
+        tombstones.add(new HoldingsChangeset.Tombstone(region, currency, type.asID()));
+      }
     }
   }
 
   //delete all holdings
   public void deleteAllHoldings() {
 
+    for(final Map.Entry<String, RegionHoldings> region : holdings.entrySet()) {
+      bury(region.getKey(), region.getValue());
+    }
     holdings.clear();
-    dirty = true;
+  }
+
+  private void bury(final @NotNull String region, final @NotNull RegionHoldings removed) {
+
+    for(final Map.Entry<UUID, CurrencyHoldings> currency : removed.getHoldings().entrySet()) {
+      bury(region, currency.getKey(), currency.getValue());
+    }
+  }
+
+  private void bury(final @NotNull String region, final @NotNull UUID currency, final @NotNull CurrencyHoldings removed) {
+
+    for(final String handler : removed.getHoldings().keySet()) {
+      tombstones.add(new HoldingsChangeset.Tombstone(region, currency, handler));
+    }
   }
 
   /**
@@ -269,16 +297,94 @@ public class Wallet {
     regionHoldings.setHoldingsEntry(entry, entry.getHandler());
 
     holdings.put(entry.getRegion(), regionHoldings);
-    dirty = true;
+    tombstones.remove(new HoldingsChangeset.Tombstone(entry.getRegion(), entry.getCurrency(), entry.getHandler().asID()));
+  }
+
+  /**
+   * Used to determine if any holdings have been changed or deleted since they were last written to
+   * storage.
+   *
+   * @return True if there are changes to write, otherwise false.
+   */
+  public boolean hasChanges() {
+
+    if(!tombstones.isEmpty()) {
+      return true;
+    }
+
+    for(final RegionHoldings region : holdings.values()) {
+      if(region.isDirty()) {
+        return true;
+      }
+    }
+    return false;
   }
 
+  /**
+   * Collects the holdings that have been changed or deleted since the last call, and marks them as
+   * written. Anything changed after this is called shows up in the next changeset.
+   *
+   * @return The {@link HoldingsChangeset changes} to write.
+   */
+  public HoldingsChangeset drainChanges() {
+
+    final List<HoldingsChangeset.Tombstone> removed = new ArrayList<>();
+    for(final HoldingsChangeset.Tombstone tombstone : tombstones) {
+      if(tombstones.remove(tombstone)) {
+        removed.add(tombstone);
+      }
+    }
+
+    final List<HoldingsEntry> modified = new ArrayList<>();
+    for(final RegionHoldings region : holdings.values()) {
+      for(final CurrencyHoldings currency : region.getHoldings().values()) {
+        for(final HoldingsEntry entry : currency.getHoldings().values()) {
+
+          if(entry.isDirty()) {
+            entry.clearDirty();
+            modified.add(entry);
+          }
+        }
+      }
+    }
+    return new HoldingsChangeset(modified, removed);
+  }
+
+  /**
+   * Marks the holdings for a region and currency as written, without collecting them.
+   *
+   * @param region   The region of the holdings.
+   * @param currency The currency of the holdings.
+   */
+  public void clearDirty(final @NotNull String region, final @NotNull UUID currency) {
+
+    final RegionHoldings regionHoldings = holdings.get(region);
+    if(regionHoldings != null && regionHoldings.getHoldings().containsKey(currency)) {
+      for(final HoldingsEntry entry : regionHoldings.getHoldings().get(currency).getHoldings().values()) {
+        entry.clearDirty();
+      }
+    }
+  }
+
+  /**
+   * Used to determine if this wallet has anything that hasn't been written to storage yet.
+   *
+   * @return True if the wallet hasn't been stored, or has changes to write, otherwise false.
+   */
   public boolean isDirty() {
 
-    return dirty;
+    return dirty || hasChanges();
   }
 
+  /**
+   * Marks this wallet, and every entry in it, as written. Pending deletions are kept until they're
+   * collected with {@link #drainChanges()}.
+   */
   public void clearDirty() {
 
     dirty = false;
+    for(final HoldingsEntry entry : entryList()) {
+      entry.clearDirty();
+    }
   }
 }
@@ -94,6 +94,7 @@ public class EnderChestHandler implements HoldingsHandler {
                                                                          .get().inventory().getInventory(true),
                                                                  ((PlayerAccount)account).getUUID());
       TNECore.instance().itemCalculations().setItems(data, amount);
+      TNECore.eco().itemCache().put(account.getIdentifier(), currency.getUid(), true, amount);
       return true;
     }
     return true;
@@ -133,14 +134,21 @@ public class EnderChestHandler implements HoldingsHandler {
                                  BigDecimal.ZERO,
                                  identifier());
       }
+      final Optional<BigDecimal> cached = TNECore.eco().itemCache().get(account.getIdentifier(), currency.getUid(), true);
+      if(cached.isPresent()) {
+        return new HoldingsEntry(region, currency.getUid(), cached.get(), identifier());
+      }
+
       PluginCore.log().debug("Getting holdings from Ender Chest", DebugLevel.DEVELOPER);
       final CalculationData<Object> data = new CalculationData<>((ItemCurrency)currency,
                                                                  ((PlayerAccount)account).getPlayer()
                                                                          .get().inventory().getInventory(true),
                                                                  ((PlayerAccount)account).getUUID());
 
-      return new HoldingsEntry(region, currency.getUid(),
-                               TNECore.instance().itemCalculations().calculateHoldings(data), identifier());
+      final BigDecimal holdings = TNECore.instance().itemCalculations().calculateHoldings(data);
+      TNECore.eco().itemCache().put(account.getIdentifier(), currency.getUid(), true, holdings);
+
+      return new HoldingsEntry(region, currency.getUid(), holdings, identifier());
     }
     //Non-players can't have e-chest holdings so this is always zero.
     return new HoldingsEntry(region,
@@ -90,6 +90,7 @@ public class InventoryHandler implements HoldingsHandler {
                                                                          .get().inventory().getInventory(false),
                                                                  ((PlayerAccount)account).getUUID());
       TNECore.instance().itemCalculations().setItems(data, amount);
+      TNECore.eco().itemCache().put(account.getIdentifier(), currency.getUid(), false, amount);
       return true;
     }
     return true;
@@ -130,14 +131,21 @@ public class InventoryHandler implements HoldingsHandler {
                                  BigDecimal.ZERO,
                                  identifier());
       }
+      final Optional<BigDecimal> cached = TNECore.eco().itemCache().get(account.getIdentifier(), currency.getUid(), false);
+      if(cached.isPresent()) {
+        return new HoldingsEntry(region, currency.getUid(), cached.get(), identifier());
+      }
+
       PluginCore.log().debug("Getting holdings from Inventory", DebugLevel.DEVELOPER);
       final CalculationData<Object> data = new CalculationData<>((ItemCurrency)currency,
                                                                  ((PlayerAccount)account).getPlayer()
                                                                          .get().inventory().getInventory(false),
                                                                  ((PlayerAccount)account).getUUID());
 
-      return new HoldingsEntry(region, currency.getUid(),
-                               TNECore.instance().itemCalculations().calculateHoldings(data), identifier());
+      final BigDecimal holdings = TNECore.instance().itemCalculations().calculateHoldings(data);
+      TNECore.eco().itemCache().put(account.getIdentifier(), currency.getUid(), false, holdings);
+
+      return new HoldingsEntry(region, currency.getUid(), holdings, identifier());
     }
     //not item currency? then return zero... should never happen.
     return new HoldingsEntry(region,
@@ -25,6 +25,7 @@ import net.tnemc.core.account.holdings.HoldingsEntry;
 import net.tnemc.core.command.parameters.PercentBigDecimal;
 import net.tnemc.core.currency.Currency;
 import net.tnemc.core.utils.Identifier;
+import net.tnemc.core.utils.ScaledAmount;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -46,6 +47,9 @@ public class HoldingsModifier {
   private BigDecimal modifier;
   private boolean percent = false;
 
+  //the modifier as a scaled amount, created the first time it's needed.
+  private ScaledAmount scaled;
+
   /**
    * Represents an object that may be utilized to modify an {@link Account account's} holdings. This
    * class is able to then be applied directly to the holdings of an account.
@@ -249,6 +253,7 @@ public class HoldingsModifier {
   public void modifier(final BigDecimal value) {
 
     this.modifier = normalizeModifier(modifier.add(value));
+    this.scaled = null;
   }
 
   public UUID getCurrency() {
@@ -266,6 +271,24 @@ public class HoldingsModifier {
     return modifier;
   }
 
+  /**
+   * Used to get this modifier as a {@link ScaledAmount}, which is reused for every entry it's
+   * applied to.
+   *
+   * @param scale The decimal places of the currency.
+   *
+   * @return The modifier as a scaled amount.
+   */
+  public ScaledAmount asScaled(final int scale) {
+
+    final ScaledAmount cached = scaled;
+    if(cached != null && cached.scale() == scale) {
+      return cached;
+    }
+    scaled = ScaledAmount.of(modifier, scale);
+    return scaled;
+  }
+
   public HoldingsOperation getOperation() {
 
     return operation;
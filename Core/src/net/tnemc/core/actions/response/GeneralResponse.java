@@ -85,6 +85,26 @@ public enum GeneralResponse implements EconomyResponse {
     }
   },
 
+  /**
+   * The action was unsuccessful because the accounts involved were locked by another action for
+   * too long.
+   *
+   * @since 0.1.4.3
+   */
+  BUSY {
+    @Override
+    public boolean success() {
+
+      return false;
+    }
+
+    @Override
+    public String response() {
+
+      return "The action was unsuccessful, because the account is busy. Please try again.";
+    }
+  },
+
   /**
    * The action was unsuccessful due to the Reserve implementation not supporting it.
    *
@@ -0,0 +1,176 @@
+package net.tnemc.core.api;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+import net.tnemc.core.TNECore;
+import net.tnemc.core.config.MainConfig;
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreExecution;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreTime;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the asynchronous {@link TNEAPI} operations on a small pool of TNE owned threads, so looking
+ * up accounts that aren't loaded or waiting on an account's lock never blocks the thread that asked.
+ * Results can be handed back on a scheduler thread through {@link ChoreExecution}, so callers can
+ * touch the server from their callbacks.
+ * <p>
+ * Item currencies are held in player inventories, which can only be read and changed from the
+ * server thread, so operations on them are run through {@link #supplyServer(Supplier, ChoreExecution)}
+ * instead of on the economy threads.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class EconomyExecutor {
+
+  private final AtomicInteger threads = new AtomicInteger(0);
+
+  private volatile ExecutorService executor = null;
+
+  /**
+   * Reads the configuration, and starts the thread pool.
+   */
+  public void start() {
+
+    stop();
+
+    final int size = Math.max(1, MainConfig.yaml().getInt("Core.Server.Async.Threads", 2));
+    executor = Executors.newFixedThreadPool(size, runnable->{
+
+      final Thread thread = new Thread(runnable, "TNE-Economy-" + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Stops the thread pool, waiting briefly for the operations that were already submitted.
+   * Operations submitted after this are run on the calling thread.
+   */
+  public void stop() {
+
+    final ExecutorService current = executor;
+    if(current == null) {
+      return;
+    }
+    executor = null;
+
+    current.shutdown();
+    try {
+      if(!current.awaitTermination(5, TimeUnit.SECONDS)) {
+        current.shutdownNow();
+      }
+    } catch(final InterruptedException e) {
+      current.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Runs a task on the economy threads.
+   *
+   * @param task       The task to run.
+   * @param completion Where the returned future should be completed, or null to complete it on the
+   *                   economy thread that ran the task.
+   * @param <T>        The type of the result.
+   *
+   * @return A future that is completed with the result of the task.
+   */
+  public <T> CompletableFuture<T> supply(@NotNull final Supplier<T> task, @Nullable final ChoreExecution completion) {
+
+    return handoff(run(task), completion);
+  }
+
+  /**
+   * Runs a task on the server thread, used for item currencies whose holdings are kept in
+   * inventories.
+   *
+   * @param task       The task to run.
+   * @param completion Where the returned future should be completed, or null to complete it on the
+   *                   server thread that ran the task.
+   * @param <T>        The type of the result.
+   *
+   * @return A future that is completed with the result of the task.
+   */
+  public <T> CompletableFuture<T> supplyServer(@NotNull final Supplier<T> task, @Nullable final ChoreExecution completion) {
+
+    final CompletableFuture<T> work = new CompletableFuture<>();
+    PluginCore.server().scheduler().createDelayedTask(()->{
+
+      try {
+        work.complete(task.get());
+      } catch(final Exception e) {
+        work.completeExceptionally(e);
+      }
+    }, new ChoreTime(0), ChoreExecution.MAIN);
+
+    return (completion == ChoreExecution.MAIN)? work : handoff(work, completion);
+  }
+
+  private <T> CompletableFuture<T> handoff(@NotNull final CompletableFuture<T> work, @Nullable final ChoreExecution completion) {
+
+    if(completion == null) {
+      return work;
+    }
+
+    final CompletableFuture<T> handoff = new CompletableFuture<>();
+    work.whenComplete((result, error)->PluginCore.server().scheduler().createDelayedTask(()->{
+
+      if(error != null) {
+        handoff.completeExceptionally(error);
+        return;
+      }
+      handoff.complete(result);
+    }, new ChoreTime(0), completion));
+    return handoff;
+  }
+
+  private <T> CompletableFuture<T> run(@NotNull final Supplier<T> task) {
+
+    final ExecutorService current = executor;
+    if(current != null) {
+      try {
+        return CompletableFuture.supplyAsync(()->{
+
+          //wait here for the write-behind queue, before the task takes any account locks.
+          TNECore.instance().writeBehind().backpressure();
+          return task.get();
+        }, current);
+      } catch(final RejectedExecutionException e) {
+        PluginCore.log().debug("Economy executor is stopping, running the task on the calling thread.", DebugLevel.DEVELOPER);
+      }
+    }
+
+    try {
+      return CompletableFuture.completedFuture(task.get());
+    } catch(final Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+}
@@ -28,6 +28,7 @@ import net.tnemc.core.account.SharedAccount;
 import net.tnemc.core.account.holdings.HoldingsEntry;
 import net.tnemc.core.account.holdings.HoldingsHandler;
 import net.tnemc.core.account.holdings.modify.HoldingsModifier;
+import net.tnemc.core.account.holdings.modify.HoldingsOperation;
 import net.tnemc.core.actions.ActionSource;
 import net.tnemc.core.actions.EconomyResponse;
 import net.tnemc.core.actions.source.PluginSource;
@@ -38,16 +39,22 @@ import net.tnemc.core.currency.format.CurrencyFormatter;
 import net.tnemc.core.currency.format.FormatRule;
 import net.tnemc.core.transaction.Transaction;
 import net.tnemc.core.transaction.TransactionResult;
+import net.tnemc.core.transaction.bulk.BulkTransaction;
 import net.tnemc.core.utils.exceptions.InvalidTransactionException;
 import net.tnemc.plugincore.PluginCore;
 import net.tnemc.plugincore.core.api.CallbackManager;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreExecution;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.math.BigDecimal;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * The core TNE API class.
@@ -503,4 +510,307 @@ public class TNEAPI {
     }
     return false;
   }
-}
\ No newline at end of file
+
+  /**
+   * Used to get the holdings of the specified identifier without blocking the calling thread.
+   * Item currencies are run on the server thread, since their holdings are kept in inventories.
+   *
+   * @param identifier The identifier to get the holdings for.
+   * @param world      The world to use for getting the holdings.
+   * @param currency   The currency to use for getting the holdings
+   * @param completion Where the future should be completed, or null to complete it on an economy
+   *                   thread.
+   *
+   * @return A future completed with the holdings in {@link BigDecimal} format.
+   */
+  public CompletableFuture<BigDecimal> getHoldingsAsync(final String identifier, final String world, final String currency,
+                                                        @Nullable final ChoreExecution completion) {
+
+    return async(currency, ()->getHoldings(identifier, world, currency), completion);
+  }
+
+  /**
+   * Used to get the holdings of the specified identifier without blocking the calling thread. The
+   * future is completed on an economy thread.
+   * Item currencies are run, and completed, on the server thread since their holdings are kept in
+   * inventories.
+   *
+   * @param identifier The identifier to get the holdings for.
+   * @param world      The world to use for getting the holdings.
+   * @param currency   The currency to use for getting the holdings
+   *
+   * @return A future completed with the holdings in {@link BigDecimal} format.
+   */
+  public CompletableFuture<BigDecimal> getHoldingsAsync(final String identifier, final String world, final String currency) {
+
+    return getHoldingsAsync(identifier, world, currency, null);
+  }
+
+  /**
+   * Used to check if a specific identifier has an amount of holdings without blocking the calling
+   * thread.
+   * Item currencies are run on the server thread, since their holdings are kept in inventories.
+   *
+   * @param identifier The identifier to check the holdings for.
+   * @param world      The world to use for the holdings check.
+   * @param currency   The currency to use for the holdings check.
+   * @param amount     The {@link BigDecimal} amount that we need to check if the identifier has.
+   * @param completion Where the future should be completed, or null to complete it on an economy
+   *                   thread.
+   *
+   * @return A future completed with true if the specified identifier has the holdings, otherwise
+   * false.
+   */
+  public CompletableFuture<Boolean> hasHoldingsAsync(final String identifier, final String world, final String currency,
+                                                     final BigDecimal amount, @Nullable final ChoreExecution completion) {
+
+    return async(currency, ()->hasHoldings(identifier, world, currency, amount), completion);
+  }
+
+  /**
+   * Used to check if a specific identifier has an amount of holdings without blocking the calling
+   * thread. The future is completed on an economy thread.
+   * Item currencies are run, and completed, on the server thread since their holdings are kept in
+   * inventories.
+   *
+   * @param identifier The identifier to check the holdings for.
+   * @param world      The world to use for the holdings check.
+   * @param currency   The currency to use for the holdings check.
+   * @param amount     The {@link BigDecimal} amount that we need to check if the identifier has.
+   *
+   * @return A future completed with true if the specified identifier has the holdings, otherwise
+   * false.
+   */
+  public CompletableFuture<Boolean> hasHoldingsAsync(final String identifier, final String world, final String currency,
+                                                     final BigDecimal amount) {
+
+    return hasHoldingsAsync(identifier, world, currency, amount, null);
+  }
+
+  /**
+   * Used to remove a certain amount of holdings from an identifier without blocking the calling
+   * thread.
+   * Item currencies are run on the server thread, since their holdings are kept in inventories.
+   *
+   * @param identifier The identifier to use for the transaction.
+   * @param world      The world to use for the transaction.
+   * @param currency   The currency to use for the transaction.
+   * @param amount     The amount to remove.
+   * @param pluginName The name of the plugin performing this transaction.
+   * @param completion Where the future should be completed, or null to complete it on an economy
+   *                   thread.
+   *
+   * @return A future completed with the associated {@link TransactionResult result} from the
+   * transaction.
+   */
+  public CompletableFuture<TransactionResult> removeHoldingsAsync(final String identifier, final String world, final String currency,
+                                                                  final BigDecimal amount, final String pluginName,
+                                                                  @Nullable final ChoreExecution completion) {
+
+    return async(currency, ()->removeHoldings(identifier, world, currency, amount, pluginName), completion);
+  }
+
+  /**
+   * Used to remove a certain amount of holdings from an identifier without blocking the calling
+   * thread. The future is completed on an economy thread.
+   * Item currencies are run, and completed, on the server thread since their holdings are kept in
+   * inventories.
+   *
+   * @param identifier The identifier to use for the transaction.
+   * @param world      The world to use for the transaction.
+   * @param currency   The currency to use for the transaction.
+   * @param amount     The amount to remove.
+   * @param pluginName The name of the plugin performing this transaction.
+   *
+   * @return A future completed with the associated {@link TransactionResult result} from the
+   * transaction.
+   */
+  public CompletableFuture<TransactionResult> removeHoldingsAsync(final String identifier, final String world, final String currency,
+                                                                  final BigDecimal amount, final String pluginName) {
+
+    return removeHoldingsAsync(identifier, world, currency, amount, pluginName, null);
+  }
+
+  /**
+   * Used to add a certain amount of holdings to an identifier without blocking the calling thread.
+   * Item currencies are run on the server thread, since their holdings are kept in inventories.
+   *
+   * @param identifier The identifier to use for the transaction.
+   * @param world      The world to use for the transaction.
+   * @param currency   The currency to use for the transaction.
+   * @param amount     The amount to add.
+   * @param pluginName The name of the plugin performing this transaction.
+   * @param completion Where the future should be completed, or null to complete it on an economy
+   *                   thread.
+   *
+   * @return A future completed with the associated {@link TransactionResult result} from the
+   * transaction.
+   */
+  public CompletableFuture<TransactionResult> addHoldingsAsync(final String identifier, final String world, final String currency,
+                                                               final BigDecimal amount, final String pluginName,
+                                                               @Nullable final ChoreExecution completion) {
+
+    return async(currency, ()->addHoldings(identifier, world, currency, amount, pluginName), completion);
+  }
+
+  /**
+   * Used to add a certain amount of holdings to an identifier without blocking the calling thread.
+   * The future is completed on an economy thread.
+   * Item currencies are run, and completed, on the server thread since their holdings are kept in
+   * inventories.
+   *
+   * @param identifier The identifier to use for the transaction.
+   * @param world      The world to use for the transaction.
+   * @param currency   The currency to use for the transaction.
+   * @param amount     The amount to add.
+   * @param pluginName The name of the plugin performing this transaction.
+   *
+   * @return A future completed with the associated {@link TransactionResult result} from the
+   * transaction.
+   */
+  public CompletableFuture<TransactionResult> addHoldingsAsync(final String identifier, final String world, final String currency,
+                                                               final BigDecimal amount, final String pluginName) {
+
+    return addHoldingsAsync(identifier, world, currency, amount, pluginName, null);
+  }
+
+  /**
+   * Used to set the holdings of the specified identifier without blocking the calling thread.
+   * Item currencies are run on the server thread, since their holdings are kept in inventories.
+   *
+   * @param identifier The identifier to set the holdings for.
+   * @param world      The world to use for setting the holdings.
+   * @param currency   The currency to use for setting the holdings
+   * @param amount     The amount to set the holdings to.
+   * @param completion Where the future should be completed, or null to complete it on an economy
+   *                   thread.
+   *
+   * @return A future completed with true if the holdings were set, otherwise false.
+   */
+  public CompletableFuture<Boolean> setHoldingsAsync(final String identifier, final String world, final String currency,
+                                                     final BigDecimal amount, @Nullable final ChoreExecution completion) {
+
+    return async(currency, ()->setHoldings(identifier, world, currency, amount), completion);
+  }
+
+  /**
+   * Used to set the holdings of the specified identifier without blocking the calling thread. The
+   * future is completed on an economy thread.
+   * Item currencies are run, and completed, on the server thread since their holdings are kept in
+   * inventories.
+   *
+   * @param identifier The identifier to set the holdings for.
+   * @param world      The world to use for setting the holdings.
+   * @param currency   The currency to use for setting the holdings
+   * @param amount     The amount to set the holdings to.
+   *
+   * @return A future completed with true if the holdings were set, otherwise false.
+   */
+  public CompletableFuture<Boolean> setHoldingsAsync(final String identifier, final String world, final String currency,
+                                                     final BigDecimal amount) {
+
+    return setHoldingsAsync(identifier, world, currency, amount, null);
+  }
+
+  /**
+   * Runs an asynchronous operation on the economy threads, or on the server thread for item
+   * currencies, since their holdings are kept in inventories.
+   */
+  private <T> CompletableFuture<T> async(final String currency, @NotNull final Supplier<T> task, @Nullable final ChoreExecution completion) {
+
+    final boolean items = TNECore.eco().currency().find(currency).map(found->found.type().supportsItems()).orElse(false);
+    if(items) {
+      return TNECore.instance().economyExecutor().supplyServer(task, completion);
+    }
+    return TNECore.instance().economyExecutor().supply(task, completion);
+  }
+
+  /**
+   * Used to add a certain amount of holdings to every account that matches a filter. The accounts
+   * are processed off the calling thread in chunks, see {@link BulkTransaction}.
+   *
+   * @param filter     The filter deciding which accounts receive the holdings. This is called from
+   *                   TNE's bulk threads.
+   * @param world      The world to use for the transactions.
+   * @param currency   The currency to use for the transactions.
+   * @param amount     The amount to add to each account.
+   * @param pluginName The name of the plugin performing this bulk transaction.
+   *
+   * @return An Optional containing the running {@link BulkTransaction}, which may be used to follow
+   * its progress or cancel it, or an empty Optional if the currency is invalid or an item currency.
+   * Item currencies are held in inventories, which can't be changed from TNE's bulk threads.
+   */
+  public Optional<BulkTransaction> addHoldingsAll(@NotNull final Predicate<Account> filter, final String world,
+                                                  final String currency, final BigDecimal amount, final String pluginName) {
+
+    final Optional<Currency> currencyOptional = TNECore.eco().currency().find(currency);
+    if(currencyOptional.isEmpty() || currencyOptional.get().type().supportsItems()) {
+      return Optional.empty();
+    }
+
+    final BulkTransaction bulk = new BulkTransaction("give")
+            .filter(filter)
+            .modifier(new HoldingsModifier(world, currencyOptional.get().getUid(), amount))
+            .source(new PluginSource(pluginName));
+    return Optional.of(submitBulk(bulk));
+  }
+
+  /**
+   * Used to set the holdings of every account that matches a filter. The accounts are processed
+   * off the calling thread in chunks, see {@link BulkTransaction}.
+   *
+   * @param filter     The filter deciding which accounts have their holdings set. This is called
+   *                   from TNE's bulk threads.
+   * @param world      The world to use for the transactions.
+   * @param currency   The currency to use for the transactions.
+   * @param amount     The amount to set each account's holdings to.
+   * @param pluginName The name of the plugin performing this bulk transaction.
+   *
+   * @return An Optional containing the running {@link BulkTransaction}, which may be used to follow
+   * its progress or cancel it, or an empty Optional if the currency is invalid or an item currency.
+   * Item currencies are held in inventories, which can't be changed from TNE's bulk threads.
+   */
+  public Optional<BulkTransaction> setHoldingsAll(@NotNull final Predicate<Account> filter, final String world,
+                                                  final String currency, final BigDecimal amount, final String pluginName) {
+
+    final Optional<Currency> currencyOptional = TNECore.eco().currency().find(currency);
+    if(currencyOptional.isEmpty() || currencyOptional.get().type().supportsItems()) {
+      return Optional.empty();
+    }
+
+    final BulkTransaction bulk = new BulkTransaction("set")
+            .filter(filter)
+            .modifier(new HoldingsModifier(world, currencyOptional.get().getUid(), amount, HoldingsOperation.SET))
+            .source(new PluginSource(pluginName));
+    return Optional.of(submitBulk(bulk));
+  }
+
+  /**
+   * Used to start a {@link BulkTransaction}. The bulk transaction's
+   * {@link BulkTransaction#future() future} is completed once every account has been processed, or
+   * the bulk transaction was cancelled. Bulk transactions for item currencies aren't run, and their
+   * future fails right away.
+   *
+   * @param bulk The bulk transaction to start.
+   *
+   * @return The bulk transaction that was started.
+   */
+  public BulkTransaction submitBulk(@NotNull final BulkTransaction bulk) {
+
+    TNECore.instance().bulk().submit(bulk);
+    return bulk;
+  }
+
+  /**
+   * Used to find a running {@link BulkTransaction}.
+   *
+   * @param id The identifier of the bulk transaction.
+   *
+   * @return An Optional containing the bulk transaction if it's still running, otherwise an empty
+   * Optional.
+   */
+  public Optional<BulkTransaction> findBulk(@NotNull final String id) {
+
+    return TNECore.instance().bulk().find(id);
+  }
+}
@@ -0,0 +1,205 @@
+package net.tnemc.core.channel;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Encodes and decodes batched balance frames. A frame starts with a table of the regions,
+ * handlers, and origin servers it uses, followed by the updates. Account and currency identifiers
+ * are written as two longs where possible, and amounts as a scale and unscaled long when they fit.
+ * Version 1 frames carried no clock times or deltas, and are still read as unversioned updates.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class BalanceFrame {
+
+  /**
+   * Written in place of the account identifier to mark a batched payload, which single update
+   * payloads can't start with.
+   */
+  public static final String MARKER = "#tne:batch";
+
+  /**
+   * The max size of an encoded frame. Frames are sent base64 encoded through
+   * {@link java.io.DataOutput#writeUTF(String)}, which can't go over 65535 bytes, and older
+   * platforms drop plugin messages over 32766 bytes, so this leaves room for the encoding and
+   * the message header under the smaller of the two.
+   */
+  public static final int MAX_BYTES = 22000;
+
+  private static final byte VERSION = 2;
+
+  private static final byte UUID_IDENTIFIER = 1;
+  private static final byte SCALED_AMOUNT = 2;
+  private static final byte DELTA = 4;
+  private static final byte SCALED_DELTA = 8;
+
+  private BalanceFrame() {
+  }
+
+  public static byte[] encode(@NotNull final List<BalanceUpdate> updates) throws IOException {
+
+    final List<String> strings = new ArrayList<>();
+    final Map<String, Integer> table = new HashMap<>();
+    for(final BalanceUpdate update : updates) {
+      index(update.region(), strings, table);
+      index(update.handler(), strings, table);
+      index(update.origin(), strings, table);
+    }
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(bytes);
+
+    out.writeByte(VERSION);
+    out.writeShort(strings.size());
+    for(final String str : strings) {
+      out.writeUTF(str);
+    }
+
+    out.writeInt(updates.size());
+    for(final BalanceUpdate update : updates) {
+
+      final UUID id = uuid(update.identifier());
+      final boolean scaled = scaled(update.amount());
+      final boolean delta = update.delta() != null;
+
+      out.writeByte(((id != null)? UUID_IDENTIFIER : 0) | ((scaled)? SCALED_AMOUNT : 0)
+                    | ((delta)? DELTA : 0) | ((delta && scaled(update.delta()))? SCALED_DELTA : 0));
+      if(id != null) {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+      } else {
+        out.writeUTF(update.identifier());
+      }
+
+      out.writeUTF(update.name());
+      out.writeShort(table.get(update.region()));
+      out.writeShort(table.get(update.handler()));
+      out.writeLong(update.currency().getMostSignificantBits());
+      out.writeLong(update.currency().getLeastSignificantBits());
+      writeAmount(out, update.amount());
+
+      out.writeShort(table.get(update.origin()));
+      out.writeLong(update.clock());
+      if(delta) {
+        writeAmount(out, update.delta());
+      }
+    }
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  public static List<BalanceUpdate> decode(final byte[] frame) throws IOException {
+
+    final DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+
+    final byte version = in.readByte();
+    if(version < 1 || version > VERSION) {
+      throw new IOException("Unsupported balance frame version: " + version);
+    }
+
+    final String[] strings = new String[in.readUnsignedShort()];
+    for(int i = 0; i < strings.length; i++) {
+      strings[i] = in.readUTF();
+    }
+
+    final int size = in.readInt();
+    final List<BalanceUpdate> updates = new ArrayList<>(Math.max(0, Math.min(size, 4096)));
+    for(int i = 0; i < size; i++) {
+
+      final byte flags = in.readByte();
+      final String identifier = ((flags & UUID_IDENTIFIER) != 0)? new UUID(in.readLong(), in.readLong()).toString() : in.readUTF();
+      final String name = in.readUTF();
+      final String region = strings[in.readUnsignedShort()];
+      final String handler = strings[in.readUnsignedShort()];
+      final UUID currency = new UUID(in.readLong(), in.readLong());
+      final BigDecimal amount = readAmount(in, (flags & SCALED_AMOUNT) != 0);
+
+      String origin = "";
+      long clock = 0L;
+      BigDecimal delta = null;
+      if(version >= 2) {
+        origin = strings[in.readUnsignedShort()];
+        clock = in.readLong();
+        if((flags & DELTA) != 0) {
+          delta = readAmount(in, (flags & SCALED_DELTA) != 0);
+        }
+      }
+      updates.add(new BalanceUpdate(identifier, name, region, currency, handler, amount, origin, clock, delta));
+    }
+    return updates;
+  }
+
+  private static boolean scaled(final BigDecimal amount) {
+
+    return amount.unscaledValue().bitLength() < 64 && amount.scale() >= Byte.MIN_VALUE && amount.scale() <= Byte.MAX_VALUE;
+  }
+
+  private static void writeAmount(final DataOutputStream out, final BigDecimal amount) throws IOException {
+
+    if(scaled(amount)) {
+      out.writeByte(amount.scale());
+      out.writeLong(amount.unscaledValue().longValue());
+    } else {
+      out.writeUTF(amount.toPlainString());
+    }
+  }
+
+  private static BigDecimal readAmount(final DataInputStream in, final boolean scaled) throws IOException {
+
+    if(scaled) {
+      final int scale = in.readByte();
+      return new BigDecimal(BigInteger.valueOf(in.readLong()), scale);
+    }
+    return new BigDecimal(in.readUTF());
+  }
+
+  private static void index(final String str, final List<String> strings, final Map<String, Integer> table) {
+
+    if(!table.containsKey(str)) {
+      table.put(str, strings.size());
+      strings.add(str);
+    }
+  }
+
+  private static UUID uuid(final String identifier) {
+
+    try {
+      final UUID id = UUID.fromString(identifier);
+      return (id.toString().equals(identifier))? id : null;
+    } catch(final IllegalArgumentException ignore) {
+      return null;
+    }
+  }
+}
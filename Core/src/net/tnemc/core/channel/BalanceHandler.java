@@ -24,6 +24,7 @@ import net.tnemc.core.TNECore;
 import net.tnemc.core.account.Account;
 import net.tnemc.core.account.holdings.HoldingsEntry;
 import net.tnemc.core.api.response.AccountAPIResponse;
+import net.tnemc.core.manager.TransactionManager;
 import net.tnemc.core.utils.Identifier;
 import net.tnemc.plugincore.PluginCore;
 import net.tnemc.plugincore.core.channel.ChannelBytesWrapper;
@@ -31,6 +32,7 @@ import net.tnemc.plugincore.core.channel.ChannelMessageHandler;
 import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
 
 import java.math.BigDecimal;
+import java.util.Base64;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -60,6 +62,29 @@ public class BalanceHandler extends ChannelMessageHandler {
     out.writeUTF(amount.toPlainString());
 
     TNECore.instance().storage().sendProxyMessage("tne:balance", out.toByteArray());
+    TNECore.metrics().counter("tne_sync_messages_total", "Balance sync messages sent, received, and dropped.", "direction", "sent").increment();
+  }
+
+  /**
+   * Sends a batched balance frame, see {@link BalanceFrame}. The frame is carried as a single
+   * base64 field after the batch marker.
+   *
+   * @param frame The encoded frame, at most {@link BalanceFrame#MAX_BYTES} long.
+   */
+  public static void sendBatch(final byte[] frame) {
+
+    if(frame.length > BalanceFrame.MAX_BYTES) {
+      throw new IllegalArgumentException("Balance frame is too large to send: " + frame.length + " bytes.");
+    }
+
+    final ByteArrayDataOutput out = ByteStreams.newDataOutput();
+    out.writeUTF(PluginCore.instance().getServerID().toString());
+    ChannelSecurity.writeToken(out);
+    out.writeUTF(BalanceFrame.MARKER);
+    out.writeUTF(Base64.getEncoder().encodeToString(frame));
+
+    TNECore.instance().storage().sendProxyMessage("tne:balance", out.toByteArray());
+    TNECore.metrics().counter("tne_sync_messages_total", "Balance sync messages sent, received, and dropped.", "direction", "sent").increment();
   }
 
   @Override
@@ -67,10 +92,20 @@ public class BalanceHandler extends ChannelMessageHandler {
 
     try {
       if(!ChannelSecurity.validate(wrapper, "balance")) {
+        TNECore.metrics().counter("tne_sync_messages_total", "Balance sync messages sent, received, and dropped.", "direction", "dropped").increment();
         return;
       }
+      TNECore.metrics().counter("tne_sync_messages_total", "Balance sync messages sent, received, and dropped.", "direction", "received").increment();
 
       final String accountID = wrapper.readUTF();
+      if(BalanceFrame.MARKER.equals(accountID)) {
+
+        for(final BalanceUpdate update : BalanceFrame.decode(Base64.getDecoder().decode(wrapper.readUTF()))) {
+          apply(update);
+        }
+        return;
+      }
+
       final String accountName = wrapper.readUTF();
       final String region = wrapper.readUTF();
       final Optional<UUID> currency = wrapper.readUUID();
@@ -78,28 +113,62 @@ public class BalanceHandler extends ChannelMessageHandler {
       final Optional<BigDecimal> amountOPT = wrapper.readBigDecimal();
 
       if(amountOPT.isPresent() && currency.isPresent()) {
+        apply(new BalanceUpdate(accountID, accountName, region, currency.get(), handler, amountOPT.get(), "", 0L, null));
+      }
 
-        Optional<Account> account = TNECore.eco().account().findAccount(accountID);
-        if(account.isEmpty()) {
-          final AccountAPIResponse response = TNECore.eco().account().createAccount(accountID, accountName);
-          if(response.getResponse().success()) {
-            account = response.getAccount();
-          }
-        }
+    } catch(Exception e) {
+      PluginCore.log().error("Issue with balance plugin message handler.", e, DebugLevel.STANDARD);
+    }
+  }
+
+  private void apply(final BalanceUpdate update) {
+
+    Optional<Account> account = TNECore.eco().account().findAccount(update.identifier());
+    if(account.isEmpty()) {
+      final AccountAPIResponse response = TNECore.eco().account().createAccount(update.identifier(), update.name());
+      if(response.getResponse().success()) {
+        account = response.getAccount();
+      }
+    }
+
+    if(account.isEmpty()) {
+      return;
+    }
 
-        if(account.isPresent()) {
-          PluginCore.instance().getChannelMessageManager().addAccount(accountID);
+    //a transaction could change the holdings between reading them and applying the update.
+    final UUID identifier = account.get().getIdentifier();
+    if(!TransactionManager.locks().lock(identifier, null)) {
+      PluginCore.log().debug("Unable to lock account for balance update: " + update.key(), DebugLevel.STANDARD);
+      TNECore.metrics().counter("tne_sync_updates_total", "Balance updates received through sync.", "result", "busy").increment();
+      return;
+    }
+
+    try {
 
-          final Identifier type = Identifier.fromID(handler);
+      final Identifier type = Identifier.fromID(update.handler());
 
-          final HoldingsEntry entry = new HoldingsEntry(region, currency.get(),
-                                                        amountOPT.get(), type);
-          account.get().setHoldings(entry, type);
+      BigDecimal current = BigDecimal.ZERO;
+      if(update.delta() != null) {
+        for(final HoldingsEntry entry : account.get().getHoldings(update.region(), update.currency(), type)) {
+          current = current.add(entry.getAmount());
         }
       }
 
-    } catch(Exception e) {
-      PluginCore.log().error("Issue with balance plugin message handler.", e, DebugLevel.STANDARD);
+      //drop updates that are older than, or the same as, what we already have.
+      final BigDecimal amount = TNECore.instance().balanceSync().versions().resolve(update, current);
+      if(amount == null) {
+        PluginCore.log().debug("Dropped stale balance update for " + update.key() + " from " + update.origin(), DebugLevel.DETAILED);
+        TNECore.metrics().counter("tne_sync_updates_total", "Balance updates received through sync.", "result", "stale").increment();
+        return;
+      }
+
+      PluginCore.instance().getChannelMessageManager().addAccount(update.identifier());
+
+      final HoldingsEntry entry = new HoldingsEntry(update.region(), update.currency(), amount, type);
+      account.get().setHoldings(entry, type);
+      TNECore.metrics().counter("tne_sync_updates_total", "Balance updates received through sync.", "result", "applied").increment();
+    } finally {
+      TransactionManager.locks().unlock(identifier, null);
     }
   }
 }
@@ -0,0 +1,206 @@
+package net.tnemc.core.channel;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.config.DataConfig;
+import net.tnemc.core.utils.Identifier;
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
+import net.tnemc.plugincore.core.compatibility.scheduler.Chore;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreExecution;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreTime;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects outgoing balance updates for a short window, and sends them to the other servers in
+ * batched frames. Only the latest update for each account, region, currency, and handler is sent,
+ * so a burst of changes to the same balance results in a single update. Batched updates are
+ * stamped with a version, see {@link BalanceVersions}.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class BalanceSyncBuffer {
+
+  //account identifier:region:currency:handler -> latest update
+  private final Map<String, BalanceUpdate> pending = new ConcurrentHashMap<>();
+
+  private final AtomicBoolean scheduled = new AtomicBoolean(false);
+  private final BalanceVersions versions = new BalanceVersions();
+
+  private Chore<?> pruner = null;
+
+  private volatile boolean active = false;
+  private volatile boolean deltas = false;
+  private volatile int window = 2;
+  private volatile int maxEntries = 250;
+
+  /**
+   * Reads the configuration, starts compacting the versions of quiet balances, and starts batching
+   * if it's enabled.
+   */
+  public void start() {
+
+    stop();
+
+    //batched updates from other servers are versioned even if this server doesn't batch its own.
+    final int quiet = Math.max(1, DataConfig.yaml().getInt("Data.Sync.Batch.Quiet", 300));
+    pruner = PluginCore.server().scheduler().createRepeatingTask(()->versions.prune(TimeUnit.SECONDS.toMillis(quiet)),
+                                                                 new ChoreTime(quiet, TimeUnit.SECONDS),
+                                                                 new ChoreTime(quiet, TimeUnit.SECONDS),
+                                                                 ChoreExecution.SECONDARY);
+
+    if(!DataConfig.yaml().getBoolean("Data.Sync.Batch.Enabled", true)) {
+      return;
+    }
+
+    window = Math.max(0, DataConfig.yaml().getInt("Data.Sync.Batch.Window", 2));
+    maxEntries = Math.min(1000, Math.max(1, DataConfig.yaml().getInt("Data.Sync.Batch.MaxEntries", 250)));
+    deltas = DataConfig.yaml().getBoolean("Data.Sync.Batch.Deltas", false);
+    active = true;
+  }
+
+  /**
+   * Stops batching, and sends anything still pending.
+   */
+  public void stop() {
+
+    active = false;
+    if(pruner != null) {
+      pruner.cancel();
+      pruner = null;
+    }
+    flush();
+  }
+
+  public boolean active() {
+
+    return active;
+  }
+
+  /**
+   * Queues a balance update to be sent to the other servers. If batching isn't active the update
+   * is sent on its own like before.
+   *
+   * @param identifier The identifier of the account.
+   * @param name       The name of the account.
+   * @param region     The region of the holdings.
+   * @param currency   The identifier of the currency.
+   * @param handler    The holdings handler.
+   * @param amount     The new balance.
+   */
+  public void queue(@NotNull final String identifier, @NotNull final String name, @NotNull final String region,
+                    @NotNull final UUID currency, @NotNull final Identifier handler, @NotNull final BigDecimal amount) {
+
+    if(!active) {
+      PluginCore.server().scheduler().createDelayedTask(()->{
+        BalanceHandler.send(identifier, name, region, currency, handler, amount);
+      }, new ChoreTime(1), ChoreExecution.SECONDARY);
+      return;
+    }
+
+    final String origin = PluginCore.instance().getServerID().toString();
+    final String key = BalanceUpdate.key(identifier, region, currency, handler.asID());
+    final BalanceVersions.Stamp stamp = versions.local(key, origin, amount);
+
+    final BalanceUpdate update = new BalanceUpdate(identifier, name, region, currency, handler.asID(), amount,
+                                                   origin, stamp.clock(), (deltas)? stamp.delta() : null);
+    pending.merge(key, update, BalanceUpdate::merge);
+
+    if(scheduled.compareAndSet(false, true)) {
+      PluginCore.server().scheduler().createDelayedTask(this::flush, new ChoreTime(window), ChoreExecution.SECONDARY);
+    }
+  }
+
+  public BalanceVersions versions() {
+
+    return versions;
+  }
+
+  public int pending() {
+
+    return pending.size();
+  }
+
+  /**
+   * Sends every pending update.
+   */
+  public synchronized void flush() {
+
+    scheduled.set(false);
+    if(pending.isEmpty()) {
+      return;
+    }
+
+    final List<BalanceUpdate> frame = new ArrayList<>();
+    for(final Map.Entry<String, BalanceUpdate> entry : pending.entrySet()) {
+
+      if(!pending.remove(entry.getKey(), entry.getValue())) {
+        continue;
+      }
+      frame.add(entry.getValue());
+
+      if(frame.size() >= maxEntries) {
+        send(frame);
+        frame.clear();
+      }
+    }
+
+    if(!frame.isEmpty()) {
+      send(frame);
+    }
+  }
+
+  /**
+   * Sends updates in one frame, splitting them in half until every frame fits in
+   * {@link BalanceFrame#MAX_BYTES}.
+   */
+  private void send(final List<BalanceUpdate> updates) {
+
+    try {
+
+      final byte[] frame = BalanceFrame.encode(updates);
+      if(frame.length <= BalanceFrame.MAX_BYTES) {
+        BalanceHandler.sendBatch(frame);
+        return;
+      }
+
+      if(updates.size() == 1) {
+        PluginCore.log().warning("Dropping a balance update for " + updates.get(0).identifier() + ", it's too large to send("
+                                 + frame.length + " bytes).", DebugLevel.STANDARD);
+        return;
+      }
+
+      final int half = updates.size() / 2;
+      send(new ArrayList<>(updates.subList(0, half)));
+      send(new ArrayList<>(updates.subList(half, updates.size())));
+    } catch(final Exception e) {
+      PluginCore.log().error("Unable to send a batch of " + updates.size() + " balance updates.", e, DebugLevel.STANDARD);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package net.tnemc.core.channel;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A single balance update sent to the other servers.
+ *
+ * @param identifier The identifier of the account.
+ * @param name       The name of the account.
+ * @param region     The region of the holdings.
+ * @param currency   The identifier of the currency.
+ * @param handler    The identifier of the holdings handler.
+ * @param amount     The new balance.
+ * @param origin     The identifier of the server the change was made on.
+ * @param clock      The hybrid logical clock time of the change, or 0 if the update isn't
+ *                   versioned.
+ * @param delta      The change in balance since the last update sent for this balance, or null to
+ *                   only send the new balance.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public record BalanceUpdate(@NotNull String identifier, @NotNull String name, @NotNull String region,
+                            @NotNull UUID currency, @NotNull String handler, @NotNull BigDecimal amount,
+                            @NotNull String origin, long clock, @Nullable BigDecimal delta) {
+
+  /**
+   * The key updates are coalesced by, only the latest update for a key needs to be sent.
+   *
+   * @return The key for this update.
+   */
+  public String key() {
+
+    return key(identifier, region, currency, handler);
+  }
+
+  public static String key(final String identifier, final String region, final UUID currency, final String handler) {
+
+    return identifier + ":" + region + ":" + currency + ":" + handler;
+  }
+
+  /**
+   * Coalesces a newer update for the same balance into this one. The newer balance and time are
+   * kept, and the deltas are added together so nothing is lost.
+   *
+   * @param newer The newer update.
+   *
+   * @return The coalesced update.
+   */
+  public BalanceUpdate merge(@NotNull final BalanceUpdate newer) {
+
+    final BigDecimal merged = (delta == null || newer.delta() == null)? null : delta.add(newer.delta());
+    return new BalanceUpdate(identifier, newer.name(), region, currency, handler, newer.amount(),
+                             newer.origin(), newer.clock(), merged);
+  }
+}
@@ -0,0 +1,268 @@
+package net.tnemc.core.channel;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the version of every synced balance, so updates from other servers that arrive out of
+ * order or more than once are dropped instead of rolling a balance back.
+ * <p>
+ * Full balance updates are last-writer-wins by hybrid logical clock time, with the origin server
+ * breaking ties. Delta updates are applied once per origin, so replaying them is harmless and
+ * changes made on different servers at the same time are both kept. The clocks applied from each
+ * origin are remembered in a window of {@link #WINDOW} entries, so a delta that arrives after a
+ * later one from the same origin is still applied once. A delta older than the window can't be
+ * told apart from a replay, so its full balance is used instead if it is the newest known.
+ * <p>
+ * Balances that go quiet are {@link #prune(long) compacted}, dropping the windows and keeping only
+ * the newest time applied, so every delta from before then is treated like one older than the
+ * window. Versions are forgotten entirely once their account is evicted or deleted.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class BalanceVersions {
+
+  public static final int WINDOW = 512;
+
+  //account identifier:region:currency:handler -> version
+  private final Map<String, Version> versions = new ConcurrentHashMap<>();
+
+  private final HybridClock clock = new HybridClock();
+
+  /**
+   * Records a local change to a balance.
+   *
+   * @param key    The balance key, see {@link BalanceUpdate#key()}.
+   * @param origin This server's identifier.
+   * @param amount The new balance.
+   *
+   * @return The stamp for the change, including the delta since the last known balance if there
+   * is one.
+   */
+  public Stamp local(@NotNull final String key, @NotNull final String origin, @NotNull final BigDecimal amount) {
+
+    final long time = clock.tick();
+    final Version version = versions.computeIfAbsent(key, k->new Version());
+    synchronized(version) {
+
+      final BigDecimal delta = (version.amount == null)? null : amount.subtract(version.amount);
+      version.touched = System.currentTimeMillis();
+      version.set(time, origin, amount);
+      version.applied(origin).add(time);
+      return new Stamp(time, delta);
+    }
+  }
+
+  /**
+   * Resolves an update received from another server.
+   *
+   * @param update  The update.
+   * @param current The current balance on this server, only used for delta updates.
+   *
+   * @return The balance to set, or null if the update is stale or was already applied.
+   */
+  public @Nullable BigDecimal resolve(@NotNull final BalanceUpdate update, @NotNull final BigDecimal current) {
+
+    if(update.clock() <= 0) {
+      return update.amount();
+    }
+
+    clock.observe(update.clock());
+
+    final Version version = versions.computeIfAbsent(update.key(), k->new Version());
+    synchronized(version) {
+
+      version.touched = System.currentTimeMillis();
+      final Applied applied = version.applied(update.origin());
+      if(update.delta() != null) {
+
+        if(applied.contains(update.clock())) {
+          return null;
+        }
+
+        if(update.clock() <= applied.floor || update.clock() <= version.floor) {
+
+          //too old to know whether it was applied, fall back to the full balance
+          if(!newer(update.clock(), update.origin(), version)) {
+            return null;
+          }
+          version.set(update.clock(), update.origin(), update.amount());
+          applied.raise(update.clock());
+          return update.amount();
+        }
+
+        final BigDecimal amount = current.add(update.delta());
+        applied.add(update.clock());
+        if(newer(update.clock(), update.origin(), version)) {
+          version.set(update.clock(), update.origin(), amount);
+        } else {
+          version.amount = amount;
+        }
+        return amount;
+      }
+
+      if(!newer(update.clock(), update.origin(), version)) {
+        return null;
+      }
+
+      version.set(update.clock(), update.origin(), update.amount());
+      applied.raise(update.clock());
+      return update.amount();
+    }
+  }
+
+  /**
+   * Compacts the versions of balances that haven't changed for a while. The applied times kept for
+   * each origin are dropped, and only the newest of them is kept, so a delta from before the prune
+   * falls back to its full balance like one older than the window.
+   *
+   * @param idle The time, in milliseconds, a balance has to go without changes.
+   *
+   * @return The amount of balances that were compacted.
+   */
+  public int prune(final long idle) {
+
+    final long before = System.currentTimeMillis() - idle;
+
+    int pruned = 0;
+    for(final Version version : versions.values()) {
+      synchronized(version) {
+
+        if(version.touched > before || version.applied.isEmpty()) {
+          continue;
+        }
+
+        for(final Applied applied : version.applied.values()) {
+          version.floor = Math.max(version.floor, applied.newest());
+        }
+        version.applied.clear();
+        pruned++;
+      }
+    }
+    return pruned;
+  }
+
+  /**
+   * Forgets the versions of an account's balances, used when the account is evicted or deleted.
+   *
+   * @param identifier The account identifier.
+   */
+  public void remove(@NotNull final String identifier) {
+
+    versions.keySet().removeIf(key->key.startsWith(identifier + ":"));
+  }
+
+  public void clear() {
+
+    versions.clear();
+  }
+
+  private static boolean newer(final long clock, final String origin, final Version version) {
+
+    if(clock != version.clock) {
+      return clock > version.clock;
+    }
+    return version.origin == null || origin.compareTo(version.origin) > 0;
+  }
+
+  /**
+   * The stamp for a local change.
+   *
+   * @param clock The time of the change.
+   * @param delta The change since the last known balance, or null if it isn't known.
+   */
+  public record Stamp(long clock, @Nullable BigDecimal delta) {
+
+  }
+
+  private static class Version {
+
+    //origin -> the times applied from that origin
+    private final Map<String, Applied> applied = new HashMap<>();
+
+    //every time at or before this was compacted away, so it isn't known if they were applied
+    private long floor = 0L;
+
+    private long clock = 0L;
+    private String origin = null;
+    private BigDecimal amount = null;
+    private long touched = 0L;
+
+    void set(final long clock, final String origin, final BigDecimal amount) {
+
+      this.clock = clock;
+      this.origin = origin;
+      this.amount = amount;
+    }
+
+    Applied applied(final String origin) {
+
+      return applied.computeIfAbsent(origin, k->new Applied());
+    }
+  }
+
+  private static class Applied {
+
+    //every time at or before this was covered by a full balance from the origin
+    private long settled = 0L;
+
+    //times at or before this fell out of the window, so it isn't known if they were applied
+    private long floor = 0L;
+
+    private final TreeSet<Long> window = new TreeSet<>();
+
+    long newest() {
+
+      return Math.max(Math.max(settled, floor), (window.isEmpty())? 0L : window.last());
+    }
+
+    boolean contains(final long clock) {
+
+      return clock <= settled || window.contains(clock);
+    }
+
+    void add(final long clock) {
+
+      if(clock <= settled) {
+        return;
+      }
+      window.add(clock);
+      while(window.size() > WINDOW) {
+        floor = Math.max(floor, window.pollFirst());
+      }
+    }
+
+    void raise(final long clock) {
+
+      if(clock > settled) {
+        settled = clock;
+        window.headSet(clock, true).clear();
+      }
+    }
+  }
+}
@@ -78,6 +78,17 @@ public final class ChannelSecurity {
     return configured.trim();
   }
 
+  /**
+   * Used to determine if cross-server sync is configured, which means this server shares its data
+   * with others.
+   *
+   * @return True if the sync token has been configured.
+   */
+  public static boolean configured() {
+
+    return isConfigured(token());
+  }
+
   private static boolean isConfigured(final String token) {
 
     return !token.isEmpty()
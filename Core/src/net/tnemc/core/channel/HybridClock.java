@@ -0,0 +1,55 @@
+package net.tnemc.core.channel;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/**
+ * A hybrid logical clock. Times are the wall clock in milliseconds shifted left by 16 bits, with
+ * the low bits used as a counter, so they stay close to real time while always moving forward,
+ * and a time observed from another server is always followed by a later local time.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class HybridClock {
+
+  private static final int COUNTER_BITS = 16;
+
+  private long last = 0L;
+
+  /**
+   * Used to get the time for a local event.
+   *
+   * @return A time that's later than every time this clock has returned or observed.
+   */
+  public synchronized long tick() {
+
+    last = Math.max(last + 1, System.currentTimeMillis() << COUNTER_BITS);
+    return last;
+  }
+
+  /**
+   * Observes the time of an event from another server.
+   *
+   * @param remote The remote time.
+   */
+  public synchronized void observe(final long remote) {
+
+    last = Math.max(last, remote);
+  }
+}
@@ -24,7 +24,9 @@ import net.tnemc.core.account.AccountStatus;
 import net.tnemc.core.actions.EconomyResponse;
 import net.tnemc.core.api.response.AccountAPIResponse;
 import net.tnemc.core.manager.TransactionManager;
+import net.tnemc.core.manager.metrics.Metric;
 import net.tnemc.core.transaction.Receipt;
+import net.tnemc.core.transaction.bulk.BulkTransaction;
 import net.tnemc.core.utils.Extractor;
 import net.tnemc.plugincore.PluginCore;
 import net.tnemc.plugincore.core.compatibility.CmdSource;
@@ -34,6 +36,7 @@ import net.tnemc.plugincore.core.compatibility.scheduler.ChoreTime;
 import net.tnemc.plugincore.core.io.message.MessageData;
 import net.tnemc.plugincore.core.io.storage.StorageManager;
 
+import java.util.Collection;
 import java.util.Optional;
 
 /**
@@ -130,9 +133,72 @@ public class AdminCommand extends BaseCommand {
     sender.message(new MessageData("Messages.Admin.Extraction"));
   }
 
+  //[filter]
+  public static void onMetrics(final CmdSource<?> sender, final String filter) {
+
+    final String search = (filter.equalsIgnoreCase("all"))? "" : filter.toLowerCase();
+
+    final MessageData header = new MessageData("Messages.Admin.Metrics");
+    header.addReplacement("$filter", filter);
+    sender.message(header);
+
+    int shown = 0;
+    for(final Metric metric : TNECore.metrics().metrics()) {
+
+      if(!search.isEmpty() && !metric.name().contains(search) && !metric.labels().toLowerCase().contains(search)) {
+        continue;
+      }
+
+      final MessageData entry = new MessageData("Messages.Admin.MetricsEntry");
+      entry.addReplacement("$name", metric.name());
+      entry.addReplacement("$labels", metric.labels());
+      entry.addReplacement("$value", metric.summary());
+      sender.message(entry);
+      shown++;
+    }
+
+    if(shown == 0) {
+      sender.message(new MessageData("Messages.Admin.MetricsNone"));
+    }
+  }
+
+  public static void onBulk(final CmdSource<?> sender) {
+
+    final Collection<BulkTransaction> active = TNECore.instance().bulk().active();
+    if(active.isEmpty()) {
+      sender.message(new MessageData("Messages.Admin.BulkNone"));
+      return;
+    }
+
+    sender.message(new MessageData("Messages.Admin.Bulk"));
+    for(final BulkTransaction bulk : active) {
+
+      final MessageData entry = new MessageData("Messages.Admin.BulkEntry");
+      entry.addReplacement("$id", bulk.id());
+      entry.addReplacement("$type", bulk.type());
+      entry.addReplacement("$percent", String.valueOf(bulk.percent()));
+      entry.addReplacement("$processed", String.valueOf(bulk.processed()));
+      entry.addReplacement("$total", String.valueOf(Math.max(0, bulk.total())));
+      entry.addReplacement("$failed", String.valueOf(bulk.failed()));
+      sender.message(entry);
+    }
+  }
+
+  //<id>
+  public static void onBulkCancel(final CmdSource<?> sender, final String id) {
+
+    final Optional<BulkTransaction> bulk = TNECore.instance().bulk().find(id);
+
+    final MessageData data = new MessageData((bulk.isPresent())? "Messages.Admin.BulkCancel" : "Messages.Admin.BulkNotFound");
+    data.addReplacement("$id", id);
+    bulk.ifPresent(BulkTransaction::cancel);
+    sender.message(data);
+  }
+
   public static void onPurge(final CmdSource<?> sender) {
 
     TNECore.instance().storage().purge();
+    TNECore.instance().segments().purge();
   }
 
   public static void onReload(final CmdSource<?> sender, final String type) {
@@ -149,7 +215,7 @@ public class AdminCommand extends BaseCommand {
         TNECore.instance().config().load();
         TNECore.eco().currency().load(PluginCore.directory());
         TNECore.instance().data().load();
-        TNECore.instance().storage().loadAll(Account.class, "");
+        TNECore.eco().account().loadAccounts();
         TNECore.instance().message().load();
         formattedType = "all";
       }
@@ -162,11 +228,17 @@ public class AdminCommand extends BaseCommand {
 
   public static void onReloadDB(final CmdSource<?> sender) {
 
+    if(TNECore.instance().changeFeed().enabled()) {
+      TNECore.instance().changeFeed().reload();
+      return;
+    }
+
     TNECore.eco().account().getAccounts().clear();
-    TransactionManager.receipts().getReceipts().clear();
+    TransactionManager.receipts().clear();
 
-    TNECore.instance().storage().loadAll(Account.class, "");
+    TNECore.eco().account().loadAccounts();
     TNECore.instance().storage().loadAll(Receipt.class, "");
+    TNECore.instance().changeFeed().mark();
   }
 
   public static void onReset(final CmdSource<?> sender) {
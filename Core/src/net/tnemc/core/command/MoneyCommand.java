@@ -41,23 +41,28 @@ import net.tnemc.core.manager.top.TopPage;
 import net.tnemc.core.transaction.Receipt;
 import net.tnemc.core.transaction.Transaction;
 import net.tnemc.core.transaction.TransactionResult;
+import net.tnemc.core.transaction.bulk.BulkResult;
+import net.tnemc.core.transaction.bulk.BulkTransaction;
 import net.tnemc.core.utils.MISCUtils;
 import net.tnemc.core.utils.exceptions.InvalidTransactionException;
 import net.tnemc.item.AbstractItemStack;
 import net.tnemc.plugincore.PluginCore;
 import net.tnemc.plugincore.core.compatibility.CmdSource;
 import net.tnemc.plugincore.core.compatibility.PlayerProvider;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreExecution;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreTime;
 import net.tnemc.plugincore.core.io.message.MessageData;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static net.tnemc.core.EconomyManager.TOP_PER_PAGE;
 import static net.tnemc.core.TNECore.DEFAULT_WORLD;
@@ -322,40 +327,45 @@ public class MoneyCommand extends BaseCommand {
                                                            currency.getUid(),
                                                            parseMoney.amount());
 
-    final List<String> accounts = new ArrayList<>();
+    final String amount = CurrencyFormatter.format(null, modifier.asEntry());
+    final String giver = (sender.name() == null)? MainConfig.yaml().getString("Core.Server.Account.Name") : sender.name();
 
     final UUID sourceID = (sender.identifier().isPresent())? sender.identifier().get() : TNECore.instance().getServerAccount();
-    for(final Account account : TNECore.eco().account().getAccounts().values()) {
-
-      final Transaction transaction = new Transaction("give")
-              .to(account, modifier)
-              .source(new PlayerSource(sourceID));
-
-      final Optional<Receipt> receipt = processTransaction(sender, transaction, account.getName(), parseMoney.amount());
-      if(receipt.isPresent()) {
-
-        accounts.add(account.getName());
-
-        final MessageData msgData = new MessageData("Messages.Money.Given");
-        msgData.addReplacement("$currency", currency.getIdentifier());
-        msgData.addReplacement("$player", (sender.name() == null)? MainConfig.yaml().getString("Core.Server.Account.Name") : sender.name());
-        msgData.addReplacement("$amount", CurrencyFormatter.format(account, modifier.asEntry()));
-
-        MessageHandler.send(account.getIdentifier(), msgData.grab(account.getIdentifier()));
-        if(account.isPlayer() && ((PlayerAccount)account).isOnline()) {
-
-          final Optional<PlayerProvider> provider = ((PlayerAccount)account).getPlayer();
-
-          provider.ifPresent(playerProvider->playerProvider.message(msgData));
-        }
-      }
-    }
-
-    final MessageData data = new MessageData("Messages.Money.Gave");
-    data.addReplacement("$player", String.join(", ", accounts));
-    data.addReplacement("$currency", currency.getIdentifier());
-    data.addReplacement("$amount", CurrencyFormatter.format(null, modifier.asEntry()));
-    sender.message(data);
+    final BulkTransaction bulk = new BulkTransaction("give")
+            .modifier(modifier)
+            .source(new PlayerSource(sourceID))
+            .progress(progress(sender))
+            .result((account, result)->{
+
+              if(!result.isSuccessful()) {
+                return;
+              }
+
+              final MessageData msgData = new MessageData("Messages.Money.Given");
+              msgData.addReplacement("$currency", currency.getIdentifier());
+              msgData.addReplacement("$player", giver);
+              msgData.addReplacement("$amount", CurrencyFormatter.format(account, modifier.asEntry()));
+
+              MessageHandler.send(account.getIdentifier(), msgData.grab(account.getIdentifier()));
+              if(account.isPlayer() && ((PlayerAccount)account).isOnline()) {
+
+                final Optional<PlayerProvider> provider = ((PlayerAccount)account).getPlayer();
+
+                provider.ifPresent(playerProvider->sync(()->playerProvider.message(msgData)));
+              }
+            });
+
+    started(sender, bulk, amount);
+    run(bulk).thenAccept(result->sync(()->{
+
+      final MessageData data = new MessageData((result.cancelled())? "Messages.Money.BulkCancelled" : "Messages.Money.BulkFinished");
+      bulkReplacements(data, result.id(), result.type(), amount);
+      data.addReplacement("$total", String.valueOf(result.total()));
+      data.addReplacement("$succeeded", String.valueOf(result.succeeded()));
+      data.addReplacement("$failed", String.valueOf(result.failed()));
+      data.addReplacement("$processed", String.valueOf(result.succeeded() + result.failed()));
+      sender.message(data);
+    }));
   }
 
   public static void onGiveNote(final CmdSource<?> sender, final Account acc, final ParseMoney parseMoney, final Currency currency) {
@@ -776,32 +786,98 @@ public class MoneyCommand extends BaseCommand {
                                                            parseMoney.amount().setScale(currency.getDecimalPlaces(), RoundingMode.DOWN),
                                                            HoldingsOperation.SET);
 
+    final String amount = CurrencyFormatter.format(null, modifier.asEntry());
+    final String world = region;
+
     final UUID sourceID = (sender.identifier().isPresent())? sender.identifier().get() : TNECore.instance().getServerAccount();
-    for(final Account account : TNECore.eco().account().getAccounts().values()) {
-      final Transaction transaction = new Transaction("set")
-              .to(account, modifier)
-              .processor(EconomyManager.baseProcessor())
-              .source(new PlayerSource(sourceID));
+    final BulkTransaction bulk = new BulkTransaction("set")
+            .modifier(modifier)
+            .processor(EconomyManager.baseProcessor())
+            .source(new PlayerSource(sourceID))
+            .progress(progress(sender));
+
+    started(sender, bulk, amount);
+    run(bulk).thenAccept(result->sync(()->{
+
+      final MessageData data;
+      if(result.cancelled() || result.failed() > 0) {
+
+        data = new MessageData((result.cancelled())? "Messages.Money.BulkCancelled" : "Messages.Money.BulkFinished");
+        bulkReplacements(data, result.id(), result.type(), amount);
+        data.addReplacement("$total", String.valueOf(result.total()));
+        data.addReplacement("$succeeded", String.valueOf(result.succeeded()));
+        data.addReplacement("$failed", String.valueOf(result.failed()));
+        data.addReplacement("$processed", String.valueOf(result.succeeded() + result.failed()));
+      } else {
+
+        data = new MessageData("Messages.Money.SetAll");
+        data.addReplacement("$amount", amount);
+        data.addReplacement("$world", world);
+      }
+      sender.message(data);
+    }));
+  }
 
-      final Optional<Receipt> receipt = processTransaction(sender, transaction, account.getName(), parseMoney.amount());
+  /**
+   * Tells the sender that a bulk transaction has started.
+   */
+  private static void started(final CmdSource<?> sender, final BulkTransaction bulk, final String amount) {
 
-      if(receipt.isPresent()) {
-        final MessageData msg = new MessageData("Messages.Money.Set");
-        msg.addReplacement("$player", account.getName());
-        msg.addReplacement("$currency", currency.getIdentifier());
-        msg.addReplacement("$amount", CurrencyFormatter.format(account,
-                                                               modifier.asEntry())
-                          );
-
-        msg.addReplacements(new String[]{
-                ""
-        }, new String[]{
-
-        });
-        sender.message(msg);
-        return;
+    final MessageData data = new MessageData("Messages.Money.BulkStarted");
+    bulkReplacements(data, bulk.id(), bulk.type(), amount);
+    sender.message(data);
+  }
+
+  /**
+   * Creates a progress listener that tells the sender each time the bulk transaction passes the
+   * configured percentage step.
+   */
+  private static Consumer<BulkTransaction> progress(final CmdSource<?> sender) {
+
+    final int step = Math.max(1, Math.min(100, MainConfig.yaml().getInt("Core.Transactions.Bulk.Progress", 25)));
+    final AtomicInteger reported = new AtomicInteger(0);
+    return bulk->{
+
+      final int reached = (bulk.percent() / step) * step;
+      final int last = reported.get();
+      if(reached > last && reached < 100 && reported.compareAndSet(last, reached)) {
+
+        final MessageData data = new MessageData("Messages.Money.BulkProgress");
+        bulkReplacements(data, bulk.id(), bulk.type(), "");
+        data.addReplacement("$percent", String.valueOf(reached));
+        data.addReplacement("$processed", String.valueOf(bulk.processed()));
+        data.addReplacement("$total", String.valueOf(bulk.total()));
+        sync(()->sender.message(data));
       }
+    };
+  }
+
+  /**
+   * Runs a bulk transaction. Item currencies change player inventories, so those are run right
+   * here on the command thread instead of the bulk threads.
+   */
+  private static CompletableFuture<BulkResult> run(final BulkTransaction bulk) {
+
+    if(Transaction.items(bulk.modifier())) {
+      return TNECore.instance().bulk().runInline(bulk);
     }
+    return TNECore.instance().bulk().submit(bulk);
+  }
+
+  /**
+   * Bulk listeners are called from the bulk threads, so messages to players are sent from the
+   * server thread.
+   */
+  private static void sync(final Runnable task) {
+
+    PluginCore.server().scheduler().createDelayedTask(task, new ChoreTime(0), ChoreExecution.MAIN);
+  }
+
+  private static void bulkReplacements(final MessageData data, final String id, final String type, final String amount) {
+
+    data.addReplacement("$id", id);
+    data.addReplacement("$type", type);
+    data.addReplacement("$amount", amount);
   }
 
   public static void onSwitch(final CmdSource<?> sender, final Account account) {
@@ -69,7 +69,7 @@ public class TransactionCommand {
 
     for(final Map.Entry<Long, UUID> entry : away.get().getPage(page).entrySet()) {
 
-      final Optional<Receipt> receipt = account.get().findReceipt(entry.getValue());
+      final Optional<Receipt> receipt = away.get().findReceipt(entry.getValue()).or(()->account.get().findReceipt(entry.getValue(), entry.getKey()));
       if(receipt.isPresent()) {
 
         final MessageData awayEntry = new MessageData("Messages.Transaction.AwayEntry");
@@ -104,7 +104,7 @@ public class TransactionCommand {
 
     for(final Map.Entry<Long, UUID> entry : sorted.getPage(page).entrySet()) {
 
-      final Optional<Receipt> receipt = account.findReceipt(entry.getValue());
+      final Optional<Receipt> receipt = sorted.findReceipt(entry.getValue()).or(()->account.findReceipt(entry.getValue(), entry.getKey()));
       if(receipt.isPresent()) {
 
         String from = "None";
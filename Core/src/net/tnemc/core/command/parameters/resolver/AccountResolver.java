@@ -20,6 +20,7 @@ package net.tnemc.core.command.parameters.resolver;
 
 import net.tnemc.core.TNECore;
 import net.tnemc.core.account.Account;
+import net.tnemc.core.config.MainConfig;
 import net.tnemc.plugincore.PluginCore;
 import org.jetbrains.annotations.NotNull;
 import revxrsal.commands.autocomplete.SuggestionProvider;
@@ -30,9 +31,7 @@ import revxrsal.commands.stream.MutableStringStream;
 
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Optional;
-import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -57,10 +56,9 @@ public class AccountResolver implements ParameterType<CommandActor, Account> {
         value = context.actor().name();
         break;
       case "@r":
-        final List<Account> accounts = new ArrayList<>(TNECore.eco().account().getAccounts().values());
-
-        if(!accounts.isEmpty()) {
-          value = accounts.get(new Random().nextInt(accounts.size())).getName();
+        final Optional<String> random = TNECore.eco().account().names().random();
+        if(random.isPresent()) {
+          value = random.get();
         }
         break;
       default:
@@ -92,12 +90,12 @@ public class AccountResolver implements ParameterType<CommandActor, Account> {
       final Set<String> suggestions = new LinkedHashSet<>(onlineNames);
 
       //Matching offline account names (not online & not excluded)
-      TNECore.eco().account().getAccounts().values().stream()
-              .map(Account::getName)
-              .filter(name->name.toLowerCase().startsWith(partial))
-              .filter(name->!onlineNames.contains(name))
-              .filter(name->!TNECore.eco().account().excluded(name))
-              .forEach(suggestions::add);
+      final int limit = MainConfig.yaml().getInt("Core.Commands.SuggestionLimit", 100);
+      for(final String name : TNECore.eco().account().names().suggest(partial, limit + onlineNames.size())) {
+        if(suggestions.size() >= limit) break;
+
+        suggestions.add(name);
+      }
 
       //if("self_account".startsWith(partial) || "@s".startsWith(partial) || "@me".startsWith(partial)) {
       if("self_account".startsWith(partial)) {
@@ -0,0 +1,220 @@
+package net.tnemc.core.currency.calculations;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.TNECore;
+import net.tnemc.core.account.holdings.HoldingsEntry;
+import net.tnemc.core.config.MainConfig;
+import net.tnemc.core.manager.metrics.CacheMetric;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches the item currency holdings found in a player's inventory and ender chest, so balance reads
+ * don't rescan the inventory every time. Entries are updated when TNE sets a player's items, and
+ * invalidated by the inventory related handlers. Since other plugins may change an inventory
+ * without us knowing, entries also expire after a short configurable time.
+ * <p>
+ * Cached holdings are only served to read-only callers, such as placeholders and baltop, which
+ * read inside {@link #readOnly(Supplier)}. Everything else, including transactions and setting
+ * holdings, rescans the inventory, since a balance that feeds a change has to match the items the
+ * player actually holds.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class ItemHoldingsCache {
+
+  //true while the current thread is reading for a read-only caller, see readOnly.
+  private static final ThreadLocal<Boolean> READ_ONLY = ThreadLocal.withInitial(()->false);
+
+  //player -> currency:container -> cached holdings
+  private final Map<UUID, Map<String, Cached>> players = new ConcurrentHashMap<>();
+
+  //player -> region:currency:handler -> the holdings last handed to storage
+  private final Map<UUID, Map<String, BigDecimal>> stored = new ConcurrentHashMap<>();
+
+  private final CacheMetric metric = TNECore.metrics().cache("item");
+
+  private volatile boolean enabled = true;
+  private volatile long maxAge = 1000;
+
+  /**
+   * Reads the cache configuration, and clears everything cached.
+   */
+  public void load() {
+
+    enabled = MainConfig.yaml().getBoolean("Core.Server.ItemCache.Enabled", true);
+    maxAge = Math.max(0, MainConfig.yaml().getLong("Core.Server.ItemCache.MaxAge", 1000L));
+    players.clear();
+    stored.clear();
+  }
+
+  /**
+   * Runs a read for a caller that never changes holdings with what it reads, such as a placeholder
+   * or baltop, so cached holdings may be served to it.
+   *
+   * @param reader The read to run.
+   * @param <T>    The type of the result.
+   *
+   * @return The result of the read.
+   */
+  public <T> T readOnly(@NotNull final Supplier<T> reader) {
+
+    return scoped(true, reader);
+  }
+
+  /**
+   * Runs work that changes holdings based on what it reads, such as a transaction, so holdings are
+   * always rescanned for it, even when it's started by a read-only caller.
+   *
+   * @param work The work to run.
+   * @param <T>  The type of the result.
+   *
+   * @return The result of the work.
+   */
+  public <T> T fresh(@NotNull final Supplier<T> work) {
+
+    return scoped(false, work);
+  }
+
+  private <T> T scoped(final boolean readOnly, final Supplier<T> work) {
+
+    final boolean previous = READ_ONLY.get();
+    READ_ONLY.set(readOnly);
+    try {
+      return work.get();
+    } finally {
+      READ_ONLY.set(previous);
+    }
+  }
+
+  /**
+   * Used to get the cached holdings for a player. Nothing is returned outside of
+   * {@link #readOnly(Supplier)}.
+   *
+   * @param player   The player's identifier.
+   * @param currency The currency's identifier.
+   * @param ender    True for the ender chest, false for the inventory.
+   *
+   * @return The cached holdings, or an empty optional if nothing valid is cached.
+   */
+  public Optional<BigDecimal> get(@NotNull final UUID player, @NotNull final UUID currency, final boolean ender) {
+
+    if(!enabled || !READ_ONLY.get()) {
+      return Optional.empty();
+    }
+
+    final Map<String, Cached> cached = players.get(player);
+    if(cached == null) {
+      metric.miss();
+      return Optional.empty();
+    }
+
+    final Cached entry = cached.get(key(currency, ender));
+    if(entry == null || System.currentTimeMillis() - entry.time() > maxAge) {
+      metric.miss();
+      return Optional.empty();
+    }
+    metric.hit();
+    return Optional.of(entry.amount());
+  }
+
+  /**
+   * Caches the holdings for a player, either after a scan or after TNE has set the player's items.
+   *
+   * @param player   The player's identifier.
+   * @param currency The currency's identifier.
+   * @param ender    True for the ender chest, false for the inventory.
+   * @param amount   The holdings.
+   */
+  public void put(@NotNull final UUID player, @NotNull final UUID currency, final boolean ender, @NotNull final BigDecimal amount) {
+
+    if(enabled) {
+      players.computeIfAbsent(player, k->new ConcurrentHashMap<>()).put(key(currency, ender), new Cached(amount, System.currentTimeMillis()));
+    }
+  }
+
+  /**
+   * Invalidates everything cached for a player, so the next read rescans.
+   *
+   * @param player The player's identifier.
+   */
+  public void invalidate(@NotNull final UUID player) {
+
+    players.remove(player);
+  }
+
+  /**
+   * Invalidates the cached holdings for a currency, in both the inventory and ender chest.
+   *
+   * @param player   The player's identifier.
+   * @param currency The currency's identifier.
+   */
+  public void invalidate(@NotNull final UUID player, @NotNull final UUID currency) {
+
+    final Map<String, Cached> cached = players.get(player);
+    if(cached != null) {
+      cached.remove(key(currency, false));
+      cached.remove(key(currency, true));
+    }
+  }
+
+  /**
+   * Used to determine if item holdings differ from what was last handed to storage for a player,
+   * so autosaves only write the inventory amounts that changed. The holdings are recorded as
+   * stored if they differ.
+   *
+   * @param player The player's identifier.
+   * @param entry  The holdings.
+   *
+   * @return True if the holdings changed since they were last stored, otherwise false.
+   */
+  public boolean changed(@NotNull final UUID player, @NotNull final HoldingsEntry entry) {
+
+    final String key = entry.getRegion() + ":" + entry.getCurrency() + ":" + entry.getHandler().asID();
+    final BigDecimal previous = stored.computeIfAbsent(player, k->new ConcurrentHashMap<>()).put(key, entry.getAmount());
+    return previous == null || previous.compareTo(entry.getAmount()) != 0;
+  }
+
+  /**
+   * Forgets the holdings that were last stored for a player, used when the player leaves.
+   *
+   * @param player The player's identifier.
+   */
+  public void forget(@NotNull final UUID player) {
+
+    stored.remove(player);
+  }
+
+  private String key(final UUID currency, final boolean ender) {
+
+    return currency + (ender? ":ender" : ":inventory");
+  }
+
+  private record Cached(BigDecimal amount, long time) {
+
+  }
+}
@@ -0,0 +1,281 @@
+package net.tnemc.core.currency.format;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.account.Account;
+import net.tnemc.core.account.holdings.HoldingsEntry;
+import net.tnemc.core.currency.Currency;
+import net.tnemc.core.currency.Denomination;
+import net.tnemc.core.currency.format.impl.DecimalRule;
+import net.tnemc.core.currency.format.impl.DenomFormat;
+import net.tnemc.core.currency.format.impl.MajorAmountRule;
+import net.tnemc.core.currency.format.impl.MajorNameRule;
+import net.tnemc.core.currency.format.impl.MajorRule;
+import net.tnemc.core.currency.format.impl.MaterialRule;
+import net.tnemc.core.currency.format.impl.MinorAmountRule;
+import net.tnemc.core.currency.format.impl.MinorNameRule;
+import net.tnemc.core.currency.format.impl.MinorRule;
+import net.tnemc.core.currency.format.impl.ShortenJRule;
+import net.tnemc.core.currency.format.impl.ShortenRule;
+import net.tnemc.core.currency.format.impl.SymbolRule;
+import net.tnemc.core.currency.item.ItemDenomination;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A currency format that has been split into literal text and rule tags once, so formatting is a
+ * single pass that only invokes the rules whose tags are actually in the format.
+ * <p>
+ * Each tag is resolved by handing just the tag to the built-in rule that owns it, so the output
+ * is the same as running every rule over the whole format. Rules that aren't built-in, such as
+ * those added through the API, can't be split this way and are still run over the result in
+ * their registered order. If a format can't be compiled without changing its output, the compiled
+ * format is marked as legacy and the formatter runs every rule like it always has.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class CompiledFormat {
+
+  //The built-in rules, in the order they're registered.
+  private static final List<Class<? extends FormatRule>> BUILT_IN = List.of(
+          ShortenRule.class, ShortenJRule.class, DecimalRule.class, MajorAmountRule.class,
+          MajorNameRule.class, MajorRule.class, MinorAmountRule.class, MinorNameRule.class,
+          MinorRule.class, SymbolRule.class, MaterialRule.class, DenomFormat.class
+  );
+
+  private static final String SHORT_AMOUNT = "<short.amount>";
+
+  private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(StringBuilder::new);
+
+  private final Currency currency;
+  private final String source;
+  private final int version;
+  private final int rules;
+
+  private final List<Segment> segments = new ArrayList<>();
+  private final List<FormatRule> opaque = new ArrayList<>();
+  private boolean legacy = false;
+
+  public CompiledFormat(@NotNull final Currency currency, @NotNull final Collection<FormatRule> rules, final int version) {
+
+    this.currency = currency;
+    this.source = currency.getFormat();
+    this.version = version;
+    this.rules = rules.size();
+
+    compile(rules);
+  }
+
+  /**
+   * Used to determine if this compiled format is still valid for the specified currency.
+   *
+   * @param currency The currency being formatted.
+   * @param version  The current version of the formatter's rules.
+   *
+   * @return True if this compiled format may be used, otherwise false.
+   */
+  public boolean valid(@NotNull final Currency currency, final int version) {
+
+    return this.currency == currency && this.version == version && source.equals(currency.getFormat());
+  }
+
+  /**
+   * The amount of rules this format was compiled against.
+   *
+   * @return The amount of rules.
+   */
+  public int rules() {
+
+    return rules;
+  }
+
+  /**
+   * Formats the specified holdings.
+   *
+   * @param account The account to use for this formatting.
+   * @param entry   The holdings entry to format.
+   *
+   * @return The formatted string, or null if the format has to be run through every rule instead.
+   */
+  public @Nullable String format(@Nullable final Account account, @NotNull final HoldingsEntry entry) {
+
+    if(legacy) {
+      return null;
+    }
+
+    final StringBuilder builder = BUILDER.get();
+    builder.setLength(0);
+
+    for(final Segment segment : segments) {
+
+      if(segment.rule() == null) {
+        builder.append(segment.text());
+        continue;
+      }
+
+      final String value = segment.rule().format(account, entry, segment.text());
+
+      //A value containing a tag could be picked up by a later rule, so leave that to the old path.
+      if(!value.equals(segment.text()) && (value.indexOf('<') >= 0 || value.indexOf('>') >= 0)) {
+        return null;
+      }
+      builder.append(value);
+    }
+
+    String formatted = builder.toString();
+    for(final FormatRule rule : opaque) {
+      formatted = rule.format(account, entry, formatted);
+    }
+    return formatted;
+  }
+
+  private void compile(final Collection<FormatRule> rules) {
+
+    final Map<Class<?>, FormatRule> builtIn = new HashMap<>();
+
+    int last = -1;
+    for(final FormatRule rule : rules) {
+
+      final int index = BUILT_IN.indexOf(rule.getClass());
+      if(index < 0) {
+        opaque.add(rule);
+        continue;
+      }
+
+      //a built-in rule running after a non built-in one, or out of order, can't be compiled.
+      if(!opaque.isEmpty() || index < last) {
+        legacy = true;
+        return;
+      }
+      last = index;
+      builtIn.put(rule.getClass(), rule);
+    }
+
+    final FormatRule shorten = builtIn.get(ShortenRule.class);
+    final FormatRule shortenJ = builtIn.get(ShortenJRule.class);
+
+    //The shorten rules replace the whole format, so mirror that here.
+    String format = source;
+    FormatRule shortAmount = (shorten != null)? shorten : shortenJ;
+    if(shorten != null && format.contains(shorten.name())) {
+      format = "<symbol>" + SHORT_AMOUNT;
+    } else if(shortenJ != null && format.contains(shortenJ.name())) {
+      format = "<symbol>" + SHORT_AMOUNT;
+      shortAmount = shortenJ;
+    }
+
+    final Map<String, FormatRule> tags = new HashMap<>();
+    final FormatRule material = builtIn.get(MaterialRule.class);
+    if(material != null) {
+      for(final Denomination denomination : currency.getDenominations().values()) {
+        if(denomination instanceof final ItemDenomination item) {
+          tags.putIfAbsent("<" + item.material() + ">", material);
+        }
+      }
+    }
+    for(final FormatRule rule : builtIn.values()) {
+      if(rule.name().startsWith("<")) {
+        tags.put(rule.name(), rule);
+      }
+    }
+    if(shortAmount != null) {
+      tags.put(SHORT_AMOUNT, shortAmount);
+    }
+
+    final FormatRule denom = builtIn.get(DenomFormat.class);
+    final StringBuilder literal = new StringBuilder();
+
+    int i = 0;
+    while(i < format.length()) {
+
+      final char c = format.charAt(i);
+      final int close = (c == '<')? format.indexOf('>', i) : -1;
+      if(close < 0) {
+        literal.append(c);
+        i++;
+        continue;
+      }
+
+      final String tag = format.substring(i, close + 1);
+      FormatRule rule = tags.get(tag);
+      if(rule == null && denom != null && tag.startsWith("<" + denom.name() + ".")) {
+        rule = denom;
+      }
+
+      if(rule == null) {
+        literal.append(c);
+        i++;
+        continue;
+      }
+
+      if(!literal.isEmpty()) {
+        segments.add(new Segment(literal.toString(), null));
+        literal.setLength(0);
+      }
+      segments.add(new Segment(tag, rule));
+      i = close + 1;
+    }
+
+    if(!literal.isEmpty()) {
+      segments.add(new Segment(literal.toString(), null));
+    }
+
+    legacy = !safe();
+  }
+
+  /**
+   * Checks that no literal text could form a tag with the value of a neighbouring tag, which the
+   * old sequential replacing would have picked up.
+   */
+  private boolean safe() {
+
+    for(int i = 0; i < segments.size(); i++) {
+
+      final Segment segment = segments.get(i);
+      if(segment.rule() != null) {
+        continue;
+      }
+
+      final String text = segment.text();
+      if(i + 1 < segments.size() && text.lastIndexOf('<') > text.lastIndexOf('>')) {
+        return false;
+      }
+
+      final int close = text.indexOf('>');
+      if(i > 0 && close >= 0 && (text.indexOf('<') < 0 || text.indexOf('<') > close)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A piece of a compiled format, either literal text or a tag resolved by the specified rule.
+   */
+  private record Segment(String text, @Nullable FormatRule rule) {
+
+  }
+}
@@ -35,12 +35,17 @@ import net.tnemc.core.currency.format.impl.MinorRule;
 import net.tnemc.core.currency.format.impl.ShortenJRule;
 import net.tnemc.core.currency.format.impl.ShortenRule;
 import net.tnemc.core.currency.format.impl.SymbolRule;
+import net.tnemc.core.manager.metrics.CacheMetric;
 import net.tnemc.plugincore.PluginCore;
 
 import javax.annotation.Nullable;
 import java.math.BigDecimal;
 import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * CurrencyFormatter represents a formatter, which is responsible for converting a
@@ -52,6 +57,11 @@ public class CurrencyFormatter {
 
   protected final static LinkedHashMap<String, FormatRule> rulesMap = new LinkedHashMap<>();
 
+  //currency -> compiled format, rebuilt when the currency, its format, or the rules change.
+  private static final Map<UUID, CompiledFormat> compiled = new ConcurrentHashMap<>();
+  private static final AtomicInteger version = new AtomicInteger();
+  private static final CacheMetric FORMAT = TNECore.metrics().cache("format");
+
   static {
     addRule(new ShortenRule());
     addRule(new ShortenJRule());
@@ -71,6 +81,17 @@ public class CurrencyFormatter {
   public static void addRule(final FormatRule rule) {
 
     rulesMap.put(rule.name(), rule);
+    version.incrementAndGet();
+  }
+
+  /**
+   * Invalidates every compiled currency format, this should be called whenever the currencies are
+   * reloaded.
+   */
+  public static void invalidate() {
+
+    version.incrementAndGet();
+    compiled.clear();
   }
 
   public static String format(@Nullable final Account account, final BigDecimal amount) {
@@ -85,6 +106,13 @@ public class CurrencyFormatter {
     final Optional<Currency> currency = TNECore.eco().currency().find(entry.getCurrency());
     if(currency.isPresent()) {
 
+      final String fast = compiled(currency.get()).format(account, entry);
+      if(fast != null) {
+        FORMAT.hit();
+        return fast;
+      }
+      FORMAT.miss();
+
       format = currency.get().getFormat();
 
       for(final FormatRule rule : rulesMap.values()) {
@@ -95,6 +123,18 @@ public class CurrencyFormatter {
     return format;
   }
 
+  private static CompiledFormat compiled(final Currency currency) {
+
+    final int current = version.get();
+    CompiledFormat format = compiled.get(currency.getUid());
+    if(format == null || !format.valid(currency, current) || rulesMap.size() != format.rules()) {
+
+      format = new CompiledFormat(currency, rulesMap.values(), current);
+      compiled.put(currency.getUid(), format);
+    }
+    return format;
+  }
+
   public static LinkedHashMap<String, FormatRule> rules() {
 
     return rulesMap;
@@ -27,20 +27,44 @@ import net.tnemc.core.currency.parser.impl.RandomParseRule;
 import net.tnemc.core.currency.parser.impl.RomanParseRule;
 import net.tnemc.core.currency.parser.impl.ShortenParseRule;
 import net.tnemc.core.currency.parser.impl.SymbolParseRule;
+import org.jetbrains.annotations.Nullable;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
-import java.util.Optional;
+import java.util.List;
 import java.util.UUID;
 
 /**
  * MoneyParser
+ * <p>
+ * Input is classified in a single pass before any rule runs. Plain decimals, and decimals with a
+ * shortened suffix such as 5k, are parsed directly since none of the other built-in rules can
+ * match them, everything else runs through every rule in order. The account is only looked up
+ * once a rule that {@link ParseRule#requiresAccount() requires it} is reached.
+ * <p>
+ * Rules added through {@link #addRule} run after the built-in rules on either path. If a built-in
+ * rule is replaced, every input runs through the rules in order.
  *
  * @author creatorfromhell
  * @since 0.1.4.0
  */
 public class MoneyParser {
 
+  //Characters the roman rule picks up, anywhere in the input.
+  private static final String ROMAN = "IVXLCDM";
+
+  //Characters that change the meaning of the shorten rule's character class.
+  private static final String CLASS_SPECIAL = "^]\\-[";
+
   private final LinkedHashMap<String, ParseRule> rules = new LinkedHashMap<>();
+  private final List<ParseRule> builtIn;
+
+  private volatile ParseRule[] chain = new ParseRule[0];
+
+  //the rules added after the built-in rules, or null if a built-in rule was replaced.
+  private volatile ParseRule[] extra = null;
 
   public MoneyParser() {
 
@@ -52,6 +76,9 @@ public class MoneyParser {
     addRule(new NumericParseRule()); // scientific notation and general numerics
     addRule(new ShortenParseRule()); // 5k -> 5000
     addRule(new AmountParseRule()); // all/inventory/ender -> holdings amounts
+
+    builtIn = List.copyOf(rules.values());
+    compile();
   }
 
   /**
@@ -62,6 +89,7 @@ public class MoneyParser {
   public void addRule(final ParseRule rule) {
 
     rules.put(rule.identifier(), rule);
+    compile();
   }
 
   /**
@@ -74,16 +102,7 @@ public class MoneyParser {
    */
   public ParseMoney parse(final UUID identifier, final String region, final String input) {
 
-    final ParseMoney parseMoney = new ParseMoney(region);
-
-    final Optional<Account> accountOptional = TNECore.eco().account().findAccount(identifier);
-
-    String parsedInput = input;
-    for(final ParseRule rule : rules.values()) {
-      parsedInput = rule.apply(accountOptional.orElse(null), parseMoney, parsedInput);
-    }
-
-    return parseMoney;
+    return parse(identifier, new ParseMoney(region), input);
   }
 
   /**
@@ -96,15 +115,152 @@ public class MoneyParser {
    */
   public ParseMoney parse(final UUID identifier, final String region, final Currency currency, final String input) {
 
-    final ParseMoney parseMoney = new ParseMoney(region, currency);
+    return parse(identifier, new ParseMoney(region, currency), input);
+  }
 
-    final Optional<Account> accountOptional = TNECore.eco().account().findAccount(identifier);
+  private ParseMoney parse(final UUID identifier, final ParseMoney parseMoney, final String input) {
 
-    String parsedInput = input;
-    for(final ParseRule rule : rules.values()) {
-      parsedInput = rule.apply(accountOptional.orElse(null), parseMoney, parsedInput);
+    final ParseRule[] added = extra;
+    if(added != null) {
+
+      final String remaining = fast(parseMoney, input);
+      if(remaining != null) {
+        apply(added, identifier, parseMoney, remaining);
+        return parseMoney;
+      }
     }
 
+    apply(chain, identifier, parseMoney, input);
     return parseMoney;
   }
-}
\ No newline at end of file
+
+  private void apply(final ParseRule[] rules, final UUID identifier, final ParseMoney parseMoney, final String input) {
+
+    Account account = null;
+    boolean resolved = false;
+
+    String parsedInput = input;
+    for(final ParseRule rule : rules) {
+
+      if(!resolved && rule.requiresAccount()) {
+        account = TNECore.eco().account().findAccount(identifier).orElse(null);
+        resolved = true;
+      }
+      parsedInput = rule.apply(account, parseMoney, parsedInput);
+    }
+  }
+
+  /**
+   * Parses plain and shortened decimals without running the rules, giving the same result the
+   * built-in rules would.
+   *
+   * @return The input that's left after the built-in rules, or null if the input has to run through
+   * every rule.
+   */
+  private @Nullable String fast(final ParseMoney parseMoney, final String input) {
+
+    final Currency currency = parseMoney.currency();
+    if(currency == null || input.isEmpty() || !digit(input.charAt(0))) {
+      return null;
+    }
+
+    final String decimal = currency.getDecimal();
+    final String major = currency.getMajorSeparator();
+    final String prefixes = currency.getPrefixes();
+    if(decimal.length() != 1 || ROMAN.indexOf(decimal.charAt(0)) >= 0 || prefixes.isEmpty()
+       || (!major.isEmpty() && input.contains(major))) {
+      return null;
+    }
+
+    final char separator = decimal.charAt(0);
+    final char last = input.charAt(input.length() - 1);
+    final boolean shortened = input.length() >= 2 && prefixes.indexOf(last) >= 0;
+
+    //a suffix the roman rule would pick up, or one the shorten rule can't see, needs every rule.
+    if(ROMAN.indexOf(last) >= 0 || (!shortened && prefixes.indexOf(last) >= 0)) {
+      return null;
+    }
+
+    final int length = (shortened)? input.length() - 1 : input.length();
+    boolean point = false;
+    for(int i = 0; i < length; i++) {
+
+      final char c = input.charAt(i);
+      if(digit(c)) {
+        continue;
+      }
+
+      if(c == separator && !point) {
+        point = true;
+        continue;
+      }
+      return null;
+    }
+
+    if(!shortened) {
+
+      //the numeric rule strips the major separator after normalizing, which can eat the decimal point.
+      if(point && separator != '.' && major.indexOf('.') >= 0) {
+        return null;
+      }
+
+      //mirror the numeric rule, which normalizes the decimal separator before reading the amount.
+      parseMoney.amount(new BigDecimal((point && separator != '.')? input.replace(separator, '.') : input));
+      return input;
+    }
+
+    //the shorten rule only reads a '.' as the decimal point.
+    if(point && separator != '.') {
+      return null;
+    }
+
+    for(int i = 0; i < prefixes.length(); i++) {
+      if(CLASS_SPECIAL.indexOf(prefixes.charAt(i)) >= 0) {
+        return null;
+      }
+    }
+
+    final int exponent = (prefixes.indexOf(last) + 1) * 3;
+    final BigDecimal value = new BigDecimal(input.substring(0, length)).multiply(BigDecimal.TEN.pow(exponent))
+                                                                       .setScale(currency.getDecimalPlaces(), RoundingMode.HALF_UP);
+    parseMoney.amount(value);
+    return value.toPlainString();
+  }
+
+  /**
+   * Rebuilds the rule chain, and checks if the built-in rules are still in place so the fast path
+   * may be used.
+   */
+  private synchronized void compile() {
+
+    final ParseRule[] compiled = rules.values().toArray(new ParseRule[0]);
+
+    ParseRule[] added = null;
+    if(builtIn != null && compiled.length >= builtIn.size()) {
+
+      boolean intact = true;
+      for(int i = 0; i < builtIn.size(); i++) {
+        if(compiled[i] != builtIn.get(i)) {
+          intact = false;
+          break;
+        }
+      }
+
+      if(intact) {
+        final List<ParseRule> after = new ArrayList<>();
+        for(int i = builtIn.size(); i < compiled.length; i++) {
+          after.add(compiled[i]);
+        }
+        added = after.toArray(new ParseRule[0]);
+      }
+    }
+
+    chain = compiled;
+    extra = added;
+  }
+
+  private static boolean digit(final char c) {
+
+    return c >= '0' && c <= '9';
+  }
+}
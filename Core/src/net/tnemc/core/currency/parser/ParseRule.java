@@ -43,4 +43,16 @@ public interface ParseRule {
    * @return A String after applying the rules to the input string based on the ParseMoney object.
    */
   String apply(Account account, ParseMoney parseMoney, String input);
+
+  /**
+   * Used to determine if this rule needs the account of the player that's parsing, such as rules
+   * that resolve amounts from holdings. The account is only looked up if a rule that needs it is
+   * reached.
+   *
+   * @return True if this rule uses the account passed to {@link #apply}, otherwise false.
+   */
+  default boolean requiresAccount() {
+
+    return true;
+  }
 }
\ No newline at end of file
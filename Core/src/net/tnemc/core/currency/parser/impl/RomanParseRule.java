@@ -58,6 +58,17 @@ public class RomanParseRule implements ParseRule {
     return "roman";
   }
 
+  /**
+   * This rule doesn't use the account.
+   *
+   * @return False, since this rule only works with the input.
+   */
+  @Override
+  public boolean requiresAccount() {
+
+    return false;
+  }
+
   /**
    * Applies the given parse money object to the input string according to the specified rules.
    *
@@ -48,6 +48,17 @@ public class SymbolParseRule implements ParseRule {
     return "symbol";
   }
 
+  /**
+   * This rule doesn't use the account.
+   *
+   * @return False, since this rule only works with the input.
+   */
+  @Override
+  public boolean requiresAccount() {
+
+    return false;
+  }
+
   @Override
   public String apply(final Account account, final ParseMoney parseMoney, final String input) {
 
@@ -50,6 +50,10 @@ public class ItemCraftHandler {
 
     if(currencyOptional.get() instanceof final ItemCurrency itemCurrency) {
 
+      //the craft will change how much of this currency the player is holding.
+      if(!itemCurrency.blockCraft()) {
+        TNECore.eco().itemCache().invalidate(provider.identifier(), itemCurrency.getUid());
+      }
       return new HandlerResponse("found, returning value", itemCurrency.blockCraft());
     }
 
@@ -47,6 +47,9 @@ public class PlayerCloseEChestHandler {
    */
   public HandlerResponse handle(final PlayerProvider provider) {
 
+    //items may have been moved between the inventory and ender chest, so rescan both.
+    TNECore.eco().itemCache().invalidate(provider.identifier());
+
     final Optional<Account> account = TNECore.eco().account().findAccount(provider.identifier());
     if(account.isPresent()) {
 
@@ -34,8 +34,6 @@ import net.tnemc.core.transaction.history.AwayHistory;
 import net.tnemc.core.utils.MISCUtils;
 import net.tnemc.plugincore.PluginCore;
 import net.tnemc.plugincore.core.compatibility.PlayerProvider;
-import net.tnemc.plugincore.core.compatibility.scheduler.ChoreExecution;
-import net.tnemc.plugincore.core.compatibility.scheduler.ChoreTime;
 import net.tnemc.plugincore.core.id.UUIDPair;
 import net.tnemc.plugincore.core.io.message.MessageData;
 import net.tnemc.plugincore.core.utils.HandlerResponse;
@@ -65,6 +63,9 @@ public class PlayerJoinHandler {
 
     PluginCore.log().debug("Player Join ID: " + provider.identifier());
 
+    //start from a fresh scan, the holdings read below fill the item cache again.
+    TNECore.eco().itemCache().invalidate(provider.identifier());
+
     //we have to hardcode this UUID since MoDispenserMechanics fires the join event with their fake player....
     if(provider.identifier().toString().equalsIgnoreCase("657912a8-aa0e-3f17-aff5-a41f440e710c")) {
       return response;
@@ -84,6 +85,7 @@ public class PlayerJoinHandler {
 
         final String newName = oldAccount.get().getName() + "_old";
         oldAccount.get().setName(newName);
+        TNECore.eco().account().names().add(oldAccount.get().getIdentifier().toString(), newName);
         TNECore.eco().account().uuidProvider().store(new UUIDPair(provider.identifier(), newName));
       }
 
@@ -126,6 +128,7 @@ public class PlayerJoinHandler {
       //the player has a new name
       if(!acc.get().getName().equalsIgnoreCase(provider.getName())) {
         acc.get().setName(provider.getName());
+        TNECore.eco().account().names().add(acc.get().getIdentifier().toString(), provider.getName());
 
         TNECore.eco().account().uuidProvider().store(new UUIDPair(provider.identifier(), provider.getName()));
       }
@@ -197,14 +200,14 @@ public class PlayerJoinHandler {
       }
       TNECore.eco().account().getLoading().remove(id);
 
-      PluginCore.server().scheduler().createDelayedTask(()->{
+      TNECore.instance().storageExecutor().submit(acc.get().getIdentifier(), ()->{
 
         final Optional<AwayHistory> away = acc.get().away(((PlayerAccount)acc.get()).getUUID());
         if(away.isPresent()) {
           provider.message(new MessageData("Messages.Transaction.AwayJoin"));
         }
 
-      }, new ChoreTime(0), ChoreExecution.SECONDARY);
+      });
 
       if(provider.hasPermission("tne.admin.update")) {
         if(MainConfig.yaml().getBoolean("Core.Update.Notify") && TNECore.instance().update() != null) {
@@ -231,13 +234,19 @@ public class PlayerJoinHandler {
 
           if(MISCUtils.isTimeDifferenceGreaterOrEqual(new Date(TNECore.eco().getReloadTime()), DataConfig.yaml().getInt("Data.Sync.Reload.Time", 120))) {
 
-            TNECore.eco().account().getAccounts().clear();
-            TransactionManager.receipts().getReceipts().clear();
+            //only pull in what changed, off the main thread, when the change feed is available.
+            if(TNECore.instance().changeFeed().enabled()) {
+              TNECore.instance().changeFeed().reload();
+            } else {
+
+              TNECore.eco().account().getAccounts().clear();
+              TransactionManager.receipts().clear();
 
-            TNECore.instance().storage().loadAll(Account.class, "");
-            TNECore.instance().storage().loadAll(Receipt.class, "");
+              TNECore.eco().account().loadAccounts();
+              TNECore.instance().storage().loadAll(Receipt.class, "");
 
-            TNECore.eco().setReloadTime(new Date().getTime());
+              TNECore.eco().setReloadTime(new Date().getTime());
+            }
           }
         }
       }
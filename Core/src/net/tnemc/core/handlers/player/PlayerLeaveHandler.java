@@ -49,6 +49,9 @@ public class PlayerLeaveHandler {
 
     final HandlerResponse response = new HandlerResponse("", false);
 
+    //read the inventory one last time rather than trusting the item cache.
+    TNECore.eco().itemCache().invalidate(provider.identifier());
+
     final Optional<Account> account = TNECore.eco().account().findAccount(provider.identifier());
     if(account.isPresent() && (account.get() instanceof PlayerAccount)) {
 
@@ -69,6 +72,9 @@ public class PlayerLeaveHandler {
       account.get().clearAwayReceipts();
       StorageManager.instance().store(account.get(), account.get().getIdentifier().toString());
     }
+    TNECore.eco().itemCache().invalidate(provider.identifier());
+    TNECore.eco().itemCache().forget(provider.identifier());
+    TNECore.eco().placeholder().cache().invalidate(provider.identifier().toString());
     return response;
   }
 }
\ No newline at end of file
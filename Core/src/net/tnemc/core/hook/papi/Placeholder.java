@@ -20,6 +20,8 @@ package net.tnemc.core.hook.papi;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Locale;
+
 /**
  * Placeholder
  *
@@ -28,6 +30,8 @@ import org.jetbrains.annotations.Nullable;
  */
 public interface Placeholder {
 
+  String PREFIX = "tne_";
+
   /**
    * Retrieves the identifier associated with this symbol.
    *
@@ -54,4 +58,41 @@ public interface Placeholder {
    */
   @Nullable
   String onRequest(@Nullable String account, @NotNull String[] params);
+
+  /**
+   * The first parameter this placeholder applies to, such as "balance" for tne_balance_currency,
+   * which is used to index this placeholder so requests don't check every placeholder. This is
+   * taken from identifiers in the {@code tne_<token>_...} form.
+   *
+   * @return The first parameter in lowercase, or null if this placeholder should be checked for
+   * every request.
+   */
+  @Nullable
+  default String token() {
+
+    final String identifier = identifier();
+    if(identifier == null || !identifier.startsWith(PREFIX) || identifier.length() == PREFIX.length()) {
+      return null;
+    }
+
+    final int end = identifier.indexOf('_', PREFIX.length());
+    return ((end < 0)? identifier.substring(PREFIX.length()) : identifier.substring(PREFIX.length(), end)).toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * The account whose holdings the result of a request depends on. Results for placeholders that
+   * return an account are cached briefly, until that account's holdings change. Only the balance
+   * placeholders are cached by default, since the results of the others, such as transactions and
+   * account information, change without the holdings changing.
+   *
+   * @param account Optional account associated with the request
+   * @param params  Required parameters for the request
+   *
+   * @return The identifier or name of the account, or null if results shouldn't be cached.
+   */
+  @Nullable
+  default String owner(@Nullable final String account, @NotNull final String[] params) {
+
+    return ("balance".equals(token()))? account : null;
+  }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package net.tnemc.core.hook.papi;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+import net.tnemc.core.account.Account;
+import net.tnemc.core.config.MainConfig;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches placeholder results for a short configurable time, since tab lists and scoreboards may
+ * request the same placeholders many times a second. Results are cached per account, and are
+ * discarded as soon as that account's holdings change, using the account's holdings revision, so
+ * a cached balance is never older than the last change made through TNE.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class PlaceholderCache {
+
+  //account identifier -> placeholder identifier and parameters -> cached result
+  private final Map<String, Map<String, Cached>> accounts = new ConcurrentHashMap<>();
+
+  private volatile boolean enabled = true;
+  private volatile long maxAge = 1000;
+
+  /**
+   * Reads the cache configuration, and clears everything cached.
+   */
+  public void load() {
+
+    enabled = MainConfig.yaml().getBoolean("Core.Server.PlaceholderCache.Enabled", true);
+    maxAge = Math.max(0, MainConfig.yaml().getLong("Core.Server.PlaceholderCache.MaxAge", 1000L));
+    accounts.clear();
+  }
+
+  public boolean enabled() {
+
+    return enabled && maxAge > 0;
+  }
+
+  /**
+   * Used to get a cached result.
+   *
+   * @param account The account the result depends on.
+   * @param key     The placeholder identifier and parameters.
+   *
+   * @return The cached result, or null if nothing valid is cached.
+   */
+  public @Nullable String get(@NotNull final Account account, @NotNull final String key) {
+
+    final Map<String, Cached> cached = accounts.get(account.getIdentifier().toString());
+    if(cached == null) {
+      return null;
+    }
+
+    final Cached entry = cached.get(key);
+    if(entry == null) {
+      return null;
+    }
+
+    if(entry.revision() != account.revision() || System.currentTimeMillis() - entry.time() > maxAge) {
+      cached.remove(key, entry);
+      return null;
+    }
+    return entry.value();
+  }
+
+  /**
+   * Caches a result.
+   *
+   * @param account  The account the result depends on.
+   * @param key      The placeholder identifier and parameters.
+   * @param revision The holdings revision of the account from before the result was resolved.
+   * @param value    The result.
+   */
+  public void put(@NotNull final Account account, @NotNull final String key, final long revision, @NotNull final String value) {
+
+    if(enabled) {
+      accounts.computeIfAbsent(account.getIdentifier().toString(), k->new ConcurrentHashMap<>())
+              .put(key, new Cached(value, revision, System.currentTimeMillis()));
+    }
+  }
+
+  /**
+   * Invalidates everything cached for an account.
+   *
+   * @param account The account's identifier.
+   */
+  public void invalidate(@NotNull final String account) {
+
+    accounts.remove(account);
+  }
+
+  private record Cached(String value, long revision, long time) {
+
+  }
+}
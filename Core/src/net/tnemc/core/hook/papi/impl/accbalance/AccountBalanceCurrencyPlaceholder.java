@@ -46,6 +46,20 @@ public class AccountBalanceCurrencyPlaceholder implements Placeholder {
     return "tne_accbalance_currency";
   }
 
+  /**
+   * The account whose holdings the result of a request depends on.
+   *
+   * @param account Optional account associated with the request
+   * @param params  Required parameters for the request
+   *
+   * @return The account specified in the parameters.
+   */
+  @Override
+  public @Nullable String owner(@Nullable final String account, @NotNull final String[] params) {
+
+    return (params.length > 1)? params[1] : null;
+  }
+
   /**
    * Checks if the specified parameters are valid for this method.
    *
@@ -18,6 +18,7 @@ package net.tnemc.core.io.storage.datables.sql.standard;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import net.tnemc.core.EconomyManager;
 import net.tnemc.core.TNECore;
 import net.tnemc.core.account.Account;
 import net.tnemc.core.account.PlayerAccount;
@@ -28,7 +29,12 @@ import net.tnemc.core.api.callback.account.AccountLoadCallback;
 import net.tnemc.core.api.callback.account.AccountSaveCallback;
 import net.tnemc.core.api.response.AccountAPIResponse;
 import net.tnemc.core.config.DataConfig;
+import net.tnemc.core.config.MainConfig;
 import net.tnemc.core.io.storage.dialect.TNEDialect;
+import net.tnemc.core.io.storage.queue.SQLBatch;
+import net.tnemc.core.io.storage.queue.WriteBehindQueue;
+import net.tnemc.core.manager.metrics.Histogram;
+import net.tnemc.core.utils.Identifier;
 import net.tnemc.plugincore.PluginCore;
 import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
 import net.tnemc.plugincore.core.id.UUIDPair;
@@ -40,8 +46,10 @@ import org.jetbrains.annotations.Nullable;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -57,6 +65,16 @@ import static java.lang.Math.min;
  */
 public class SQLAccount implements Datable<Account> {
 
+  private static final Histogram STORE = TNECore.metrics().storage("account", "store");
+  private static final Histogram STORE_ALL = TNECore.metrics().storage("account", "storeAll");
+  private static final Histogram LOAD = TNECore.metrics().storage("account", "load");
+  private static final Histogram LOAD_ALL = TNECore.metrics().storage("account", "loadAll");
+
+  /**
+   * The uid to start our keyset pagination after, which sorts before any other uid.
+   */
+  private static final String BULK_START = "00000000-0000-0000-0000-000000000000";
+
   /**
    * The class that is represented by the O parameter.
    *
@@ -93,6 +111,11 @@ public class SQLAccount implements Datable<Account> {
   @Override
   public void store(final StorageConnector<?> connector, @NotNull final Account account, @Nullable final String identifier) {
 
+    STORE.time(()->save(connector, account, identifier));
+  }
+
+  private void save(final StorageConnector<?> connector, @NotNull final Account account, @Nullable final String identifier) {
+
     if(connector instanceof final SQLConnector sql && sql.dialect() instanceof final TNEDialect tne) {
 
       PluginCore.log().debug("Saving Account with ID: " + identifier + " Name: " + account.getName(), DebugLevel.STANDARD);
@@ -100,18 +123,7 @@ public class SQLAccount implements Datable<Account> {
       resolveUsernameConflict(sql, tne, account);
 
       //store the basic account information(accounts table)
-      final int test = sql.executeUpdate(tne.saveAccount(),
-                                         new Object[]{
-                                                 account.getIdentifier().toString(),
-                                                 account.getName(),
-                                                 (account.type()),
-                                                 new java.sql.Timestamp(account.getCreationDate()),
-                                                 account.getPin(),
-                                                 account.getStatus().identifier(),
-                                                 account.getName(),
-                                                 account.getPin(),
-                                                 account.getStatus().identifier(),
-                                                 });
+      final int test = sql.executeUpdate(tne.saveAccount(), accountRow(account));
 
       PluginCore.log().debug("Account Insert Executed correctly: " + test + " - " + identifier, DebugLevel.DETAILED);
 
@@ -125,12 +137,7 @@ public class SQLAccount implements Datable<Account> {
       if(account instanceof final PlayerAccount playerAccount) {
 
         //Player account storage.(players_accounts table)
-        final int test2 = sql.executeUpdate(tne.savePlayer(),
-                                            new Object[]{
-                                                    account.getIdentifier().toString(),
-                                                    new java.sql.Timestamp(playerAccount.getLastOnline()),
-                                                    new java.sql.Timestamp(playerAccount.getLastOnline())
-                                            });
+        final int test2 = sql.executeUpdate(tne.savePlayer(), playerRow(playerAccount));
         PluginCore.log().debug("Player Account Insert Executed correctly: " + test2 + " - " + identifier, DebugLevel.DETAILED);
 
       }
@@ -138,28 +145,11 @@ public class SQLAccount implements Datable<Account> {
       if(account instanceof final SharedAccount shared) {
 
         //Non-player accounts.(non_players_accounts table)
-        final String owner = (shared.getOwner() == null)? account.getIdentifier().toString() :
-                             shared.getOwner().toString();
-        sql.executeUpdate(tne.saveNonPlayer(),
-                          new Object[]{
-                                  account.getIdentifier().toString(),
-                                  owner,
-                                  owner
-                          });
+        sql.executeUpdate(tne.saveNonPlayer(), nonPlayerRow(shared));
 
         //Account members(account_members table)
-        for(final Member member : shared.getMembers().values()) {
-          for(final Map.Entry<String, Boolean> entry : member.getPermissions().entrySet()) {
-            sql.executeUpdate(tne.saveMembers(),
-                              new Object[]{
-                                      member.getId().toString(),
-                                      account.getIdentifier().toString(),
-                                      entry.getKey(),
-                                      entry.getValue(),
-                                      entry.getValue()
-                              }
-                             );
-          }
+        for(final Object[] row : memberRows(shared)) {
+          sql.executeUpdate(tne.saveMembers(), row);
         }
       }
 
@@ -171,6 +161,83 @@ public class SQLAccount implements Datable<Account> {
     }
   }
 
+  /**
+   * Adds the account rows for an account to a {@link SQLBatch} rather than writing them right
+   * away. This skips the username conflict check, so callers should fall back to
+   * {@link #store(StorageConnector, Account, String)} if the batch fails.
+   *
+   * @param batch   The batch to add the rows to.
+   * @param tne     The {@link TNEDialect} to use.
+   * @param account The account.
+   */
+  public void batch(@NotNull final SQLBatch batch, @NotNull final TNEDialect tne, @NotNull final Account account) {
+
+    batch.add(tne.saveAccount(), accountRow(account));
+
+    if(account instanceof final PlayerAccount playerAccount) {
+      batch.add(tne.savePlayer(), playerRow(playerAccount));
+    }
+
+    if(account instanceof final SharedAccount shared) {
+
+      batch.add(tne.saveNonPlayer(), nonPlayerRow(shared));
+      for(final Object[] row : memberRows(shared)) {
+        batch.add(tne.saveMembers(), row);
+      }
+    }
+  }
+
+  private Object[] accountRow(@NotNull final Account account) {
+
+    return new Object[]{
+            account.getIdentifier().toString(),
+            account.getName(),
+            (account.type()),
+            new java.sql.Timestamp(account.getCreationDate()),
+            account.getPin(),
+            account.getStatus().identifier(),
+            account.getName(),
+            account.getPin(),
+            account.getStatus().identifier(),
+            };
+  }
+
+  private Object[] playerRow(@NotNull final PlayerAccount account) {
+
+    return new Object[]{
+            account.getIdentifier().toString(),
+            new java.sql.Timestamp(account.getLastOnline()),
+            new java.sql.Timestamp(account.getLastOnline())
+    };
+  }
+
+  private Object[] nonPlayerRow(@NotNull final SharedAccount shared) {
+
+    final String owner = (shared.getOwner() == null)? shared.getIdentifier().toString() :
+                         shared.getOwner().toString();
+    return new Object[]{
+            shared.getIdentifier().toString(),
+            owner,
+            owner
+    };
+  }
+
+  private List<Object[]> memberRows(@NotNull final SharedAccount shared) {
+
+    final List<Object[]> rows = new ArrayList<>();
+    for(final Member member : shared.getMembers().values()) {
+      for(final Map.Entry<String, Boolean> entry : member.getPermissions().entrySet()) {
+        rows.add(new Object[]{
+                member.getId().toString(),
+                shared.getIdentifier().toString(),
+                entry.getKey(),
+                entry.getValue(),
+                entry.getValue()
+        });
+      }
+    }
+    return rows;
+  }
 
   private void resolveUsernameConflict(@NotNull final SQLConnector sql,
                                        @NotNull final TNEDialect dialect,
@@ -263,12 +330,36 @@ public class SQLAccount implements Datable<Account> {
   @Override
   public void storeAll(final StorageConnector<?> connector, @Nullable final String identifier) {
 
+    STORE_ALL.time(()->saveAll(connector, identifier));
+  }
+
+  private void saveAll(final StorageConnector<?> connector, @Nullable final String identifier) {
+
     if(connector instanceof SQLConnector) {
+
+      final WriteBehindQueue queue = TNECore.instance().writeBehind();
       for(final Account account : TNECore.eco().account().getAccounts().values()) {
         if(account.isDirty()) {
+
+          //queue the account and the holdings that changed, they're written below as batches.
+          if(queue.active()) {
+            queue.changes(account, account.getWallet().drainChanges());
+            queue.account(account);
+            continue;
+          }
           store(connector, account, account.getIdentifier().toString());
         }
       }
+
+      //item currency amounts in inventories change without marking the account dirty.
+      if(TNECore.instance().storage().getEngine().datables().get(HoldingsEntry.class) instanceof final SQLHoldings holdings) {
+        for(final Account account : TNECore.eco().account().getAccounts().values()) {
+          if(account instanceof final PlayerAccount player) {
+            holdings.queueInventories(connector, player, player.getIdentifier().toString());
+          }
+        }
+      }
+      queue.flush();
     }
   }
 
@@ -296,6 +387,11 @@ public class SQLAccount implements Datable<Account> {
   @Override
   public Optional<Account> load(final StorageConnector<?> connector, @NotNull final String identifier) {
 
+    return LOAD.time(()->read(connector, identifier));
+  }
+
+  private Optional<Account> read(final StorageConnector<?> connector, @NotNull final String identifier) {
+
     if(connector instanceof final SQLConnector sql && sql.dialect() instanceof final TNEDialect tne) {
 
       Account account = null;
@@ -403,10 +499,19 @@ public class SQLAccount implements Datable<Account> {
   @Override
   public Collection<Account> loadAll(final StorageConnector<?> connector, @Nullable final String identifier) {
 
+    return LOAD_ALL.time(()->readAll(connector, identifier));
+  }
+
+  private Collection<Account> readAll(final StorageConnector<?> connector, @Nullable final String identifier) {
+
     final Collection<Account> accounts = new ArrayList<>(); // is this required? Not entirely sure it is - seems maybe a waste
 
     if(connector instanceof final SQLConnector sql && sql.dialect() instanceof final TNEDialect tne) {
 
+      if(DataConfig.yaml().getBoolean("Data.Database.BulkLoad.Enabled", true)) {
+        return loadBulk(sql, tne);
+      }
+
       final List<String> ids = new ArrayList<>();
       try(final ResultSet result = sql.executeQuery(tne.loadAccounts(),
                                                     new Object[]{})) {
@@ -429,4 +534,157 @@ public class SQLAccount implements Datable<Account> {
     }
     return accounts;
   }
+
+  /**
+   * Loads every account using a handful of set-based queries per page rather than several queries
+   * per account. Pages are walked by uid(keyset pagination), and the members and holdings for each
+   * page are pulled in with a single range query each.
+   *
+   * @param sql The {@link SQLConnector} to use.
+   * @param tne The {@link TNEDialect} to use.
+   *
+   * @return A collection containing the accounts loaded.
+   */
+  private Collection<Account> loadBulk(@NotNull final SQLConnector sql, @NotNull final TNEDialect tne) {
+
+    final Collection<Account> accounts = new ArrayList<>();
+    final int pageSize = Math.max(1, DataConfig.yaml().getInt("Data.Database.BulkLoad.PageSize", 5000));
+    final String server = MainConfig.yaml().getString("Core.Server.Name");
+
+    String lower = BULK_START;
+    while(true) {
+
+      //uid as returned by the database -> account, so the range queries can be matched back without re-parsing.
+      final Map<String, Account> page = new LinkedHashMap<>();
+      String upper = null;
+      int rows = 0;
+
+      try(final ResultSet result = sql.executeQuery(tne.loadAccountsPage(), new Object[]{ lower, pageSize })) {
+        while(result.next()) {
+          rows++;
+          upper = result.getString("uid");
+
+          final Account account = bulkAccount(result, upper);
+          if(account != null) {
+            page.put(upper, account);
+          }
+        }
+      } catch(final SQLException e) {
+        e.printStackTrace();
+        break;
+      }
+
+      if(upper == null) {
+        break;
+      }
+
+      if(!page.isEmpty()) {
+        bulkMembers(sql, tne, page, lower, upper);
+        bulkHoldings(sql, tne, page, server, lower, upper);
+      }
+
+      for(final Account account : page.values()) {
+
+        account.clearDirty();
+
+        final AccountLoadCallback callback = new AccountLoadCallback(account);
+        PluginCore.callbacks().call(callback);
+
+        accounts.add(account);
+        TNECore.eco().account().uuidProvider().store(new UUIDPair(account.getIdentifier(), account.getName()));
+      }
+
+      PluginCore.log().debug("Bulk loaded account page ending at " + upper + " (" + rows + " rows).", DebugLevel.DETAILED);
+
+      if(rows < pageSize) {
+        break;
+      }
+      lower = upper;
+    }
+    return accounts;
+  }
+
+  private @Nullable Account bulkAccount(@NotNull final ResultSet result, @NotNull final String identifier) throws SQLException {
+
+    final String type = result.getString("account_type");
+
+    //create our account from the type
+    final AccountAPIResponse response = TNECore.eco().account().createAccount(identifier,
+                                                                              result.getString("username"),
+                                                                              !(type.equalsIgnoreCase("player") ||
+                                                                                type.equalsIgnoreCase("bedrock")),
+                                                                              true);
+    if(!response.getResponse().success() || response.getAccount().isEmpty()) {
+      return null;
+    }
+
+    final Account account = response.getAccount().get();
+    account.setStatus(TNECore.eco().account().findStatus(result.getString("status")));
+    account.setCreationDate(result.getTimestamp("created").getTime());
+    account.setPin(result.getString("pin"));
+
+    if(account instanceof final PlayerAccount playerAccount) {
+
+      final Timestamp lastOnline = result.getTimestamp("last_online");
+      if(lastOnline != null) {
+        playerAccount.setLastOnline(lastOnline.getTime());
+      }
+    }
+
+    if(account instanceof final SharedAccount shared) {
+
+      final String owner = result.getString("owner");
+      if(owner != null) {
+        shared.setOwner(UUID.fromString(owner));
+      }
+    }
+    return account;
+  }
+
+  private void bulkMembers(@NotNull final SQLConnector sql, @NotNull final TNEDialect tne,
+                           @NotNull final Map<String, Account> page, @NotNull final String lower,
+                           @NotNull final String upper) {
+
+    try(final ResultSet result = sql.executeQuery(tne.loadMembersRange(), new Object[]{ lower, upper })) {
+      while(result.next()) {
+
+        if(page.get(result.getString("account")) instanceof final SharedAccount shared) {
+          shared.addPermission(UUID.fromString(result.getString("uid")),
+                               result.getString("perm"),
+                               result.getBoolean("perm_value")
+                              );
+        }
+      }
+    } catch(final SQLException e) {
+      e.printStackTrace();
+    }
+  }
+
+  private void bulkHoldings(@NotNull final SQLConnector sql, @NotNull final TNEDialect tne,
+                            @NotNull final Map<String, Account> page, @NotNull final String server,
+                            @NotNull final String lower, @NotNull final String upper) {
+
+    try(final ResultSet result = sql.executeQuery(tne.loadHoldingsRange(), new Object[]{ server, lower, upper })) {
+      while(result.next()) {
+
+        final Account account = page.get(result.getString("uid"));
+        if(account == null) {
+          continue;
+        }
+
+        final String currency = result.getString("currency");
+        if(TNECore.eco().currency().find(currency).isEmpty()) {
+          EconomyManager.invalidCurrencies().add(currency);
+        }
+
+        //region, currency, amount, type
+        account.getWallet().setHoldings(new HoldingsEntry(result.getString("region"),
+                                                          UUID.fromString(currency),
+                                                          result.getBigDecimal("holdings"),
+                                                          Identifier.fromID(result.getString("holdings_type"))));
+      }
+    } catch(final SQLException e) {
+      e.printStackTrace();
+    }
+  }
 }
@@ -21,11 +21,15 @@ package net.tnemc.core.io.storage.datables.sql.standard;
 import net.tnemc.core.EconomyManager;
 import net.tnemc.core.TNECore;
 import net.tnemc.core.account.Account;
-import net.tnemc.core.account.holdings.CurrencyHoldings;
+import net.tnemc.core.account.PlayerAccount;
+import net.tnemc.core.account.holdings.HoldingsChangeset;
 import net.tnemc.core.account.holdings.HoldingsEntry;
-import net.tnemc.core.account.holdings.RegionHoldings;
 import net.tnemc.core.config.MainConfig;
+import net.tnemc.core.currency.Currency;
 import net.tnemc.core.io.storage.dialect.TNEDialect;
+import net.tnemc.core.io.storage.queue.SQLBatch;
+import net.tnemc.core.io.storage.queue.WriteBehindQueue;
+import net.tnemc.core.manager.metrics.Histogram;
 import net.tnemc.core.utils.Identifier;
 import net.tnemc.plugincore.PluginCore;
 import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
@@ -39,7 +43,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -51,6 +55,10 @@ import java.util.UUID;
  */
 public class SQLHoldings implements Datable<HoldingsEntry> {
 
+  private static final Histogram STORE = TNECore.metrics().storage("holdings", "store");
+  private static final Histogram STORE_ALL = TNECore.metrics().storage("holdings", "storeAll");
+  private static final Histogram LOAD_ALL = TNECore.metrics().storage("holdings", "loadAll");
+
   /**
    * The class that is represented by the O parameter.
    *
@@ -81,47 +89,167 @@ public class SQLHoldings implements Datable<HoldingsEntry> {
   @Override
   public void store(final StorageConnector<?> connector, @NotNull final HoldingsEntry object, @Nullable final String identifier) {
 
+    STORE.time(()->save(connector, object, identifier));
+  }
+
+  private void save(final StorageConnector<?> connector, @NotNull final HoldingsEntry object, @Nullable final String identifier) {
+
     if(connector instanceof final SQLConnector sql && sql.dialect() instanceof final TNEDialect tne && identifier != null) {
 
       PluginCore.log().debug("Storing holdings for Identifier: " + identifier);
 
-      sql.executeUpdate(tne.saveHoldings(),
-                        new Object[]{
-                                identifier,
-                                MainConfig.yaml().getString("Core.Server.Name"),
-                                object.getRegion(),
-                                object.getCurrency().toString(),
-                                object.getHandler().asID(),
-                                object.getAmount(),
-                                object.getAmount()
-                        });
+      sql.executeUpdate(tne.saveHoldings(), row(object, identifier));
     }
   }
 
   /**
-   * Used to store all objects of this type.
+   * Adds the row for a holdings entry to a {@link SQLBatch} rather than writing it right away.
+   *
+   * @param batch      The batch to add the row to.
+   * @param tne        The {@link TNEDialect} to use.
+   * @param object     The holdings entry.
+   * @param identifier The identifier of the account that owns the holdings.
+   */
+  public void batch(@NotNull final SQLBatch batch, @NotNull final TNEDialect tne,
+                    @NotNull final HoldingsEntry object, @NotNull final String identifier) {
+
+    batch.add(tne.saveHoldings(), row(object, identifier));
+  }
+
+  /**
+   * Adds the delete for a removed holdings entry to a {@link SQLBatch}.
+   *
+   * @param batch      The batch to add the row to.
+   * @param tne        The {@link TNEDialect} to use.
+   * @param tombstone  The removed holdings entry.
+   * @param identifier The identifier of the account that owned the holdings.
+   */
+  public void batchDelete(@NotNull final SQLBatch batch, @NotNull final TNEDialect tne,
+                          @NotNull final HoldingsChangeset.Tombstone tombstone, @NotNull final String identifier) {
+
+    batch.add(tne.deleteHolding(), deleteRow(tombstone, identifier));
+  }
+
+  private Object[] deleteRow(@NotNull final HoldingsChangeset.Tombstone tombstone, @NotNull final String identifier) {
+
+    return new Object[]{
+            identifier,
+            MainConfig.yaml().getString("Core.Server.Name"),
+            tombstone.region(),
+            tombstone.currency().toString(),
+            tombstone.handler()
+    };
+  }
+
+  private Object[] row(@NotNull final HoldingsEntry object, @NotNull final String identifier) {
+
+    return new Object[]{
+            identifier,
+            MainConfig.yaml().getString("Core.Server.Name"),
+            object.getRegion(),
+            object.getCurrency().toString(),
+            object.getHandler().asID(),
+            object.getAmount(),
+            object.getAmount()
+    };
+  }
+
+  /**
+   * Used to store all objects of this type. Only the holdings that changed since the last write are
+   * stored, and holdings that were deleted are removed. Holdings kept outside the wallet, such as
+   * the inventory amounts of item currencies, are stored for online players every time.
    *
    * @param connector The storage connector to use for this transaction.
    */
   @Override
   public void storeAll(final StorageConnector<?> connector, @Nullable final String identifier) {
 
-    if(connector instanceof final SQLConnector sql && identifier != null) {
+    STORE_ALL.time(()->saveAll(connector, identifier));
+  }
+
+  private void saveAll(final StorageConnector<?> connector, @Nullable final String identifier) {
+
+    if(connector instanceof final SQLConnector sql && sql.dialect() instanceof final TNEDialect tne && identifier != null) {
 
       final Optional<Account> account = TNECore.eco().account().findAccount(identifier);
       if(account.isPresent()) {
 
+        final HoldingsChangeset changes = account.get().getWallet().drainChanges();
+        for(final HoldingsChangeset.Tombstone tombstone : changes.removed()) {
+          sql.executeUpdate(tne.deleteHolding(), deleteRow(tombstone, identifier));
+        }
 
-        for(final Map.Entry<String, RegionHoldings> region : account.get().getWallet().getHoldings().entrySet()) {
-          for(final Map.Entry<UUID, CurrencyHoldings> currency : region.getValue().getHoldings().entrySet()) {
-            for(final HoldingsEntry entry : account.get().getHoldings(region.getKey(), currency.getKey())) {
-              store(connector, entry, identifier);
-            }
-          }
+        for(final HoldingsEntry entry : changes.modified()) {
+          store(connector, entry, identifier);
         }
+
+        if(account.get() instanceof final PlayerAccount player) {
+          storeInventories(connector, player, identifier);
+        }
+      }
+    }
+  }
+
+  /**
+   * Stores the holdings of item currencies that are kept outside the wallet, such as inventory and
+   * ender chest amounts. These change without going through the wallet, so they're never in its
+   * changes, and are stored for online players on every save instead.
+   *
+   * @param connector  The storage connector to use for this transaction.
+   * @param player     The player account.
+   * @param identifier The account identifier.
+   */
+  public void storeInventories(final StorageConnector<?> connector, @NotNull final PlayerAccount player, @NotNull final String identifier) {
+
+    for(final HoldingsEntry entry : inventories(player)) {
+      TNECore.eco().itemCache().changed(player.getIdentifier(), entry);
+      store(connector, entry, identifier);
+    }
+  }
+
+  /**
+   * Queues the holdings of item currencies that are kept outside the wallet to be written with the
+   * next write-behind flush, used by autosaves. Only the holdings that changed since they were last
+   * stored are queued, and cached inventory amounts are used where possible. If write-behind saving
+   * isn't active, the changed holdings are stored right away.
+   *
+   * @param connector  The storage connector to use for this transaction.
+   * @param player     The player account.
+   * @param identifier The account identifier.
+   */
+  public void queueInventories(final StorageConnector<?> connector, @NotNull final PlayerAccount player, @NotNull final String identifier) {
+
+    final WriteBehindQueue queue = TNECore.instance().writeBehind();
+    for(final HoldingsEntry entry : TNECore.eco().itemCache().readOnly(()->inventories(player))) {
+
+      if(TNECore.eco().itemCache().changed(player.getIdentifier(), entry) && !queue.inventory(player, entry)) {
+        store(connector, entry, identifier);
       }
+    }
+  }
+
+  private List<HoldingsEntry> inventories(@NotNull final PlayerAccount player) {
 
+    final List<HoldingsEntry> inventories = new ArrayList<>();
+    if(!player.isOnline()) {
+      return inventories;
     }
+
+    for(final String region : player.getWallet().getHoldings().keySet()) {
+      for(final Currency currency : TNECore.eco().currency().currencies()) {
+
+        if(!currency.type().supportsItems()) {
+          continue;
+        }
+
+        for(final HoldingsEntry entry : player.getHoldings(region, currency.getUid())) {
+          if(player.getWallet().getHoldings(region, currency.getUid(), entry.getHandler()).isEmpty()) {
+            inventories.add(entry);
+          }
+        }
+      }
+    }
+    return inventories;
   }
 
   @Override
@@ -155,6 +283,11 @@ public class SQLHoldings implements Datable<HoldingsEntry> {
   @Override
   public Collection<HoldingsEntry> loadAll(final StorageConnector<?> connector, @Nullable final String identifier) {
 
+    return LOAD_ALL.time(()->readAll(connector, identifier));
+  }
+
+  private Collection<HoldingsEntry> readAll(final StorageConnector<?> connector, @Nullable final String identifier) {
+
     final Collection<HoldingsEntry> holdings = new ArrayList<>();
 
     if(connector instanceof final SQLConnector sql && sql.dialect() instanceof final TNEDialect tne && identifier != null) {
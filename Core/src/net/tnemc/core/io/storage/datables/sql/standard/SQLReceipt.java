@@ -18,6 +18,7 @@ package net.tnemc.core.io.storage.datables.sql.standard;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import net.tnemc.core.TNECore;
 import net.tnemc.core.account.holdings.HoldingsEntry;
 import net.tnemc.core.account.holdings.modify.HoldingsModifier;
 import net.tnemc.core.account.holdings.modify.HoldingsOperation;
@@ -25,10 +26,16 @@ import net.tnemc.core.actions.ActionSource;
 import net.tnemc.core.config.DataConfig;
 import net.tnemc.core.config.MainConfig;
 import net.tnemc.core.io.storage.dialect.TNEDialect;
+import net.tnemc.core.io.storage.queue.SQLBatch;
+import net.tnemc.core.io.storage.queue.WriteBehindQueue;
 import net.tnemc.core.manager.TransactionManager;
+import net.tnemc.core.manager.metrics.Histogram;
 import net.tnemc.core.transaction.Receipt;
 import net.tnemc.core.transaction.TransactionParticipant;
+import net.tnemc.core.transaction.history.ReceiptCursor;
 import net.tnemc.core.utils.Identifier;
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
 import net.tnemc.plugincore.core.io.storage.Datable;
 import net.tnemc.plugincore.core.io.storage.StorageConnector;
 import net.tnemc.plugincore.core.io.storage.connect.SQLConnector;
@@ -38,10 +45,13 @@ import org.jetbrains.annotations.Nullable;
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -50,6 +60,16 @@ import java.util.UUID;
  */
 public class SQLReceipt implements Datable<Receipt> {
 
+  private static final Histogram STORE = TNECore.metrics().storage("receipt", "store");
+  private static final Histogram STORE_ALL = TNECore.metrics().storage("receipt", "storeAll");
+  private static final Histogram LOAD = TNECore.metrics().storage("receipt", "load");
+  private static final Histogram LOAD_ALL = TNECore.metrics().storage("receipt", "loadAll");
+  private static final Histogram PAGE = TNECore.metrics().storage("receipt", "page");
+
+  //The cursor used for the first page, which is later than any receipt the databases can hold.
+  private static final Timestamp FIRST_TIME = new Timestamp(253402300799000L);
+  private static final String FIRST_ID = "ffffffff-ffff-ffff-ffff-ffffffffffff";
+
   /**
    * The class that is represented by the O parameter.
    *
@@ -84,21 +104,15 @@ public class SQLReceipt implements Datable<Receipt> {
   @Override
   public void store(final StorageConnector<?> connector, @NotNull final Receipt receipt, @Nullable final String identifier) {
 
+    STORE.time(()->save(connector, receipt, identifier));
+  }
+
+  private void save(final StorageConnector<?> connector, @NotNull final Receipt receipt, @Nullable final String identifier) {
+
     if(connector instanceof final SQLConnector sql && sql.dialect() instanceof final TNEDialect tne) {
 
       //Store the receipt info
-      sql.executeUpdate(tne.saveReceipt(),
-                        new Object[]{
-                                receipt.getId().toString(),
-                                new java.sql.Timestamp(receipt.getTime()),
-                                receipt.getType(),
-                                receipt.getSource().name(),
-                                receipt.getSource().type(),
-                                receipt.isArchive(),
-                                receipt.isVoided(),
-                                receipt.isArchive(),
-                                receipt.isVoided()
-                        });
+      sql.executeUpdate(tne.saveReceipt(), receiptRow(receipt));
 
       storeParticipant(connector, receipt.getFrom(), receipt.getModifierFrom(), "from", receipt.getId().toString());
       storeParticipant(connector, receipt.getTo(), receipt.getModifierTo(), "to", receipt.getId().toString());
@@ -113,13 +127,7 @@ public class SQLReceipt implements Datable<Receipt> {
        && participant != null && modifier != null) {
 
       //store participant info
-      sql.executeUpdate(tne.saveParticipant(),
-                        new Object[]{
-                                identifier,
-                                participant.getId(),
-                                type,
-                                participant.getTax()
-                        });
+      sql.executeUpdate(tne.saveParticipant(), participantRow(participant, type, identifier));
 
       //store holdings
       for(final HoldingsEntry entry : participant.getStartingBalances()) {
@@ -131,16 +139,7 @@ public class SQLReceipt implements Datable<Receipt> {
       }
 
       //store modifier
-      sql.executeUpdate(tne.saveModifier(),
-                        new Object[]{
-                                identifier,
-                                participant.getId(),
-                                type,
-                                modifier.getOperation().name(),
-                                modifier.getRegion(),
-                                modifier.getCurrency().toString(),
-                                modifier.getModifier()
-                        });
+      sql.executeUpdate(tne.saveModifier(), modifierRow(participant, modifier, type, identifier));
     }
   }
 
@@ -148,18 +147,101 @@ public class SQLReceipt implements Datable<Receipt> {
                                    final String receipt, final boolean ending) {
 
     if(connector instanceof final SQLConnector sql && sql.dialect() instanceof final TNEDialect tne) {
-      sql.executeUpdate(tne.saveReceiptHolding(),
-                        new Object[]{
-                                receipt,
-                                participant,
-                                ending,
-                                MainConfig.yaml().getString("Core.Server.Name"),
-                                entry.getRegion(),
-                                entry.getCurrency().toString(),
-                                entry.getHandler().asID(),
-                                entry.getAmount()
-                        });
+      sql.executeUpdate(tne.saveReceiptHolding(), holdingRow(entry, participant, receipt, ending));
+    }
+  }
+
+  /**
+   * Adds the rows for a receipt to a {@link SQLBatch} rather than writing them right away. The
+   * receipt is only marked clean once the batch has been written.
+   *
+   * @param batch   The batch to add the rows to.
+   * @param tne     The {@link TNEDialect} to use.
+   * @param receipt The receipt.
+   */
+  public void batch(@NotNull final SQLBatch batch, @NotNull final TNEDialect tne, @NotNull final Receipt receipt) {
+
+    final String identifier = receipt.getId().toString();
+    batch.add(tne.saveReceipt(), receiptRow(receipt));
+
+    batchParticipant(batch, tne, receipt.getFrom(), receipt.getModifierFrom(), "from", identifier);
+    batchParticipant(batch, tne, receipt.getTo(), receipt.getModifierTo(), "to", identifier);
+  }
+
+  private void batchParticipant(@NotNull final SQLBatch batch, @NotNull final TNEDialect tne,
+                                @Nullable final TransactionParticipant participant, @Nullable final HoldingsModifier modifier,
+                                final String type, @NotNull final String identifier) {
+
+    if(participant == null || modifier == null) {
+      return;
     }
+
+    batch.add(tne.saveParticipant(), participantRow(participant, type, identifier));
+
+    for(final HoldingsEntry entry : participant.getStartingBalances()) {
+      batch.add(tne.saveReceiptHolding(), holdingRow(entry, participant.getId().toString(), identifier, false));
+    }
+
+    for(final HoldingsEntry entry : participant.getEndingBalances()) {
+      batch.add(tne.saveReceiptHolding(), holdingRow(entry, participant.getId().toString(), identifier, true));
+    }
+
+    batch.add(tne.saveModifier(), modifierRow(participant, modifier, type, identifier));
+  }
+
+  private Object[] receiptRow(@NotNull final Receipt receipt) {
+
+    return new Object[]{
+            receipt.getId().toString(),
+            new java.sql.Timestamp(receipt.getTime()),
+            receipt.getType(),
+            receipt.getSource().name(),
+            receipt.getSource().type(),
+            receipt.isArchive(),
+            receipt.isVoided(),
+            receipt.isArchive(),
+            receipt.isVoided()
+    };
+  }
+
+  private Object[] participantRow(@NotNull final TransactionParticipant participant, final String type,
+                                  @NotNull final String identifier) {
+
+    return new Object[]{
+            identifier,
+            participant.getId(),
+            type,
+            participant.getTax()
+    };
+  }
+
+  private Object[] modifierRow(@NotNull final TransactionParticipant participant, @NotNull final HoldingsModifier modifier,
+                               final String type, @NotNull final String identifier) {
+
+    return new Object[]{
+            identifier,
+            participant.getId(),
+            type,
+            modifier.getOperation().name(),
+            modifier.getRegion(),
+            modifier.getCurrency().toString(),
+            modifier.getModifier()
+    };
+  }
+
+  private Object[] holdingRow(@NotNull final HoldingsEntry entry, final String participant,
+                              final String receipt, final boolean ending) {
+
+    return new Object[]{
+            receipt,
+            participant,
+            ending,
+            MainConfig.yaml().getString("Core.Server.Name"),
+            entry.getRegion(),
+            entry.getCurrency().toString(),
+            entry.getHandler().asID(),
+            entry.getAmount()
+    };
   }
 
   /**
@@ -170,19 +252,41 @@ public class SQLReceipt implements Datable<Receipt> {
   @Override
   public void storeAll(final StorageConnector<?> connector, @Nullable final String identifier) {
 
+    STORE_ALL.time(()->saveAll(connector, identifier));
+  }
+
+  private void saveAll(final StorageConnector<?> connector, @Nullable final String identifier) {
+
     if(connector instanceof SQLConnector) {
 
+      final WriteBehindQueue queue = TNECore.instance().writeBehind();
       for(final Receipt receipt : TransactionManager.receipts().getReceipts().values()) {
-        if(receipt.isDirty()) {
+        if(receipt.isDirty() && !queue.receipt(receipt)) {
           store(connector, receipt, identifier);
         }
       }
+      queue.flush();
     }
   }
 
   @Override
   public void delete(final StorageConnector<?> connector, @NotNull final String identifier) {
-    //nothing to do here.
+
+    if(connector instanceof final SQLConnector sql && sql.dialect() instanceof final TNEDialect tne) {
+      sql.executeUpdate(tne.deleteReceipt(), new Object[]{ identifier });
+    }
+  }
+
+  /**
+   * Adds the delete for a receipt to a {@link SQLBatch}.
+   *
+   * @param batch   The batch to add the row to.
+   * @param tne     The {@link TNEDialect} to use.
+   * @param receipt The identifier of the receipt to delete.
+   */
+  public void batchDelete(@NotNull final SQLBatch batch, @NotNull final TNEDialect tne, @NotNull final UUID receipt) {
+
+    batch.add(tne.deleteReceipt(), new Object[]{ receipt });
   }
 
   /**
@@ -196,6 +300,11 @@ public class SQLReceipt implements Datable<Receipt> {
   @Override
   public Optional<Receipt> load(final StorageConnector<?> connector, @NotNull final String identifier) {
 
+    return LOAD.time(()->read(connector, identifier));
+  }
+
+  private Optional<Receipt> read(final StorageConnector<?> connector, @NotNull final String identifier) {
+
     //We shouldn't load individual Receipts, it doesn't make sense to me/no use case with caching. - creatorfromhell
     return Optional.empty();
   }
@@ -298,6 +407,108 @@ public class SQLReceipt implements Datable<Receipt> {
     return holdings;
   }
 
+  /**
+   * Loads a page of a participant's receipts, newest first. The receipts are paged by their
+   * (performed, uid) keyset, so each page costs the same regardless of how deep into the history it
+   * is, and the participants, holdings and modifiers are joined into the same query.
+   *
+   * @param sql         The {@link SQLConnector} to use.
+   * @param tne         The {@link TNEDialect} to use.
+   * @param participant The participant whose receipts should be loaded.
+   * @param since       Only receipts performed after this time are loaded.
+   * @param after       The cursor of the last receipt on the previous page, or null for the first
+   *                    page.
+   * @param limit       The max amount of receipts to load.
+   *
+   * @return The receipts on the page, which aren't marked as dirty.
+   */
+  public List<Receipt> page(@NotNull final SQLConnector sql, @NotNull final TNEDialect tne, @NotNull final UUID participant,
+                            final long since, @Nullable final ReceiptCursor after, final int limit) {
+
+    final long start = System.nanoTime();
+    final Map<UUID, Receipt> page = new LinkedHashMap<>();
+
+    final Timestamp before = (after == null)? FIRST_TIME : new Timestamp(after.time());
+    final String id = (after == null)? FIRST_ID : after.id().toString();
+
+    try(final ResultSet result = sql.executeQuery(tne.loadReceiptsPage(), new Object[]{
+            participant.toString(), new Timestamp(since), before, before, id, limit })) {
+      while(result.next()) {
+
+        final UUID uid = UUID.fromString(result.getString("uid"));
+        Receipt receipt = page.get(uid);
+        if(receipt == null) {
+
+          receipt = load(result, sql, tne);
+          page.put(uid, receipt);
+        }
+        pageRow(receipt, result);
+      }
+    } catch(final SQLException e) {
+      PluginCore.log().error("Unable to load a page of receipts for " + participant + ".", e, DebugLevel.STANDARD);
+    } finally {
+      PAGE.since(start);
+    }
+
+    for(final Receipt receipt : page.values()) {
+      receipt.clearDirty();
+    }
+    return new ArrayList<>(page.values());
+  }
+
+  /**
+   * Adds a row of the joined page query to its receipt. Each row holds one participant, one of its
+   * holdings entries and its modifier, so the participant is only created the first time it's seen.
+   */
+  private void pageRow(final Receipt receipt, final ResultSet result) throws SQLException {
+
+    final String id = result.getString("participant");
+    if(id == null) {
+      return;
+    }
+
+    final boolean from = result.getString("participant_type").toLowerCase(Locale.ROOT).equals("from");
+    TransactionParticipant participant = (from)? receipt.getFrom() : receipt.getTo();
+    if(participant == null) {
+
+      participant = new TransactionParticipant(UUID.fromString(id), new ArrayList<>());
+      participant.setTax(result.getBigDecimal("tax"));
+
+      HoldingsModifier modifier = null;
+      if(result.getString("operation") != null) {
+        modifier = new HoldingsModifier(
+                result.getString("modifier_region"),
+                UUID.fromString(result.getString("modifier_currency")),
+                result.getBigDecimal("modifier"),
+                HoldingsOperation.valueOf(result.getString("operation")));
+      }
+
+      if(from) {
+        receipt.setFrom(participant);
+        receipt.setModifierFrom(modifier);
+      } else {
+        receipt.setTo(participant);
+        receipt.setModifierTo(modifier);
+      }
+    }
+
+    if(result.getString("holdings_type") != null) {
+
+      final HoldingsEntry entry = new HoldingsEntry(
+              result.getString("holdings_region"),
+              UUID.fromString(result.getString("holdings_currency")),
+              result.getBigDecimal("holdings"),
+              Identifier.fromID(result.getString("holdings_type"))
+      );
+
+      if(result.getBoolean("ending")) {
+        participant.getEndingBalances().add(entry);
+      } else {
+        participant.getStartingBalances().add(entry);
+      }
+    }
+  }
+
   /**
    * Used to load all objects of this type.
    *
@@ -308,6 +519,11 @@ public class SQLReceipt implements Datable<Receipt> {
   @Override
   public Collection<Receipt> loadAll(final StorageConnector<?> connector, @Nullable final String identifier) {
 
+    return LOAD_ALL.time(()->readAll(connector, identifier));
+  }
+
+  private Collection<Receipt> readAll(final StorageConnector<?> connector, @Nullable final String identifier) {
+
     final Collection<Receipt> receipts = new ArrayList<>(); // is this required? Not entirely sure it is - seems maybe a waste
     if(connector instanceof final SQLConnector sql && sql.dialect() instanceof final TNEDialect tne) {
 
@@ -29,6 +29,7 @@ import net.tnemc.core.account.shared.Member;
 import net.tnemc.core.api.callback.account.AccountLoadCallback;
 import net.tnemc.core.api.callback.account.AccountSaveCallback;
 import net.tnemc.core.api.response.AccountAPIResponse;
+import net.tnemc.core.manager.metrics.Histogram;
 import net.tnemc.plugincore.PluginCore;
 import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
 import net.tnemc.plugincore.core.id.UUIDPair;
@@ -55,6 +56,11 @@ import java.util.UUID;
  */
 public class YAMLAccount implements Datable<Account> {
 
+  private static final Histogram STORE = TNECore.metrics().storage("account", "store");
+  private static final Histogram STORE_ALL = TNECore.metrics().storage("account", "storeAll");
+  private static final Histogram LOAD = TNECore.metrics().storage("account", "load");
+  private static final Histogram LOAD_ALL = TNECore.metrics().storage("account", "loadAll");
+
   /**
    * The class that is represented by the O parameter.
    *
@@ -85,6 +91,11 @@ public class YAMLAccount implements Datable<Account> {
   @Override
   public void store(final StorageConnector<?> connector, @NotNull final Account account, @Nullable final String identifier) {
 
+    STORE.time(()->save(connector, account, identifier));
+  }
+
+  private void save(final StorageConnector<?> connector, @NotNull final Account account, @Nullable final String identifier) {
+
     //MISCUtils.printStack();
 
     PluginCore.log().debug("Saving Account with ID: " + identifier + " Name: " + account.getName(), DebugLevel.STANDARD);
@@ -172,6 +183,11 @@ public class YAMLAccount implements Datable<Account> {
   @Override
   public void storeAll(final StorageConnector<?> connector, @Nullable final String identifier) {
 
+    STORE_ALL.time(()->saveAll(connector, identifier));
+  }
+
+  private void saveAll(final StorageConnector<?> connector, @Nullable final String identifier) {
+
     for(final Account account : TNECore.eco().account().getAccounts().values()) {
       if(account.isDirty()) {
         store(connector, account, account.getIdentifier().toString());
@@ -203,6 +219,11 @@ public class YAMLAccount implements Datable<Account> {
   @Override
   public Optional<Account> load(final StorageConnector<?> connector, @NotNull final String identifier) {
 
+    return LOAD.time(()->read(connector, identifier));
+  }
+
+  private Optional<Account> read(final StorageConnector<?> connector, @NotNull final String identifier) {
+
     final File accFile = new File(PluginCore.directory(), "accounts/" + identifier + ".yml");
     if(!accFile.exists()) {
       PluginCore.log().error("Null account file passed to YAMLAccount.load. Account: " + identifier, DebugLevel.OFF);
@@ -308,6 +329,11 @@ public class YAMLAccount implements Datable<Account> {
   @Override
   public Collection<Account> loadAll(final StorageConnector<?> connector, @Nullable final String identifier) {
 
+    return LOAD_ALL.time(()->readAll(connector, identifier));
+  }
+
+  private Collection<Account> readAll(final StorageConnector<?> connector, @Nullable final String identifier) {
+
     final Collection<Account> accounts = new ArrayList<>();
 
     for(final File file : IOUtil.getYAMLs(new File(PluginCore.directory(), "accounts"))) {
@@ -27,6 +27,7 @@ import net.tnemc.core.account.holdings.CurrencyHoldings;
 import net.tnemc.core.account.holdings.HoldingsEntry;
 import net.tnemc.core.account.holdings.RegionHoldings;
 import net.tnemc.core.config.MainConfig;
+import net.tnemc.core.manager.metrics.Histogram;
 import net.tnemc.core.utils.Identifier;
 import net.tnemc.plugincore.PluginCore;
 import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
@@ -53,6 +54,10 @@ import java.util.UUID;
  */
 public class YAMLHoldings implements Datable<HoldingsEntry> {
 
+  private static final Histogram STORE = TNECore.metrics().storage("holdings", "store");
+  private static final Histogram STORE_ALL = TNECore.metrics().storage("holdings", "storeAll");
+  private static final Histogram LOAD_ALL = TNECore.metrics().storage("holdings", "loadAll");
+
   /**
    * The class that is represented by the O parameter.
    *
@@ -83,6 +88,11 @@ public class YAMLHoldings implements Datable<HoldingsEntry> {
   @Override
   public void store(final StorageConnector<?> connector, @NotNull final HoldingsEntry object, @Nullable final String identifier) {
 
+    STORE.time(()->save(connector, object, identifier));
+  }
+
+  private void save(final StorageConnector<?> connector, @NotNull final HoldingsEntry object, @Nullable final String identifier) {
+
     //check if our file is in use.
     final String file = "accounts/" + identifier + ".yml";
     while(TNECore.yaml().inUse(file)) {
@@ -141,6 +151,11 @@ public class YAMLHoldings implements Datable<HoldingsEntry> {
   @Override
   public void storeAll(final StorageConnector<?> connector, @Nullable final String identifier) {
 
+    STORE_ALL.time(()->saveAll(connector, identifier));
+  }
+
+  private void saveAll(final StorageConnector<?> connector, @Nullable final String identifier) {
+
     final Optional<Account> account = TNECore.eco().account().findAccount(identifier);
     if(account.isPresent()) {
 
@@ -231,6 +246,11 @@ public class YAMLHoldings implements Datable<HoldingsEntry> {
   @Override
   public Collection<HoldingsEntry> loadAll(final StorageConnector<?> connector, @Nullable final String identifier) {
 
+    return LOAD_ALL.time(()->readAll(connector, identifier));
+  }
+
+  private Collection<HoldingsEntry> readAll(final StorageConnector<?> connector, @Nullable final String identifier) {
+
     final Collection<HoldingsEntry> holdings = new ArrayList<>();
 
     if(identifier != null) {
@@ -26,6 +26,7 @@ import net.tnemc.core.account.holdings.modify.HoldingsModifier;
 import net.tnemc.core.account.holdings.modify.HoldingsOperation;
 import net.tnemc.core.actions.ActionSource;
 import net.tnemc.core.manager.TransactionManager;
+import net.tnemc.core.manager.metrics.Histogram;
 import net.tnemc.core.transaction.Receipt;
 import net.tnemc.core.transaction.TransactionParticipant;
 import net.tnemc.core.utils.Identifier;
@@ -55,6 +56,11 @@ import java.util.UUID;
  */
 public class YAMLReceipt implements Datable<Receipt> {
 
+  private static final Histogram STORE = TNECore.metrics().storage("receipt", "store");
+  private static final Histogram STORE_ALL = TNECore.metrics().storage("receipt", "storeAll");
+  private static final Histogram LOAD = TNECore.metrics().storage("receipt", "load");
+  private static final Histogram LOAD_ALL = TNECore.metrics().storage("receipt", "loadAll");
+
   /**
    * The class that is represented by the O parameter.
    *
@@ -87,6 +93,11 @@ public class YAMLReceipt implements Datable<Receipt> {
   @Override
   public void store(final StorageConnector<?> connector, @NotNull final Receipt receipt, @Nullable final String identifier) {
 
+    STORE.time(()->save(connector, receipt, identifier));
+  }
+
+  private void save(final StorageConnector<?> connector, @NotNull final Receipt receipt, @Nullable final String identifier) {
+
 
     final String fileSrc = "transactions/" + receipt.getId().toString() + ".yml";
     TNECore.yaml().add(fileSrc);
@@ -181,6 +192,11 @@ public class YAMLReceipt implements Datable<Receipt> {
   @Override
   public void storeAll(final StorageConnector<?> connector, @Nullable final String identifier) {
 
+    STORE_ALL.time(()->saveAll(connector, identifier));
+  }
+
+  private void saveAll(final StorageConnector<?> connector, @Nullable final String identifier) {
+
     for(final Receipt receipt : TransactionManager.receipts().getReceipts().values()) {
       if(receipt.isDirty()) {
         store(connector, receipt, identifier);
@@ -190,7 +206,11 @@ public class YAMLReceipt implements Datable<Receipt> {
 
   @Override
   public void delete(final StorageConnector<?> connector, @NotNull final String identifier) {
-    //nothing to see here
+
+    final File file = new File(PluginCore.directory(), "transactions/" + identifier + ".yml");
+    if(file.exists() && !file.delete()) {
+      PluginCore.log().error("Issue deleting transaction file. Transaction: " + identifier);
+    }
   }
 
   /**
@@ -204,6 +224,11 @@ public class YAMLReceipt implements Datable<Receipt> {
   @Override
   public Optional<Receipt> load(final StorageConnector<?> connector, @NotNull final String identifier) {
 
+    return LOAD.time(()->read(connector, identifier));
+  }
+
+  private Optional<Receipt> read(final StorageConnector<?> connector, @NotNull final String identifier) {
+
     final File file = new File(PluginCore.directory(), "transactions/" + identifier + ".yml");
     if(!file.exists()) {
 
@@ -342,6 +367,11 @@ public class YAMLReceipt implements Datable<Receipt> {
   @Override
   public Collection<Receipt> loadAll(final StorageConnector<?> connector, @Nullable final String identifier) {
 
+    return LOAD_ALL.time(()->readAll(connector, identifier));
+  }
+
+  private Collection<Receipt> readAll(final StorageConnector<?> connector, @Nullable final String identifier) {
+
     final Collection<Receipt> receipts = new ArrayList<>();
 
     for(final File file : IOUtil.getYAMLs(new File(PluginCore.directory(), "transactions"))) {
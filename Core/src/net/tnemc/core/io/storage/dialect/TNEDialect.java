@@ -56,6 +56,26 @@ public interface TNEDialect extends Dialect {
   @Language("SQL")
   String receiptsModifiersTable();
 
+  //checks if the specified table has the modified column used by the change feed
+  @Language("SQL")
+  String modifiedColumn(final String table);
+
+  //adds the modified column, and its index, to the specified table
+  @Language("SQL")
+  String addModifiedColumn(final String table);
+
+  //checks if the specified index exists on the specified table
+  @Language("SQL")
+  String index(final String table, final String index);
+
+  //adds an index over the specified columns to the specified table
+  @Language("SQL")
+  String addIndex(final String table, final String index, final String columns);
+
+  //the database's current time, used as the change feed watermark
+  @Language("SQL")
+  String currentTime();
+
   @Language("SQL")
   String accountPurge(final int days);
 
@@ -70,6 +90,34 @@ public interface TNEDialect extends Dialect {
   @Language("SQL")
   String loadAccounts();
 
+  //bulk account load, joined with the player and non-player tables, keyset paged by uid
+  @Language("SQL")
+  String loadAccountsPage();
+
+  //bulk members load for every account in the uid range (exclusive, inclusive]
+  @Language("SQL")
+  String loadMembersRange();
+
+  //bulk holdings load for every account in the uid range (exclusive, inclusive]
+  @Language("SQL")
+  String loadHoldingsRange();
+
+  //accounts modified after the specified time
+  @Language("SQL")
+  String loadChangedAccounts();
+
+  //holdings for this server modified after the specified time
+  @Language("SQL")
+  String loadChangedHoldings();
+
+  //every stored holdings row of a currency in a region for this server, with the account's username, for baltop
+  @Language("SQL")
+  String loadTopHoldings();
+
+  //receipts modified after the specified time
+  @Language("SQL")
+  String loadChangedReceipts();
+
   //account load
   @Language("SQL")
   String loadAccount();
@@ -122,6 +170,10 @@ public interface TNEDialect extends Dialect {
   @Language("SQL")
   String saveHoldings();
 
+  //single holdings entry delete
+  @Language("SQL")
+  String deleteHolding();
+
   //receipts load
   @Language("SQL")
   String loadReceipts();
@@ -130,6 +182,15 @@ public interface TNEDialect extends Dialect {
   @Language("SQL")
   String saveReceipt();
 
+  //receipt delete, the participants, holdings and modifiers are removed by the foreign keys
+  @Language("SQL")
+  String deleteReceipt();
+
+  //a page of a participant's receipts, newest first, keyed by (performed, uid), with the participants,
+  //holdings and modifiers joined in
+  @Language("SQL")
+  String loadReceiptsPage();
+
   //receipts load
   @Language("SQL")
   String loadReceiptHolding();
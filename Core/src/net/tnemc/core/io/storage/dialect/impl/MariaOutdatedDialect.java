@@ -38,6 +38,23 @@ public class MariaOutdatedDialect implements TNEDialect {
   @Language("SQL")
   protected final String loadAccounts;
 
+  @Language("SQL")
+  protected final String loadAccountsPage;
+
+  @Language("SQL")
+  protected final String loadMembersRange;
+
+  @Language("SQL")
+  protected final String loadHoldingsRange;
+  @Language("SQL")
+  protected final String loadChangedAccounts;
+  @Language("SQL")
+  protected final String loadChangedHoldings;
+  @Language("SQL")
+  protected final String loadTopHoldings;
+  @Language("SQL")
+  protected final String loadChangedReceipts;
+
   @Language("SQL")
   protected final String loadAccount;
 
@@ -76,6 +93,8 @@ public class MariaOutdatedDialect implements TNEDialect {
 
   @Language("SQL")
   protected final String saveHolding;
+  @Language("SQL")
+  protected final String deleteHolding;
 
   @Language("SQL")
   protected final String loadReceipts;
@@ -83,6 +102,12 @@ public class MariaOutdatedDialect implements TNEDialect {
   @Language("SQL")
   protected final String saveReceipt;
 
+  @Language("SQL")
+  protected final String deleteReceipt;
+
+  @Language("SQL")
+  protected final String loadReceiptsPage;
+
   @Language("SQL")
   protected final String loadReceiptHolding;
 
@@ -111,6 +136,34 @@ public class MariaOutdatedDialect implements TNEDialect {
 
     this.loadAccounts = "SELECT uid AS uid, username, account_type, created, pin, status FROM " + prefix + "accounts";
 
+    this.loadAccountsPage = "SELECT a.uid AS uid, a.username, a.account_type, a.created, a.pin, a.status, " +
+                            "p.last_online, n.owner AS owner FROM " + prefix + "accounts a " +
+                            "LEFT JOIN " + prefix + "players_accounts p ON p.uid = a.uid " +
+                            "LEFT JOIN " + prefix + "non_players_accounts n ON n.uid = a.uid " +
+                            "WHERE a.uid > ? ORDER BY a.uid LIMIT ?";
+
+    this.loadMembersRange = "SELECT uid AS uid, account AS account, perm, perm_value FROM " + prefix +
+                            "account_members WHERE account > ? AND account <= ?";
+
+    this.loadHoldingsRange = "SELECT uid AS uid, region, currency AS currency, holdings_type, holdings FROM " + prefix +
+                             "holdings WHERE server = ? AND uid > ? AND uid <= ?";
+
+    this.loadChangedAccounts = "SELECT a.uid AS uid, a.username, a.account_type, a.created, a.pin, a.status, " +
+                               "p.last_online, n.owner AS owner FROM " + prefix + "accounts a " +
+                               "LEFT JOIN " + prefix + "players_accounts p ON p.uid = a.uid " +
+                               "LEFT JOIN " + prefix + "non_players_accounts n ON n.uid = a.uid " +
+                               "WHERE a.modified > ? ORDER BY a.modified";
+
+    this.loadChangedHoldings = "SELECT uid AS uid, region, currency AS currency, holdings_type, holdings FROM " + prefix +
+                               "holdings WHERE server = ? AND modified > ?";
+
+    this.loadTopHoldings = "SELECT a.uid AS uid, a.username, h.holdings FROM " + prefix + "holdings h " +
+                           "INNER JOIN " + prefix + "accounts a ON a.uid = h.uid " +
+                           "WHERE h.server = ? AND h.region = ? AND h.currency = ?";
+
+    this.loadChangedReceipts = "SELECT uid AS uid, performed, receipt_type, receipt_source, receipt_source_type, archive, voided FROM " +
+                               prefix + "receipts WHERE modified > ? ORDER BY modified";
+
     this.loadAccount = "SELECT username, account_type, created, pin, status FROM " + prefix + "accounts WHERE uid = ?";
 
     this.loadAccountByUsername = "SELECT uid AS uid FROM " + prefix + "accounts WHERE username = ?";
@@ -143,6 +196,8 @@ public class MariaOutdatedDialect implements TNEDialect {
     this.saveHolding = "INSERT INTO " + prefix + "holdings (uid, server, region, currency, holdings_type, holdings) " +
                        "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE holdings = ?";
 
+    this.deleteHolding = "DELETE FROM " + prefix + "holdings WHERE uid = ? AND server = ? AND region = ? AND currency = ? AND holdings_type = ?";
+
     this.loadReceipts = "SELECT uid AS uid, performed, receipt_type, receipt_source, receipt_source_type, archive, voided FROM " +
                         prefix + "receipts";
 
@@ -150,6 +205,24 @@ public class MariaOutdatedDialect implements TNEDialect {
                        "receipt_source_type, archive, voided) " +
                        "VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE archive = ?, voided = ?";
 
+    this.deleteReceipt = "DELETE FROM " + prefix + "receipts WHERE uid = ?";
+
+    this.loadReceiptsPage = "SELECT r.uid AS uid, r.performed, r.receipt_type, r.receipt_source, r.receipt_source_type, r.archive, r.voided, " +
+                            "p.participant AS participant, p.participant_type, p.tax, h.ending, h.region AS holdings_region, " +
+                            "h.currency AS holdings_currency, h.holdings_type, h.holdings, m.operation, " +
+                            "m.region AS modifier_region, m.currency AS modifier_currency, m.modifier FROM " +
+                            "(SELECT DISTINCT k.uid, k.performed FROM " + prefix + "receipts k " +
+                            "JOIN " + prefix + "receipts_participants kp ON kp.uid = k.uid " +
+                            "WHERE kp.participant = ? AND k.performed > ? " +
+                            "AND (k.performed < ? OR (k.performed = ? AND k.uid < ?)) " +
+                            "ORDER BY k.performed DESC, k.uid DESC LIMIT ?) pg " +
+                            "JOIN " + prefix + "receipts r ON r.uid = pg.uid " +
+                            "LEFT JOIN " + prefix + "receipts_participants p ON p.uid = r.uid " +
+                            "LEFT JOIN " + prefix + "receipts_modifiers m ON m.uid = p.uid AND m.participant = p.participant " +
+                            "AND m.participant_type = p.participant_type " +
+                            "LEFT JOIN " + prefix + "receipts_holdings h ON h.uid = p.uid AND h.participant = p.participant " +
+                            "ORDER BY r.performed DESC, r.uid DESC";
+
     this.loadReceiptHolding = "SELECT participant AS participant, ending, server, region, " +
                               "currency AS currency, holdings_type, holdings FROM " +
                               prefix + "receipts_holdings WHERE uid = ? AND participant = ? AND ending = ?";
@@ -244,7 +317,8 @@ public class MariaOutdatedDialect implements TNEDialect {
            "    receipt_source VARCHAR(60) NOT NULL,\n" +
            "    receipt_source_type VARCHAR(30) NOT NULL,\n" +
            "    archive TINYINT(1) NOT NULL,\n" +
-           "    voided TINYINT(1) NOT NULL\n" +
+           "    voided TINYINT(1) NOT NULL,\n" +
+           "    INDEX " + prefix + "receipts_performed (performed, uid)\n" +
            "    );";
   }
 
@@ -272,6 +346,7 @@ public class MariaOutdatedDialect implements TNEDialect {
            "    participant VARCHAR(36) NOT NULL,\n" +
            "    participant_type VARCHAR(10) NOT NULL,\n" +
            "    tax DECIMAL(49, 4) NOT NULL,\n" +
+           "    INDEX " + prefix + "receipts_participants_participant (participant, uid),\n" +
            "    FOREIGN KEY(uid) REFERENCES " + prefix + "receipts(uid) ON DELETE CASCADE\n" +
            "    );";
   }
@@ -291,6 +366,40 @@ public class MariaOutdatedDialect implements TNEDialect {
            "    );";
   }
 
+  @Override
+  public @Language("SQL") String modifiedColumn(final String table) {
+
+    return "SELECT COUNT(*) AS total FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() " +
+           "AND TABLE_NAME = '" + prefix + table + "' AND COLUMN_NAME = 'modified'";
+  }
+
+  @Override
+  public @Language("SQL") String addModifiedColumn(final String table) {
+
+    return "ALTER TABLE " + prefix + table + " " +
+           "ADD COLUMN modified TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3), " +
+           "ADD INDEX " + prefix + table + "_modified (modified)";
+  }
+
+  @Override
+  public @Language("SQL") String index(final String table, final String index) {
+
+    return "SELECT COUNT(*) AS total FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() " +
+           "AND TABLE_NAME = '" + prefix + table + "' AND INDEX_NAME = '" + prefix + index + "'";
+  }
+
+  @Override
+  public @Language("SQL") String addIndex(final String table, final String index, final String columns) {
+
+    return "ALTER TABLE " + prefix + table + " ADD INDEX " + prefix + index + " (" + columns + ")";
+  }
+
+  @Override
+  public @Language("SQL") String currentTime() {
+
+    return "SELECT CURRENT_TIMESTAMP(3) AS now";
+  }
+
   @Override
   public @Language("SQL") String accountPurge(final int days) {
 
@@ -328,6 +437,48 @@ public class MariaOutdatedDialect implements TNEDialect {
     return loadAccounts;
   }
 
+  @Override
+  public @Language("SQL") String loadAccountsPage() {
+
+    return loadAccountsPage;
+  }
+
+  @Override
+  public @Language("SQL") String loadMembersRange() {
+
+    return loadMembersRange;
+  }
+
+  @Override
+  public @Language("SQL") String loadHoldingsRange() {
+
+    return loadHoldingsRange;
+  }
+
+  @Override
+  public @Language("SQL") String loadChangedAccounts() {
+
+    return loadChangedAccounts;
+  }
+
+  @Override
+  public @Language("SQL") String loadChangedHoldings() {
+
+    return loadChangedHoldings;
+  }
+
+  @Override
+  public @Language("SQL") String loadTopHoldings() {
+
+    return loadTopHoldings;
+  }
+
+  @Override
+  public @Language("SQL") String loadChangedReceipts() {
+
+    return loadChangedReceipts;
+  }
+
   @Override
   public @Language("SQL") String loadAccount() {
 
@@ -406,6 +557,12 @@ public class MariaOutdatedDialect implements TNEDialect {
     return saveHolding;
   }
 
+  @Override
+  public @Language("SQL") String deleteHolding() {
+
+    return deleteHolding;
+  }
+
   @Override
   public @Language("SQL") String loadReceipts() {
 
@@ -418,6 +575,18 @@ public class MariaOutdatedDialect implements TNEDialect {
     return saveReceipt;
   }
 
+  @Override
+  public @Language("SQL") String deleteReceipt() {
+
+    return deleteReceipt;
+  }
+
+  @Override
+  public @Language("SQL") String loadReceiptsPage() {
+
+    return loadReceiptsPage;
+  }
+
   @Override
   public @Language("SQL") String loadReceiptHolding() {
 
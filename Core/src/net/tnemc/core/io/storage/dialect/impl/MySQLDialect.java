@@ -35,6 +35,20 @@ public class MySQLDialect implements TNEDialect {
   @Language("SQL")
   protected final String loadAccounts;
   @Language("SQL")
+  protected final String loadAccountsPage;
+  @Language("SQL")
+  protected final String loadMembersRange;
+  @Language("SQL")
+  protected final String loadHoldingsRange;
+  @Language("SQL")
+  protected final String loadChangedAccounts;
+  @Language("SQL")
+  protected final String loadChangedHoldings;
+  @Language("SQL")
+  protected final String loadTopHoldings;
+  @Language("SQL")
+  protected final String loadChangedReceipts;
+  @Language("SQL")
   protected final String loadAccount;
   @Language("SQL")
   protected final String loadAccountByUsername;
@@ -61,10 +75,16 @@ public class MySQLDialect implements TNEDialect {
   @Language("SQL")
   protected final String saveHolding;
   @Language("SQL")
+  protected final String deleteHolding;
+  @Language("SQL")
   protected final String loadReceipts;
   @Language("SQL")
   protected final String saveReceipt;
   @Language("SQL")
+  protected final String deleteReceipt;
+  @Language("SQL")
+  protected final String loadReceiptsPage;
+  @Language("SQL")
   protected final String loadReceiptHolding;
   @Language("SQL")
   protected final String saveReceiptHolding;
@@ -87,6 +107,34 @@ public class MySQLDialect implements TNEDialect {
 
     this.loadAccounts = "SELECT BIN_TO_UUID(uid) AS uid, username, account_type, created, pin, status FROM " + prefix + "accounts";
 
+    this.loadAccountsPage = "SELECT BIN_TO_UUID(a.uid) AS uid, a.username, a.account_type, a.created, a.pin, a.status, " +
+                            "p.last_online, BIN_TO_UUID(n.owner) AS owner FROM " + prefix + "accounts a " +
+                            "LEFT JOIN " + prefix + "players_accounts p ON p.uid = a.uid " +
+                            "LEFT JOIN " + prefix + "non_players_accounts n ON n.uid = a.uid " +
+                            "WHERE a.uid > UUID_TO_BIN(?) ORDER BY a.uid LIMIT ?";
+
+    this.loadMembersRange = "SELECT BIN_TO_UUID(uid) AS uid, BIN_TO_UUID(account) AS account, perm, perm_value FROM " + prefix +
+                            "account_members WHERE account > UUID_TO_BIN(?) AND account <= UUID_TO_BIN(?)";
+
+    this.loadHoldingsRange = "SELECT BIN_TO_UUID(uid) AS uid, region, BIN_TO_UUID(currency) AS currency, holdings_type, holdings FROM " + prefix +
+                             "holdings WHERE server = ? AND uid > UUID_TO_BIN(?) AND uid <= UUID_TO_BIN(?)";
+
+    this.loadChangedAccounts = "SELECT BIN_TO_UUID(a.uid) AS uid, a.username, a.account_type, a.created, a.pin, a.status, " +
+                               "p.last_online, BIN_TO_UUID(n.owner) AS owner FROM " + prefix + "accounts a " +
+                               "LEFT JOIN " + prefix + "players_accounts p ON p.uid = a.uid " +
+                               "LEFT JOIN " + prefix + "non_players_accounts n ON n.uid = a.uid " +
+                               "WHERE a.modified > ? ORDER BY a.modified";
+
+    this.loadChangedHoldings = "SELECT BIN_TO_UUID(uid) AS uid, region, BIN_TO_UUID(currency) AS currency, holdings_type, holdings FROM " + prefix +
+                               "holdings WHERE server = ? AND modified > ?";
+
+    this.loadTopHoldings = "SELECT BIN_TO_UUID(a.uid) AS uid, a.username, h.holdings FROM " + prefix + "holdings h " +
+                           "INNER JOIN " + prefix + "accounts a ON a.uid = h.uid " +
+                           "WHERE h.server = ? AND h.region = ? AND h.currency = UUID_TO_BIN(?)";
+
+    this.loadChangedReceipts = "SELECT BIN_TO_UUID(uid) AS uid, performed, receipt_type, receipt_source, receipt_source_type, archive, voided FROM " +
+                               prefix + "receipts WHERE modified > ? ORDER BY modified";
+
     this.loadAccount = "SELECT username, account_type, created, pin, status FROM " + prefix + "accounts WHERE uid = UUID_TO_BIN(?)";
 
     this.loadAccountByUsername = "SELECT BIN_TO_UUID(uid) AS uid FROM " + prefix + "accounts WHERE username = ?";
@@ -119,6 +167,8 @@ public class MySQLDialect implements TNEDialect {
     this.saveHolding = "INSERT INTO " + prefix + "holdings (uid, server, region, currency, holdings_type, holdings) " +
                        "VALUES (UUID_TO_BIN(?), ?, ?, UUID_TO_BIN(?), ?, ?) ON DUPLICATE KEY UPDATE holdings = ?";
 
+    this.deleteHolding = "DELETE FROM " + prefix + "holdings WHERE uid = UUID_TO_BIN(?) AND server = ? AND region = ? AND currency = UUID_TO_BIN(?) AND holdings_type = ?";
+
     this.loadReceipts = "SELECT BIN_TO_UUID(uid) AS uid, performed, receipt_type, receipt_source, receipt_source_type, archive, voided FROM " +
                         prefix + "receipts";
 
@@ -126,6 +176,24 @@ public class MySQLDialect implements TNEDialect {
                        "receipt_source_type, archive, voided) " +
                        "VALUES (UUID_TO_BIN(?), ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE archive = ?, voided = ?";
 
+    this.deleteReceipt = "DELETE FROM " + prefix + "receipts WHERE uid = UUID_TO_BIN(?)";
+
+    this.loadReceiptsPage = "SELECT BIN_TO_UUID(r.uid) AS uid, r.performed, r.receipt_type, r.receipt_source, r.receipt_source_type, r.archive, r.voided, " +
+                            "BIN_TO_UUID(p.participant) AS participant, p.participant_type, p.tax, h.ending, h.region AS holdings_region, " +
+                            "BIN_TO_UUID(h.currency) AS holdings_currency, h.holdings_type, h.holdings, m.operation, " +
+                            "m.region AS modifier_region, BIN_TO_UUID(m.currency) AS modifier_currency, m.modifier FROM " +
+                            "(SELECT DISTINCT k.uid, k.performed FROM " + prefix + "receipts k " +
+                            "JOIN " + prefix + "receipts_participants kp ON kp.uid = k.uid " +
+                            "WHERE kp.participant = UUID_TO_BIN(?) AND k.performed > ? " +
+                            "AND (k.performed < ? OR (k.performed = ? AND k.uid < UUID_TO_BIN(?))) " +
+                            "ORDER BY k.performed DESC, k.uid DESC LIMIT ?) pg " +
+                            "JOIN " + prefix + "receipts r ON r.uid = pg.uid " +
+                            "LEFT JOIN " + prefix + "receipts_participants p ON p.uid = r.uid " +
+                            "LEFT JOIN " + prefix + "receipts_modifiers m ON m.uid = p.uid AND m.participant = p.participant " +
+                            "AND m.participant_type = p.participant_type " +
+                            "LEFT JOIN " + prefix + "receipts_holdings h ON h.uid = p.uid AND h.participant = p.participant " +
+                            "ORDER BY r.performed DESC, r.uid DESC";
+
     this.loadReceiptHolding = "SELECT BIN_TO_UUID(participant) AS participant, ending, server, region, " +
                               "BIN_TO_UUID(currency) AS currency, holdings_type, holdings FROM " +
                               prefix + "receipts_holdings WHERE uid = UUID_TO_BIN(?) AND participant = UUID_TO_BIN(?) AND ending = ?";
@@ -220,7 +288,8 @@ public class MySQLDialect implements TNEDialect {
            "    receipt_source VARCHAR(60) NOT NULL,\n" +
            "    receipt_source_type VARCHAR(30) NOT NULL,\n" +
            "    archive TINYINT(1) NOT NULL,\n" +
-           "    voided TINYINT(1) NOT NULL\n" +
+           "    voided TINYINT(1) NOT NULL,\n" +
+           "    INDEX " + prefix + "receipts_performed (performed, uid)\n" +
            "    );";
   }
 
@@ -248,6 +317,7 @@ public class MySQLDialect implements TNEDialect {
            "    participant BINARY(16) NOT NULL,\n" +
            "    participant_type VARCHAR(10) NOT NULL,\n" +
            "    tax DECIMAL(49, 4) NOT NULL,\n" +
+           "    INDEX " + prefix + "receipts_participants_participant (participant, uid),\n" +
            "    FOREIGN KEY(uid) REFERENCES " + prefix + "receipts(uid) ON DELETE CASCADE\n" +
            "    );";
   }
@@ -268,6 +338,40 @@ public class MySQLDialect implements TNEDialect {
            "    );";
   }
 
+  @Override
+  public @Language("SQL") String modifiedColumn(final String table) {
+
+    return "SELECT COUNT(*) AS total FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() " +
+           "AND TABLE_NAME = '" + prefix + table + "' AND COLUMN_NAME = 'modified'";
+  }
+
+  @Override
+  public @Language("SQL") String addModifiedColumn(final String table) {
+
+    return "ALTER TABLE " + prefix + table + " " +
+           "ADD COLUMN modified TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3), " +
+           "ADD INDEX " + prefix + table + "_modified (modified)";
+  }
+
+  @Override
+  public @Language("SQL") String index(final String table, final String index) {
+
+    return "SELECT COUNT(*) AS total FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() " +
+           "AND TABLE_NAME = '" + prefix + table + "' AND INDEX_NAME = '" + prefix + index + "'";
+  }
+
+  @Override
+  public @Language("SQL") String addIndex(final String table, final String index, final String columns) {
+
+    return "ALTER TABLE " + prefix + table + " ADD INDEX " + prefix + index + " (" + columns + ")";
+  }
+
+  @Override
+  public @Language("SQL") String currentTime() {
+
+    return "SELECT CURRENT_TIMESTAMP(3) AS now";
+  }
+
   @Override
   public @Language("SQL") String accountPurge(final int days) {
 
@@ -305,6 +409,48 @@ public class MySQLDialect implements TNEDialect {
     return loadAccounts;
   }
 
+  @Override
+  public @Language("SQL") String loadAccountsPage() {
+
+    return loadAccountsPage;
+  }
+
+  @Override
+  public @Language("SQL") String loadMembersRange() {
+
+    return loadMembersRange;
+  }
+
+  @Override
+  public @Language("SQL") String loadHoldingsRange() {
+
+    return loadHoldingsRange;
+  }
+
+  @Override
+  public @Language("SQL") String loadChangedAccounts() {
+
+    return loadChangedAccounts;
+  }
+
+  @Override
+  public @Language("SQL") String loadChangedHoldings() {
+
+    return loadChangedHoldings;
+  }
+
+  @Override
+  public @Language("SQL") String loadTopHoldings() {
+
+    return loadTopHoldings;
+  }
+
+  @Override
+  public @Language("SQL") String loadChangedReceipts() {
+
+    return loadChangedReceipts;
+  }
+
   @Override
   public @Language("SQL") String loadAccount() {
 
@@ -383,6 +529,12 @@ public class MySQLDialect implements TNEDialect {
     return saveHolding;
   }
 
+  @Override
+  public @Language("SQL") String deleteHolding() {
+
+    return deleteHolding;
+  }
+
   @Override
   public @Language("SQL") String loadReceipts() {
 
@@ -395,6 +547,18 @@ public class MySQLDialect implements TNEDialect {
     return saveReceipt;
   }
 
+  @Override
+  public @Language("SQL") String deleteReceipt() {
+
+    return deleteReceipt;
+  }
+
+  @Override
+  public @Language("SQL") String loadReceiptsPage() {
+
+    return loadReceiptsPage;
+  }
+
   @Override
   public @Language("SQL") String loadReceiptHolding() {
 
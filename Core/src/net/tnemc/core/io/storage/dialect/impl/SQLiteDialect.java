@@ -0,0 +1,633 @@
+package net.tnemc.core.io.storage.dialect.impl;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.io.storage.dialect.TNEDialect;
+import org.intellij.lang.annotations.Language;
+
+/**
+ * The dialect for an embedded SQLite database file, used by smaller servers that don't run a
+ * database server. Amounts are stored as text so they keep their exact value, and saves are
+ * upserts so they can be written in batches.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class SQLiteDialect implements TNEDialect {
+
+  //ON CONFLICT DO UPDATE was added in 3.24.0
+  public static final String requirement = "3.24.0";
+
+  //The load and save queries
+  @Language("SQL")
+  protected final String saveName;
+
+  @Language("SQL")
+  protected final String loadAccounts;
+
+  @Language("SQL")
+  protected final String loadAccountsPage;
+
+  @Language("SQL")
+  protected final String loadMembersRange;
+
+  @Language("SQL")
+  protected final String loadHoldingsRange;
+  @Language("SQL")
+  protected final String loadChangedAccounts;
+  @Language("SQL")
+  protected final String loadChangedHoldings;
+  @Language("SQL")
+  protected final String loadTopHoldings;
+  @Language("SQL")
+  protected final String loadChangedReceipts;
+
+  @Language("SQL")
+  protected final String loadAccount;
+
+  @Language("SQL")
+  protected final String loadAccountByUsername;
+
+  @Language("SQL")
+  protected final String expireAccountUsername;
+
+  @Language("SQL")
+  protected final String deleteAccount;
+
+  @Language("SQL")
+  protected final String saveAccount;
+
+  @Language("SQL")
+  protected final String loadNonPlayer;
+
+  @Language("SQL")
+  protected final String saveNonPlayer;
+
+  @Language("SQL")
+  protected final String loadPlayer;
+
+  @Language("SQL")
+  protected final String savePlayer;
+
+  @Language("SQL")
+  protected final String loadMembers;
+
+  @Language("SQL")
+  protected final String saveMember;
+
+  @Language("SQL")
+  protected final String loadHoldings;
+
+  @Language("SQL")
+  protected final String saveHolding;
+  @Language("SQL")
+  protected final String deleteHolding;
+
+  @Language("SQL")
+  protected final String loadReceipts;
+
+  @Language("SQL")
+  protected final String saveReceipt;
+
+  @Language("SQL")
+  protected final String deleteReceipt;
+
+  @Language("SQL")
+  protected final String loadReceiptsPage;
+
+  @Language("SQL")
+  protected final String loadReceiptHolding;
+
+  @Language("SQL")
+  protected final String saveReceiptHolding;
+
+  @Language("SQL")
+  protected final String loadParticipants;
+
+  @Language("SQL")
+  protected final String saveParticipant;
+
+  @Language("SQL")
+  protected final String loadModifiers;
+
+  @Language("SQL")
+  protected final String saveModifier;
+
+  protected final String prefix;
+
+  public SQLiteDialect(final String prefix) {
+
+    this.prefix = prefix;
+
+    this.saveName = "INSERT INTO " + prefix + "player_names (uid, username) VALUES (?, ?) ON CONFLICT(uid) DO UPDATE SET username = ?";
+
+    this.loadAccounts = "SELECT uid AS uid, username, account_type, created, pin, status FROM " + prefix + "accounts";
+
+    this.loadAccountsPage = "SELECT a.uid AS uid, a.username, a.account_type, a.created, a.pin, a.status, " +
+                            "p.last_online, n.owner AS owner FROM " + prefix + "accounts a " +
+                            "LEFT JOIN " + prefix + "players_accounts p ON p.uid = a.uid " +
+                            "LEFT JOIN " + prefix + "non_players_accounts n ON n.uid = a.uid " +
+                            "WHERE a.uid > ? ORDER BY a.uid LIMIT ?";
+
+    this.loadMembersRange = "SELECT uid AS uid, account AS account, perm, perm_value FROM " + prefix +
+                            "account_members WHERE account > ? AND account <= ?";
+
+    this.loadHoldingsRange = "SELECT uid AS uid, region, currency AS currency, holdings_type, holdings FROM " + prefix +
+                             "holdings WHERE server = ? AND uid > ? AND uid <= ?";
+
+    this.loadChangedAccounts = "SELECT a.uid AS uid, a.username, a.account_type, a.created, a.pin, a.status, " +
+                               "p.last_online, n.owner AS owner FROM " + prefix + "accounts a " +
+                               "LEFT JOIN " + prefix + "players_accounts p ON p.uid = a.uid " +
+                               "LEFT JOIN " + prefix + "non_players_accounts n ON n.uid = a.uid " +
+                               "WHERE a.modified > ? ORDER BY a.modified";
+
+    this.loadChangedHoldings = "SELECT uid AS uid, region, currency AS currency, holdings_type, holdings FROM " + prefix +
+                               "holdings WHERE server = ? AND modified > ?";
+
+    this.loadTopHoldings = "SELECT a.uid AS uid, a.username, h.holdings FROM " + prefix + "holdings h " +
+                           "INNER JOIN " + prefix + "accounts a ON a.uid = h.uid " +
+                           "WHERE h.server = ? AND h.region = ? AND h.currency = ?";
+
+    this.loadChangedReceipts = "SELECT uid AS uid, performed, receipt_type, receipt_source, receipt_source_type, archive, voided FROM " +
+                               prefix + "receipts WHERE modified > ? ORDER BY modified";
+
+    this.loadAccount = "SELECT username, account_type, created, pin, status FROM " + prefix + "accounts WHERE uid = ?";
+
+    this.loadAccountByUsername = "SELECT uid AS uid FROM " + prefix + "accounts WHERE username = ?";
+
+    this.expireAccountUsername = "UPDATE " + prefix + "accounts SET username = ? WHERE uid = ? AND username = ?";
+
+    this.deleteAccount = "DELETE FROM " + prefix + "accounts WHERE uid = ?";
+
+    this.saveAccount = "INSERT INTO " + prefix + "accounts (uid, username, account_type, created, pin, status) " +
+                       "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT(uid) DO UPDATE SET username = ?, pin = ?, status = ?";
+
+    this.loadNonPlayer = "SELECT owner AS owner FROM " + prefix + "non_players_accounts WHERE uid = ?";
+
+    this.saveNonPlayer = "INSERT INTO " + prefix + "non_players_accounts (uid, owner) VALUES (?, ?) " +
+                         "ON CONFLICT(uid) DO UPDATE SET owner = ?";
+
+    this.loadPlayer = "SELECT last_online FROM " + prefix + "players_accounts WHERE uid = ?";
+
+    this.savePlayer = "INSERT INTO " + prefix + "players_accounts (uid, last_online) VALUES (?, ?) " +
+                      "ON CONFLICT(uid) DO UPDATE SET last_online = ?";
+
+    this.loadMembers = "SELECT uid AS uid, perm, perm_value FROM " + prefix + "account_members WHERE account = ?";
+
+    this.saveMember = "INSERT INTO " + prefix + "account_members (uid, account, perm, perm_value) VALUES (?, ?, ?, ?) " +
+                      "ON CONFLICT(uid, account, perm) DO UPDATE SET perm_value = ?";
+
+    this.loadHoldings = "SELECT region, currency AS currency, holdings_type, holdings FROM " + prefix +
+                        "holdings WHERE uid = ? AND server = ?";
+
+    this.saveHolding = "INSERT INTO " + prefix + "holdings (uid, server, region, currency, holdings_type, holdings) " +
+                       "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT(uid, server, region, currency, holdings_type) DO UPDATE SET holdings = ?";
+
+    this.deleteHolding = "DELETE FROM " + prefix + "holdings WHERE uid = ? AND server = ? AND region = ? AND currency = ? AND holdings_type = ?";
+
+    this.loadReceipts = "SELECT uid AS uid, performed, receipt_type, receipt_source, receipt_source_type, archive, voided FROM " +
+                        prefix + "receipts";
+
+    this.saveReceipt = "INSERT INTO " + prefix + "receipts (uid, performed, receipt_type, receipt_source, " +
+                       "receipt_source_type, archive, voided) " +
+                       "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT(uid) DO UPDATE SET archive = ?, voided = ?";
+
+    this.deleteReceipt = "DELETE FROM " + prefix + "receipts WHERE uid = ?";
+
+    this.loadReceiptsPage = "SELECT r.uid AS uid, r.performed, r.receipt_type, r.receipt_source, r.receipt_source_type, r.archive, r.voided, " +
+                            "p.participant AS participant, p.participant_type, p.tax, h.ending, h.region AS holdings_region, " +
+                            "h.currency AS holdings_currency, h.holdings_type, h.holdings, m.operation, " +
+                            "m.region AS modifier_region, m.currency AS modifier_currency, m.modifier FROM " +
+                            "(SELECT DISTINCT k.uid, k.performed FROM " + prefix + "receipts k " +
+                            "JOIN " + prefix + "receipts_participants kp ON kp.uid = k.uid " +
+                            "WHERE kp.participant = ? AND k.performed > ? " +
+                            "AND (k.performed < ? OR (k.performed = ? AND k.uid < ?)) " +
+                            "ORDER BY k.performed DESC, k.uid DESC LIMIT ?) pg " +
+                            "JOIN " + prefix + "receipts r ON r.uid = pg.uid " +
+                            "LEFT JOIN " + prefix + "receipts_participants p ON p.uid = r.uid " +
+                            "LEFT JOIN " + prefix + "receipts_modifiers m ON m.uid = p.uid AND m.participant = p.participant " +
+                            "AND m.participant_type = p.participant_type " +
+                            "LEFT JOIN " + prefix + "receipts_holdings h ON h.uid = p.uid AND h.participant = p.participant " +
+                            "ORDER BY r.performed DESC, r.uid DESC";
+
+    this.loadReceiptHolding = "SELECT participant AS participant, ending, server, region, " +
+                              "currency AS currency, holdings_type, holdings FROM " +
+                              prefix + "receipts_holdings WHERE uid = ? AND participant = ? AND ending = ?";
+
+    this.saveReceiptHolding = "INSERT INTO " + prefix + "receipts_holdings (uid, participant, ending, " +
+                              "server, region, currency, holdings_type, holdings) " +
+                              "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    this.loadParticipants = "SELECT participant AS participant, participant_type, tax FROM " +
+                            prefix + "receipts_participants WHERE uid = ?";
+
+    this.saveParticipant = "INSERT INTO " + prefix + "receipts_participants (uid, participant, participant_type, tax) " +
+                           "VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    this.loadModifiers = "SELECT participant AS participant, participant_type, operation, region, " +
+                         "currency AS currency, modifier FROM " + prefix + "receipts_modifiers WHERE uid = ? AND participant = ? AND participant_type = ?";
+
+    this.saveModifier = "INSERT INTO " + prefix + "receipts_modifiers (uid, participant, participant_type, operation, region, currency, modifier) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+  }
+
+  @Override
+  public String accountsTable() {
+
+    return "CREATE TABLE IF NOT EXISTS " + prefix + "accounts (\n" +
+           "    uid TEXT NOT NULL PRIMARY KEY,\n" +
+           "    username TEXT NOT NULL UNIQUE,\n" +
+           "    account_type TEXT NOT NULL,\n" +
+           "    created INTEGER NOT NULL,\n" +
+           "    pin TEXT,\n" +
+           "    status TEXT\n" +
+           ");";
+  }
+
+  @Override
+  public String accountsNonPlayerTable() {
+
+    return "CREATE TABLE IF NOT EXISTS " + prefix + "non_players_accounts (\n" +
+           "    uid TEXT NOT NULL PRIMARY KEY,\n" +
+           "    owner TEXT NOT NULL\n" +
+           ");";
+  }
+
+  @Override
+  public String accountsPlayerTable() {
+
+    return "CREATE TABLE IF NOT EXISTS " + prefix + "players_accounts (\n" +
+           "    uid TEXT NOT NULL PRIMARY KEY,\n" +
+           "    last_online INTEGER NOT NULL\n" +
+           ");";
+  }
+
+  @Override
+  public String accountMembersTable() {
+
+    return "CREATE TABLE IF NOT EXISTS " + prefix + "account_members (\n" +
+           "    uid TEXT NOT NULL,\n" +
+           "    account TEXT NOT NULL,\n" +
+           "    perm TEXT NOT NULL,\n" +
+           "    perm_value INTEGER NOT NULL,\n" +
+           "    PRIMARY KEY(uid, account, perm)\n" +
+           ");";
+  }
+
+  @Override
+  public String holdingsTable() {
+
+    return "CREATE TABLE IF NOT EXISTS " + prefix + "holdings (\n" +
+           "    uid TEXT NOT NULL,\n" +
+           "    server TEXT NOT NULL,\n" +
+           "    region TEXT NOT NULL,\n" +
+           "    currency TEXT NOT NULL,\n" +
+           "    holdings_type TEXT NOT NULL,\n" +
+           "    holdings TEXT NOT NULL,\n" +
+           "    PRIMARY KEY(uid, server, region, currency, holdings_type)\n" +
+           ");";
+  }
+
+  @Override
+  public String receiptsTable() {
+
+    return "CREATE TABLE IF NOT EXISTS " + prefix + "receipts (\n" +
+           "    uid TEXT NOT NULL PRIMARY KEY,\n" +
+           "    performed INTEGER NOT NULL,\n" +
+           "    receipt_type TEXT NOT NULL,\n" +
+           "    receipt_source TEXT NOT NULL,\n" +
+           "    receipt_source_type TEXT NOT NULL,\n" +
+           "    archive INTEGER NOT NULL,\n" +
+           "    voided INTEGER NOT NULL\n" +
+           ");";
+  }
+
+  @Override
+  public String receiptsHoldingsTable() {
+
+    return "CREATE TABLE IF NOT EXISTS " + prefix + "receipts_holdings (\n" +
+           "    uid TEXT NOT NULL,\n" +
+           "    participant TEXT NOT NULL,\n" +
+           "    ending INTEGER NOT NULL,\n" +
+           "    server TEXT NOT NULL,\n" +
+           "    region TEXT NOT NULL,\n" +
+           "    currency TEXT NOT NULL,\n" +
+           "    holdings_type TEXT NOT NULL,\n" +
+           "    holdings TEXT NOT NULL,\n" +
+           "    PRIMARY KEY(uid, participant, ending, region, currency, holdings_type)\n" +
+           ");";
+  }
+
+  @Override
+  public String receiptsParticipantsTable() {
+
+    return "CREATE TABLE IF NOT EXISTS " + prefix + "receipts_participants (\n" +
+           "    uid TEXT NOT NULL,\n" +
+           "    participant TEXT NOT NULL,\n" +
+           "    participant_type TEXT NOT NULL,\n" +
+           "    tax TEXT NOT NULL,\n" +
+           "    PRIMARY KEY(uid, participant, participant_type)\n" +
+           ");";
+  }
+
+  @Override
+  public String receiptsModifiersTable() {
+
+    return "CREATE TABLE IF NOT EXISTS " + prefix + "receipts_modifiers (\n" +
+           "    uid TEXT NOT NULL,\n" +
+           "    participant TEXT NOT NULL,\n" +
+           "    participant_type TEXT NOT NULL,\n" +
+           "    operation TEXT NOT NULL,\n" +
+           "    region TEXT NOT NULL,\n" +
+           "    currency TEXT NOT NULL,\n" +
+           "    modifier TEXT NOT NULL,\n" +
+           "    PRIMARY KEY(uid, participant, participant_type)\n" +
+           ");";
+  }
+
+  @Override
+  public @Language("SQL") String modifiedColumn(final String table) {
+
+    return "SELECT COUNT(*) AS total FROM pragma_table_info('" + prefix + table + "') WHERE name = 'modified'";
+  }
+
+  @Override
+  public @Language("SQL") String addModifiedColumn(final String table) {
+
+    //SQLite can't default a new column to the current time, or update it on change.
+    return "ALTER TABLE " + prefix + table + " ADD COLUMN modified INTEGER NOT NULL DEFAULT 0";
+  }
+
+  @Override
+  public @Language("SQL") String index(final String table, final String index) {
+
+    return "SELECT COUNT(*) AS total FROM sqlite_master WHERE type = 'index' " +
+           "AND tbl_name = '" + prefix + table + "' AND name = '" + prefix + index + "'";
+  }
+
+  @Override
+  public @Language("SQL") String addIndex(final String table, final String index, final String columns) {
+
+    return "CREATE INDEX IF NOT EXISTS " + prefix + index + " ON " + prefix + table + " (" + columns + ")";
+  }
+
+  @Override
+  public @Language("SQL") String currentTime() {
+
+    return "SELECT CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER) AS now";
+  }
+
+  /**
+   * Switches the database file to write-ahead logging, so reads don't wait on writes and each
+   * commit is a single append. This is stored in the file, so it only has to be run once.
+   *
+   * @return The pragma statement.
+   */
+  public @Language("SQL") String journalMode() {
+
+    return "PRAGMA journal_mode = WAL";
+  }
+
+  @Override
+  public @Language("SQL") String accountPurge(final int days) {
+
+    //last_online is stored in milliseconds.
+    return "DELETE FROM " + prefix + "accounts WHERE uid IN (" +
+           "SELECT uid FROM " + prefix + "players_accounts " +
+           "WHERE last_online <= CAST((julianday('now') - 2440587.5 - " + days + ") * 86400000 AS INTEGER))";
+  }
+
+  @Override
+  public @Language("SQL") String receiptPurge(final int days) {
+
+    return "DELETE FROM " + prefix + "receipts WHERE archive = 0 " +
+           "AND performed <= CAST((julianday('now') - 2440587.5 - " + days + ") * 86400000 AS INTEGER)";
+  }
+
+  @Override
+  public @Language("SQL") String saveName() {
+
+    return saveName;
+  }
+
+  @Override
+  public @Language("SQL") String loadAccounts() {
+
+    return loadAccounts;
+  }
+
+  @Override
+  public @Language("SQL") String loadAccountsPage() {
+
+    return loadAccountsPage;
+  }
+
+  @Override
+  public @Language("SQL") String loadMembersRange() {
+
+    return loadMembersRange;
+  }
+
+  @Override
+  public @Language("SQL") String loadHoldingsRange() {
+
+    return loadHoldingsRange;
+  }
+
+  @Override
+  public @Language("SQL") String loadChangedAccounts() {
+
+    return loadChangedAccounts;
+  }
+
+  @Override
+  public @Language("SQL") String loadChangedHoldings() {
+
+    return loadChangedHoldings;
+  }
+
+  @Override
+  public @Language("SQL") String loadTopHoldings() {
+
+    return loadTopHoldings;
+  }
+
+  @Override
+  public @Language("SQL") String loadChangedReceipts() {
+
+    return loadChangedReceipts;
+  }
+
+  @Override
+  public @Language("SQL") String loadAccount() {
+
+    return loadAccount;
+  }
+
+  @Override
+  public @Language("SQL") String saveAccount() {
+
+    return saveAccount;
+  }
+
+  @Override
+  public @Language("SQL") String loadAccountByUsername() {
+
+    return loadAccountByUsername;
+  }
+
+  @Override
+  public @Language("SQL") String expireAccountUsername() {
+
+    return expireAccountUsername;
+  }
+
+  @Override
+  public String deleteAccount() {
+
+    return this.deleteAccount;
+  }
+
+  @Override
+  public @Language("SQL") String loadNonPlayer() {
+
+    return loadNonPlayer;
+  }
+
+  @Override
+  public @Language("SQL") String saveNonPlayer() {
+
+    return saveNonPlayer;
+  }
+
+  @Override
+  public @Language("SQL") String loadPlayer() {
+
+    return loadPlayer;
+  }
+
+  @Override
+  public @Language("SQL") String savePlayer() {
+
+    return savePlayer;
+  }
+
+  @Override
+  public @Language("SQL") String loadMembers() {
+
+    return loadMembers;
+  }
+
+  @Override
+  public @Language("SQL") String saveMembers() {
+
+    return saveMember;
+  }
+
+  @Override
+  public @Language("SQL") String loadHoldings() {
+
+    return loadHoldings;
+  }
+
+  @Override
+  public @Language("SQL") String saveHoldings() {
+
+    return saveHolding;
+  }
+
+  @Override
+  public @Language("SQL") String deleteHolding() {
+
+    return deleteHolding;
+  }
+
+  @Override
+  public @Language("SQL") String loadReceipts() {
+
+    return loadReceipts;
+  }
+
+  @Override
+  public @Language("SQL") String saveReceipt() {
+
+    return saveReceipt;
+  }
+
+  @Override
+  public @Language("SQL") String deleteReceipt() {
+
+    return deleteReceipt;
+  }
+
+  @Override
+  public @Language("SQL") String loadReceiptsPage() {
+
+    return loadReceiptsPage;
+  }
+
+  @Override
+  public @Language("SQL") String loadReceiptHolding() {
+
+    return loadReceiptHolding;
+  }
+
+  @Override
+  public @Language("SQL") String saveReceiptHolding() {
+
+    return saveReceiptHolding;
+  }
+
+  @Override
+  public @Language("SQL") String loadParticipants() {
+
+    return loadParticipants;
+  }
+
+  @Override
+  public @Language("SQL") String saveParticipant() {
+
+    return saveParticipant;
+  }
+
+  @Override
+  public @Language("SQL") String loadModifiers() {
+
+    return loadModifiers;
+  }
+
+  @Override
+  public @Language("SQL") String saveModifier() {
+
+    return saveModifier;
+  }
+
+  @Override
+  public String parseVersion(final String version) {
+
+    return version;
+  }
+
+  @Override
+  public String requirement() {
+
+    return requirement;
+  }
+}
\ No newline at end of file
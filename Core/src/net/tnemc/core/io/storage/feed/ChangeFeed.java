@@ -0,0 +1,410 @@
+package net.tnemc.core.io.storage.feed;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+import net.tnemc.core.EconomyManager;
+import net.tnemc.core.TNECore;
+import net.tnemc.core.account.Account;
+import net.tnemc.core.account.AccountStatus;
+import net.tnemc.core.account.PlayerAccount;
+import net.tnemc.core.account.holdings.HoldingsEntry;
+import net.tnemc.core.config.DataConfig;
+import net.tnemc.core.config.MainConfig;
+import net.tnemc.core.currency.Currency;
+import net.tnemc.core.currency.item.ItemCurrency;
+import net.tnemc.core.io.storage.datables.sql.standard.SQLReceipt;
+import net.tnemc.core.io.storage.dialect.TNEDialect;
+import net.tnemc.core.io.storage.dialect.impl.SQLiteDialect;
+import net.tnemc.core.io.storage.queue.WriteBehindQueue;
+import net.tnemc.core.manager.AccountManager;
+import net.tnemc.core.manager.TransactionManager;
+import net.tnemc.core.transaction.Receipt;
+import net.tnemc.core.utils.Identifier;
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
+import net.tnemc.plugincore.core.id.UUIDPair;
+import net.tnemc.plugincore.core.io.storage.StorageManager;
+import net.tnemc.plugincore.core.io.storage.connect.SQLConnector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reloads only the accounts, holdings, and receipts that were changed in the database since the
+ * last sync, instead of clearing everything and loading it all again. The accounts, holdings, and
+ * receipts tables have a modified column, which the database updates whenever a row changes, and
+ * the database time of the last sync is kept as a watermark.
+ * <p>
+ * Changes are merged into the loaded objects in place, off the main thread. Anything changed
+ * locally that hasn't been written yet is left alone, since our write is newer and will reach the
+ * database shortly.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class ChangeFeed {
+
+  private static final String[] TABLES = new String[]{ "accounts", "holdings", "receipts" };
+
+  private final AtomicBoolean running = new AtomicBoolean(false);
+
+  private volatile boolean prepared = false;
+  private volatile long watermark = -1;
+
+  /**
+   * Used to determine if reloads should use the change feed. This requires an SQL based storage
+   * type with the modified columns, and the incremental reload mode.
+   *
+   * @return True if reloads should only pull in changes, otherwise false.
+   */
+  public boolean enabled() {
+
+    return prepared && incremental();
+  }
+
+  /**
+   * Adds the modified column to the tables the change feed reads, if they don't have it yet. This
+   * is called once the tables are created.
+   *
+   * @param sql The {@link SQLConnector} to use.
+   * @param tne The {@link TNEDialect} to use.
+   */
+  public void prepare(@NotNull final SQLConnector sql, @NotNull final TNEDialect tne) {
+
+    prepared = false;
+    if(!incremental() || !DataConfig.yaml().getBoolean("Data.Sync.Reload.Enabled", false)) {
+      return;
+    }
+
+    //an embedded database is only used by this server, so there's never anything to pull in.
+    if(tne instanceof SQLiteDialect) {
+      return;
+    }
+
+    for(final String table : TABLES) {
+
+      if(!modified(sql, tne, table)) {
+
+        PluginCore.log().inform("Adding the modified column to the " + table + " table, this may take a moment.");
+        sql.executeUpdate(tne.addModifiedColumn(table), new Object[]{});
+
+        if(!modified(sql, tne, table)) {
+          PluginCore.log().warning("Unable to add the modified column to the " + table + " table, reloads will load everything.", DebugLevel.OFF);
+          return;
+        }
+      }
+    }
+    prepared = true;
+  }
+
+  /**
+   * Sets the watermark to the database's current time. This is called after everything has been
+   * loaded, so the next reload only pulls in what changed after that.
+   */
+  public void mark() {
+
+    if(!enabled() || !(TNECore.instance().storage().getConnector() instanceof final SQLConnector sql)
+       || !(sql.dialect() instanceof final TNEDialect tne)) {
+      return;
+    }
+
+    final Timestamp now = now(sql, tne);
+    if(now != null) {
+      watermark = now.getTime();
+    }
+  }
+
+  /**
+   * Pulls in everything changed since the last sync on a secondary thread. Calls made while a
+   * reload is already running are ignored.
+   */
+  public void reload() {
+
+    if(!running.compareAndSet(false, true)) {
+      return;
+    }
+
+    TNECore.instance().storageExecutor().submit("change-feed", ()->{
+      try {
+        TNECore.instance().writeBehind().exclusive(this::pull);
+      } catch(final Exception e) {
+        PluginCore.log().error("Issue while reloading changes from the database.", e, DebugLevel.STANDARD);
+      } finally {
+        running.set(false);
+      }
+    });
+  }
+
+  private void pull() {
+
+    if(!(TNECore.instance().storage().getConnector() instanceof final SQLConnector sql)
+       || !(sql.dialect() instanceof final TNEDialect tne)) {
+      return;
+    }
+
+    //read the time first, so anything changed while we're pulling is picked up next time.
+    final Timestamp now = now(sql, tne);
+    if(now == null) {
+      return;
+    }
+
+    final long overlap = Math.max(0, DataConfig.yaml().getLong("Data.Sync.Reload.Overlap", 2000L));
+    final Timestamp since = new Timestamp((watermark < 0)? 0 : watermark - overlap);
+
+    final Counts counts = new Counts();
+    final boolean accounts = accounts(sql, tne, since, counts);
+    final boolean holdings = holdings(sql, tne, since, counts);
+    final boolean receipts = receipts(sql, tne, since, counts);
+
+    //Anything skipped is read again next time, merging the same row twice is harmless.
+    if(accounts && holdings && receipts) {
+      watermark = now.getTime();
+    }
+    TNECore.eco().setReloadTime(new Date().getTime());
+
+    PluginCore.log().debug("Reloaded changes since " + since + ": " + counts.accounts + " accounts, "
+                           + counts.holdings + " holdings, " + counts.receipts + " receipts.", DebugLevel.DETAILED);
+  }
+
+  private boolean accounts(final SQLConnector sql, final TNEDialect tne, final Timestamp since, final Counts counts) {
+
+    final AccountManager manager = TNECore.eco().account();
+    final List<Created> created = new ArrayList<>();
+    boolean complete = true;
+
+    try(final ResultSet result = sql.executeQuery(tne.loadChangedAccounts(), new Object[]{ since })) {
+      while(result.next()) {
+
+        final String identifier = result.getString("uid");
+        final Account account = manager.getAccounts().get(identifier);
+        if(account == null) {
+          created.add(new Created(identifier, result.getString("username")));
+          continue;
+        }
+
+        if(!merge(account, result.getString("username"), result.getString("status"), result.getString("pin"))) {
+          complete = false;
+          continue;
+        }
+        counts.accounts++;
+      }
+    } catch(final SQLException e) {
+      e.printStackTrace();
+      return false;
+    }
+
+    //accounts we don't have yet, either created on another server or not resident.
+    for(final Created account : created) {
+
+      manager.uuidProvider().store(new UUIDPair(UUID.fromString(account.identifier()), account.name()));
+      if(manager.residency().active()) {
+
+        manager.residency().addStored(UUID.fromString(account.identifier()));
+        manager.names().add(account.identifier(), account.name());
+        continue;
+      }
+
+      if(manager.residency().load(account.identifier()).isPresent()) {
+        counts.accounts++;
+      }
+    }
+    return complete;
+  }
+
+  private boolean merge(final Account account, final String name, final String status, @Nullable final String pin) {
+
+    final UUID identifier = account.getIdentifier();
+    if(!TransactionManager.locks().lock(identifier, null)) {
+      return false;
+    }
+
+    try {
+      if(TNECore.instance().writeBehind().queued(identifier.toString())) {
+        return true;
+      }
+
+      final AccountManager manager = TNECore.eco().account();
+      if(!name.equals(account.getName())) {
+
+        account.setName(name);
+        manager.names().add(identifier.toString(), name);
+      }
+
+      final AccountStatus found = manager.findStatus(status);
+      if(found != account.getStatus()) {
+        account.setStatus(found);
+      }
+
+      if(!Objects.equals(pin, account.getPin())) {
+        account.setPin(pin);
+      }
+      return true;
+    } finally {
+      TransactionManager.locks().unlock(identifier, null);
+    }
+  }
+
+  private boolean holdings(final SQLConnector sql, final TNEDialect tne, final Timestamp since, final Counts counts) {
+
+    final String server = MainConfig.yaml().getString("Core.Server.Name");
+    final WriteBehindQueue queue = TNECore.instance().writeBehind();
+    boolean complete = true;
+
+    try(final ResultSet result = sql.executeQuery(tne.loadChangedHoldings(), new Object[]{ server, since })) {
+      while(result.next()) {
+
+        final Account account = TNECore.eco().account().getAccounts().get(result.getString("uid"));
+        if(account == null) {
+          continue;
+        }
+
+        final String currencyID = result.getString("currency");
+        final Optional<Currency> currency = TNECore.eco().currency().find(currencyID);
+        if(currency.isEmpty()) {
+          EconomyManager.invalidCurrencies().add(currencyID);
+          continue;
+        }
+
+        //an online player's inventory is what holds their items, not the database.
+        if(currency.get() instanceof ItemCurrency && account instanceof final PlayerAccount player && player.isOnline()) {
+          continue;
+        }
+
+        final UUID identifier = account.getIdentifier();
+        if(!TransactionManager.locks().lock(identifier, null)) {
+          complete = false;
+          continue;
+        }
+
+        try {
+
+          final String region = result.getString("region");
+          final Identifier handler = Identifier.fromID(result.getString("holdings_type"));
+          final Optional<HoldingsEntry> existing = account.getWallet().getHoldings(region, currency.get().getUid(), handler);
+          if(queue.queued(identifier.toString(), region, currency.get().getUid())
+             || (existing.isPresent() && existing.get().isDirty())) {
+            continue;
+          }
+
+          final HoldingsEntry entry = new HoldingsEntry(region, currency.get().getUid(), result.getBigDecimal("holdings"), handler);
+          account.applyStored(entry);
+
+          TNECore.eco().getTopManager().update(account, region, currency.get().getUid());
+          counts.holdings++;
+        } finally {
+          TransactionManager.locks().unlock(identifier, null);
+        }
+      }
+    } catch(final SQLException e) {
+      e.printStackTrace();
+      return false;
+    }
+    return complete;
+  }
+
+  private boolean receipts(final SQLConnector sql, final TNEDialect tne, final Timestamp since, final Counts counts) {
+
+    final StorageManager storage = TNECore.instance().storage();
+    if(!(storage.getEngine().datables().get(Receipt.class) instanceof final SQLReceipt datable)) {
+      return true;
+    }
+
+    final List<Receipt> created = new ArrayList<>();
+    try(final ResultSet result = sql.executeQuery(tne.loadChangedReceipts(), new Object[]{ since })) {
+      while(result.next()) {
+
+        final UUID identifier = UUID.fromString(result.getString("uid"));
+        final Optional<Receipt> existing = TransactionManager.receipts().getResidentReceipt(identifier);
+        if(existing.isEmpty()) {
+          created.add(datable.load(result, sql, tne));
+          continue;
+        }
+
+        final Receipt receipt = existing.get();
+        if(receipt.isDirty() || TNECore.instance().writeBehind().queued(identifier)) {
+          continue;
+        }
+
+        receipt.setArchive(result.getBoolean("archive"));
+        receipt.setVoided(result.getBoolean("voided"));
+        receipt.clearDirty();
+        counts.receipts++;
+      }
+    } catch(final SQLException e) {
+      e.printStackTrace();
+      return false;
+    }
+
+    for(final Receipt receipt : created) {
+
+      datable.loadParticipants(receipt, sql, tne);
+      receipt.clearDirty();
+      TransactionManager.receipts().log(receipt);
+      counts.receipts++;
+    }
+    return true;
+  }
+
+  private boolean incremental() {
+
+    return DataConfig.yaml().getString("Data.Sync.Reload.Mode", "incremental").equalsIgnoreCase("incremental");
+  }
+
+  private boolean modified(final SQLConnector sql, final TNEDialect tne, final String table) {
+
+    try(final ResultSet result = sql.executeQuery(tne.modifiedColumn(table), new Object[]{})) {
+      return result.next() && result.getInt("total") > 0;
+    } catch(final SQLException e) {
+      e.printStackTrace();
+      return false;
+    }
+  }
+
+  private @Nullable Timestamp now(final SQLConnector sql, final TNEDialect tne) {
+
+    try(final ResultSet result = sql.executeQuery(tne.currentTime(), new Object[]{})) {
+      if(result.next()) {
+        return result.getTimestamp("now");
+      }
+    } catch(final SQLException e) {
+      e.printStackTrace();
+    }
+    return null;
+  }
+
+  private record Created(String identifier, String name) {
+
+  }
+
+  private static class Counts {
+
+    int accounts = 0;
+    int holdings = 0;
+    int receipts = 0;
+  }
+}
@@ -0,0 +1,191 @@
+package net.tnemc.core.io.storage.migrate;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+import net.tnemc.core.TNECore;
+import net.tnemc.core.account.Account;
+import net.tnemc.core.account.holdings.HoldingsEntry;
+import net.tnemc.core.config.DataConfig;
+import net.tnemc.core.io.storage.datables.sql.standard.SQLAccount;
+import net.tnemc.core.io.storage.datables.sql.standard.SQLHoldings;
+import net.tnemc.core.io.storage.datables.sql.standard.SQLReceipt;
+import net.tnemc.core.io.storage.datables.yaml.YAMLAccount;
+import net.tnemc.core.io.storage.datables.yaml.YAMLReceipt;
+import net.tnemc.core.io.storage.dialect.TNEDialect;
+import net.tnemc.core.io.storage.dialect.impl.SQLiteDialect;
+import net.tnemc.core.io.storage.queue.SQLBatch;
+import net.tnemc.core.manager.TransactionManager;
+import net.tnemc.core.transaction.Receipt;
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
+import net.tnemc.plugincore.core.io.storage.StorageManager;
+import net.tnemc.plugincore.core.io.storage.connect.SQLConnector;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A one-time migration of the YAML account and transaction files into the embedded SQLite
+ * database. Everything is written with batched upserts, and once done the YAML directories are
+ * renamed so the migration doesn't run again. The renamed directories are left alone as a backup.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class YAMLMigrator {
+
+  private static final String MIGRATED = "-migrated";
+
+  /**
+   * Migrates the YAML files if the embedded database is used and there are YAML files that haven't
+   * been migrated yet. This is called before the accounts are loaded.
+   */
+  public static void migrate() {
+
+    final StorageManager storage = TNECore.instance().storage();
+    if(!DataConfig.yaml().getBoolean("Data.Database.Embedded.Migrate", true)
+       || !(storage.getConnector() instanceof final SQLConnector sql)
+       || !(sql.dialect() instanceof final SQLiteDialect tne)) {
+      return;
+    }
+
+    final File accounts = new File(PluginCore.directory(), "accounts");
+    final File transactions = new File(PluginCore.directory(), "transactions");
+    if(!accounts.isDirectory() && !transactions.isDirectory()) {
+      return;
+    }
+
+    PluginCore.log().inform("Migrating YAML data into the SQLite database, this may take a moment.");
+    final int batchSize = Math.max(1, DataConfig.yaml().getInt("Data.WriteBehind.BatchSize", 500));
+
+    if(accounts.isDirectory()) {
+
+      final int migrated = accounts(sql, tne, batchSize);
+      if(migrated < 0) {
+        return;
+      }
+      finish(accounts);
+      PluginCore.log().inform("Migrated " + migrated + " accounts.");
+    }
+
+    if(transactions.isDirectory()) {
+
+      final int migrated = receipts(sql, tne, batchSize);
+      if(migrated < 0) {
+        return;
+      }
+      finish(transactions);
+      PluginCore.log().inform("Migrated " + migrated + " receipts.");
+    }
+  }
+
+  /**
+   * @return The amount of accounts migrated, or -1 if writing them failed.
+   */
+  private static int accounts(@NotNull final SQLConnector sql, @NotNull final TNEDialect tne, final int batchSize) {
+
+    final SQLAccount account = new SQLAccount();
+    final SQLHoldings holdings = new SQLHoldings();
+
+    final Collection<Account> loaded = new YAMLAccount().loadAll(null, null);
+    final List<Account> chunk = new ArrayList<>();
+    int migrated = 0;
+
+    for(final Account loadedAccount : loaded) {
+
+      chunk.add(loadedAccount);
+      if(chunk.size() >= batchSize) {
+
+        if(!writeAccounts(sql, tne, account, holdings, chunk, batchSize)) {
+          return -1;
+        }
+        migrated += chunk.size();
+        chunk.clear();
+      }
+    }
+
+    if(!chunk.isEmpty()) {
+
+      if(!writeAccounts(sql, tne, account, holdings, chunk, batchSize)) {
+        return -1;
+      }
+      migrated += chunk.size();
+    }
+
+    //The accounts are loaded again from the database, like every other startup.
+    TNECore.eco().account().getAccounts().clear();
+    TNECore.eco().account().names().clear();
+    return migrated;
+  }
+
+  private static boolean writeAccounts(final SQLConnector sql, final TNEDialect tne, final SQLAccount account,
+                                       final SQLHoldings holdings, final List<Account> chunk, final int batchSize) {
+
+    final SQLBatch batch = new SQLBatch(batchSize);
+    for(final Account migrate : chunk) {
+
+      account.batch(batch, tne, migrate);
+      for(final HoldingsEntry entry : migrate.getWallet().entryList()) {
+        holdings.batch(batch, tne, entry, migrate.getIdentifier().toString());
+      }
+    }
+    return batch.execute(sql);
+  }
+
+  /**
+   * @return The amount of receipts migrated, or -1 if writing them failed.
+   */
+  private static int receipts(@NotNull final SQLConnector sql, @NotNull final TNEDialect tne, final int batchSize) {
+
+    final SQLReceipt datable = new SQLReceipt();
+    final Collection<Receipt> loaded = new YAMLReceipt().loadAll(null, null);
+
+    SQLBatch batch = new SQLBatch(batchSize);
+    int pending = 0;
+    for(final Receipt receipt : loaded) {
+
+      datable.batch(batch, tne, receipt);
+      if(++pending >= batchSize) {
+
+        if(!batch.execute(sql)) {
+          return -1;
+        }
+        batch = new SQLBatch(batchSize);
+        pending = 0;
+      }
+    }
+
+    if(!batch.execute(sql)) {
+      return -1;
+    }
+
+    TransactionManager.receipts().clear();
+    return loaded.size();
+  }
+
+  private static void finish(@NotNull final File directory) {
+
+    final File renamed = new File(directory.getParentFile(), directory.getName() + MIGRATED);
+    if(!directory.renameTo(renamed)) {
+      PluginCore.log().warning("Unable to rename " + directory.getName() + " after migrating it, move it out of the way to avoid migrating it again.", DebugLevel.OFF);
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package net.tnemc.core.io.storage.queue;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.TNECore;
+import net.tnemc.core.manager.metrics.Histogram;
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
+import net.tnemc.plugincore.core.io.storage.connect.SQLConnector;
+import org.intellij.lang.annotations.Language;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Collects parameter rows per statement, and executes them as JDBC batches inside a single
+ * database transaction. Statements are executed in the order they were first added, so parent rows
+ * should be added before the rows that reference them.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class SQLBatch {
+
+  private static final Histogram EXECUTE = TNECore.metrics().storage("batch", "execute");
+
+  private final Map<String, List<Object[]>> statements = new LinkedHashMap<>();
+  private final int batchSize;
+
+  private boolean connected = true;
+
+  public SQLBatch(final int batchSize) {
+
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  /**
+   * Adds a row of parameters for a statement.
+   *
+   * @param query  The statement.
+   * @param params The parameters for this row.
+   */
+  public void add(@Language("SQL") @NotNull final String query, @NotNull final Object[] params) {
+
+    statements.computeIfAbsent(query, k->new ArrayList<>()).add(params);
+  }
+
+  public boolean isEmpty() {
+
+    return statements.isEmpty();
+  }
+
+  public int rows() {
+
+    int rows = 0;
+    for(final List<Object[]> params : statements.values()) {
+      rows += params.size();
+    }
+    return rows;
+  }
+
+  /**
+   * Used to tell a failed batch apart from one that never reached the database.
+   *
+   * @return False if the last {@link #execute(SQLConnector)} couldn't open a connection.
+   */
+  public boolean connected() {
+
+    return connected;
+  }
+
+  /**
+   * Executes every row in this batch. Either every row is written or, if anything fails, nothing
+   * is.
+   *
+   * @param sql The {@link SQLConnector} to use.
+   *
+   * @return True if the batch was written, otherwise false.
+   */
+  public boolean execute(@NotNull final SQLConnector sql) {
+
+    if(statements.isEmpty()) {
+      return true;
+    }
+
+    final long start = System.nanoTime();
+    connected = false;
+    try(final Connection connection = connection(sql)) {
+
+      connected = true;
+      final boolean autoCommit = connection.getAutoCommit();
+      connection.setAutoCommit(false);
+      try {
+
+        for(final Map.Entry<String, List<Object[]>> entry : statements.entrySet()) {
+          try(final PreparedStatement statement = connection.prepareStatement(entry.getKey())) {
+
+            int count = 0;
+            for(final Object[] params : entry.getValue()) {
+
+              for(int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, (params[i] instanceof final UUID id)? id.toString() : params[i]);
+              }
+              statement.addBatch();
+
+              if(++count % batchSize == 0) {
+                statement.executeBatch();
+              }
+            }
+
+            if(count % batchSize != 0) {
+              statement.executeBatch();
+            }
+          }
+        }
+        connection.commit();
+        return true;
+
+      } catch(final SQLException e) {
+
+        connection.rollback();
+        PluginCore.log().warning("Batched write of " + rows() + " rows failed, it will be retried: " + e.getMessage(), DebugLevel.STANDARD);
+        return false;
+      } finally {
+        connection.setAutoCommit(autoCommit);
+      }
+    } catch(final Exception e) {
+      PluginCore.log().error("Unable to open a connection for a batched write.", e, DebugLevel.STANDARD);
+      return false;
+    } finally {
+      EXECUTE.since(start);
+    }
+  }
+
+  /**
+   * The only place a raw pooled connection is borrowed from the connector, the connection is
+   * returned to the pool when closed.
+   */
+  private Connection connection(@NotNull final SQLConnector sql) throws SQLException {
+
+    return sql.connection();
+  }
+}
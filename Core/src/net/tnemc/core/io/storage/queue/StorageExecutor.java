@@ -0,0 +1,308 @@
+package net.tnemc.core.io.storage.queue;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+import net.tnemc.core.config.DataConfig;
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs TNE's storage work on threads TNE owns, rather than the platform's shared async pool, so
+ * blocking database calls never starve other plugins and can't pile up without limit.
+ * <p>
+ * Tasks submitted with a key, usually an account identifier, run one at a time in the order they
+ * were submitted, while tasks for different keys run in parallel. The amount of queued tasks is
+ * bounded, once it reaches the configured max, submitting callers wait briefly for the queue to
+ * drain. On Java 21 or newer, each task may run on its own virtual thread instead of a fixed pool,
+ * with the parallelism still limited to the configured amount of threads.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class StorageExecutor {
+
+  //key -> the last task submitted for that key
+  private final Map<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+  private final AtomicInteger threads = new AtomicInteger(0);
+  private final AtomicInteger pending = new AtomicInteger(0);
+  private final AtomicInteger peak = new AtomicInteger(0);
+  private final AtomicLong submitted = new AtomicLong(0);
+  private final AtomicLong completed = new AtomicLong(0);
+  private final AtomicLong failed = new AtomicLong(0);
+  private final AtomicLong blocked = new AtomicLong(0);
+
+  private final Object drained = new Object();
+
+  private volatile ExecutorService executor = null;
+  private volatile Semaphore permits = null;
+  private volatile boolean virtual = false;
+  private volatile int capacity = 10000;
+  private volatile long block = 2000;
+
+  /**
+   * Reads the configuration, and starts the executor.
+   */
+  public void start() {
+
+    stop();
+
+    final int parallelism = Math.max(1, DataConfig.yaml().getInt("Data.Executor.Threads", 4));
+    capacity = Math.max(1, DataConfig.yaml().getInt("Data.Executor.Queue", 10000));
+    block = Math.max(0, DataConfig.yaml().getLong("Data.Executor.Block", 2000L));
+
+    if(DataConfig.yaml().getBoolean("Data.Executor.Virtual", false)) {
+
+      final ExecutorService virtualExecutor = virtualExecutor();
+      if(virtualExecutor != null) {
+
+        permits = new Semaphore(parallelism);
+        virtual = true;
+        executor = virtualExecutor;
+        return;
+      }
+      PluginCore.log().warning("Virtual threads require Java 21 or newer, using " + parallelism + " storage threads instead.", DebugLevel.OFF);
+    }
+
+    permits = null;
+    virtual = false;
+    executor = Executors.newFixedThreadPool(parallelism, runnable->{
+
+      final Thread thread = new Thread(runnable, "TNE-Storage-" + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Stops the executor, waiting for the tasks that were already submitted so nothing is lost.
+   * Tasks submitted after this are run on the calling thread.
+   */
+  public void stop() {
+
+    final ExecutorService current = executor;
+    if(current == null) {
+      return;
+    }
+    executor = null;
+
+    try {
+      //keyed tasks are only handed to the pool once the task before them finishes, so wait for
+      //those chains first, otherwise shutting down would reject the rest of them.
+      CompletableFuture.allOf(tails.values().toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+    } catch(final Exception ignore) {
+      PluginCore.log().warning("Ordered storage tasks took too long to finish.", DebugLevel.OFF);
+    }
+
+    current.shutdown();
+    try {
+      if(!current.awaitTermination(30, TimeUnit.SECONDS)) {
+        PluginCore.log().warning("Storage tasks took too long to finish, " + pending.get() + " were dropped.", DebugLevel.OFF);
+        current.shutdownNow();
+      }
+    } catch(final InterruptedException e) {
+      current.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    tails.clear();
+  }
+
+  /**
+   * Submits a task that doesn't need to be ordered against any other task.
+   *
+   * @param task The task to run.
+   */
+  public void execute(@NotNull final Runnable task) {
+
+    submit(null, task);
+  }
+
+  /**
+   * Submits a task. Tasks with the same key run one at a time, in the order they were submitted.
+   *
+   * @param key  The key to order the task by, usually an account identifier, or null if the task
+   *             doesn't need to be ordered.
+   * @param task The task to run.
+   */
+  public void submit(@Nullable final String key, @NotNull final Runnable task) {
+
+    final ExecutorService current = executor;
+    if(current == null) {
+      run(task);
+      return;
+    }
+
+    pressure();
+    submitted.incrementAndGet();
+    peak.accumulateAndGet(pending.incrementAndGet(), Math::max);
+
+    final Runnable queued = ()->{
+      try {
+        run(task);
+      } finally {
+        finished();
+      }
+    };
+
+    try {
+      if(key == null) {
+        current.execute(queued);
+        return;
+      }
+
+      final CompletableFuture<Void> next = tails.compute(key, (k, tail)->(tail == null)?
+              CompletableFuture.runAsync(queued, current) : tail.thenRunAsync(queued, current));
+
+      //registered outside of compute, a task that has already finished runs this right away, which
+      //can't touch the map from inside its own compute.
+      next.whenComplete((ignore, error)->tails.remove(key, next));
+    } catch(final RejectedExecutionException e) {
+      PluginCore.log().debug("Storage executor is stopping, running the task on the calling thread.", DebugLevel.DEVELOPER);
+      queued.run();
+    }
+  }
+
+  public int pending() {
+
+    return pending.get();
+  }
+
+  public int peak() {
+
+    return peak.get();
+  }
+
+  public long submitted() {
+
+    return submitted.get();
+  }
+
+  public long completed() {
+
+    return completed.get();
+  }
+
+  public long failed() {
+
+    return failed.get();
+  }
+
+  /**
+   * The amount of times a caller had to wait because the queue was full.
+   *
+   * @return The amount of times submitting was blocked.
+   */
+  public long blocked() {
+
+    return blocked.get();
+  }
+
+  public boolean virtual() {
+
+    return virtual;
+  }
+
+  private void run(@NotNull final Runnable task) {
+
+    final Semaphore limit = permits;
+    try {
+      if(limit != null) {
+        limit.acquireUninterruptibly();
+      }
+
+      try {
+        task.run();
+        completed.incrementAndGet();
+      } finally {
+        if(limit != null) {
+          limit.release();
+        }
+      }
+    } catch(final Exception e) {
+      failed.incrementAndGet();
+      PluginCore.log().error("Issue while running a storage task.", e, DebugLevel.STANDARD);
+    }
+  }
+
+  private void finished() {
+
+    if(pending.decrementAndGet() < capacity) {
+      synchronized(drained) {
+        drained.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Makes the caller wait briefly if the queue is full, so a flood of writes slows the callers
+   * down instead of growing the queue without limit. Storage threads never wait, since they are
+   * the ones draining the queue.
+   */
+  private void pressure() {
+
+    if(pending.get() < capacity || block <= 0 || Thread.currentThread().getName().startsWith("TNE-Storage-")) {
+      return;
+    }
+
+    blocked.incrementAndGet();
+    final long until = System.currentTimeMillis() + block;
+    synchronized(drained) {
+
+      long remaining;
+      while(pending.get() >= capacity && (remaining = until - System.currentTimeMillis()) > 0) {
+        try {
+          drained.wait(remaining);
+        } catch(final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates a virtual thread per task executor if we're running on Java 21 or newer. This is looked
+   * up reflectively since TNE is built against Java 17.
+   */
+  private @Nullable ExecutorService virtualExecutor() {
+
+    if(Runtime.version().feature() < 21) {
+      return null;
+    }
+
+    try {
+      return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch(final Exception e) {
+      PluginCore.log().debug("Unable to create a virtual thread executor: " + e.getMessage(), DebugLevel.DEVELOPER);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,731 @@
+package net.tnemc.core.io.storage.queue;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.TNECore;
+import net.tnemc.core.account.Account;
+import net.tnemc.core.account.holdings.HoldingsChangeset;
+import net.tnemc.core.account.holdings.HoldingsEntry;
+import net.tnemc.core.account.holdings.Wallet;
+import net.tnemc.core.api.callback.account.AccountSaveCallback;
+import net.tnemc.core.config.DataConfig;
+import net.tnemc.core.io.storage.datables.sql.standard.SQLAccount;
+import net.tnemc.core.io.storage.datables.sql.standard.SQLHoldings;
+import net.tnemc.core.io.storage.datables.sql.standard.SQLReceipt;
+import net.tnemc.core.io.storage.dialect.TNEDialect;
+import net.tnemc.core.transaction.Receipt;
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
+import net.tnemc.plugincore.core.compatibility.scheduler.Chore;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreExecution;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreTime;
+import net.tnemc.plugincore.core.io.storage.StorageManager;
+import net.tnemc.plugincore.core.io.storage.connect.SQLConnector;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A write-behind queue for SQL storage. Changed accounts, holdings, and receipts are queued and
+ * written in JDBC batches on an interval, rather than one statement at a time. Repeated changes
+ * to the same account, or the same holdings, are coalesced, so only the latest state is written
+ * and the cost of a flush scales with what changed rather than the amount of accounts.
+ * <p>
+ * When the amount of pending writes passes the configured max, a flush is started right away, and
+ * once it passes twice the max, the economy and bulk threads wait briefly for the flush to catch up
+ * before they take any account locks.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class WriteBehindQueue {
+
+  private static final int MAX_ATTEMPTS = 3;
+
+  //account identifier -> account
+  private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+
+  //account identifier:region:currency -> the holdings to write
+  private final Map<String, PendingHoldings> holdings = new ConcurrentHashMap<>();
+
+  //account identifier:region:currency:handler -> the item holdings from an inventory to write
+  private final Map<String, PendingInventory> inventories = new ConcurrentHashMap<>();
+
+  //account identifier:region:currency:handler -> the holdings to delete
+  private final Map<String, PendingDelete> deletes = new ConcurrentHashMap<>();
+
+  //receipt identifier -> receipt
+  private final Map<UUID, Receipt> receipts = new ConcurrentHashMap<>();
+
+  //pending key -> the amount of times it failed to write on its own
+  private final Map<Object, Integer> failures = new ConcurrentHashMap<>();
+
+  private final ReentrantLock flushing = new ReentrantLock();
+  private final AtomicBoolean scheduled = new AtomicBoolean(false);
+  private final Object drained = new Object();
+
+  private Chore<?> flusher = null;
+
+  private volatile boolean active = false;
+  private volatile int batchSize = 500;
+  private volatile int maxPending = 10000;
+  private volatile long block = 2000;
+
+  /**
+   * Used to determine if write-behind saving should be used. This requires an SQL based storage
+   * type.
+   *
+   * @return True if writes should be queued, otherwise false.
+   */
+  public boolean enabled() {
+
+    return DataConfig.yaml().getBoolean("Data.WriteBehind.Enabled", true)
+           && TNECore.instance().storage() != null
+           && TNECore.instance().storage().getConnector() instanceof SQLConnector;
+  }
+
+  /**
+   * Reads the configuration, and starts the repeating flush task if write-behind saving is
+   * enabled.
+   */
+  public void start() {
+
+    stop();
+
+    if(!enabled()) {
+      return;
+    }
+
+    batchSize = Math.max(1, DataConfig.yaml().getInt("Data.WriteBehind.BatchSize", 500));
+    maxPending = Math.max(1, DataConfig.yaml().getInt("Data.WriteBehind.MaxPending", 10000));
+    block = Math.max(0, DataConfig.yaml().getLong("Data.WriteBehind.Block", 2000L));
+
+    final int interval = Math.max(1, DataConfig.yaml().getInt("Data.WriteBehind.Interval", 5));
+    flusher = PluginCore.server().scheduler().createRepeatingTask(this::flush,
+                                                                  new ChoreTime(interval, TimeUnit.SECONDS),
+                                                                  new ChoreTime(interval, TimeUnit.SECONDS),
+                                                                  ChoreExecution.SECONDARY);
+    active = true;
+  }
+
+  /**
+   * Stops the repeating flush task, and writes anything still queued. Once stopped, callers go back
+   * to saving through the regular datables.
+   */
+  public void stop() {
+
+    active = false;
+    if(flusher != null) {
+      flusher.cancel();
+      flusher = null;
+    }
+    flush();
+  }
+
+  public boolean active() {
+
+    return active;
+  }
+
+  /**
+   * Queues the account rows for an account to be written.
+   *
+   * @param account The account.
+   *
+   * @return True if the write was queued, otherwise false if write-behind saving isn't active and
+   * the caller should save it some other way.
+   */
+  public boolean account(@NotNull final Account account) {
+
+    if(!active) {
+      return false;
+    }
+
+    accounts.put(account.getIdentifier().toString(), account);
+    pressure();
+    return true;
+  }
+
+  /**
+   * Queues the holdings of an account for a region and currency to be written. The amounts are read
+   * when the queue is flushed, so repeated changes only result in one write.
+   *
+   * @param account  The account.
+   * @param region   The region of the holdings.
+   * @param currency The currency of the holdings.
+   *
+   * @return True if the write was queued, otherwise false if write-behind saving isn't active and
+   * the caller should save it some other way.
+   */
+  public boolean holdings(@NotNull final Account account, @NotNull final String region, @NotNull final UUID currency) {
+
+    if(!active) {
+      return false;
+    }
+
+    final PendingHoldings pending = new PendingHoldings(account, region, currency);
+    holdings.put(pending.key(), pending);
+    pressure();
+    return true;
+  }
+
+  /**
+   * Queues item holdings kept outside the wallet, such as inventory amounts, to be written. These
+   * are read from the inventory when queued, since inventories can't be read during a flush.
+   *
+   * @param account The account.
+   * @param entry   The holdings.
+   *
+   * @return True if the write was queued, otherwise false if write-behind saving isn't active and
+   * the caller should save it some other way.
+   */
+  public boolean inventory(@NotNull final Account account, @NotNull final HoldingsEntry entry) {
+
+    if(!active) {
+      return false;
+    }
+
+    final PendingInventory pending = new PendingInventory(account.getIdentifier().toString(), entry);
+    inventories.put(pending.key(), pending);
+    pressure();
+    return true;
+  }
+
+  /**
+   * Queues the changes from a {@link Wallet wallet} changeset to be written.
+   *
+   * @param account The account that owns the wallet.
+   * @param changes The {@link HoldingsChangeset changes}.
+   *
+   * @return True if the changes were queued, otherwise false if write-behind saving isn't active and
+   * the caller should save them some other way.
+   */
+  public boolean changes(@NotNull final Account account, @NotNull final HoldingsChangeset changes) {
+
+    if(!active) {
+      return false;
+    }
+
+    final String identifier = account.getIdentifier().toString();
+    for(final HoldingsChangeset.Tombstone tombstone : changes.removed()) {
+
+      final PendingDelete pending = new PendingDelete(identifier, tombstone);
+      deletes.put(pending.key(), pending);
+    }
+
+    for(final HoldingsEntry entry : changes.modified()) {
+
+      final PendingHoldings pending = new PendingHoldings(account, entry.getRegion(), entry.getCurrency());
+      holdings.put(pending.key(), pending);
+    }
+    pressure();
+    return true;
+  }
+
+  /**
+   * Queues a receipt to be written.
+   *
+   * @param receipt The receipt.
+   *
+   * @return True if the write was queued, otherwise false if write-behind saving isn't active and
+   * the caller should save it some other way.
+   */
+  public boolean receipt(@NotNull final Receipt receipt) {
+
+    if(!active) {
+      return false;
+    }
+
+    receipts.put(receipt.getId(), receipt);
+    pressure();
+    return true;
+  }
+
+  /**
+   * Drops any queued writes for an account, used when the account is deleted.
+   *
+   * @param identifier The identifier of the account.
+   */
+  public void discard(@NotNull final String identifier) {
+
+    accounts.remove(identifier);
+    holdings.keySet().removeIf(key->key.startsWith(identifier + ":"));
+    inventories.keySet().removeIf(key->key.startsWith(identifier + ":"));
+    deletes.keySet().removeIf(key->key.startsWith(identifier + ":"));
+  }
+
+  public int pending() {
+
+    return accounts.size() + holdings.size() + inventories.size() + deletes.size() + receipts.size();
+  }
+
+  /**
+   * Used to determine if an account has a write queued that hasn't been flushed yet.
+   *
+   * @param identifier The identifier of the account.
+   *
+   * @return True if a write is queued for the account, otherwise false.
+   */
+  public boolean queued(@NotNull final String identifier) {
+
+    return accounts.containsKey(identifier);
+  }
+
+  /**
+   * Used to determine if the holdings of an account for a region and currency have a write queued
+   * that hasn't been flushed yet.
+   *
+   * @param identifier The identifier of the account.
+   * @param region     The region of the holdings.
+   * @param currency   The currency of the holdings.
+   *
+   * @return True if a write is queued for the holdings, otherwise false.
+   */
+  public boolean queued(@NotNull final String identifier, @NotNull final String region, @NotNull final UUID currency) {
+
+    return holdings.containsKey(identifier + ":" + region + ":" + currency);
+  }
+
+  /**
+   * Used to determine if a receipt has a write queued that hasn't been flushed yet.
+   *
+   * @param receipt The identifier of the receipt.
+   *
+   * @return True if a write is queued for the receipt, otherwise false.
+   */
+  public boolean queued(@NotNull final UUID receipt) {
+
+    return receipts.containsKey(receipt);
+  }
+
+  /**
+   * Runs a task while no flush is running, so nothing is half written while it runs. Writes queued
+   * while the task runs are flushed once it's done.
+   *
+   * @param task The task to run.
+   */
+  public void exclusive(@NotNull final Runnable task) {
+
+    flushing.lock();
+    try {
+      task.run();
+    } finally {
+      flushing.unlock();
+    }
+  }
+
+  /**
+   * Writes everything that is queued. Only one flush runs at a time, a call made while another
+   * flush is running waits for it and then writes whatever was queued in the meantime.
+   */
+  public void flush() {
+
+    final StorageManager storage = TNECore.instance().storage();
+    if(storage == null || !(storage.getConnector() instanceof final SQLConnector sql)
+       || !(sql.dialect() instanceof final TNEDialect tne)) {
+      return;
+    }
+
+    flushing.lock();
+    try {
+      scheduled.set(false);
+
+      if(pending() == 0) {
+        return;
+      }
+
+      final long start = System.currentTimeMillis();
+      final int written = flushAccounts(storage, sql, tne) + flushHoldings(storage, sql, tne) + flushReceipts(storage, sql, tne);
+
+      PluginCore.log().debug("Write-behind flushed " + written + " changes in " + (System.currentTimeMillis() - start) + "ms, "
+                             + pending() + " still pending.", DebugLevel.DETAILED);
+    } finally {
+      flushing.unlock();
+      synchronized(drained) {
+        drained.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Writes everything queued for one account, used when the account is evicted. This never waits
+   * for a running flush, since the caller holds the account's lock, and whatever holds the flush
+   * may be waiting on that lock.
+   *
+   * @param identifier The identifier of the account.
+   *
+   * @return True if nothing is left queued for the account, otherwise false if a flush was running
+   * or some writes failed.
+   */
+  public boolean flush(@NotNull final String identifier) {
+
+    final StorageManager storage = TNECore.instance().storage();
+    if(storage == null || !(storage.getConnector() instanceof final SQLConnector sql)
+       || !(sql.dialect() instanceof final TNEDialect tne)) {
+      return false;
+    }
+
+    if(!flushing.tryLock()) {
+      return false;
+    }
+
+    try {
+
+      final Predicate<String> owned = key->key.equals(identifier) || key.startsWith(identifier + ":");
+      flushAccounts(storage, sql, tne, owned);
+      flushHoldings(storage, sql, tne, owned);
+
+      return !accounts.containsKey(identifier) && holdings.keySet().stream().noneMatch(owned)
+             && inventories.keySet().stream().noneMatch(owned) && deletes.keySet().stream().noneMatch(owned);
+    } finally {
+      flushing.unlock();
+      synchronized(drained) {
+        drained.notifyAll();
+      }
+    }
+  }
+
+  private int flushAccounts(@NotNull final StorageManager storage, @NotNull final SQLConnector sql, @NotNull final TNEDialect tne) {
+
+    return flushAccounts(storage, sql, tne, key->true);
+  }
+
+  private int flushAccounts(@NotNull final StorageManager storage, @NotNull final SQLConnector sql, @NotNull final TNEDialect tne,
+                            @NotNull final Predicate<String> owned) {
+
+    if(accounts.isEmpty() || !(storage.getEngine().datables().get(Account.class) instanceof final SQLAccount datable)) {
+      return 0;
+    }
+
+    int written = 0;
+    for(final List<Account> chunk : chunks(drain(accounts, owned))) {
+
+      final SQLBatch batch = new SQLBatch(batchSize);
+      for(final Account account : chunk) {
+
+        //cleared before the rows are built, so a change made during the write marks it dirty again.
+        account.clearDirty();
+        datable.batch(batch, tne, account);
+      }
+
+      if(batch.execute(sql)) {
+        for(final Account account : chunk) {
+          PluginCore.callbacks().call(new AccountSaveCallback(account));
+        }
+        written += chunk.size();
+        continue;
+      }
+
+      //one bad row fails the whole batch, so fall back to the regular save which resolves username conflicts.
+      for(final Account account : chunk) {
+        datable.store(sql, account, account.getIdentifier().toString());
+        if(account.isDirty()) {
+          accounts.putIfAbsent(account.getIdentifier().toString(), account);
+        } else {
+          written++;
+        }
+      }
+    }
+    return written;
+  }
+
+  private int flushHoldings(@NotNull final StorageManager storage, @NotNull final SQLConnector sql, @NotNull final TNEDialect tne) {
+
+    return flushHoldings(storage, sql, tne, key->true);
+  }
+
+  private int flushHoldings(@NotNull final StorageManager storage, @NotNull final SQLConnector sql, @NotNull final TNEDialect tne,
+                            @NotNull final Predicate<String> owned) {
+
+    if((holdings.isEmpty() && inventories.isEmpty() && deletes.isEmpty())
+       || !(storage.getEngine().datables().get(HoldingsEntry.class) instanceof final SQLHoldings datable)) {
+      return 0;
+    }
+
+    int written = 0;
+
+    //deletes go first, so holdings deleted and then set again end up stored.
+    final List<PendingDelete> removed = drain(deletes, owned);
+    if(!removed.isEmpty()) {
+
+      final SQLBatch batch = new SQLBatch(batchSize);
+      for(final PendingDelete pending : removed) {
+        datable.batchDelete(batch, tne, pending.tombstone(), pending.identifier());
+      }
+
+      if(batch.execute(sql)) {
+        written += removed.size();
+      } else {
+        for(final PendingDelete pending : removed) {
+          deletes.putIfAbsent(pending.key(), pending);
+        }
+      }
+    }
+
+    for(final List<PendingHoldings> drainedChunk : chunks(drain(holdings, owned))) {
+
+      final List<PendingHoldings> chunk = new ArrayList<>(drainedChunk.size());
+      for(final PendingHoldings pending : drainedChunk) {
+
+        //deleted after it was queued, the delete has already been written.
+        if(!pending.account().getWallet().contains(pending.region(), pending.currency())) {
+          continue;
+        }
+
+        //cleared before the amounts are read, so a change made during the write marks them dirty again.
+        pending.account().getWallet().clearDirty(pending.region(), pending.currency());
+        chunk.add(pending);
+      }
+
+      written += write(sql, chunk, holdings, PendingHoldings::key, (batch, pending)->{
+
+        final String identifier = pending.account().getIdentifier().toString();
+        for(final HoldingsEntry entry : pending.account().getHoldings(pending.region(), pending.currency())) {
+          datable.batch(batch, tne, entry, identifier);
+        }
+      }, pending->{ }, "holdings");
+    }
+
+    for(final List<PendingInventory> chunk : chunks(drain(inventories, owned))) {
+      written += write(sql, chunk, inventories, PendingInventory::key,
+                       (batch, pending)->datable.batch(batch, tne, pending.entry(), pending.identifier()),
+                       pending->{ }, "inventory holdings");
+    }
+    return written;
+  }
+
+  private int flushReceipts(@NotNull final StorageManager storage, @NotNull final SQLConnector sql, @NotNull final TNEDialect tne) {
+
+    if(receipts.isEmpty() || !(storage.getEngine().datables().get(Receipt.class) instanceof final SQLReceipt datable)) {
+      return 0;
+    }
+
+    int written = 0;
+    for(final List<Receipt> chunk : chunks(drain(receipts))) {
+      written += write(sql, chunk, receipts, Receipt::getId, (batch, receipt)->datable.batch(batch, tne, receipt),
+                       Receipt::clearDirty, "receipt");
+    }
+    return written;
+  }
+
+  /**
+   * Writes a chunk of pending values in one batch. One bad row fails the whole batch, so a failed
+   * batch is split in half until the values that fail on their own are found. Those are queued
+   * again, most likely their account row just hasn't been written yet, and dropped once they've
+   * failed {@link #MAX_ATTEMPTS} times. If the database can't be reached at all, everything not
+   * written is queued again without counting an attempt.
+   *
+   * @return The amount of values written.
+   */
+  private <K, V> int write(@NotNull final SQLConnector sql, @NotNull final List<V> chunk, @NotNull final Map<K, V> pending,
+                           @NotNull final Function<V, K> key, @NotNull final BiConsumer<SQLBatch, V> rows,
+                           @NotNull final Consumer<V> written, @NotNull final String type) {
+
+    final List<V> done = new ArrayList<>(chunk.size());
+    final List<V> failed = new ArrayList<>();
+    final boolean connected = bisect(sql, chunk, rows, done, failed);
+
+    for(final V value : done) {
+      if(!failures.isEmpty()) {
+        failures.remove(key.apply(value));
+      }
+      written.accept(value);
+    }
+
+    if(!connected) {
+
+      final Set<V> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+      kept.addAll(done);
+      for(final V value : chunk) {
+        if(!kept.contains(value)) {
+          pending.putIfAbsent(key.apply(value), value);
+        }
+      }
+      return done.size();
+    }
+
+    for(final V value : failed) {
+
+      final K id = key.apply(value);
+      final int attempts = failures.merge(id, 1, Integer::sum);
+      if(attempts < MAX_ATTEMPTS) {
+        pending.putIfAbsent(id, value);
+        continue;
+      }
+
+      failures.remove(id);
+      PluginCore.log().warning("Dropping queued " + type + " write for " + id + " after it failed " + attempts
+                               + " times on its own.", DebugLevel.OFF);
+    }
+    return done.size();
+  }
+
+  /**
+   * @return False if the database couldn't be reached, leaving some values neither written nor
+   * failed.
+   */
+  private <V> boolean bisect(@NotNull final SQLConnector sql, @NotNull final List<V> values, @NotNull final BiConsumer<SQLBatch, V> rows,
+                             @NotNull final List<V> done, @NotNull final List<V> failed) {
+
+    if(values.isEmpty()) {
+      return true;
+    }
+
+    final SQLBatch batch = new SQLBatch(batchSize);
+    for(final V value : values) {
+      rows.accept(batch, value);
+    }
+
+    if(batch.execute(sql)) {
+      done.addAll(values);
+      return true;
+    }
+
+    if(!batch.connected()) {
+      return false;
+    }
+
+    if(values.size() == 1) {
+      failed.add(values.get(0));
+      return true;
+    }
+
+    final int half = values.size() / 2;
+    return bisect(sql, values.subList(0, half), rows, done, failed)
+           && bisect(sql, values.subList(half, values.size()), rows, done, failed);
+  }
+
+  /**
+   * Removes every value currently in a pending map. Values are removed by key and value, so a value
+   * queued while we're draining isn't lost.
+   */
+  private <K, V> List<V> drain(@NotNull final Map<K, V> pending) {
+
+    return drain(pending, key->true);
+  }
+
+  private <K, V> List<V> drain(@NotNull final Map<K, V> pending, @NotNull final Predicate<K> owned) {
+
+    final List<V> values = new ArrayList<>();
+    for(final Map.Entry<K, V> entry : pending.entrySet()) {
+      if(owned.test(entry.getKey()) && pending.remove(entry.getKey(), entry.getValue())) {
+        values.add(entry.getValue());
+      }
+    }
+    return values;
+  }
+
+  private <V> List<List<V>> chunks(@NotNull final List<V> values) {
+
+    final List<List<V>> chunks = new ArrayList<>();
+    for(int i = 0; i < values.size(); i += batchSize) {
+      chunks.add(values.subList(i, Math.min(i + batchSize, values.size())));
+    }
+    return chunks;
+  }
+
+  /**
+   * Starts an early flush once too much is pending. This is called while the account lock is held,
+   * so it never waits, callers that can wait use {@link #backpressure()} before taking any locks.
+   */
+  private void pressure() {
+
+    if(pending() < maxPending) {
+      return;
+    }
+
+    //the scheduler is used rather than the storage executor, its submit may wait for room.
+    if(scheduled.compareAndSet(false, true)) {
+      PluginCore.server().scheduler().createDelayedTask(this::flush, new ChoreTime(0), ChoreExecution.SECONDARY);
+    }
+  }
+
+  /**
+   * Makes the caller wait briefly for a flush to catch up if writes are being queued faster than
+   * they're flushed. This must be called before any account locks are taken, and never from the
+   * server thread.
+   */
+  public void backpressure() {
+
+    final int pending = pending();
+    if(!active || pending < maxPending * 2 || block <= 0 || flushing.isHeldByCurrentThread()) {
+      return;
+    }
+
+    pressure();
+
+    PluginCore.log().debug("Write-behind queue is full(" + pending + "), waiting for a flush.", DebugLevel.STANDARD);
+
+    final long until = System.currentTimeMillis() + block;
+    synchronized(drained) {
+      while(pending() >= maxPending * 2) {
+
+        final long wait = until - System.currentTimeMillis();
+        if(wait <= 0) {
+          break;
+        }
+
+        try {
+          drained.wait(wait);
+        } catch(final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+  }
+
+  private record PendingHoldings(Account account, String region, UUID currency) {
+
+    String key() {
+
+      return account.getIdentifier() + ":" + region + ":" + currency;
+    }
+  }
+
+  private record PendingInventory(String identifier, HoldingsEntry entry) {
+
+    String key() {
+
+      return identifier + ":" + entry.getRegion() + ":" + entry.getCurrency() + ":" + entry.getHandler().asID();
+    }
+  }
+
+  private record PendingDelete(String identifier, HoldingsChangeset.Tombstone tombstone) {
+
+    String key() {
+
+      return identifier + ":" + tombstone.region() + ":" + tombstone.currency() + ":" + tombstone.handler();
+    }
+  }
+}
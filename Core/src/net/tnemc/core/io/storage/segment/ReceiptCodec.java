@@ -0,0 +1,293 @@
+package net.tnemc.core.io.storage.segment;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.account.holdings.HoldingsEntry;
+import net.tnemc.core.account.holdings.modify.HoldingsModifier;
+import net.tnemc.core.account.holdings.modify.HoldingsOperation;
+import net.tnemc.core.actions.ActionSource;
+import net.tnemc.core.transaction.Receipt;
+import net.tnemc.core.transaction.TransactionParticipant;
+import net.tnemc.core.utils.Identifier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Encodes receipts into the binary records stored in the receipt segments. Every record starts with
+ * a fixed header holding the receipt's id, time, flags and participants, so a record may be matched
+ * against a query without decoding the rest of it.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public final class ReceiptCodec {
+
+  public static final byte VERSION = 1;
+
+  public static final int ARCHIVE = 1;
+  public static final int VOIDED = 1 << 1;
+  public static final int FROM = 1 << 2;
+  public static final int TO = 1 << 3;
+  public static final int MODIFIER_FROM = 1 << 4;
+  public static final int MODIFIER_TO = 1 << 5;
+  public static final int SOURCE = 1 << 6;
+
+  private ReceiptCodec() {
+
+  }
+
+  /**
+   * Encodes a receipt into a record.
+   *
+   * @param receipt The receipt to encode.
+   *
+   * @return The encoded record.
+   *
+   * @throws IOException If the receipt couldn't be written.
+   */
+  public static byte[] encode(@NotNull final Receipt receipt) throws IOException {
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    final DataOutputStream out = new DataOutputStream(bytes);
+
+    int flags = 0;
+    if(receipt.isArchive()) flags |= ARCHIVE;
+    if(receipt.isVoided()) flags |= VOIDED;
+    if(receipt.getFrom() != null) flags |= FROM;
+    if(receipt.getTo() != null) flags |= TO;
+    if(receipt.getModifierFrom() != null) flags |= MODIFIER_FROM;
+    if(receipt.getModifierTo() != null) flags |= MODIFIER_TO;
+    if(receipt.getSource() != null) flags |= SOURCE;
+
+    out.writeByte(VERSION);
+    uuid(out, receipt.getId());
+    out.writeLong(receipt.getTime());
+    out.writeByte(flags);
+
+    if(receipt.getFrom() != null) {
+      uuid(out, receipt.getFrom().getId());
+    }
+
+    if(receipt.getTo() != null) {
+      uuid(out, receipt.getTo().getId());
+    }
+
+    out.writeUTF(receipt.getType());
+    if(receipt.getSource() != null) {
+      out.writeUTF(receipt.getSource().name());
+      out.writeUTF(receipt.getSource().type());
+    }
+
+    if(receipt.getFrom() != null) {
+      participant(out, receipt.getFrom());
+    }
+
+    if(receipt.getTo() != null) {
+      participant(out, receipt.getTo());
+    }
+
+    if(receipt.getModifierFrom() != null) {
+      modifier(out, receipt.getModifierFrom());
+    }
+
+    if(receipt.getModifierTo() != null) {
+      modifier(out, receipt.getModifierTo());
+    }
+
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Reads the header of a record.
+   *
+   * @param record The record.
+   *
+   * @return The header of the record.
+   *
+   * @throws IOException If the record is malformed, or was written by a newer version.
+   */
+  public static Header header(final byte[] record) throws IOException {
+
+    final DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+    return header(in);
+  }
+
+  /**
+   * Decodes a record into a receipt.
+   *
+   * @param record The record.
+   *
+   * @return The decoded receipt, which isn't marked as dirty.
+   *
+   * @throws IOException If the record is malformed, or was written by a newer version.
+   */
+  public static Receipt decode(final byte[] record) throws IOException {
+
+    final DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+    final Header header = header(in);
+
+    final Receipt receipt = new Receipt(header.id(), header.time(), in.readUTF());
+    if(header.has(SOURCE)) {
+
+      final String name = in.readUTF();
+      receipt.setSource(ActionSource.create(name, in.readUTF()));
+    }
+
+    if(header.from() != null) {
+      receipt.setFrom(participant(in, header.from()));
+    }
+
+    if(header.to() != null) {
+      receipt.setTo(participant(in, header.to()));
+    }
+
+    if(header.has(MODIFIER_FROM)) {
+      receipt.setModifierFrom(modifier(in));
+    }
+
+    if(header.has(MODIFIER_TO)) {
+      receipt.setModifierTo(modifier(in));
+    }
+
+    receipt.setArchive(header.has(ARCHIVE));
+    receipt.setVoided(header.has(VOIDED));
+    receipt.clearDirty();
+    return receipt;
+  }
+
+  private static Header header(final DataInputStream in) throws IOException {
+
+    final byte version = in.readByte();
+    if(version != VERSION) {
+      throw new IOException("Unsupported receipt record version: " + version);
+    }
+
+    final UUID id = uuid(in);
+    final long time = in.readLong();
+    final int flags = in.readUnsignedByte();
+
+    final UUID from = ((flags & FROM) != 0)? uuid(in) : null;
+    final UUID to = ((flags & TO) != 0)? uuid(in) : null;
+    return new Header(id, time, flags, from, to);
+  }
+
+  private static void participant(final DataOutputStream out, final TransactionParticipant participant) throws IOException {
+
+    out.writeUTF(participant.getTax().toPlainString());
+    holdings(out, participant.getStartingBalances());
+    holdings(out, participant.getEndingBalances());
+  }
+
+  private static TransactionParticipant participant(final DataInputStream in, final UUID id) throws IOException {
+
+    final TransactionParticipant participant = new TransactionParticipant(id, new ArrayList<>());
+    participant.setTax(new BigDecimal(in.readUTF()));
+    participant.getStartingBalances().addAll(holdings(in));
+    participant.getEndingBalances().addAll(holdings(in));
+    return participant;
+  }
+
+  private static void holdings(final DataOutputStream out, final List<HoldingsEntry> holdings) throws IOException {
+
+    out.writeInt(holdings.size());
+    for(final HoldingsEntry entry : holdings) {
+
+      out.writeUTF(entry.getRegion());
+      uuid(out, entry.getCurrency());
+      out.writeUTF(entry.getAmount().toPlainString());
+      out.writeUTF(entry.getHandler().asID());
+    }
+  }
+
+  private static List<HoldingsEntry> holdings(final DataInputStream in) throws IOException {
+
+    final int size = in.readInt();
+    final List<HoldingsEntry> holdings = new ArrayList<>(size);
+    for(int i = 0; i < size; i++) {
+
+      final String region = in.readUTF();
+      final UUID currency = uuid(in);
+      final BigDecimal amount = new BigDecimal(in.readUTF());
+      holdings.add(new HoldingsEntry(region, currency, amount, Identifier.fromID(in.readUTF())));
+    }
+    return holdings;
+  }
+
+  private static void modifier(final DataOutputStream out, final HoldingsModifier modifier) throws IOException {
+
+    out.writeUTF(modifier.getRegion());
+    uuid(out, modifier.getCurrency());
+    out.writeUTF(modifier.getModifier().toPlainString());
+    out.writeUTF(modifier.getOperation().name());
+    out.writeUTF(modifier.getType().asID());
+  }
+
+  private static HoldingsModifier modifier(final DataInputStream in) throws IOException {
+
+    final String region = in.readUTF();
+    final UUID currency = uuid(in);
+    final BigDecimal modifier = new BigDecimal(in.readUTF());
+    final HoldingsOperation operation = HoldingsOperation.valueOf(in.readUTF());
+    return new HoldingsModifier(region, currency, modifier, operation, Identifier.fromID(in.readUTF()));
+  }
+
+  private static void uuid(final DataOutputStream out, final UUID id) throws IOException {
+
+    out.writeLong(id.getMostSignificantBits());
+    out.writeLong(id.getLeastSignificantBits());
+  }
+
+  private static UUID uuid(final DataInputStream in) throws IOException {
+
+    return new UUID(in.readLong(), in.readLong());
+  }
+
+  /**
+   * The fixed part of a record.
+   *
+   * @param id    The receipt's id.
+   * @param time  The time the receipt was performed.
+   * @param flags The record flags.
+   * @param from  The from participant, if any.
+   * @param to    The to participant, if any.
+   */
+  public record Header(UUID id, long time, int flags, @Nullable UUID from, @Nullable UUID to) {
+
+    public boolean has(final int flag) {
+
+      return (flags & flag) != 0;
+    }
+
+    public boolean involves(@NotNull final UUID participant) {
+
+      return participant.equals(from) || participant.equals(to);
+    }
+  }
+}
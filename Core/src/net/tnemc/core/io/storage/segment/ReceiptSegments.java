@@ -0,0 +1,776 @@
+package net.tnemc.core.io.storage.segment;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.TNECore;
+import net.tnemc.core.channel.ChannelSecurity;
+import net.tnemc.core.config.DataConfig;
+import net.tnemc.core.config.MainConfig;
+import net.tnemc.core.io.storage.datables.sql.standard.SQLReceipt;
+import net.tnemc.core.io.storage.dialect.TNEDialect;
+import net.tnemc.core.io.storage.queue.SQLBatch;
+import net.tnemc.core.manager.TransactionManager;
+import net.tnemc.core.manager.metrics.Histogram;
+import net.tnemc.core.transaction.Receipt;
+import net.tnemc.core.transaction.history.ReceiptCursor;
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
+import net.tnemc.plugincore.core.compatibility.scheduler.Chore;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreExecution;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreTime;
+import net.tnemc.plugincore.core.io.storage.StorageManager;
+import net.tnemc.plugincore.core.io.storage.connect.SQLConnector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The cold tier for receipts. Receipts that are past the configured age, or beyond the configured
+ * count, are moved out of memory and out of the database into compressed segment files, one per
+ * day the receipts were performed on, and are read back from there when they're looked up.
+ * <p>
+ * Segments are append-only. Each move appends a block of gzip compressed, length prefixed
+ * {@link ReceiptCodec records} to the segment, so nothing already written is touched again. A
+ * receipt that's moved more than once, for example after being voided, is appended again and the
+ * last record for it wins when the segment is read. Nothing from the segments is kept in memory
+ * besides the list of segment files, and a small filter of the receipt ids in each block, so
+ * looking up an id skips the segments that can't hold it. The filters for the segments that already
+ * exist are built in the background on start, until then those segments are read.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class ReceiptSegments {
+
+  private static final Histogram APPEND = TNECore.metrics().storage("segment", "append");
+  private static final Histogram READ = TNECore.metrics().storage("segment", "read");
+
+  private static final long DAY = TimeUnit.DAYS.toMillis(1);
+  private static final String EXTENSION = ".seg";
+
+  //marks the start of each appended block.
+  private static final int MAGIC = 0x544E4553;
+
+  //the max amount of receipts moved at once.
+  private static final int CHUNK = 5000;
+
+  private static final Comparator<Receipt> ORDER = Comparator.comparingLong(Receipt::getTime).thenComparing(Receipt::getId);
+
+  //epoch day -> segment file
+  private final ConcurrentSkipListMap<Long, File> segments = new ConcurrentSkipListMap<>();
+
+  //epoch day -> a filter of the receipt ids in each block of the segment, missing until it's indexed
+  private final Map<Long, List<IdFilter>> filters = new ConcurrentHashMap<>();
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final AtomicLong demoted = new AtomicLong();
+
+  private volatile File directory = null;
+  private volatile boolean enabled = false;
+  private volatile long maxAge = 0;
+  private volatile int maxCount = 0;
+
+  private Chore<?> mover = null;
+
+  /**
+   * Reads the configuration, finds the existing segments, and starts the repeating task that moves
+   * receipts out of memory if tiering is enabled.
+   */
+  public void start() {
+
+    stop();
+    load();
+
+    if(!enabled) {
+      return;
+    }
+
+    if(shared()) {
+      PluginCore.log().warning("Receipt tiering is disabled, this server shares its database with others through sync. " +
+                               "Moving receipts would take them away from every other server.", DebugLevel.OFF);
+      return;
+    }
+
+    final int interval = Math.max(1, MainConfig.yaml().getInt("Core.Transactions.Tiering.Interval", 300));
+    mover = PluginCore.server().scheduler().createRepeatingTask(this::demote,
+                                                                new ChoreTime(interval, TimeUnit.SECONDS),
+                                                                new ChoreTime(interval, TimeUnit.SECONDS),
+                                                                ChoreExecution.SECONDARY);
+  }
+
+  /**
+   * Stops moving receipts. Segments may still be read after this.
+   */
+  public void stop() {
+
+    if(mover != null) {
+      mover.cancel();
+      mover = null;
+    }
+  }
+
+  /**
+   * Reads the configuration, and finds the segments that already exist.
+   */
+  public void load() {
+
+    enabled = MainConfig.yaml().getBoolean("Core.Transactions.Tiering.Enabled", false);
+    maxAge = TimeUnit.DAYS.toMillis(Math.max(0, MainConfig.yaml().getInt("Core.Transactions.Tiering.MaxAge", 14)));
+    maxCount = Math.max(0, MainConfig.yaml().getInt("Core.Transactions.Tiering.MaxCount", 50000));
+
+    final String configured = MainConfig.yaml().getString("Core.Transactions.Tiering.Directory", "receipts");
+    final File dir = (new File(configured).isAbsolute())? new File(configured) : new File(PluginCore.directory(), configured);
+
+    lock.writeLock().lock();
+    try {
+      directory = dir;
+      segments.clear();
+      filters.clear();
+
+      final File[] files = dir.listFiles((parent, name)->name.endsWith(EXTENSION));
+      if(files == null) {
+        return;
+      }
+
+      for(final File file : files) {
+        try {
+          final String name = file.getName();
+          segments.put(LocalDate.parse(name.substring(0, name.length() - EXTENSION.length())).toEpochDay(), file);
+        } catch(final DateTimeParseException e) {
+          PluginCore.log().warning("Skipping unknown receipt segment: " + file.getName(), DebugLevel.STANDARD);
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    if(!segments.isEmpty()) {
+      PluginCore.server().scheduler().createDelayedTask(this::index, new ChoreTime(0), ChoreExecution.SECONDARY);
+    }
+  }
+
+  /**
+   * Builds the id filters for the segments that haven't been indexed yet.
+   */
+  private void index() {
+
+    for(final Map.Entry<Long, File> entry : segments.entrySet()) {
+
+      lock.readLock().lock();
+      try {
+        if(filters.containsKey(entry.getKey()) || segments.get(entry.getKey()) != entry.getValue()) {
+          continue;
+        }
+
+        final List<UUID> ids = new ArrayList<>();
+        scan(entry.getValue(), (header, record)->ids.add(header.id()));
+        filters.put(entry.getKey(), new CopyOnWriteArrayList<>(List.of(new IdFilter(ids))));
+      } catch(final IOException e) {
+        PluginCore.log().error("Unable to index the receipt segment: " + entry.getValue().getName(), e, DebugLevel.STANDARD);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  /**
+   * Moves the receipts that are past the max age, or beyond the max count, from memory and the
+   * database into the segments. Receipts that haven't been saved yet are left until they are.
+   *
+   * @return The amount of receipts that were moved.
+   */
+  public int demote() {
+
+    if(!enabled || shared() || (maxAge <= 0 && maxCount <= 0)) {
+      return 0;
+    }
+
+    final long before = (maxAge > 0)? System.currentTimeMillis() - maxAge : Long.MIN_VALUE;
+    final int keep = (maxCount > 0)? maxCount : Integer.MAX_VALUE;
+
+    int moved = 0;
+    while(true) {
+
+      final List<Receipt> cold = TransactionManager.receipts().demotable(before, keep, CHUNK);
+      if(cold.isEmpty() || !append(cold)) {
+        break;
+      }
+
+      //only the receipts that were still unchanged are removed from memory, and from the database.
+      final List<Receipt> evicted = TransactionManager.receipts().evict(cold);
+      delete(evicted);
+      moved += evicted.size();
+
+      if(cold.size() < CHUNK) {
+        break;
+      }
+    }
+
+    if(moved > 0) {
+      demoted.addAndGet(moved);
+      PluginCore.log().debug("Moved " + moved + " receipts to the receipt segments.", DebugLevel.STANDARD);
+    }
+    return moved;
+  }
+
+  /**
+   * Appends receipts to the segments for the days they were performed on.
+   *
+   * @param receipts The receipts to append.
+   *
+   * @return True if every receipt was written, otherwise false.
+   */
+  public boolean append(@NotNull final List<Receipt> receipts) {
+
+    final Map<Long, List<byte[]>> days = new TreeMap<>();
+    final Map<Long, List<UUID>> ids = new TreeMap<>();
+    try {
+      for(final Receipt receipt : receipts) {
+        days.computeIfAbsent(day(receipt.getTime()), k->new ArrayList<>()).add(ReceiptCodec.encode(receipt));
+        ids.computeIfAbsent(day(receipt.getTime()), k->new ArrayList<>()).add(receipt.getId());
+      }
+    } catch(final IOException e) {
+      PluginCore.log().error("Unable to encode receipts for the receipt segments.", e, DebugLevel.STANDARD);
+      return false;
+    }
+
+    final long start = System.nanoTime();
+    lock.writeLock().lock();
+    try {
+      if(!directory.exists() && !directory.mkdirs()) {
+        PluginCore.log().error("Unable to create the receipt segment directory: " + directory.getPath());
+        return false;
+      }
+
+      for(final Map.Entry<Long, List<byte[]>> entry : days.entrySet()) {
+
+        final File file = file(entry.getKey());
+        final boolean created = !segments.containsKey(entry.getKey());
+        write(file, entry.getValue(), true);
+        segments.put(entry.getKey(), file);
+
+        //segments that aren't indexed yet pick up this block when they are.
+        final IdFilter filter = new IdFilter(ids.get(entry.getKey()));
+        if(created) {
+          filters.put(entry.getKey(), new CopyOnWriteArrayList<>(List.of(filter)));
+        } else {
+          filters.computeIfPresent(entry.getKey(), (day, blocks)->{
+            blocks.add(filter);
+            return blocks;
+          });
+        }
+      }
+      return true;
+    } catch(final IOException e) {
+      PluginCore.log().error("Unable to append to the receipt segments.", e, DebugLevel.STANDARD);
+      return false;
+    } finally {
+      lock.writeLock().unlock();
+      APPEND.since(start);
+    }
+  }
+
+  /**
+   * Used to find a receipt, newest segments first. Only the segments whose id filters may hold the
+   * receipt are read, so an id that no segment holds is usually turned away without reading any.
+   *
+   * @param id The receipt's id.
+   *
+   * @return The receipt, or an empty optional if no segment holds it.
+   */
+  public Optional<Receipt> find(@NotNull final UUID id) {
+
+    for(final Long day : segments.descendingKeySet()) {
+      if(!holds(day, id)) continue;
+
+      final Receipt receipt = read(day, header->header.id().equals(id)).get(id);
+      if(receipt != null) {
+        return Optional.of(receipt);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Used to find a receipt, only reading the segment for the day it was performed on.
+   *
+   * @param id   The receipt's id.
+   * @param time The time the receipt was performed.
+   *
+   * @return The receipt, or an empty optional if the segment doesn't hold it.
+   */
+  public Optional<Receipt> find(@NotNull final UUID id, final long time) {
+
+    if(!holds(day(time), id)) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(read(day(time), header->header.id().equals(id)).get(id));
+  }
+
+  /**
+   * Used to get the most recent receipts involving a participant.
+   *
+   * @param participant The participant's id.
+   * @param limit       The max amount of receipts to return.
+   * @param skip        Receipts to leave out, usually the ones that are already in memory.
+   *
+   * @return The receipts, newest first.
+   */
+  public List<Receipt> latest(@NotNull final UUID participant, final int limit, @NotNull final Predicate<UUID> skip) {
+
+    final List<Receipt> latest = new ArrayList<>();
+    for(final Long day : segments.descendingKeySet()) {
+      if(latest.size() >= limit) break;
+
+      final List<Receipt> found = new ArrayList<>(read(day, header->header.involves(participant) && !skip.test(header.id())).values());
+      found.sort(ORDER.reversed());
+
+      for(final Receipt receipt : found) {
+        if(latest.size() >= limit) break;
+
+        latest.add(receipt);
+      }
+    }
+    return latest;
+  }
+
+  /**
+   * Used to get a page of a participant's receipts. Only the segments from the cursor's day back to
+   * the day of the since time are read.
+   *
+   * @param participant The participant's id.
+   * @param since       Only receipts performed after this time are returned.
+   * @param after       The cursor of the last receipt on the previous page, or null for the first
+   *                    page.
+   * @param limit       The max amount of receipts to return.
+   * @param skip        Receipts to leave out, usually the ones that are already in memory.
+   *
+   * @return The receipts, newest first.
+   */
+  public List<Receipt> page(@NotNull final UUID participant, final long since, @Nullable final ReceiptCursor after,
+                            final int limit, @NotNull final Predicate<UUID> skip) {
+
+    final List<Receipt> page = new ArrayList<>();
+    final NavigableMap<Long, File> days = (after == null)? segments : segments.headMap(day(after.time()), true);
+    for(final Long day : days.descendingKeySet()) {
+      if(page.size() >= limit || day < day(since)) break;
+
+      final List<Receipt> found = new ArrayList<>(read(day, header->header.involves(participant) && header.time() > since
+                                                                    && (after == null || after.follows(header.time(), header.id()))
+                                                                    && !skip.test(header.id())).values());
+      found.sort(ReceiptCursor.NEWEST);
+
+      for(final Receipt receipt : found) {
+        if(page.size() >= limit) break;
+
+        page.add(receipt);
+      }
+    }
+    return page;
+  }
+
+  /**
+   * Used to get the receipts performed between two times.
+   *
+   * @param startTime   The start of the range, inclusive.
+   * @param endTime     The end of the range, inclusive.
+   * @param participant The participant the receipts should involve, or null for every receipt.
+   * @param skip        Receipts to leave out, usually the ones that are already in memory.
+   *
+   * @return The receipts, oldest first.
+   */
+  public List<Receipt> range(final long startTime, final long endTime, @Nullable final UUID participant,
+                             @NotNull final Predicate<UUID> skip) {
+
+    final List<Receipt> range = new ArrayList<>();
+    if(startTime > endTime) {
+      return range;
+    }
+
+    for(final Long day : segments.subMap(day(startTime), true, day(endTime), true).keySet()) {
+      range.addAll(read(day, header->header.time() >= startTime && header.time() <= endTime
+                                     && (participant == null || header.involves(participant))
+                                     && !skip.test(header.id())).values());
+    }
+    range.sort(ORDER);
+    return range;
+  }
+
+  /**
+   * Purges the segments for the days past the configured transaction purge time. If archived
+   * transactions are skipped by purges, the segment is rewritten with only those.
+   */
+  public void purge() {
+
+    if(!DataConfig.yaml().getBoolean("Data.Purge.Enabled", true)) {
+      return;
+    }
+
+    final long cutoff = day(System.currentTimeMillis()) - DataConfig.yaml().getInt("Data.Purge.Transaction.Days", 20);
+    final boolean keepArchived = DataConfig.yaml().getBoolean("Data.Purge.Transaction.Archive", true);
+
+    lock.writeLock().lock();
+    try {
+      for(final Map.Entry<Long, File> entry : new ArrayList<>(segments.headMap(cutoff, true).entrySet())) {
+
+        final File file = entry.getValue();
+        final List<byte[]> kept = new ArrayList<>();
+        final List<UUID> ids = new ArrayList<>();
+        if(keepArchived) {
+          scan(file, (header, record)->{
+            if(header.has(ReceiptCodec.ARCHIVE)) {
+              kept.add(record);
+              ids.add(header.id());
+            }
+          });
+        }
+
+        if(kept.isEmpty()) {
+          Files.deleteIfExists(file.toPath());
+          segments.remove(entry.getKey());
+          filters.remove(entry.getKey());
+          continue;
+        }
+
+        final Path target = file.toPath();
+        final Path temp = target.resolveSibling(file.getName() + ".tmp");
+        write(temp.toFile(), kept, false);
+        try {
+          Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(final AtomicMoveNotSupportedException e) {
+          Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        filters.put(entry.getKey(), new CopyOnWriteArrayList<>(List.of(new IdFilter(ids))));
+      }
+    } catch(final IOException e) {
+      PluginCore.log().error("Unable to purge the receipt segments.", e, DebugLevel.STANDARD);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public boolean enabled() {
+
+    return enabled;
+  }
+
+  public int segments() {
+
+    return segments.size();
+  }
+
+  public long demoted() {
+
+    return demoted.get();
+  }
+
+  /**
+   * Used to determine if the segment for a day may hold a receipt. Segments that aren't indexed
+   * yet may hold anything.
+   */
+  private boolean holds(final long day, final UUID id) {
+
+    final List<IdFilter> blocks = filters.get(day);
+    if(blocks == null) {
+      return segments.containsKey(day);
+    }
+
+    for(final IdFilter filter : blocks) {
+      if(filter.holds(id)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Reads the matching receipts from a segment.
+   *
+   * @return The matching receipts by id, holding the last record for each receipt.
+   */
+  private Map<UUID, Receipt> read(final long day, final Predicate<ReceiptCodec.Header> filter) {
+
+    final Map<UUID, Receipt> found = new LinkedHashMap<>();
+
+    final File file = segments.get(day);
+    if(file == null) {
+      return found;
+    }
+
+    final long start = System.nanoTime();
+    lock.readLock().lock();
+    try {
+      scan(file, (header, record)->{
+        if(filter.test(header)) {
+          found.put(header.id(), ReceiptCodec.decode(record));
+        }
+      });
+    } catch(final IOException e) {
+      PluginCore.log().error("Unable to read the receipt segment: " + file.getName(), e, DebugLevel.STANDARD);
+    } finally {
+      lock.readLock().unlock();
+      READ.since(start);
+    }
+    return found;
+  }
+
+  private void scan(final File file, final RecordConsumer consumer) throws IOException {
+
+    if(!file.exists()) {
+      return;
+    }
+
+    try(final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      while(true) {
+
+        final int magic;
+        try {
+          magic = in.readInt();
+        } catch(final EOFException e) {
+          return;
+        }
+
+        if(magic != MAGIC) {
+          PluginCore.log().warning("The receipt segment " + file.getName() + " holds an unknown block, skipping the rest of it.", DebugLevel.STANDARD);
+          return;
+        }
+
+        final int length = in.readInt();
+        if(length < 0) {
+          PluginCore.log().warning("The receipt segment " + file.getName() + " holds a malformed block, skipping the rest of it.", DebugLevel.STANDARD);
+          return;
+        }
+
+        final byte[] block = new byte[length];
+        in.readFully(block);
+
+        try(final DataInputStream records = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(block)))) {
+          while(true) {
+
+            final int size;
+            try {
+              size = records.readInt();
+            } catch(final EOFException e) {
+              break;
+            }
+
+            final byte[] record = new byte[size];
+            records.readFully(record);
+            consumer.accept(ReceiptCodec.header(record), record);
+          }
+        }
+      }
+    } catch(final EOFException e) {
+      //the last append didn't finish, it's cut off before the next append.
+      PluginCore.log().warning("The receipt segment " + file.getName() + " ends with an incomplete block.", DebugLevel.STANDARD);
+    }
+  }
+
+  /**
+   * Writes records to a segment as a single compressed block. When appending, an incomplete block
+   * left behind by an append that didn't finish is cut off first.
+   */
+  private void write(final File file, final List<byte[]> records, final boolean append) throws IOException {
+
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try(final DataOutputStream out = new DataOutputStream(new GZIPOutputStream(compressed))) {
+      for(final byte[] record : records) {
+        out.writeInt(record.length);
+        out.write(record);
+      }
+    }
+
+    final long length = (append && file.exists())? intact(file) : 0;
+    try(final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+
+      if(raf.length() != length) {
+        if(append) {
+          PluginCore.log().warning("Cutting an incomplete block off of the receipt segment " + file.getName(), DebugLevel.STANDARD);
+        }
+        raf.setLength(length);
+      }
+
+      try {
+        raf.seek(length);
+        raf.writeInt(MAGIC);
+        raf.writeInt(compressed.size());
+        raf.write(compressed.toByteArray());
+        raf.getFD().sync();
+      } catch(final IOException e) {
+
+        raf.setLength(length);
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Walks the block headers of a segment without reading the blocks.
+   *
+   * @return The length of the segment up to the end of the last complete block.
+   */
+  private long intact(final File file) throws IOException {
+
+    try(final RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+
+      final long size = raf.length();
+      long position = 0;
+      while(position + 8 <= size) {
+
+        raf.seek(position);
+        if(raf.readInt() != MAGIC) break;
+
+        final int length = raf.readInt();
+        if(length < 0 || position + 8 + length > size) break;
+
+        position += 8 + length;
+      }
+      return position;
+    }
+  }
+
+  private void delete(final List<Receipt> receipts) {
+
+    final StorageManager storage = TNECore.instance().storage();
+    if(receipts.isEmpty() || storage == null) {
+      return;
+    }
+
+    if(storage.getConnector() instanceof final SQLConnector sql && sql.dialect() instanceof final TNEDialect tne
+       && storage.getEngine().datables().get(Receipt.class) instanceof final SQLReceipt datable) {
+
+      final SQLBatch batch = new SQLBatch(DataConfig.yaml().getInt("Data.WriteBehind.BatchSize", 500));
+      for(final Receipt receipt : receipts) {
+        datable.batchDelete(batch, tne, receipt.getId());
+      }
+
+      //anything left behind is moved again on the next start, the segments keep the last copy.
+      batch.execute(sql);
+      return;
+    }
+
+    for(final Receipt receipt : receipts) {
+      storage.delete(Receipt.class, receipt.getId().toString());
+    }
+  }
+
+  /**
+   * Used to determine if the database is shared with other servers, either through balance sync or
+   * database reloads. The segments are local to each server, so receipts are never moved out of a
+   * shared database.
+   */
+  private static boolean shared() {
+
+    return ChannelSecurity.configured() || DataConfig.yaml().getBoolean("Data.Sync.Reload.Enabled", false);
+  }
+
+  private File file(final long day) {
+
+    return new File(directory, LocalDate.ofEpochDay(day) + EXTENSION);
+  }
+
+  private static long day(final long time) {
+
+    return Math.floorDiv(time, DAY);
+  }
+
+  /**
+   * A bloom filter of the receipt ids in a block, at about ten bits per receipt. It may claim to
+   * hold an id that it doesn't, roughly once in a hundred lookups, but never misses one it holds.
+   */
+  private static final class IdFilter {
+
+    private static final int HASHES = 7;
+
+    private final long[] bits;
+    private final int size;
+
+    private IdFilter(final List<UUID> ids) {
+
+      this.size = Math.max(64, ids.size() * 10);
+      this.bits = new long[(size + 63) >>> 6];
+
+      for(final UUID id : ids) {
+        for(int i = 0; i < HASHES; i++) {
+
+          final int bit = bit(id, i);
+          bits[bit >>> 6] |= 1L << bit;
+        }
+      }
+    }
+
+    private boolean holds(final UUID id) {
+
+      for(int i = 0; i < HASHES; i++) {
+
+        final int bit = bit(id, i);
+        if((bits[bit >>> 6] & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private int bit(final UUID id, final int i) {
+
+      final long most = id.getMostSignificantBits();
+      final long least = id.getLeastSignificantBits();
+      return Math.floorMod((int)(most ^ (most >>> 32)) + i * (int)(least ^ (least >>> 32)), size);
+    }
+  }
+
+  @FunctionalInterface
+  private interface RecordConsumer {
+
+    void accept(ReceiptCodec.Header header, byte[] record) throws IOException;
+  }
+}
@@ -35,6 +35,8 @@ import net.tnemc.core.api.callback.account.AccountDeleteCallback;
 import net.tnemc.core.api.callback.account.AccountTypesCallback;
 import net.tnemc.core.api.response.AccountAPIResponse;
 import net.tnemc.core.config.MainConfig;
+import net.tnemc.core.manager.names.AccountNameIndex;
+import net.tnemc.core.manager.residency.AccountResidency;
 import net.tnemc.plugincore.PluginCore;
 import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
 import net.tnemc.plugincore.core.id.UUIDPair;
@@ -80,6 +82,25 @@ public class AccountManager {
   private final EnhancedHashMap<String, Account> accounts = new EnhancedHashMap<>();
   private final EnhancedHashMap<String, AccountStatus> statuses = new EnhancedHashMap<>();
   private final LinkedHashMap<Class<? extends SharedAccount>, Function<String, Boolean>> types = new LinkedHashMap<>();
+  private final AccountResidency residency = new AccountResidency(this);
+  private final AccountNameIndex names = new AccountNameIndex(this);
+
+  /**
+   * Used to load the accounts from storage. If account residency is enabled only the account index
+   * and non-player accounts are loaded, otherwise every account is loaded.
+   */
+  public void loadAccounts() {
+
+    names.clear();
+
+    if(residency.enabled()) {
+      residency.bootstrap();
+      residency.start();
+      return;
+    }
+    residency.stop();
+    TNECore.instance().storage().loadAll(Account.class, "");
+  }
 
   /**
    * Used to create a new non-player account based on the provided name.
@@ -144,6 +165,11 @@ public class AccountManager {
       PluginCore.log().debug("==== End Stack Print ====", DebugLevel.DEVELOPER);
     }
 
+    //skipDB is used while loading from storage, so only look for non-resident accounts otherwise.
+    if(identifier != null && !skipDB) {
+      residency.find(identifier);
+    }
+
     if(identifier != null && accounts.containsKey(identifier)) {
       PluginCore.log().debug("Account Exists Already. ID: " + identifier);
 
@@ -151,6 +177,10 @@ public class AccountManager {
     }
 
     final Optional<UUIDPair> pair = uuidProvider.retrieve(name);
+    if(pair.isPresent() && !skipDB && MainConfig.yaml().getBoolean("Core.Offline", false)) {
+      residency.find(pair.get().getIdentifier().toString());
+    }
+
     if(MainConfig.yaml().getBoolean("Core.Offline", false) && pair.isPresent() && accounts.containsKey(pair.get().getIdentifier().toString())) {
       PluginCore.log().debug("Offline Account Exists Already. ID: " + identifier);
 
@@ -220,8 +250,10 @@ public class AccountManager {
 
     PluginCore.log().debug("Adding account to Accounts Map. ID: " + identifier + " Name: " + name);
     accounts.put(account.getIdentifier().toString(), account);
+    names.add(account.getIdentifier().toString(), account.getName());
 
     if(!skipDB) {
+      residency.addStored(account.getIdentifier());
       TNECore.instance().storage().store(account, account.getIdentifier().toString());
     }
 
@@ -293,7 +325,7 @@ public class AccountManager {
    */
   public EconomyResponse deleteAccount(@NotNull final String identifier) {
 
-    if(!accounts.containsKey(identifier)) {
+    if(residency.find(identifier).isEmpty()) {
       PluginCore.log().debug("Account Doesn't Exist: " + identifier);
       return AccountResponse.DOESNT_EXIST;
     }
@@ -307,6 +339,11 @@ public class AccountManager {
 
       uuidProvider.pairs().remove(id);
       accounts.remove(identifier);
+      names.remove(identifier);
+      residency.removeStored(identifier);
+      TNECore.instance().writeBehind().discard(identifier);
+      TNECore.instance().balanceSync().versions().remove(identifier);
+      TNECore.eco().getTopManager().remove(id);
       PluginCore.log().debug("Deleting account: " + identifier);
       TNECore.instance().storage().delete(Account.class, identifier);
     } catch(final Exception ignore) {
@@ -326,7 +363,7 @@ public class AccountManager {
    */
   public Optional<Account> findAccount(final UUID id) {
 
-    return Optional.ofNullable(accounts.get(id.toString()));
+    return residency.find(id.toString());
   }
 
   /**
@@ -339,10 +376,10 @@ public class AccountManager {
    */
   public Optional<PlayerAccount> findPlayerAccount(final UUID id) {
 
-    final Account account = accounts.get(id.toString());
+    final Optional<Account> account = findAccount(id);
 
-    if((account instanceof PlayerAccount)) {
-      return Optional.of((PlayerAccount)account);
+    if(account.isPresent() && account.get() instanceof final PlayerAccount player) {
+      return Optional.of(player);
     }
     return Optional.empty();
   }
@@ -358,11 +395,11 @@ public class AccountManager {
    */
   public Optional<Account> findAccount(final String identifier) {
 
-    //Check first to see if the identifier is in the accounts map.
+    //Check first to see if the identifier is in the accounts map, or in storage.
     //This would return non-player accounts.
-    final Account account = accounts.get(identifier);
-    if(account != null) {
-      return Optional.of(account);
+    final Optional<Account> account = residency.find(identifier);
+    if(account.isPresent()) {
+      return account;
     }
 
     final Optional<UUIDPair> id = uuidProvider.retrieve(identifier);
@@ -464,6 +501,16 @@ public class AccountManager {
     return accounts;
   }
 
+  public AccountResidency residency() {
+
+    return residency;
+  }
+
+  public AccountNameIndex names() {
+
+    return names;
+  }
+
   public UUIDProvider uuidProvider() {
 
     return uuidProvider;
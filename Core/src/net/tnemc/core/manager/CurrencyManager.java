@@ -22,6 +22,7 @@ import net.tnemc.core.currency.Currency;
 import net.tnemc.core.currency.CurrencyLoader;
 import net.tnemc.core.currency.CurrencySaver;
 import net.tnemc.core.currency.CurrencyType;
+import net.tnemc.core.currency.format.CurrencyFormatter;
 import net.tnemc.core.currency.item.ItemCurrency;
 import net.tnemc.core.currency.item.ItemDenomination;
 import net.tnemc.core.currency.loader.DefaultCurrencyLoader;
@@ -93,6 +94,7 @@ public class CurrencyManager {
       currencies.clear();
       curIDMap.clear();
     }
+    CurrencyFormatter.invalidate();
 
     try {
       loader.loadCurrencies(new File(parent, "currency"));
@@ -18,6 +18,7 @@ package net.tnemc.core.manager;
  */
 
 import net.tnemc.core.EconomyManager;
+import net.tnemc.core.TNECore;
 import net.tnemc.core.account.Account;
 import net.tnemc.core.account.PlayerAccount;
 import net.tnemc.core.account.holdings.HoldingsEntry;
@@ -27,6 +28,7 @@ import net.tnemc.core.channel.MessageHandler;
 import net.tnemc.core.config.MainConfig;
 import net.tnemc.core.currency.format.CurrencyFormatter;
 import net.tnemc.core.hook.papi.Placeholder;
+import net.tnemc.core.hook.papi.PlaceholderCache;
 import net.tnemc.core.hook.papi.impl.accbalance.AccountBalanceCurRegPlaceholder;
 import net.tnemc.core.hook.papi.impl.accbalance.AccountBalanceCurRegStorPlaceholder;
 import net.tnemc.core.hook.papi.impl.accbalance.AccountBalanceCurStorPlaceholder;
@@ -67,6 +69,7 @@ import net.tnemc.core.hook.papi.impl.transaction.TransactionCurRegPlaceholder;
 import net.tnemc.core.hook.papi.impl.transaction.TransactionCurrencyPlaceholder;
 import net.tnemc.core.hook.papi.impl.transaction.TransactionPlaceholder;
 import net.tnemc.core.hook.papi.impl.transaction.TransactionRegionPlaceholder;
+import net.tnemc.core.manager.metrics.CacheMetric;
 import net.tnemc.core.transaction.Receipt;
 import net.tnemc.core.transaction.Transaction;
 import net.tnemc.core.transaction.TransactionResult;
@@ -77,6 +80,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -93,6 +97,13 @@ import java.util.UUID;
 public class PlaceholderManager {
 
   private final Map<String, Placeholder> placeholders = new HashMap<>();
+  private final PlaceholderCache cache = new PlaceholderCache();
+  private final CacheMetric metric = TNECore.metrics().cache("placeholder");
+
+  //first parameter -> the placeholders that may apply to it, see index()
+  private volatile Map<String, Placeholder[]> index = new HashMap<>();
+  private volatile Placeholder[] unindexed = new Placeholder[0];
+  private volatile int indexed = 0;
 
   public PlaceholderManager() {
 
@@ -267,13 +278,53 @@ public class PlaceholderManager {
 
   public final @Nullable String onRequest(@Nullable final String account, @NotNull final String[] params) {
 
+    final long start = System.nanoTime();
     final Optional<Placeholder> placeholderOptional = placeholder(params);
     if(placeholderOptional.isPresent()) {
-      return placeholderOptional.get().onRequest(account, params);
+
+      final Placeholder placeholder = placeholderOptional.get();
+      final String result = TNECore.eco().itemCache().readOnly(()->resolve(placeholder, account, params));
+      TNECore.metrics().histogram("tne_placeholder_seconds", "Time spent resolving placeholders.",
+                                  "placeholder", placeholder.identifier()).since(start);
+      return result;
     }
+    TNECore.metrics().counter("tne_placeholder_unknown_total", "Placeholder requests that matched no placeholder.").increment();
     return null;
   }
 
+  /**
+   * Resolves a placeholder, using the cached result if the placeholder depends on an account whose
+   * holdings haven't changed since it was cached.
+   */
+  private @Nullable String resolve(final Placeholder placeholder, @Nullable final String account, final String[] params) {
+
+    final String owner = (cache.enabled())? placeholder.owner(account, params) : null;
+    if(owner == null) {
+      return placeholder.onRequest(account, params);
+    }
+
+    final Optional<Account> ownerAccount = TNECore.eco().account().findAccount(owner);
+    if(ownerAccount.isEmpty()) {
+      return placeholder.onRequest(account, params);
+    }
+
+    final String key = placeholder.identifier() + ":" + String.join("_", params);
+    final String cached = cache.get(ownerAccount.get(), key);
+    if(cached != null) {
+      metric.hit();
+      return cached;
+    }
+    metric.miss();
+
+    //take the revision first, so a change made while resolving discards this result.
+    final long revision = ownerAccount.get().revision();
+    final String result = placeholder.onRequest(account, params);
+    if(result != null) {
+      cache.put(ownerAccount.get(), key, revision, result);
+    }
+    return result;
+  }
+
   /**
    * Retrieves the placeholder that applies to the given parameters.
    *
@@ -283,7 +334,16 @@ public class PlaceholderManager {
    */
   public final Optional<Placeholder> placeholder(final String[] params) {
 
-    for(final Placeholder holder : placeholders.values()) {
+    if(params.length == 0) {
+      return Optional.empty();
+    }
+
+    if(indexed != placeholders.size()) {
+      index();
+    }
+
+    final Placeholder[] candidates = index.getOrDefault(params[0].toLowerCase(Locale.ROOT), unindexed);
+    for(final Placeholder holder : candidates) {
 
       if(holder.applies(params)) {
 
@@ -301,6 +361,46 @@ public class PlaceholderManager {
   public final void addPlaceholder(@NotNull final Placeholder placeholder) {
 
     placeholders.put(placeholder.identifier(), placeholder);
+    index();
+  }
+
+  /**
+   * Rebuilds the index of placeholders by their first parameter. Placeholders without a token are
+   * added to every entry, in the same order they're stored in, so the placeholder picked for a
+   * request is the same one a check of every placeholder would pick.
+   */
+  private synchronized void index() {
+
+    final Map<String, List<Placeholder>> tokens = new HashMap<>();
+    final List<Placeholder> any = new ArrayList<>();
+    for(final Placeholder holder : placeholders.values()) {
+
+      if(holder.token() != null) {
+        tokens.computeIfAbsent(holder.token().toLowerCase(Locale.ROOT), k->new ArrayList<>());
+      }
+    }
+
+    for(final Placeholder holder : placeholders.values()) {
+
+      if(holder.token() == null) {
+        any.add(holder);
+        tokens.values().forEach(list->list.add(holder));
+        continue;
+      }
+      tokens.get(holder.token().toLowerCase(Locale.ROOT)).add(holder);
+    }
+
+    final Map<String, Placeholder[]> built = new HashMap<>();
+    tokens.forEach((token, list)->built.put(token, list.toArray(new Placeholder[0])));
+
+    unindexed = any.toArray(new Placeholder[0]);
+    index = built;
+    indexed = placeholders.size();
+  }
+
+  public PlaceholderCache cache() {
+
+    return cache;
   }
 
   public final Map<String, Placeholder> placeholders() {
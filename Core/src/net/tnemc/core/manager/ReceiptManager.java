@@ -18,21 +18,43 @@ package net.tnemc.core.manager;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import net.tnemc.core.TNECore;
 import net.tnemc.core.config.MainConfig;
+import net.tnemc.core.io.storage.datables.sql.standard.SQLReceipt;
+import net.tnemc.core.io.storage.dialect.TNEDialect;
+import net.tnemc.core.io.storage.segment.ReceiptSegments;
 import net.tnemc.core.transaction.Receipt;
+import net.tnemc.core.transaction.history.ReceiptCursor;
+import net.tnemc.plugincore.core.io.storage.StorageManager;
+import net.tnemc.plugincore.core.io.storage.connect.SQLConnector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * Manages receipts for transactions. Provides methods to add, retrieve, and remove receipts by
  * their UUID, time, and within specific time ranges.
+ * <p>
+ * Receipts are indexed by time globally, and by time per participant, so time and participant
+ * queries only touch the receipts they return.
+ * <p>
+ * Only recent receipts are held in memory. Older receipts are moved to the
+ * {@link ReceiptSegments receipt segments}, and the lookups fall back to those for anything that
+ * isn't in memory. The remove methods only affect the receipts held in memory.
  *
  * @author creatorfromhell
  * @see Receipt
@@ -40,8 +62,19 @@ import java.util.stream.Collectors;
  */
 public class ReceiptManager {
 
+  private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+  private static final UUID MAX_ID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+
+  private static final Comparator<Receipt> ORDER = Comparator.comparingLong(Receipt::getTime).thenComparing(Receipt::getId);
+
   private final ConcurrentMap<UUID, Receipt> receipts = new ConcurrentHashMap<>();
 
+  //(time, id) -> receipt, for every receipt.
+  private final ConcurrentSkipListMap<ReceiptKey, Receipt> byTime = new ConcurrentSkipListMap<>();
+
+  //participant -> (time, id) -> receipt
+  private final ConcurrentMap<UUID, ConcurrentSkipListMap<ReceiptKey, Receipt>> byParticipant = new ConcurrentHashMap<>();
+
   /**
    * Adds a new receipt to the manager.
    *
@@ -51,7 +84,48 @@ public class ReceiptManager {
 
     if(MainConfig.yaml().getBoolean("Core.Transactions.Record")) {
 
-      receipts.put(receipt.getId(), receipt);
+      synchronized(this) {
+
+        final Receipt previous = receipts.put(receipt.getId(), receipt);
+        if(previous != null) {
+          unindex(previous);
+        }
+        index(receipt);
+      }
+
+      if(receipt.isDirty()) {
+        TNECore.instance().writeBehind().receipt(receipt);
+      }
+    }
+  }
+
+  /**
+   * Adds a batch of receipts to the manager, taking the index lock once for the whole batch.
+   *
+   * @param batch The receipts to be added.
+   */
+  public void logAll(final Collection<Receipt> batch) {
+
+    if(batch.isEmpty() || !MainConfig.yaml().getBoolean("Core.Transactions.Record")) {
+      return;
+    }
+
+    synchronized(this) {
+
+      for(final Receipt receipt : batch) {
+
+        final Receipt previous = receipts.put(receipt.getId(), receipt);
+        if(previous != null) {
+          unindex(previous);
+        }
+        index(receipt);
+      }
+    }
+
+    for(final Receipt receipt : batch) {
+      if(receipt.isDirty()) {
+        TNECore.instance().writeBehind().receipt(receipt);
+      }
     }
   }
 
@@ -64,6 +138,40 @@ public class ReceiptManager {
    */
   public Optional<Receipt> getReceiptByUUID(final UUID id) {
 
+    final Receipt receipt = receipts.get(id);
+    if(receipt != null) {
+      return Optional.of(receipt);
+    }
+    return segments().find(id);
+  }
+
+  /**
+   * Retrieves a receipt by its UUID, and the time it was performed. This is quicker than
+   * {@link #getReceiptByUUID(UUID)} for receipts that aren't held in memory.
+   *
+   * @param id   The UUID of the receipt.
+   * @param time The time of the receipt.
+   *
+   * @return The receipt with the specified UUID, or an empty optional if not found.
+   */
+  public Optional<Receipt> getReceiptByUUID(final UUID id, final long time) {
+
+    final Receipt receipt = receipts.get(id);
+    if(receipt != null) {
+      return Optional.of(receipt);
+    }
+    return segments().find(id, time);
+  }
+
+  /**
+   * Retrieves a receipt by its UUID, only if it's held in memory.
+   *
+   * @param id The UUID of the receipt.
+   *
+   * @return The receipt with the specified UUID, or an empty optional if it isn't in memory.
+   */
+  public Optional<Receipt> getResidentReceipt(final UUID id) {
+
     return Optional.ofNullable(receipts.get(id));
   }
 
@@ -72,14 +180,102 @@ public class ReceiptManager {
    *
    * @param participantUUID The UUID of the transaction participant.
    *
-   * @return A list of receipts that involve the specified participant.
+   * @return A list of receipts that involve the specified participant, oldest first.
    */
   public List<Receipt> getReceiptsByParticipant(final UUID participantUUID) {
 
-    return receipts.values().stream()
-            .filter(receipt->(receipt.getFrom() != null && receipt.getFrom().getId().equals(participantUUID)) ||
-                             (receipt.getTo() != null && receipt.getTo().getId().equals(participantUUID)))
-            .collect(Collectors.toList());
+    final List<Receipt> result = segments().range(Long.MIN_VALUE, Long.MAX_VALUE, participantUUID, receipts::containsKey);
+
+    final NavigableMap<ReceiptKey, Receipt> participant = byParticipant.get(participantUUID);
+    if(participant != null) {
+      result.addAll(participant.values());
+      result.sort(ORDER);
+    }
+    return result;
+  }
+
+  /**
+   * Retrieves the most recent receipts involving a specific transaction participant.
+   *
+   * @param participantUUID The UUID of the transaction participant.
+   * @param limit           The max amount of receipts to return.
+   *
+   * @return A list of receipts that involve the specified participant, newest first.
+   */
+  public List<Receipt> getLatestReceiptsByParticipant(final UUID participantUUID, final int limit) {
+
+    final List<Receipt> latest = new ArrayList<>();
+
+    final NavigableMap<ReceiptKey, Receipt> participant = byParticipant.get(participantUUID);
+    if(participant != null) {
+      for(final Receipt receipt : participant.descendingMap().values()) {
+        if(latest.size() >= limit) break;
+
+        latest.add(receipt);
+      }
+    }
+
+    if(latest.size() < limit) {
+
+      //a receipt moved back into memory may be newer than some of the ones held in memory.
+      latest.addAll(segments().latest(participantUUID, limit - latest.size(), receipts::containsKey));
+      latest.sort(ORDER.reversed());
+    }
+    return latest;
+  }
+
+  /**
+   * Retrieves a page of the receipts involving a specific transaction participant, newest first.
+   * Each source is read from the cursor onwards, so the cost of a page doesn't grow with how deep
+   * into the history it is. The receipts held in memory are merged with the page read from the
+   * database, when SQL storage is used, and the receipt segments.
+   *
+   * @param participantUUID The UUID of the transaction participant.
+   * @param since           Only receipts performed after this time are returned.
+   * @param after           The cursor of the last receipt on the previous page, or null for the
+   *                        first page.
+   * @param limit           The max amount of receipts to return.
+   *
+   * @return The receipts on the page, newest first.
+   */
+  public List<Receipt> getReceiptsPage(final UUID participantUUID, final long since,
+                                       @Nullable final ReceiptCursor after, final int limit) {
+
+    final Map<UUID, Receipt> page = new HashMap<>();
+
+    final NavigableMap<ReceiptKey, Receipt> participant = byParticipant.get(participantUUID);
+    if(participant != null) {
+
+      final NavigableMap<ReceiptKey, Receipt> view = (after == null)? participant.tailMap(new ReceiptKey(since, MAX_ID), false)
+                                                                    : participant.subMap(new ReceiptKey(since, MAX_ID), false,
+                                                                                         new ReceiptKey(after.time(), MAX_ID), true);
+      long last = Long.MIN_VALUE;
+      for(final Receipt receipt : view.descendingMap().values()) {
+
+        //receipts performed in the same millisecond are all taken, they're ordered by the final sort.
+        if(page.size() >= limit && receipt.getTime() != last) break;
+
+        if(after == null || after.follows(receipt.getTime(), receipt.getId())) {
+          page.put(receipt.getId(), receipt);
+          last = receipt.getTime();
+        }
+      }
+    }
+
+    for(final Receipt receipt : database(participantUUID, since, after, limit)) {
+
+      //receipts loaded on startup don't hold their participants, those from the page do.
+      final Receipt resident = receipts.get(receipt.getId());
+      page.putIfAbsent(receipt.getId(), (resident != null && (resident.getFrom() != null || resident.getTo() != null))? resident : receipt);
+    }
+
+    for(final Receipt receipt : segments().page(participantUUID, since, after, limit, receipts::containsKey)) {
+      page.putIfAbsent(receipt.getId(), receipt);
+    }
+
+    final List<Receipt> result = new ArrayList<>(page.values());
+    result.sort(ReceiptCursor.NEWEST);
+    return (result.size() > limit)? new ArrayList<>(result.subList(0, limit)) : result;
   }
 
   /**
@@ -91,9 +287,9 @@ public class ReceiptManager {
    */
   public List<Receipt> getReceiptByTime(final long time) {
 
-    return receipts.values().stream()
-            .filter(receipt->receipt.getTime() == time)
-            .collect(Collectors.toList());
+    final List<Receipt> result = segments().range(time, time, null, receipts::containsKey);
+    result.addAll(range(byTime, time, time).values());
+    return result;
   }
 
   /**
@@ -106,9 +302,7 @@ public class ReceiptManager {
    */
   public TreeMap<Long, Receipt> getReceiptsBetweenTimes(final long startTime, final long endTime) {
 
-    return receipts.values().stream()
-            .filter(receipt->receipt.getTime() >= startTime && receipt.getTime() <= endTime)
-            .collect(Collectors.toMap(Receipt::getTime, receipt->receipt, (e1, e2)->e1, TreeMap::new));
+    return byTimeMap(range(byTime, startTime, endTime), segments().range(startTime, endTime, null, receipts::containsKey));
   }
 
   /**
@@ -122,11 +316,13 @@ public class ReceiptManager {
    */
   public List<Receipt> getReceiptsByTimeAndParticipant(final long time, final UUID participantUUID) {
 
-    return receipts.values().stream()
-            .filter(receipt->receipt.getTime() == time &&
-                             (receipt.getFrom() != null && receipt.getFrom().getId().equals(participantUUID) ||
-                              receipt.getTo() != null && receipt.getTo().getId().equals(participantUUID)))
-            .collect(Collectors.toList());
+    final List<Receipt> result = segments().range(time, time, participantUUID, receipts::containsKey);
+
+    final NavigableMap<ReceiptKey, Receipt> participant = byParticipant.get(participantUUID);
+    if(participant != null) {
+      result.addAll(range(participant, time, time).values());
+    }
+    return result;
   }
 
   /**
@@ -141,11 +337,13 @@ public class ReceiptManager {
    */
   public TreeMap<Long, Receipt> getReceiptsBetweenTimesAndParticipant(final long startTime, final long endTime, final UUID participantUUID) {
 
-    return receipts.values().stream()
-            .filter(receipt->receipt.getTime() >= startTime && receipt.getTime() <= endTime &&
-                             (receipt.getFrom() != null && receipt.getFrom().getId().equals(participantUUID) ||
-                              receipt.getTo() != null && receipt.getTo().getId().equals(participantUUID)))
-            .collect(Collectors.toMap(Receipt::getTime, receipt->receipt, (e1, e2)->e1, TreeMap::new));
+    final List<Receipt> cold = segments().range(startTime, endTime, participantUUID, receipts::containsKey);
+
+    final NavigableMap<ReceiptKey, Receipt> participant = byParticipant.get(participantUUID);
+    if(participant == null) {
+      return byTimeMap(Collections.emptyNavigableMap(), cold);
+    }
+    return byTimeMap(range(participant, startTime, endTime), cold);
   }
 
   /**
@@ -155,9 +353,14 @@ public class ReceiptManager {
    *
    * @return true if the receipt was removed, false otherwise.
    */
-  public boolean removeReceiptByUUID(final UUID id) {
+  public synchronized boolean removeReceiptByUUID(final UUID id) {
 
-    return receipts.remove(id) != null;
+    final Receipt removed = receipts.remove(id);
+    if(removed != null) {
+      unindex(removed);
+      return true;
+    }
+    return false;
   }
 
   /**
@@ -169,11 +372,7 @@ public class ReceiptManager {
    */
   public List<Receipt> removeReceiptsByTime(final long time) {
 
-    final List<Receipt> removedReceipts = getReceiptByTime(time);
-    for(final Receipt receipt : removedReceipts) {
-      receipts.remove(receipt.getId());
-    }
-    return removedReceipts;
+    return remove(new ArrayList<>(range(byTime, time, time).values()));
   }
 
   /**
@@ -186,11 +385,7 @@ public class ReceiptManager {
    */
   public List<Receipt> removeReceiptsBetweenTimes(final long startTime, final long endTime) {
 
-    final List<Receipt> removedReceipts = new ArrayList<>(getReceiptsBetweenTimes(startTime, endTime).values());
-    for(final Receipt receipt : removedReceipts) {
-      receipts.remove(receipt.getId());
-    }
-    return removedReceipts;
+    return remove(new ArrayList<>(range(byTime, startTime, endTime).values()));
   }
 
   /**
@@ -203,11 +398,11 @@ public class ReceiptManager {
    */
   public List<Receipt> removeReceiptsByTimeAndParticipant(final long time, final UUID participantUUID) {
 
-    final List<Receipt> removedReceipts = getReceiptsByTimeAndParticipant(time, participantUUID);
-    for(final Receipt receipt : removedReceipts) {
-      receipts.remove(receipt.getId());
+    final NavigableMap<ReceiptKey, Receipt> participant = byParticipant.get(participantUUID);
+    if(participant == null) {
+      return new ArrayList<>();
     }
-    return removedReceipts;
+    return remove(new ArrayList<>(range(participant, time, time).values()));
   }
 
   /**
@@ -222,15 +417,183 @@ public class ReceiptManager {
    */
   public List<Receipt> removeReceiptsBetweenTimesAndParticipant(final long startTime, final long endTime, final UUID participantUUID) {
 
-    final List<Receipt> removedReceipts = new ArrayList<>(getReceiptsBetweenTimesAndParticipant(startTime, endTime, participantUUID).values());
+    final NavigableMap<ReceiptKey, Receipt> participant = byParticipant.get(participantUUID);
+    if(participant == null) {
+      return new ArrayList<>();
+    }
+    return remove(new ArrayList<>(range(participant, startTime, endTime).values()));
+  }
+
+  /**
+   * Used to get the receipts that should be moved out of memory, oldest first. Receipts that haven't
+   * been saved yet are skipped.
+   *
+   * @param before The time receipts performed before are moved.
+   * @param keep   The max amount of receipts to keep in memory.
+   * @param limit  The max amount of receipts to return.
+   *
+   * @return The receipts that should be moved.
+   */
+  public synchronized List<Receipt> demotable(final long before, final int keep, final int limit) {
+
+    final List<Receipt> demotable = new ArrayList<>();
+    final long excess = (long)receipts.size() - keep;
+
+    long position = 0;
+    for(final Map.Entry<ReceiptKey, Receipt> entry : byTime.entrySet()) {
+      if(demotable.size() >= limit || (entry.getKey().time() >= before && position >= excess)) break;
+
+      position++;
+
+      final Receipt receipt = entry.getValue();
+      if(!receipt.isDirty() && !TNECore.instance().writeBehind().queued(receipt.getId())) {
+        demotable.add(receipt);
+      }
+    }
+    return demotable;
+  }
+
+  /**
+   * Removes receipts that were moved out of memory. A receipt that was changed or replaced since
+   * it was moved is kept.
+   *
+   * @param moved The receipts that were moved.
+   *
+   * @return The receipts that were removed.
+   */
+  public synchronized List<Receipt> evict(@NotNull final Collection<Receipt> moved) {
+
+    final List<Receipt> evicted = new ArrayList<>();
+    for(final Receipt receipt : moved) {
+      if(!receipt.isDirty() && receipts.remove(receipt.getId(), receipt)) {
+        unindex(receipt);
+        evicted.add(receipt);
+      }
+    }
+    return evicted;
+  }
+
+  /**
+   * Removes every receipt from the manager.
+   */
+  public synchronized void clear() {
+
+    receipts.clear();
+    byTime.clear();
+    byParticipant.clear();
+  }
+
+  /**
+   * Used to get the receipts by id. This should be treated as read-only, use the log and remove
+   * methods to make changes so the indexes stay consistent.
+   *
+   * @return A read-only view of the receipts.
+   */
+  public Map<UUID, Receipt> getReceipts() {
+
+    return Collections.unmodifiableMap(receipts);
+  }
+
+  private synchronized List<Receipt> remove(@NotNull final List<Receipt> removedReceipts) {
+
     for(final Receipt receipt : removedReceipts) {
-      receipts.remove(receipt.getId());
+      if(receipts.remove(receipt.getId(), receipt)) {
+        unindex(receipt);
+      }
     }
     return removedReceipts;
   }
 
-  public ConcurrentMap<UUID, Receipt> getReceipts() {
+  private void index(@NotNull final Receipt receipt) {
 
-    return receipts;
+    final ReceiptKey key = new ReceiptKey(receipt.getTime(), receipt.getId());
+    byTime.put(key, receipt);
+
+    if(receipt.getFrom() != null) {
+      byParticipant.computeIfAbsent(receipt.getFrom().getId(), k->new ConcurrentSkipListMap<>()).put(key, receipt);
+    }
+
+    if(receipt.getTo() != null) {
+      byParticipant.computeIfAbsent(receipt.getTo().getId(), k->new ConcurrentSkipListMap<>()).put(key, receipt);
+    }
+  }
+
+  private void unindex(@NotNull final Receipt receipt) {
+
+    final ReceiptKey key = new ReceiptKey(receipt.getTime(), receipt.getId());
+    byTime.remove(key);
+
+    if(receipt.getFrom() != null) {
+      unindex(receipt.getFrom().getId(), key);
+    }
+
+    if(receipt.getTo() != null) {
+      unindex(receipt.getTo().getId(), key);
+    }
+  }
+
+  private void unindex(@NotNull final UUID participant, @NotNull final ReceiptKey key) {
+
+    final ConcurrentSkipListMap<ReceiptKey, Receipt> index = byParticipant.get(participant);
+    if(index != null) {
+
+      index.remove(key);
+      if(index.isEmpty()) {
+        byParticipant.remove(participant, index);
+      }
+    }
+  }
+
+  private static NavigableMap<ReceiptKey, Receipt> range(@NotNull final NavigableMap<ReceiptKey, Receipt> index,
+                                                         final long startTime, final long endTime) {
+
+    if(startTime > endTime) {
+      return Collections.emptyNavigableMap();
+    }
+    return index.subMap(new ReceiptKey(startTime, MIN_ID), true, new ReceiptKey(endTime, MAX_ID), true);
+  }
+
+  private static TreeMap<Long, Receipt> byTimeMap(@NotNull final NavigableMap<ReceiptKey, Receipt> range,
+                                                 @NotNull final List<Receipt> cold) {
+
+    final TreeMap<Long, Receipt> result = new TreeMap<>();
+    for(final Receipt receipt : cold) {
+      result.putIfAbsent(receipt.getTime(), receipt);
+    }
+
+    for(final Map.Entry<ReceiptKey, Receipt> entry : range.entrySet()) {
+      result.putIfAbsent(entry.getKey().time(), entry.getValue());
+    }
+    return result;
+  }
+
+  private static List<Receipt> database(final UUID participant, final long since,
+                                        @Nullable final ReceiptCursor after, final int limit) {
+
+    final StorageManager storage = TNECore.instance().storage();
+    if(storage != null && storage.getConnector() instanceof final SQLConnector sql && sql.dialect() instanceof final TNEDialect tne
+       && storage.getEngine().datables().get(Receipt.class) instanceof final SQLReceipt datable) {
+
+      return datable.page(sql, tne, participant, since, after, limit);
+    }
+    return Collections.emptyList();
+  }
+
+  private static ReceiptSegments segments() {
+
+    return TNECore.instance().segments();
+  }
+
+  /**
+   * The key used by the receipt indexes, ordered by time and then by receipt id.
+   */
+  private record ReceiptKey(long time, UUID id) implements Comparable<ReceiptKey> {
+
+    @Override
+    public int compareTo(@NotNull final ReceiptKey other) {
+
+      final int compare = Long.compare(time, other.time);
+      return (compare != 0)? compare : id.compareTo(other.id);
+    }
   }
 }
@@ -19,12 +19,14 @@ package net.tnemc.core.manager;
  */
 
 import net.tnemc.core.TNECore;
+import net.tnemc.core.account.Account;
 import net.tnemc.core.config.MainConfig;
 import net.tnemc.core.currency.Currency;
 import net.tnemc.core.manager.top.TopCurrency;
 import net.tnemc.core.manager.top.TopPage;
 import net.tnemc.plugincore.PluginCore;
 import net.tnemc.plugincore.core.io.message.MessageData;
+import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,6 +36,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
+import static net.tnemc.core.EconomyManager.TOP_PER_PAGE;
+
 /**
  * TopManager handles all things baltop.
  *
@@ -65,12 +69,68 @@ public class TopManager {
     return instance;
   }
 
+  /**
+   * Builds the rankings for every currency from scratch. This only needs to happen at startup, or
+   * when a manual refresh is requested, since the rankings are updated as holdings change.
+   */
   public void load() {
 
-    topMap.clear();
+    final long start = System.nanoTime();
     for(final Currency currency : TNECore.eco().currency().currencies()) {
       topMap.put(currency.getUid(), new TopCurrency(PluginCore.server().defaultWorld(), currency.getUid()));
     }
+    topMap.keySet().removeIf(currency->TNECore.eco().currency().find(currency).isEmpty());
+    TNECore.metrics().histogram("tne_top_load_seconds", "Time spent building the baltop rankings.").since(start);
+  }
+
+  /**
+   * Rebuilds the rankings of the currencies whose holdings can change without the account being
+   * told, such as items being picked up or dropped, or experience being gained. Every other
+   * currency is kept up to date as holdings change.
+   */
+  public void refresh() {
+
+    final long start = System.nanoTime();
+    for(final Currency currency : TNECore.eco().currency().currencies()) {
+      if(currency.type().supportsItems() || !currency.type().supportsVirtual()) {
+        topMap.put(currency.getUid(), new TopCurrency(PluginCore.server().defaultWorld(), currency.getUid()));
+      }
+    }
+    TNECore.metrics().histogram("tne_top_load_seconds", "Time spent building the baltop rankings.").since(start);
+  }
+
+  /**
+   * Used to update the rankings after an account's holdings changed.
+   *
+   * @param account  The account.
+   * @param region   The resolved region of the holdings that changed.
+   * @param currency The currency of the holdings that changed.
+   */
+  public void update(@NotNull final Account account, @NotNull final String region, @NotNull final UUID currency) {
+
+    final TopCurrency top = topMap.get(currency);
+    if(top != null) {
+      top.update(account, region);
+    }
+  }
+
+  /**
+   * Used to remove an account from all rankings.
+   *
+   * @param account The identifier of the account.
+   */
+  public void remove(@NotNull final UUID account) {
+
+    for(final TopCurrency top : topMap.values()) {
+      top.remove(account);
+    }
+  }
+
+  public void evict(@NotNull final UUID account) {
+
+    for(final TopCurrency top : topMap.values()) {
+      top.evict(account);
+    }
   }
 
   public Map<UUID, TopCurrency> getTopMap() {
@@ -81,7 +141,7 @@ public class TopManager {
   public int position(final UUID currency, final String account) {
 
     if(topMap.containsKey(currency)) {
-      return topMap.get(currency).getBalances().position(account);
+      return topMap.get(currency).getBalances().rank(account);
     }
     return 0;
   }
@@ -89,10 +149,10 @@ public class TopManager {
   public String getAt(final int position, final UUID currency) {
 
     if(topMap.containsKey(currency)) {
-      final int internalPos = (position % 5 == 0)? 5 : position % 5;
+      final int internalPos = (position % TOP_PER_PAGE == 0)? TOP_PER_PAGE : position % TOP_PER_PAGE;
 
 
-      return topMap.get(currency).getBalances().getValues(positionToPage(position)).getAt(internalPos);
+      return page(positionToPage(position), currency).getAt(internalPos);
     }
     return "";
   }
@@ -100,10 +160,10 @@ public class TopManager {
   public MessageData getFor(final int position, final UUID currency) {
 
     if(topMap.containsKey(currency)) {
-      final int internalPos = (position % 5 == 0)? 5 : position % 5;
+      final int internalPos = (position % TOP_PER_PAGE == 0)? TOP_PER_PAGE : position % TOP_PER_PAGE;
 
 
-      return topMap.get(currency).getBalances().getValues(positionToPage(position)).getFor(internalPos, currency);
+      return page(positionToPage(position), currency).getFor(internalPos, currency);
     }
     final MessageData data = new MessageData("Messages.Money.PlaceholderTopEntry");
     data.addReplacement("$toppos", String.valueOf(position));
@@ -114,17 +174,20 @@ public class TopManager {
 
   public int positionToPage(final int position) {
 
-    int page = position / 5;
+    int page = position / TOP_PER_PAGE;
 
-    if(position % 5 != 0) page++;
+    if(position % TOP_PER_PAGE != 0) page++;
 
     return page;
   }
 
-  public TopPage<String> page(final int page, final UUID currency) {
+  public TopPage<String> page(int page, final UUID currency) {
 
     if(topMap.containsKey(currency)) {
-      return topMap.get(currency).getBalances().getValues(page);
+
+      if(page > page(currency)) page = 1;
+
+      return topMap.get(currency).getBalances().page(page, TOP_PER_PAGE);
     }
     return null;
   }
@@ -132,7 +195,9 @@ public class TopManager {
   public int page(final UUID currency) {
 
     if(topMap.containsKey(currency)) {
-      return topMap.get(currency).getBalances().pages();
+
+      final int size = topMap.get(currency).getBalances().size();
+      return Math.max(1, (size / TOP_PER_PAGE) + (((size % TOP_PER_PAGE) > 0)? 1 : 0));
     }
     return 0;
   }
@@ -33,6 +33,7 @@ import net.tnemc.core.transaction.check.RegionCheck;
 import net.tnemc.core.transaction.check.RestrictedCurrencyCheck;
 import net.tnemc.core.transaction.check.StatusCheck;
 import net.tnemc.core.transaction.check.TrackingCheck;
+import net.tnemc.core.transaction.lock.AccountLockManager;
 import net.tnemc.core.transaction.processor.BaseTransactionProcessor;
 import net.tnemc.core.transaction.tax.TaxType;
 import net.tnemc.core.transaction.tax.type.FlatType;
@@ -47,6 +48,7 @@ import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
 import java.util.Optional;
 import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manages everything related to the transaction system. This is usually just keeping track of the
@@ -61,6 +63,7 @@ public class TransactionManager {
 
   private final SimpleDateFormat format;
   private final ReceiptManager receiptManager;
+  private final AccountLockManager lockManager;
 
   private final EnhancedHashMap<String, TransactionCheck> checks = new EnhancedHashMap<>();
 
@@ -75,6 +78,9 @@ public class TransactionManager {
 
   private TransactionProcessor processor;
 
+  //changes whenever a check or group is added or replaced, so processors know to recompile.
+  private final AtomicInteger version = new AtomicInteger();
+
 
   public TransactionManager() {
 
@@ -92,6 +98,8 @@ public class TransactionManager {
     }
 
     this.receiptManager = new ReceiptManager();
+    this.lockManager = new AccountLockManager(MainConfig.yaml().getInt("Core.Transactions.Locking.Stripes", 256),
+                                              MainConfig.yaml().getLong("Core.Transactions.Locking.Timeout", 5000L));
 
     //Add our default TransactionTypes.
     addType(new ConversionType());
@@ -121,6 +129,11 @@ public class TransactionManager {
     return TNECore.eco().transaction().receiptManager;
   }
 
+  public static AccountLockManager locks() {
+
+    return TNECore.eco().transaction().lockManager;
+  }
+
   /**
    * Attempts to find a {@link TransactionType type}.
    *
@@ -175,6 +188,7 @@ public class TransactionManager {
   public void addCheck(final TransactionCheck check) {
 
     checks.put(check);
+    changed();
   }
 
   /**
@@ -231,6 +245,7 @@ public class TransactionManager {
   public void addGroup(final TransactionCheckGroup group) {
 
     checkGroups.put(group);
+    changed();
   }
 
   /**
@@ -254,6 +269,27 @@ public class TransactionManager {
   public void setTrack(final boolean track) {
 
     this.track = track;
+    changed();
+  }
+
+  /**
+   * Marks the checks as changed, so processors recompile their check chain before the next
+   * transaction. This is called whenever a check or group is added, and should be called if a
+   * check's {@link TransactionCheck#noop()} result changes.
+   */
+  public void changed() {
+
+    version.incrementAndGet();
+  }
+
+  /**
+   * The version of the checks, which changes every time {@link #changed()} is called.
+   *
+   * @return The current version.
+   */
+  public int version() {
+
+    return version.get();
   }
 
   public BigDecimal getAmount() {
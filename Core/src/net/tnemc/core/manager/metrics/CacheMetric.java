@@ -0,0 +1,58 @@
+package net.tnemc.core.manager.metrics;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/**
+ * Tracks the hits and misses of one of TNE's caches.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class CacheMetric {
+
+  private final Counter hits;
+  private final Counter misses;
+
+  public CacheMetric(final Counter hits, final Counter misses) {
+
+    this.hits = hits;
+    this.misses = misses;
+  }
+
+  public void hit() {
+
+    hits.increment();
+  }
+
+  public void miss() {
+
+    misses.increment();
+  }
+
+  /**
+   * The share of lookups that were hits.
+   *
+   * @return The hit ratio, between 0 and 1, or 0 if nothing was looked up yet.
+   */
+  public double ratio() {
+
+    final long hit = hits.value();
+    final long total = hit + misses.value();
+    return (total == 0)? 0 : hit / (double)total;
+  }
+}
@@ -0,0 +1,71 @@
+package net.tnemc.core.manager.metrics;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A metric that only ever goes up, such as the amount of transactions processed.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class Counter extends Metric {
+
+  private final LongAdder value = new LongAdder();
+
+  public Counter(@NotNull final String name, @NotNull final String help, @NotNull final String... labels) {
+
+    super(name, help, labels);
+  }
+
+  public void increment() {
+
+    value.increment();
+  }
+
+  public void add(final long amount) {
+
+    value.add(amount);
+  }
+
+  public long value() {
+
+    return value.sum();
+  }
+
+  @Override
+  public String type() {
+
+    return "counter";
+  }
+
+  @Override
+  public void write(@NotNull final StringBuilder builder) {
+
+    builder.append(name).append(labels()).append(' ').append(value()).append('\n');
+  }
+
+  @Override
+  public String summary() {
+
+    return String.valueOf(value());
+  }
+}
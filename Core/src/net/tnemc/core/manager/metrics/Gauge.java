@@ -0,0 +1,70 @@
+package net.tnemc.core.manager.metrics;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A metric whose value is read when it's exported, such as the amount of queued storage tasks.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class Gauge extends Metric {
+
+  private final DoubleSupplier value;
+
+  public Gauge(@NotNull final String name, @NotNull final String help, @NotNull final DoubleSupplier value,
+               @NotNull final String... labels) {
+
+    super(name, help, labels);
+    this.value = value;
+  }
+
+  public double value() {
+
+    try {
+      return value.getAsDouble();
+    } catch(final Exception e) {
+      PluginCore.log().debug("Unable to read gauge " + name + ": " + e.getMessage(), DebugLevel.DEVELOPER);
+      return Double.NaN;
+    }
+  }
+
+  @Override
+  public String type() {
+
+    return "gauge";
+  }
+
+  @Override
+  public void write(@NotNull final StringBuilder builder) {
+
+    builder.append(name).append(labels()).append(' ').append(MetricRegistry.number(value())).append('\n');
+  }
+
+  @Override
+  public String summary() {
+
+    return MetricRegistry.number(value());
+  }
+}
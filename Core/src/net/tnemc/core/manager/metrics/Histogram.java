@@ -0,0 +1,188 @@
+package net.tnemc.core.manager.metrics;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A metric that records how long something took, split into fixed latency buckets. Recording is
+ * lock-free, so it's safe to call from the transaction path.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class Histogram extends Metric {
+
+  //The upper bound of each bucket, in nanoseconds.
+  private static final long[] BOUNDS = {
+          50_000L, 100_000L, 250_000L, 500_000L,
+          1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+          100_000_000L, 250_000_000L, 500_000_000L,
+          1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+  };
+
+  //one more than the bounds, for everything above the last bound.
+  private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+
+  public Histogram(@NotNull final String name, @NotNull final String help, @NotNull final String... labels) {
+
+    super(name, help, labels);
+
+    for(int i = 0; i < buckets.length; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Records the time since the specified start.
+   *
+   * @param start The start time, from {@link System#nanoTime()}.
+   */
+  public void since(final long start) {
+
+    observe(System.nanoTime() - start);
+  }
+
+  /**
+   * Runs a task, and records how long it took even if it throws.
+   *
+   * @param task The task to time.
+   */
+  public void time(final Runnable task) {
+
+    final long start = System.nanoTime();
+    try {
+      task.run();
+    } finally {
+      since(start);
+    }
+  }
+
+  /**
+   * Runs a task, and records how long it took even if it throws.
+   *
+   * @param task The task to time.
+   * @param <T>  The type of the task's result.
+   *
+   * @return The task's result.
+   */
+  public <T> T time(final Supplier<T> task) {
+
+    final long start = System.nanoTime();
+    try {
+      return task.get();
+    } finally {
+      since(start);
+    }
+  }
+
+  /**
+   * Records a duration.
+   *
+   * @param nanos The duration in nanoseconds.
+   */
+  public void observe(final long nanos) {
+
+    int bucket = 0;
+    while(bucket < BOUNDS.length && nanos > BOUNDS[bucket]) {
+      bucket++;
+    }
+
+    buckets[bucket].increment();
+    count.increment();
+    sum.add(Math.max(0, nanos));
+  }
+
+  public long count() {
+
+    return count.sum();
+  }
+
+  /**
+   * The average duration recorded, in milliseconds.
+   *
+   * @return The average duration.
+   */
+  public double mean() {
+
+    final long total = count.sum();
+    return (total == 0)? 0 : (sum.sum() / (double)total) / 1_000_000D;
+  }
+
+  /**
+   * An estimate of the specified quantile, as the upper bound of the bucket it falls in, in
+   * milliseconds.
+   *
+   * @param quantile The quantile, between 0 and 1.
+   *
+   * @return The estimated quantile, or infinity if it's above the last bucket.
+   */
+  public double quantile(final double quantile) {
+
+    final long total = count.sum();
+    if(total == 0) {
+      return 0;
+    }
+
+    final double target = total * quantile;
+    long seen = 0;
+    for(int i = 0; i < BOUNDS.length; i++) {
+
+      seen += buckets[i].sum();
+      if(seen >= target) {
+        return BOUNDS[i] / 1_000_000D;
+      }
+    }
+    return Double.POSITIVE_INFINITY;
+  }
+
+  @Override
+  public String type() {
+
+    return "histogram";
+  }
+
+  @Override
+  public void write(@NotNull final StringBuilder builder) {
+
+    long cumulative = 0;
+    for(int i = 0; i < BOUNDS.length; i++) {
+
+      cumulative += buckets[i].sum();
+      builder.append(name).append("_bucket").append(labels("le", MetricRegistry.number(BOUNDS[i] / 1_000_000_000D)))
+             .append(' ').append(cumulative).append('\n');
+    }
+    cumulative += buckets[BOUNDS.length].sum();
+
+    builder.append(name).append("_bucket").append(labels("le", "+Inf")).append(' ').append(cumulative).append('\n');
+    builder.append(name).append("_sum").append(labels()).append(' ').append(MetricRegistry.number(sum.sum() / 1_000_000_000D)).append('\n');
+    builder.append(name).append("_count").append(labels()).append(' ').append(cumulative).append('\n');
+  }
+
+  @Override
+  public String summary() {
+
+    return "count=" + count() + " mean=" + MetricRegistry.number(mean()) + "ms p50=" + MetricRegistry.number(quantile(0.5))
+           + "ms p99=" + MetricRegistry.number(quantile(0.99)) + "ms";
+  }
+}
@@ -0,0 +1,138 @@
+package net.tnemc.core.manager.metrics;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A single series tracked by the {@link MetricRegistry}, identified by its name and labels.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public abstract class Metric {
+
+  protected final String name;
+  protected final String help;
+  protected final String[] labels;
+
+  public Metric(@NotNull final String name, @NotNull final String help, @NotNull final String... labels) {
+
+    this.name = name;
+    this.help = help;
+    this.labels = labels;
+  }
+
+  /**
+   * The Prometheus type of this metric.
+   *
+   * @return The type of this metric.
+   */
+  public abstract String type();
+
+  /**
+   * Writes this metric's samples in the Prometheus text format.
+   *
+   * @param builder The builder to write to.
+   */
+  public abstract void write(@NotNull final StringBuilder builder);
+
+  /**
+   * A short readable summary of this metric's value, used by the metrics command.
+   *
+   * @return The summary.
+   */
+  public abstract String summary();
+
+  public String name() {
+
+    return name;
+  }
+
+  public String help() {
+
+    return help;
+  }
+
+  /**
+   * The labels of this metric, formatted as they appear in the Prometheus text format, or an empty
+   * string if this metric has no labels.
+   *
+   * @return The formatted labels.
+   */
+  public String labels() {
+
+    return labels(null, null);
+  }
+
+  protected String labels(final String extraKey, final String extraValue) {
+
+    if(labels.length < 2 && extraKey == null) {
+      return "";
+    }
+
+    final StringBuilder builder = new StringBuilder("{");
+    for(int i = 0; i + 1 < labels.length; i += 2) {
+
+      if(builder.length() > 1) {
+        builder.append(',');
+      }
+      label(builder, labels[i], labels[i + 1]);
+    }
+
+    if(extraKey != null) {
+      if(builder.length() > 1) {
+        builder.append(',');
+      }
+      label(builder, extraKey, extraValue);
+    }
+    return builder.append('}').toString();
+  }
+
+  /**
+   * Used to build the key a series is registered under.
+   *
+   * @param name   The name of the metric.
+   * @param labels The label keys and values.
+   *
+   * @return The key for the series.
+   */
+  public static String key(@NotNull final String name, @NotNull final String... labels) {
+
+    if(labels.length == 0) {
+      return name;
+    }
+    return name + "|" + String.join("|", labels);
+  }
+
+  private static void label(final StringBuilder builder, final String key, final String value) {
+
+    builder.append(key).append("=\"");
+    for(int i = 0; i < value.length(); i++) {
+
+      final char c = value.charAt(i);
+      switch(c) {
+        case '\\' -> builder.append("\\\\");
+        case '"' -> builder.append("\\\"");
+        case '\n' -> builder.append("\\n");
+        default -> builder.append(c);
+      }
+    }
+    builder.append('"');
+  }
+}
@@ -0,0 +1,270 @@
+package net.tnemc.core.manager.metrics;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+import net.tnemc.core.config.MainConfig;
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
+import net.tnemc.plugincore.core.compatibility.scheduler.Chore;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreExecution;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreTime;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+/**
+ * Holds TNE's metrics, and periodically dumps them to a file in the Prometheus text format, so
+ * they can be picked up by the node-exporter textfile collector.
+ * <p>
+ * Metrics are registered the first time they're requested, and the same instance is returned for
+ * the same name and labels afterwards. Callers on hot paths should keep a reference to the metric
+ * rather than looking it up for every recording.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class MetricRegistry {
+
+  private final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+  private final Map<String, CacheMetric> caches = new ConcurrentHashMap<>();
+
+  private Chore<?> exporter = null;
+
+  /**
+   * Used to get, or register, a counter.
+   *
+   * @param name   The name of the counter.
+   * @param help   The description of the counter.
+   * @param labels The label keys and values, in pairs.
+   *
+   * @return The counter.
+   */
+  public Counter counter(@NotNull final String name, @NotNull final String help, @NotNull final String... labels) {
+
+    return metric(name, labels, Counter.class, k->new Counter(name, help, labels));
+  }
+
+  /**
+   * Used to get, or register, a latency histogram.
+   *
+   * @param name   The name of the histogram.
+   * @param help   The description of the histogram.
+   * @param labels The label keys and values, in pairs.
+   *
+   * @return The histogram.
+   */
+  public Histogram histogram(@NotNull final String name, @NotNull final String help, @NotNull final String... labels) {
+
+    return metric(name, labels, Histogram.class, k->new Histogram(name, help, labels));
+  }
+
+  /**
+   * Used to get, or register, the latency histogram for a storage operation.
+   *
+   * @param datable   The type of data, such as account or receipt.
+   * @param operation The operation, such as load or store.
+   *
+   * @return The histogram.
+   */
+  public Histogram storage(@NotNull final String datable, @NotNull final String operation) {
+
+    return histogram("tne_storage_seconds", "Time spent loading and storing data.", "datable", datable, "operation", operation);
+  }
+
+  /**
+   * Used to register a gauge, replacing any gauge with the same name and labels.
+   *
+   * @param name   The name of the gauge.
+   * @param help   The description of the gauge.
+   * @param value  The supplier that is read when the gauge is exported.
+   * @param labels The label keys and values, in pairs.
+   */
+  public void gauge(@NotNull final String name, @NotNull final String help, @NotNull final DoubleSupplier value,
+                    @NotNull final String... labels) {
+
+    metrics.put(Metric.key(name, labels), new Gauge(name, help, value, labels));
+  }
+
+  /**
+   * Used to get, or register, the hit and miss tracking for a cache.
+   *
+   * @param cache The name of the cache.
+   *
+   * @return The {@link CacheMetric} for the cache.
+   */
+  public CacheMetric cache(@NotNull final String cache) {
+
+    return caches.computeIfAbsent(cache, k->{
+
+      final String help = "Lookups made against TNE's caches.";
+      final CacheMetric metric = new CacheMetric(counter("tne_cache_requests_total", help, "cache", cache, "result", "hit"),
+                                                 counter("tne_cache_requests_total", help, "cache", cache, "result", "miss"));
+
+      gauge("tne_cache_hit_ratio", "The share of lookups against TNE's caches that were hits.", metric::ratio, "cache", cache);
+      return metric;
+    });
+  }
+
+  /**
+   * Every registered metric, sorted by name and labels.
+   *
+   * @return The registered metrics.
+   */
+  public List<Metric> metrics() {
+
+    final List<Metric> sorted = new ArrayList<>(metrics.values());
+    sorted.sort(Comparator.comparing(Metric::name).thenComparing(Metric::labels));
+    return sorted;
+  }
+
+  /**
+   * Writes every registered metric in the Prometheus text format.
+   *
+   * @return The metrics in the Prometheus text format.
+   */
+  public String prometheus() {
+
+    final StringBuilder builder = new StringBuilder();
+
+    String family = null;
+    for(final Metric metric : metrics()) {
+
+      if(!metric.name().equals(family)) {
+        family = metric.name();
+        builder.append("# HELP ").append(family).append(' ').append(metric.help()).append('\n');
+        builder.append("# TYPE ").append(family).append(' ').append(metric.type()).append('\n');
+      }
+      metric.write(builder);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Reads the configuration, and starts the repeating export task if exporting is enabled.
+   */
+  public void start() {
+
+    stop();
+
+    if(!MainConfig.yaml().getBoolean("Core.Metrics.Export.Enabled", false)) {
+      return;
+    }
+
+    final int interval = Math.max(1, MainConfig.yaml().getInt("Core.Metrics.Export.Interval", 15));
+    exporter = PluginCore.server().scheduler().createRepeatingTask(this::export,
+                                                                   new ChoreTime(interval, TimeUnit.SECONDS),
+                                                                   new ChoreTime(interval, TimeUnit.SECONDS),
+                                                                   ChoreExecution.SECONDARY);
+  }
+
+  /**
+   * Stops the repeating export task.
+   */
+  public void stop() {
+
+    if(exporter != null) {
+      exporter.cancel();
+      exporter = null;
+    }
+  }
+
+  /**
+   * Writes the metrics to the configured file. The file is written next to the target and then
+   * moved over it, so a collector never reads a partially written file.
+   */
+  public void export() {
+
+    final String configured = MainConfig.yaml().getString("Core.Metrics.Export.File", "metrics/tne.prom");
+    final File file = (new File(configured).isAbsolute())? new File(configured) : new File(PluginCore.directory(), configured);
+
+    try {
+      final File parent = file.getParentFile();
+      if(parent != null && !parent.exists() && !parent.mkdirs()) {
+        PluginCore.log().warning("Unable to create the metrics directory: " + parent.getPath(), DebugLevel.STANDARD);
+        return;
+      }
+
+      final Path target = file.toPath();
+      final Path temp = target.resolveSibling(file.getName() + ".tmp");
+      Files.writeString(temp, prometheus(), StandardCharsets.UTF_8);
+
+      try {
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch(final AtomicMoveNotSupportedException e) {
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch(final IOException e) {
+      PluginCore.log().error("Unable to export metrics to " + file.getPath(), e, DebugLevel.STANDARD);
+    }
+  }
+
+  /**
+   * Formats a number the way the Prometheus text format expects it.
+   *
+   * @param value The value to format.
+   *
+   * @return The formatted value.
+   */
+  public static String number(final double value) {
+
+    if(Double.isNaN(value)) {
+      return "NaN";
+    }
+
+    if(Double.isInfinite(value)) {
+      return (value > 0)? "+Inf" : "-Inf";
+    }
+
+    if(value == Math.rint(value) && Math.abs(value) < 1e15) {
+      return String.valueOf((long)value);
+    }
+    return String.valueOf(value);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T extends Metric> T metric(final String name, final String[] labels, final Class<T> type,
+                                      final Function<String, Metric> creator) {
+
+    final String key = Metric.key(name, labels);
+
+    Metric metric = metrics.get(key);
+    if(metric == null) {
+      metric = metrics.computeIfAbsent(key, creator);
+    }
+
+    if(!type.isInstance(metric)) {
+      throw new IllegalStateException("Metric " + key + " is already registered as a " + metric.type() + ".");
+    }
+    return (T)metric;
+  }
+}
+
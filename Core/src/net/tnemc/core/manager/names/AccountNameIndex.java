@@ -0,0 +1,190 @@
+package net.tnemc.core.manager.names;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.manager.AccountManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A case-insensitive, sorted index of account names used by the account argument suggestions.
+ * Prefix lookups walk the matching names in order without scanning every account, and whether a
+ * name is excluded from account arguments is worked out once when it's indexed instead of on every
+ * keystroke.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class AccountNameIndex {
+
+  //lowercase name + '\0' + identifier -> indexed name
+  private final ConcurrentSkipListMap<String, Named> sorted = new ConcurrentSkipListMap<>();
+
+  //identifier -> indexed name
+  private final Map<String, Named> identifiers = new ConcurrentHashMap<>();
+
+  //every indexed name, so a random one can be picked without copying anything.
+  private final List<Named> entries = new ArrayList<>();
+
+  private final AccountManager manager;
+
+  public AccountNameIndex(final AccountManager manager) {
+
+    this.manager = manager;
+  }
+
+  /**
+   * Adds an account's name to the index, or updates it if the account was renamed.
+   *
+   * @param identifier The account's identifier.
+   * @param name       The account's name.
+   */
+  public synchronized void add(@NotNull final String identifier, @NotNull final String name) {
+
+    final Named existing = identifiers.get(identifier);
+    if(existing != null) {
+
+      if(existing.name.equals(name)) {
+        return;
+      }
+      detach(existing);
+    }
+
+    final Named named = new Named(identifier, name, manager.excluded(name));
+    named.position = entries.size();
+    entries.add(named);
+
+    sorted.put(named.key, named);
+    identifiers.put(identifier, named);
+  }
+
+  /**
+   * Removes an account's name from the index.
+   *
+   * @param identifier The account's identifier.
+   */
+  public synchronized void remove(@NotNull final String identifier) {
+
+    final Named existing = identifiers.get(identifier);
+    if(existing != null) {
+      detach(existing);
+    }
+  }
+
+  /**
+   * Works out the exclusions for every indexed name again, this should be called when the
+   * exclusions change.
+   */
+  public synchronized void refresh() {
+
+    for(final Named named : entries) {
+      named.excluded = manager.excluded(named.name);
+    }
+  }
+
+  public synchronized void clear() {
+
+    sorted.clear();
+    identifiers.clear();
+    entries.clear();
+  }
+
+  public int size() {
+
+    return identifiers.size();
+  }
+
+  /**
+   * Used to get the names that start with the specified prefix, ignoring case, in alphabetical
+   * order. Excluded names are skipped.
+   *
+   * @param prefix The prefix to look for.
+   * @param limit  The max amount of names to return.
+   *
+   * @return The matching names.
+   */
+  public List<String> suggest(@NotNull final String prefix, final int limit) {
+
+    final String lower = prefix.toLowerCase();
+    final List<String> names = new ArrayList<>();
+
+    for(final Map.Entry<String, Named> entry : sorted.tailMap(lower, true).entrySet()) {
+      if(names.size() >= limit || !entry.getKey().startsWith(lower)) break;
+
+      if(!entry.getValue().excluded) {
+        names.add(entry.getValue().name);
+      }
+    }
+    return names;
+  }
+
+  /**
+   * Used to get the name of a random indexed account.
+   *
+   * @return The name, or an empty optional if nothing is indexed.
+   */
+  public synchronized Optional<String> random() {
+
+    if(entries.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(entries.get(ThreadLocalRandom.current().nextInt(entries.size())).name);
+  }
+
+  /**
+   * Removes the name from every structure, swapping the last entry into its spot in the entries
+   * list so removal doesn't shift anything.
+   */
+  private void detach(@NotNull final Named named) {
+
+    sorted.remove(named.key, named);
+    identifiers.remove(named.identifier, named);
+
+    final Named last = entries.remove(entries.size() - 1);
+    if(last != named) {
+      last.position = named.position;
+      entries.set(named.position, last);
+    }
+  }
+
+  private static class Named {
+
+    private final String identifier;
+    private final String name;
+    private final String key;
+
+    private volatile boolean excluded;
+    private int position;
+
+    Named(final String identifier, final String name, final boolean excluded) {
+
+      this.identifier = identifier;
+      this.name = name;
+      this.key = name.toLowerCase() + '\0' + identifier;
+      this.excluded = excluded;
+    }
+  }
+}
@@ -0,0 +1,406 @@
+package net.tnemc.core.manager.residency;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.TNECore;
+import net.tnemc.core.account.Account;
+import net.tnemc.core.account.PlayerAccount;
+import net.tnemc.core.account.SharedAccount;
+import net.tnemc.core.config.DataConfig;
+import net.tnemc.core.io.storage.dialect.TNEDialect;
+import net.tnemc.core.io.storage.queue.WriteBehindQueue;
+import net.tnemc.core.manager.AccountManager;
+import net.tnemc.core.manager.TransactionManager;
+import net.tnemc.core.manager.metrics.CacheMetric;
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
+import net.tnemc.plugincore.core.compatibility.scheduler.Chore;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreExecution;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreTime;
+import net.tnemc.plugincore.core.id.UUIDPair;
+import net.tnemc.plugincore.core.io.storage.Datable;
+import net.tnemc.plugincore.core.io.storage.StorageManager;
+import net.tnemc.plugincore.core.io.storage.connect.SQLConnector;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccountResidency controls which {@link Account accounts} are kept in memory. Only an index of
+ * the stored accounts is read at startup, accounts are loaded from storage the first time they are
+ * looked up, and idle offline player accounts are written back and evicted once they pass the
+ * configured idle time, or the resident count grows beyond the configured maximum. Online players
+ * and non-player accounts are always kept resident.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class AccountResidency {
+
+  //identifier -> last time the account was accessed
+  private final Map<String, Long> access = new ConcurrentHashMap<>();
+
+  //identifier -> lock used while the account is being loaded from storage
+  private final Map<String, Object> loads = new ConcurrentHashMap<>();
+
+  //every account identifier that exists in storage, resident or not.
+  private final Set<UUID> stored = ConcurrentHashMap.newKeySet();
+
+  private final AccountManager manager;
+  private final CacheMetric metric = TNECore.metrics().cache("residency");
+
+  private Chore<?> evictor = null;
+
+  private volatile boolean active = false;
+
+  public AccountResidency(final AccountManager manager) {
+
+    this.manager = manager;
+  }
+
+  /**
+   * Used to determine if lazy residency is in use. This requires an SQL based storage type, since
+   * file based storage has no cheap way to read the account index.
+   *
+   * @return True if accounts are loaded on demand, otherwise false.
+   */
+  public boolean enabled() {
+
+    return DataConfig.yaml().getBoolean("Data.Residency.Enabled", false)
+           && TNECore.instance().storage() != null
+           && TNECore.instance().storage().getConnector() instanceof SQLConnector;
+  }
+
+  /**
+   * Reads the account index from storage. Player names are registered with the uuid provider so
+   * name lookups keep working, and every non-player account is loaded since those are pinned.
+   */
+  public void bootstrap() {
+
+    stored.clear();
+    access.clear();
+    active = true;
+
+    final List<String> nonPlayers = new ArrayList<>();
+    if(TNECore.instance().storage().getConnector() instanceof final SQLConnector sql && sql.dialect() instanceof final TNEDialect tne) {
+
+      try(final ResultSet result = sql.executeQuery(tne.loadAccounts(), new Object[]{})) {
+        while(result.next()) {
+
+          final String uid = result.getString("uid");
+          final String type = result.getString("account_type");
+          final UUID id = UUID.fromString(uid);
+
+          stored.add(id);
+
+          if(type.equalsIgnoreCase("player") || type.equalsIgnoreCase("bedrock")) {
+            final String username = result.getString("username");
+            manager.uuidProvider().store(new UUIDPair(id, username));
+            if(username != null) {
+              manager.names().add(uid, username);
+            }
+            continue;
+          }
+          nonPlayers.add(uid);
+        }
+      } catch(final SQLException e) {
+        e.printStackTrace();
+      }
+    }
+
+    for(final String identifier : nonPlayers) {
+      load(identifier);
+    }
+
+    PluginCore.log().inform("Indexed " + stored.size() + " accounts, " + manager.getAccounts().size() + " loaded.");
+  }
+
+  /**
+   * Starts the repeating task that evicts idle accounts.
+   */
+  public void start() {
+
+    if(evictor != null) {
+      evictor.cancel();
+    }
+
+    final int interval = Math.max(1, DataConfig.yaml().getInt("Data.Residency.Interval", 60));
+    evictor = PluginCore.server().scheduler().createRepeatingTask(this::evict,
+                                                                  new ChoreTime(interval, TimeUnit.SECONDS),
+                                                                  new ChoreTime(interval, TimeUnit.SECONDS),
+                                                                  ChoreExecution.SECONDARY);
+  }
+
+  /**
+   * Stops the eviction task, and returns to keeping every account resident.
+   */
+  public void stop() {
+
+    active = false;
+    if(evictor != null) {
+      evictor.cancel();
+      evictor = null;
+    }
+  }
+
+  /**
+   * Used to find an account, loading it from storage if it exists there but isn't resident.
+   *
+   * @param identifier The identifier of the account.
+   *
+   * @return An optional containing the account if it exists, otherwise an empty optional.
+   */
+  public Optional<Account> find(@NotNull final String identifier) {
+
+    final Account account = manager.getAccounts().get(identifier);
+    if(!active) {
+      return Optional.ofNullable(account);
+    }
+
+    if(account != null && !loads.containsKey(identifier)) {
+
+      metric.hit();
+      access.put(identifier, System.currentTimeMillis());
+      return Optional.of(account);
+    }
+
+    if(account == null && !stored(identifier)) {
+      return Optional.empty();
+    }
+    metric.miss();
+    return load(identifier);
+  }
+
+  /**
+   * Loads the account with the specified identifier from storage if it isn't already resident.
+   * Concurrent loads of the same account wait on each other, so callers never see an account
+   * before its holdings are loaded.
+   *
+   * @param identifier The identifier of the account.
+   *
+   * @return An optional containing the account if it exists, otherwise an empty optional.
+   */
+  @SuppressWarnings("unchecked")
+  public Optional<Account> load(@NotNull final String identifier) {
+
+    final Object lock = loads.computeIfAbsent(identifier, k->new Object());
+    try {
+      synchronized(lock) {
+
+        Account account = manager.getAccounts().get(identifier);
+        if(account == null) {
+
+          final StorageManager storage = TNECore.instance().storage();
+          final Datable<Account> datable = (Datable<Account>)storage.getEngine().datables().get(Account.class);
+          if(datable != null) {
+
+            PluginCore.log().debug("Loading non-resident account: " + identifier, DebugLevel.DETAILED);
+            datable.load(storage.getConnector(), identifier);
+            account = manager.getAccounts().get(identifier);
+          }
+        }
+
+        if(account != null) {
+          access.put(identifier, System.currentTimeMillis());
+        }
+        return Optional.ofNullable(account);
+      }
+    } finally {
+      loads.remove(identifier, lock);
+    }
+  }
+
+  /**
+   * Writes back and evicts idle accounts. Accounts idle for longer than the configured time are
+   * always evicted, then the least recently used accounts are evicted until the resident count is
+   * within the configured maximum.
+   */
+  public void evict() {
+
+    if(!active) {
+      return;
+    }
+
+    final long now = System.currentTimeMillis();
+    final long idle = TimeUnit.MINUTES.toMillis(Math.max(1, DataConfig.yaml().getInt("Data.Residency.IdleMinutes", 30)));
+    final int max = Math.max(0, DataConfig.yaml().getInt("Data.Residency.MaxResident", 10000));
+
+    final List<Account> candidates = new ArrayList<>();
+    for(final Account account : manager.getAccounts().values()) {
+      if(!pinned(account)) {
+        candidates.add(account);
+      }
+    }
+    candidates.sort((a, b)->Long.compare(lastAccess(a), lastAccess(b)));
+
+    int resident = manager.getAccounts().size();
+    int evicted = 0;
+    for(final Account account : candidates) {
+
+      if(now - lastAccess(account) < idle && resident <= max) {
+        break;
+      }
+
+      if(evict(account)) {
+        resident--;
+        evicted++;
+      }
+    }
+
+    if(evicted > 0) {
+      PluginCore.log().debug("Evicted " + evicted + " idle accounts, " + resident + " remain resident.", DebugLevel.STANDARD);
+    }
+  }
+
+  /**
+   * Evicts an account while holding its transaction lock, so a transaction can't change it between
+   * it being written back and removed. Accounts in the middle of a transaction are skipped, and
+   * picked up again by the next sweep.
+   */
+  private boolean evict(@NotNull final Account account) {
+
+    final UUID id = account.getIdentifier();
+    if(!TransactionManager.locks().tryLock(id)) {
+      return false;
+    }
+
+    try {
+      return writeAndRemove(account);
+    } finally {
+      TransactionManager.locks().unlock(id, null);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private boolean writeAndRemove(@NotNull final Account account) {
+
+    final String identifier = account.getIdentifier().toString();
+
+    final WriteBehindQueue queue = TNECore.instance().writeBehind();
+    if(account.isDirty() && queue.active()) {
+
+      //write the rows queued for this account, rather than storing the whole account again.
+      queue.changes(account, account.getWallet().drainChanges());
+      if(account.isDirty()) {
+        queue.account(account);
+      }
+
+      if(!queue.flush(identifier) || account.isDirty()) {
+        return false;
+      }
+    }
+
+    if(account.isDirty()) {
+
+      final StorageManager storage = TNECore.instance().storage();
+      final Datable<Account> datable = (Datable<Account>)storage.getEngine().datables().get(Account.class);
+      if(datable == null) {
+        return false;
+      }
+      datable.store(storage.getConnector(), account, identifier);
+
+      //the write failed, keep it around for the autosaver.
+      if(account.isDirty()) {
+        return false;
+      }
+    }
+
+    if(!manager.getAccounts().remove(identifier, account)) {
+      return false;
+    }
+
+    //modified while we were writing it back, put it back so the change isn't lost.
+    if(account.isDirty()) {
+      manager.getAccounts().put(identifier, account);
+      return false;
+    }
+
+    access.remove(identifier);
+
+    //rankings seeded from storage still rank it by its stored holdings.
+    TNECore.eco().getTopManager().evict(account.getIdentifier());
+    TNECore.eco().placeholder().cache().invalidate(identifier);
+    TNECore.instance().balanceSync().versions().remove(identifier);
+    return true;
+  }
+
+  /**
+   * Used to determine if an account must stay resident.
+   *
+   * @param account The account to check.
+   *
+   * @return True if the account is pinned, otherwise false.
+   */
+  public boolean pinned(@NotNull final Account account) {
+
+    if(account instanceof SharedAccount) {
+      return true;
+    }
+
+    if(account instanceof final PlayerAccount player) {
+      return player.isOnline()
+             || manager.getLoading().contains(player.getUUID())
+             || manager.getImporting().contains(player.getUUID());
+    }
+    return true;
+  }
+
+  public boolean active() {
+
+    return active;
+  }
+
+  public boolean stored(@NotNull final String identifier) {
+
+    try {
+      return stored.contains(UUID.fromString(identifier));
+    } catch(final IllegalArgumentException ignore) {
+      return false;
+    }
+  }
+
+  public void addStored(@NotNull final UUID identifier) {
+
+    stored.add(identifier);
+  }
+
+  public void removeStored(@NotNull final String identifier) {
+
+    access.remove(identifier);
+    try {
+      stored.remove(UUID.fromString(identifier));
+    } catch(final IllegalArgumentException ignore) {
+      //not an uuid, so it was never indexed.
+    }
+  }
+
+  private long lastAccess(@NotNull final Account account) {
+
+    return access.getOrDefault(account.getIdentifier().toString(), 0L);
+  }
+}
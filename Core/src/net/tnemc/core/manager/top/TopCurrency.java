@@ -20,34 +20,43 @@ package net.tnemc.core.manager.top;
 
 import net.tnemc.core.TNECore;
 import net.tnemc.core.account.Account;
-import net.tnemc.core.io.maps.MultiTreeMap;
+import net.tnemc.core.config.MainConfig;
+import net.tnemc.core.io.storage.dialect.TNEDialect;
 import net.tnemc.core.manager.TopManager;
-
+import net.tnemc.plugincore.core.io.storage.connect.SQLConnector;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
-import static net.tnemc.core.EconomyManager.TOP_PER_PAGE;
-
 /**
- * TopCurrency
+ * TopCurrency holds the {@link TopIndex rankings} for a currency, one per resolved region. The
+ * rankings are kept up to date as holdings change, so they only need to be built once per region.
+ * When accounts are loaded on demand, the accounts that aren't resident are ranked by their stored
+ * holdings.
  *
  * @author creatorfromhell
  * @since 0.1.2.0
  */
 public class TopCurrency {
 
-  private final MultiTreeMap<String> balances = new MultiTreeMap<>(TOP_PER_PAGE);
+  private final Map<String, TopIndex> regions = new ConcurrentHashMap<>();
 
   private final String region;
   private final UUID currency;
 
   public TopCurrency(final String region, final UUID currency) {
 
-    this.region = region;
+    this.region = TNECore.eco().region().resolve(region);
     this.currency = currency;
 
     load();
-    balances.sort();
   }
 
   public UUID getCurrency() {
@@ -55,12 +64,50 @@ public class TopCurrency {
     return currency;
   }
 
+  /**
+   * (Re)builds the rankings for the default region.
+   */
   public void load() {
 
-    for(final Account account : TNECore.eco().account().getAccounts().values()) {
-      if(excluded(account.getName())) continue;
+    final TopIndex index = new TopIndex();
+    regions.put(region, index);
+    build(region, index);
+  }
+
+  /**
+   * Used to update the ranking of an account after its holdings changed. Only regions that have
+   * already been ranked are updated.
+   *
+   * @param account The account.
+   * @param region  The resolved region that changed.
+   */
+  public void update(@NotNull final Account account, @NotNull final String region) {
+
+    final TopIndex index = regions.get(region);
+    if(index != null) {
+      update(index, region, account);
+    }
+  }
+
+  public void remove(@NotNull final UUID account) {
 
-      balances.put(account.getHoldingsTotal(region, currency), account.getName());
+    for(final TopIndex index : regions.values()) {
+      index.remove(account);
+    }
+  }
+
+  /**
+   * Drops an evicted account from the rankings that were only built from resident accounts.
+   * Rankings seeded from storage keep it, since it's still ranked by its stored holdings.
+   *
+   * @param account The identifier of the evicted account.
+   */
+  public void evict(@NotNull final UUID account) {
+
+    for(final TopIndex index : regions.values()) {
+      if(!index.stored()) {
+        index.remove(account);
+      }
     }
   }
 
@@ -76,8 +123,98 @@ public class TopCurrency {
     return false;
   }
 
-  public MultiTreeMap<String> getBalances() {
+  /**
+   * Used to get the rankings for the default region.
+   *
+   * @return The rankings for the default region.
+   */
+  public TopIndex getBalances() {
+
+    return getBalances(region);
+  }
+
+  /**
+   * Used to get the rankings for a region, building them the first time they're requested.
+   *
+   * @param region The resolved region.
+   *
+   * @return The rankings for the region.
+   */
+  public TopIndex getBalances(@NotNull final String region) {
+
+    final TopIndex existing = regions.get(region);
+    if(existing != null) {
+      return existing;
+    }
+
+    final TopIndex index = new TopIndex();
+    if(regions.putIfAbsent(region, index) == null) {
+      build(region, index);
+      return index;
+    }
+    return regions.get(region);
+  }
+
+  private void build(@NotNull final String region, @NotNull final TopIndex index) {
+
+    for(final Account account : TNECore.eco().account().getAccounts().values()) {
+      update(index, region, account);
+    }
+
+    //the stored balances never replace a resident one, so they can be read in after the resident
+    //accounts are ranked, off the calling thread.
+    if(TNECore.eco().account().residency().active()) {
+      TNECore.instance().storageExecutor().submit(null, ()->stored(region, index));
+    }
+  }
+
+  /**
+   * Ranks every stored account in a region by its stored holdings.
+   */
+  private void stored(@NotNull final String region, @NotNull final TopIndex index) {
+
+    if(!(TNECore.instance().storage().getConnector() instanceof final SQLConnector sql)
+       || !(sql.dialect() instanceof final TNEDialect tne)) {
+      return;
+    }
+
+    final Map<UUID, BigDecimal> totals = new HashMap<>();
+    final Map<UUID, String> names = new HashMap<>();
+    try(final ResultSet result = sql.executeQuery(tne.loadTopHoldings(), new Object[]{
+            MainConfig.yaml().getString("Core.Server.Name"), region, currency.toString()
+    })) {
+      while(result.next()) {
+
+        final UUID id = UUID.fromString(result.getString("uid"));
+        totals.merge(id, result.getBigDecimal("holdings"), BigDecimal::add);
+        names.putIfAbsent(id, result.getString("username"));
+      }
+    } catch(final SQLException e) {
+      e.printStackTrace();
+      return;
+    }
+
+    for(final Map.Entry<UUID, BigDecimal> entry : totals.entrySet()) {
+
+      final String name = names.get(entry.getKey());
+      if(name != null && !excluded(name)) {
+        index.update(entry.getKey(), name, entry.getValue(), TopIndex.STORED);
+      }
+    }
+    index.markStored();
+  }
+
+  private void update(@NotNull final TopIndex index, @NotNull final String region, @NotNull final Account account) {
+
+    if(excluded(account.getName())) {
+      index.remove(account.getIdentifier());
+      return;
+    }
 
-    return balances;
+    //the stamp is taken before the balance is read, so if a build and an update race the index
+    //keeps whichever balance was read last, without reading holdings under the index's lock.
+    final long stamp = TopIndex.stamp();
+    final BigDecimal balance = TNECore.eco().itemCache().readOnly(()->account.getHoldingsTotal(region, currency));
+    index.update(account.getIdentifier(), account.getName(), balance, stamp);
   }
-}
\ No newline at end of file
+}
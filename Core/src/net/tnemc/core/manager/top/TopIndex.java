@@ -0,0 +1,344 @@
+package net.tnemc.core.manager.top;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An order-statistic index of account balances, ordered from the highest balance to the lowest.
+ * This is a treap where every node tracks the size of its subtree, which gives O(log n) updates,
+ * rank lookups, and positional selects.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class TopIndex {
+
+  /**
+   * The stamp used for balances read from storage, which never replace a balance that's already
+   * indexed.
+   */
+  public static final long STORED = Long.MIN_VALUE;
+
+  private static final AtomicLong stamps = new AtomicLong();
+
+  private final Map<UUID, Node> ids = new HashMap<>();
+  private final Map<String, Node> names = new HashMap<>();
+
+  private Node root = null;
+  private volatile boolean stored = false;
+
+  /**
+   * Used to get a stamp for a balance that's about to be read. Stamps only go up, so a balance read
+   * after another one always has the higher stamp.
+   *
+   * @return The stamp to pass to {@link #update(UUID, String, BigDecimal, long)}.
+   */
+  public static long stamp() {
+
+    return stamps.incrementAndGet();
+  }
+
+  /**
+   * Adds an account to the index, or moves it if it's already indexed.
+   *
+   * @param id      The identifier of the account.
+   * @param name    The name of the account.
+   * @param balance The balance to rank the account by.
+   */
+  public void update(@NotNull final UUID id, @NotNull final String name, @NotNull final BigDecimal balance) {
+
+    update(id, name, balance, stamp());
+  }
+
+  /**
+   * Adds an account to the index, or moves it if it's already indexed. The balance is dropped if
+   * the account is already indexed with a balance that was read later, so balances can be read
+   * without holding the index's lock.
+   *
+   * @param id      The identifier of the account.
+   * @param name    The name of the account.
+   * @param balance The balance to rank the account by.
+   * @param stamp   The {@link #stamp() stamp} taken before the balance was read, or {@link #STORED}.
+   */
+  public synchronized void update(@NotNull final UUID id, @NotNull final String name,
+                                  @NotNull final BigDecimal balance, final long stamp) {
+
+    final Node existing = ids.get(id);
+    if(existing != null) {
+
+      if(existing.stamp >= stamp) {
+        return;
+      }
+
+      if(existing.balance.compareTo(balance) == 0 && existing.name.equals(name)) {
+        existing.stamp = stamp;
+        return;
+      }
+      detach(existing);
+    }
+
+    final Node node = new Node(id, name, balance, stamp);
+    final Node[] parts = split(root, node);
+    root = merge(merge(parts[0], node), parts[1]);
+
+    ids.put(id, node);
+    names.put(name, node);
+  }
+
+  /**
+   * Removes an account from the index.
+   *
+   * @param id The identifier of the account.
+   */
+  public synchronized void remove(@NotNull final UUID id) {
+
+    final Node existing = ids.get(id);
+    if(existing != null) {
+      detach(existing);
+    }
+  }
+
+  /**
+   * Used to get the 0-based rank of an account by name.
+   *
+   * @param name The name of the account.
+   *
+   * @return The rank of the account, or -1 if it isn't indexed.
+   */
+  public synchronized int rank(@NotNull final String name) {
+
+    final Node target = names.get(name);
+    if(target == null) {
+      return -1;
+    }
+
+    int rank = 0;
+    Node current = root;
+    while(current != null) {
+
+      final int cmp = compare(target, current);
+      if(cmp == 0) {
+        return rank + size(current.left);
+      }
+
+      if(cmp < 0) {
+        current = current.left;
+      } else {
+        rank += size(current.left) + 1;
+        current = current.right;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Builds a {@link TopPage page} from the index.
+   *
+   * @param page    The 1-based page number.
+   * @param perPage The amount of entries per page.
+   *
+   * @return The page.
+   */
+  public synchronized TopPage<String> page(final int page, final int perPage) {
+
+    final TopPage<String> entry = new TopPage<>(page);
+
+    final int start = (page - 1) * perPage;
+    final int end = Math.min(start + perPage, size(root));
+    for(int i = start; i < end; i++) {
+
+      final Node node = select(i);
+      if(node != null) {
+        entry.getValues().put(node.name, node.balance);
+      }
+    }
+    return entry;
+  }
+
+  public synchronized int size() {
+
+    return size(root);
+  }
+
+  /**
+   * Used to determine if this index ranks the stored accounts that aren't resident, as well as the
+   * resident ones.
+   *
+   * @return True if the stored balances have been added, otherwise false.
+   */
+  public boolean stored() {
+
+    return stored;
+  }
+
+  /**
+   * Marks this index as ranking the stored accounts that aren't resident.
+   */
+  public void markStored() {
+
+    this.stored = true;
+  }
+
+  public synchronized void clear() {
+
+    root = null;
+    ids.clear();
+    names.clear();
+  }
+
+  private void detach(@NotNull final Node node) {
+
+    root = remove(root, node);
+    ids.remove(node.id);
+    names.remove(node.name, node);
+  }
+
+  private @Nullable Node select(int index) {
+
+    Node current = root;
+    while(current != null) {
+
+      final int left = size(current.left);
+      if(index < left) {
+        current = current.left;
+      } else if(index == left) {
+        return current;
+      } else {
+        index -= left + 1;
+        current = current.right;
+      }
+    }
+    return null;
+  }
+
+  private Node remove(@Nullable final Node node, @NotNull final Node target) {
+
+    if(node == null) {
+      return null;
+    }
+
+    final int cmp = compare(target, node);
+    if(cmp == 0) {
+      return merge(node.left, node.right);
+    }
+
+    if(cmp < 0) {
+      node.left = remove(node.left, target);
+    } else {
+      node.right = remove(node.right, target);
+    }
+    node.pull();
+    return node;
+  }
+
+  /**
+   * Splits the tree into the nodes ordered before the key, and the nodes ordered at or after it.
+   */
+  private Node[] split(@Nullable final Node node, @NotNull final Node key) {
+
+    if(node == null) {
+      return new Node[] { null, null };
+    }
+
+    if(compare(node, key) < 0) {
+      final Node[] parts = split(node.right, key);
+      node.right = parts[0];
+      node.pull();
+      return new Node[] { node, parts[1] };
+    }
+
+    final Node[] parts = split(node.left, key);
+    node.left = parts[1];
+    node.pull();
+    return new Node[] { parts[0], node };
+  }
+
+  /**
+   * Merges two trees, where every node in the first is ordered before every node in the second.
+   */
+  private Node merge(@Nullable final Node first, @Nullable final Node second) {
+
+    if(first == null) return second;
+    if(second == null) return first;
+
+    if(first.priority > second.priority) {
+      first.right = merge(first.right, second);
+      first.pull();
+      return first;
+    }
+
+    second.left = merge(first, second.left);
+    second.pull();
+    return second;
+  }
+
+  /**
+   * Highest balance first, then by name, then by identifier so every account has a unique spot.
+   */
+  private static int compare(@NotNull final Node a, @NotNull final Node b) {
+
+    final int balance = b.balance.compareTo(a.balance);
+    if(balance != 0) return balance;
+
+    final int name = a.name.compareTo(b.name);
+    if(name != 0) return name;
+
+    return a.id.compareTo(b.id);
+  }
+
+  private static int size(@Nullable final Node node) {
+
+    return (node == null)? 0 : node.size;
+  }
+
+  private static class Node {
+
+    private final UUID id;
+    private final String name;
+    private final BigDecimal balance;
+    private final int priority = ThreadLocalRandom.current().nextInt();
+
+    private Node left;
+    private Node right;
+    private int size = 1;
+    private long stamp;
+
+    Node(final UUID id, final String name, final BigDecimal balance, final long stamp) {
+
+      this.id = id;
+      this.name = name;
+      this.balance = balance;
+      this.stamp = stamp;
+    }
+
+    void pull() {
+
+      size = 1 + size(left) + size(right);
+    }
+  }
+}
@@ -110,7 +110,7 @@ public class BaltopMenu extends Menu {
 
         for(final Map.Entry<Long, UUID> entry : sorted.getPage(adjustedPage).entrySet()) {
 
-          final Optional<Receipt> receipt = account.get().findReceipt(entry.getValue());
+          final Optional<Receipt> receipt = sorted.findReceipt(entry.getValue()).or(()->account.get().findReceipt(entry.getValue(), entry.getKey()));
           if(receipt.isEmpty()) {
             continue;
           }
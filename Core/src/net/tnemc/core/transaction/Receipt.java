@@ -20,6 +20,7 @@ package net.tnemc.core.transaction;
 
 import net.tnemc.core.account.holdings.modify.HoldingsModifier;
 import net.tnemc.core.actions.ActionSource;
+import net.tnemc.core.manager.TransactionManager;
 import net.tnemc.core.utils.exceptions.InvalidTransactionException;
 
 import java.math.BigDecimal;
@@ -101,6 +102,11 @@ public class Receipt {
       transaction.process((transactionResult->{
         if(transactionResult.isSuccessful()) {
           setVoided(true);
+
+          //a receipt read back from the receipt segments isn't held in memory, so it wouldn't be saved.
+          if(TransactionManager.receipts().getResidentReceipt(id).isEmpty()) {
+            TransactionManager.receipts().log(this);
+          }
         }
       }));
     } catch(InvalidTransactionException e) {
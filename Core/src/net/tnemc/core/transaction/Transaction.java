@@ -24,11 +24,14 @@ import net.tnemc.core.account.Account;
 import net.tnemc.core.account.holdings.HoldingsEntry;
 import net.tnemc.core.account.holdings.modify.HoldingsModifier;
 import net.tnemc.core.actions.ActionSource;
+import net.tnemc.core.actions.response.GeneralResponse;
 import net.tnemc.core.api.callback.transaction.PostTransactionCallback;
 import net.tnemc.core.manager.TransactionManager;
+import net.tnemc.core.utils.ScaledAmount;
 import net.tnemc.core.utils.exceptions.InvalidTransactionException;
 import net.tnemc.plugincore.PluginCore;
 import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
+import org.jetbrains.annotations.Nullable;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -122,6 +125,7 @@ public class Transaction {
    */
   public Transaction from(final Account account, final HoldingsModifier modifier) {
 
+    final long revision = account.revision();
     final List<HoldingsEntry> balances = account.getHoldings(modifier.getRegion(), modifier.getCurrency(), modifier.getType());
 
     if(balances.isEmpty()) {
@@ -130,26 +134,28 @@ public class Transaction {
     }
 
     this.from = new TransactionParticipant(account.getIdentifier(), balances);
+    this.from.setRevision(revision);
 
     final Optional<TransactionType> type = TNECore.eco().transaction().findType(this.type);
 
     final BigDecimal tax = (type.isPresent() && type.get().fromTax().isPresent())? type.get().fromTax().get()
             .calculateTax(modifier.getModifier()) : BigDecimal.ZERO;
 
-    BigDecimal working = null;
-    final boolean take = (modifier.getModifier().compareTo(BigDecimal.ZERO) < 0);
+    final int scale = balances.get(0).scaled().scale();
+    ScaledAmount working = null;
+    final boolean take = (modifier.getModifier().signum() < 0);
 
     if(take) {
       if(modifier.isPercent()) {
 
-        BigDecimal total = BigDecimal.ZERO;
+        ScaledAmount total = ScaledAmount.ofScaled(0, scale);
         for(final HoldingsEntry entry : balances) {
-          total = total.add(entry.getAmount());
+          total = total.add(entry.scaled());
         }
-        working = modifier.modify(total);
+        working = ScaledAmount.of(modifier.modify(total.toBigDecimal()), scale);
         total = null;
       } else {
-        working = modifier.getModifier().multiply(new BigDecimal(-1));
+        working = modifier.asScaled(scale).negate();
       }
     }
 
@@ -165,30 +171,30 @@ public class Transaction {
       if(!done) {
         if(!take) {
 
-          ending = entry.modifyGrab(modifier).modifyGrab(tax.negate());
+          ending = taxed(entry.modifyGrab(modifier), tax);
 
           PluginCore.log().debug("End: " + ending.getAmount().toPlainString(), DebugLevel.DEVELOPER);
           PluginCore.log().debug("End: " + ending.getRegion(), DebugLevel.DEVELOPER);
           done = true;
         } else {
 
-          PluginCore.log().debug("Working: " + working.toPlainString(), DebugLevel.DEVELOPER);
+          PluginCore.log().debug("Working: " + working, DebugLevel.DEVELOPER);
 
-          if(entry.getAmount().compareTo(working) >= 0) {
-            PluginCore.log().debug("Value: " + working.toPlainString(), DebugLevel.DEVELOPER);
+          if(entry.scaled().compareTo(working) >= 0) {
+            PluginCore.log().debug("Value: " + working, DebugLevel.DEVELOPER);
 
-            ending = entry.modifyGrab(working.multiply(new BigDecimal(-1))).modifyGrab(tax.negate());
+            ending = taxed(entry.modifyGrab(working.negate()), tax);
             PluginCore.log().debug("break out since we are good to go with this entry", DebugLevel.DEVELOPER);
             done = true;
           } else {
 
             if(i == (balances.size() - 1)) {
-              ending = entry.modifyGrab(working.multiply(new BigDecimal(-1)));
+              ending = entry.modifyGrab(working.negate());
 
             } else {
               PluginCore.log().debug("Keep Working", DebugLevel.DEVELOPER);
-              ending = entry.modifyGrab(entry.getAmount().multiply(new BigDecimal(-1)));
-              working = working.subtract(entry.getAmount());
+              ending = entry.modifyGrab(entry.scaled().negate());
+              working = working.subtract(entry.scaled());
             }
           }
         }
@@ -231,6 +237,7 @@ public class Transaction {
    */
   public Transaction to(final Account account, final HoldingsModifier modifier) {
 
+    final long revision = account.revision();
     final List<HoldingsEntry> balances = account.getHoldings(modifier.getRegion(), modifier.getCurrency(), modifier.getType());
 
     if(balances.isEmpty()) {
@@ -239,26 +246,28 @@ public class Transaction {
     }
 
     this.to = new TransactionParticipant(account.getIdentifier(), balances);
+    this.to.setRevision(revision);
 
     final Optional<TransactionType> type = TNECore.eco().transaction().findType(this.type);
 
     final BigDecimal tax = (type.isPresent() && type.get().toTax().isPresent())? type.get().toTax().get()
             .calculateTax(modifier.getModifier()) : BigDecimal.ZERO;
 
-    BigDecimal working = null;
-    final boolean take = (modifier.getModifier().compareTo(BigDecimal.ZERO) < 0);
+    final int scale = balances.get(0).scaled().scale();
+    ScaledAmount working = null;
+    final boolean take = (modifier.getModifier().signum() < 0);
 
     if(take) {
       if(modifier.isPercent()) {
 
-        BigDecimal total = BigDecimal.ZERO;
+        ScaledAmount total = ScaledAmount.ofScaled(0, scale);
         for(final HoldingsEntry entry : balances) {
-          total = total.add(entry.getAmount());
+          total = total.add(entry.scaled());
         }
-        working = modifier.modify(total);
+        working = ScaledAmount.of(modifier.modify(total.toBigDecimal()), scale);
         total = null;
       } else {
-        working = modifier.getModifier().multiply(new BigDecimal(-1));
+        working = modifier.asScaled(scale).negate();
       }
     }
 
@@ -277,30 +286,30 @@ public class Transaction {
       if(!done) {
         if(!take) {
 
-          ending = entry.modifyGrab(modifier).modifyGrab(tax.negate());
+          ending = taxed(entry.modifyGrab(modifier), tax);
 
           PluginCore.log().debug("End: " + ending.getAmount().toPlainString(), DebugLevel.DEVELOPER);
           PluginCore.log().debug("End: " + ending.getRegion(), DebugLevel.DEVELOPER);
           done = true;
         } else {
 
-          PluginCore.log().debug("Working: " + working.toPlainString(), DebugLevel.DEVELOPER);
+          PluginCore.log().debug("Working: " + working, DebugLevel.DEVELOPER);
 
-          if(entry.getAmount().compareTo(working) >= 0) {
-            PluginCore.log().debug("Value: " + working.toPlainString(), DebugLevel.DEVELOPER);
+          if(entry.scaled().compareTo(working) >= 0) {
+            PluginCore.log().debug("Value: " + working, DebugLevel.DEVELOPER);
 
-            ending = entry.modifyGrab(working.multiply(new BigDecimal(-1))).modifyGrab(tax.negate());
+            ending = taxed(entry.modifyGrab(working.negate()), tax);
             PluginCore.log().debug("break out since we are good to go with this entry", DebugLevel.DEVELOPER);
             done = true;
           } else {
 
             if(i == (balances.size() - 1)) {
-              ending = entry.modifyGrab(working.multiply(new BigDecimal(-1)));
+              ending = entry.modifyGrab(working.negate());
 
             } else {
               PluginCore.log().debug("Keep Working", DebugLevel.DEVELOPER);
-              ending = entry.modifyGrab(entry.getAmount().multiply(new BigDecimal(-1)));
-              working = working.subtract(entry.getAmount());
+              ending = entry.modifyGrab(entry.scaled().negate());
+              working = working.subtract(entry.scaled());
             }
           }
         }
@@ -382,6 +391,22 @@ public class Transaction {
    */
   public TransactionResult process() throws InvalidTransactionException {
 
+    return process(null);
+  }
+
+  /**
+   * Used to process this transaction, collecting the receipt into a batch rather than logging it
+   * right away. The caller is responsible for logging the batch with
+   * {@link net.tnemc.core.manager.ReceiptManager#logAll(java.util.Collection)}.
+   *
+   * @param batch The list to add the receipt to, or null to log the receipt immediately.
+   *
+   * @return The {@link TransactionResult result} of this transaction.
+   * @throws InvalidTransactionException If the transaction is missing its type, processor, or
+   *                                     participants.
+   */
+  public TransactionResult process(@Nullable final List<Receipt> batch) throws InvalidTransactionException {
+
     String missing = null;
 
     if(this.type == null) {
@@ -400,7 +425,30 @@ public class Transaction {
       throw new InvalidTransactionException(missing);
     }
 
-    final TransactionResult result = processor.process(this);
+    //Our snapshot, checks, and the application of the ending balances happen under the account locks.
+    final UUID fromID = (from == null)? null : from.getId();
+    final UUID toID = (to == null)? null : to.getId();
+
+    final long start = System.nanoTime();
+    final TransactionResult result;
+    if(TransactionManager.locks().lock(fromID, toID)) {
+      try {
+        //item holdings are rescanned here, a cached balance may be missing items dropped since.
+        result = TNECore.eco().itemCache().fresh(()->{
+          refresh();
+          return processor.process(this);
+        });
+      } finally {
+        TransactionManager.locks().unlock(fromID, toID);
+      }
+    } else {
+      PluginCore.log().debug("Unable to lock accounts for transaction. From: " + fromID + " To: " + toID, DebugLevel.STANDARD);
+      result = new TransactionResult(false, GeneralResponse.BUSY.response());
+    }
+
+    TNECore.metrics().histogram("tne_transaction_seconds", "Time spent processing transactions, including the checks.", "type", type).since(start);
+    TNECore.metrics().counter("tne_transactions_total", "Transactions processed.", "type", type,
+                              "result", (result.isSuccessful())? "success" : "failure").increment();
 
     if(resultConsumer != null) {
       resultConsumer.accept(result);
@@ -412,7 +460,11 @@ public class Transaction {
     //Log our stuff.
     if(result.getReceipt().isPresent()) {
 
-      TransactionManager.receipts().log(result.getReceipt().get());
+      if(batch == null) {
+        TransactionManager.receipts().log(result.getReceipt().get());
+      } else {
+        batch.add(result.getReceipt().get());
+      }
 
       if(to != null) {
         to.asAccount().ifPresent((acc->acc.logReference(result.getReceipt().get())));
@@ -426,6 +478,52 @@ public class Transaction {
     return result;
   }
 
+  /**
+   * Retakes the participant snapshots if the holdings of either account have been set since they
+   * were taken. This is called while the account locks are held, so the snapshot can't go stale
+   * again before the ending balances are applied.
+   */
+  private void refresh() {
+
+    if(from != null && modifierFrom != null) {
+
+      final Optional<Account> account = from.asAccount();
+      if(account.isPresent() && (account.get().revision() != from.getRevision() || items(modifierFrom))) {
+        PluginCore.log().debug("Refreshing stale snapshot for: " + from.getId(), DebugLevel.DEVELOPER);
+        from(account.get(), modifierFrom);
+      }
+    }
+
+    if(to != null && modifierTo != null) {
+
+      final Optional<Account> account = to.asAccount();
+      if(account.isPresent() && (account.get().revision() != to.getRevision() || items(modifierTo))) {
+        PluginCore.log().debug("Refreshing stale snapshot for: " + to.getId(), DebugLevel.DEVELOPER);
+        to(account.get(), modifierTo);
+      }
+    }
+  }
+
+  /**
+   * Used to determine if a modifier is for an item currency, which is held in inventories that can
+   * only be changed from the server thread. Item holdings change without the account's revision
+   * changing, such as when a player drops items, so snapshots for item currencies are always taken
+   * again under the lock.
+   *
+   * @param modifier The modifier to check.
+   *
+   * @return True if the modifier's currency is held as items, otherwise false.
+   */
+  public static boolean items(@Nullable final HoldingsModifier modifier) {
+
+    if(modifier == null) {
+      return false;
+    }
+
+    return TNECore.eco().currency().find(modifier.getCurrency())
+            .map(currency->currency.type().supportsItems()).orElse(false);
+  }
+
   public Optional<Account> getFromAccount() {
 
     if(from != null) {
@@ -498,4 +596,12 @@ public class Transaction {
 
     return resultConsumer;
   }
-}
\ No newline at end of file
+
+  /**
+   * Takes the tax from an ending balance, skipping the copy when there's no tax to take.
+   */
+  private static HoldingsEntry taxed(final HoldingsEntry ending, final BigDecimal tax) {
+
+    return (tax.signum() == 0)? ending : ending.modifyGrab(tax.negate());
+  }
+}
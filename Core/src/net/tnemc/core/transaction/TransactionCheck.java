@@ -45,6 +45,18 @@ public interface TransactionCheck {
   @MapKey
   String identifier();
 
+  /**
+   * Used to determine if this check currently does nothing, so it can be left out of the check
+   * chain entirely. This is only asked when a processor compiles its chain, so a check whose answer
+   * changes at runtime should call {@link net.tnemc.core.manager.TransactionManager#changed()}.
+   *
+   * @return True if this check can be skipped, otherwise false.
+   */
+  default boolean noop() {
+
+    return false;
+  }
+
   /**
    * This method is utilized to run the check on the specific transaction. This should return an
    * {@link EconomyResponse response}.
@@ -21,6 +21,7 @@ package net.tnemc.core.transaction;
 import net.tnemc.core.TNECore;
 import net.tnemc.core.account.Account;
 import net.tnemc.core.account.holdings.HoldingsEntry;
+import net.tnemc.core.utils.ScaledAmount;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -43,6 +44,9 @@ public class TransactionParticipant {
   private final UUID id;
   private BigDecimal tax;
 
+  //the account's holdings revision when the starting balances were taken.
+  private long revision = -1;
+
   public TransactionParticipant(final UUID id, final List<HoldingsEntry> startBalances) {
 
     this.id = id;
@@ -60,6 +64,16 @@ public class TransactionParticipant {
     return id;
   }
 
+  public long getRevision() {
+
+    return revision;
+  }
+
+  public void setRevision(final long revision) {
+
+    this.revision = revision;
+  }
+
   public BigDecimal getTax() {
 
     return tax;
@@ -82,11 +96,11 @@ public class TransactionParticipant {
 
   public BigDecimal getCombinedEnding() {
 
-    BigDecimal combined = BigDecimal.ZERO;
+    ScaledAmount combined = null;
 
     for(final HoldingsEntry entry : getEndingBalances()) {
-      combined = combined.add(entry.getAmount());
+      combined = (combined == null)? entry.scaled() : combined.add(entry.scaled());
     }
-    return combined;
+    return (combined == null)? BigDecimal.ZERO : combined.toBigDecimal();
   }
 }
\ No newline at end of file
@@ -90,7 +90,11 @@ public interface TransactionProcessor {
 
       final Optional<TransactionCheck> check = TNECore.eco().transaction().findCheck(str);
       if(check.isPresent()) {
+
+        final long start = System.nanoTime();
         response = check.get().process(transaction);
+        TNECore.metrics().histogram("tne_transaction_check_seconds", "Time spent running each transaction check.",
+                                    "check", check.get().identifier()).since(start);
 
         PluginCore.log().debug("Check: " + check.get().identifier() + " Result: " + response.success(), DebugLevel.DEVELOPER);
 
@@ -0,0 +1,45 @@
+package net.tnemc.core.transaction.bulk;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/**
+ * The outcome of a {@link BulkTransaction}.
+ *
+ * @param id        The identifier of the bulk transaction.
+ * @param type      The transaction type that was performed.
+ * @param total     The amount of accounts that matched the filter.
+ * @param succeeded The amount of accounts that were successfully modified.
+ * @param failed    The amount of accounts whose transaction failed.
+ * @param cancelled True if the bulk transaction was cancelled before every account was processed.
+ * @param time      The time taken, in milliseconds.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public record BulkResult(String id, String type, int total, int succeeded, int failed, boolean cancelled, long time) {
+
+  /**
+   * The amount of accounts that were never processed because the bulk transaction was cancelled.
+   *
+   * @return The amount of skipped accounts.
+   */
+  public int skipped() {
+
+    return Math.max(0, total - succeeded - failed);
+  }
+}
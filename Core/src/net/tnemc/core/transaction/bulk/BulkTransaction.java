@@ -0,0 +1,301 @@
+package net.tnemc.core.transaction.bulk;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+import net.tnemc.core.EconomyManager;
+import net.tnemc.core.account.Account;
+import net.tnemc.core.account.holdings.modify.HoldingsModifier;
+import net.tnemc.core.actions.ActionSource;
+import net.tnemc.core.transaction.TransactionProcessor;
+import net.tnemc.core.transaction.TransactionResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Represents a transaction that's performed against every account matching a filter, such as
+ * giving every account money. Bulk transactions are run by the {@link BulkTransactionEngine} off
+ * the main thread, in chunks, with each account's transaction still taking that account's lock.
+ * <p>
+ * The filter and listeners are called from TNE's bulk threads, so they should be thread safe and
+ * must not touch the server directly.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class BulkTransaction {
+
+  private final String id = UUID.randomUUID().toString().substring(0, 8);
+  private final String type;
+
+  private Predicate<Account> filter = account->true;
+  private HoldingsModifier modifier;
+  private ActionSource source;
+  private TransactionProcessor processor;
+
+  private Consumer<BulkTransaction> progress = null;
+  private BiConsumer<Account, TransactionResult> result = null;
+
+  private final CompletableFuture<BulkResult> future = new CompletableFuture<>();
+
+  private final AtomicInteger processed = new AtomicInteger(0);
+  private final AtomicInteger succeeded = new AtomicInteger(0);
+  private final AtomicInteger failed = new AtomicInteger(0);
+  private volatile int total = -1;
+  private volatile boolean cancelled = false;
+  private volatile long started = 0;
+
+  /**
+   * Creates a bulk transaction.
+   *
+   * @param type The identifier of the transaction type to perform for each account, such as give.
+   */
+  public BulkTransaction(@NotNull final String type) {
+
+    this.type = type;
+    this.processor = EconomyManager.baseProcessor();
+  }
+
+  /**
+   * Used to set the filter that decides which accounts are part of this bulk transaction.
+   *
+   * @param filter The filter, which is tested once for every loaded account.
+   *
+   * @return An instance of the BulkTransaction object with the new filter.
+   */
+  public BulkTransaction filter(@NotNull final Predicate<Account> filter) {
+
+    this.filter = filter;
+    return this;
+  }
+
+  /**
+   * Used to set the {@link HoldingsModifier modifier} applied to every account.
+   *
+   * @param modifier The modifier.
+   *
+   * @return An instance of the BulkTransaction object with the new modifier.
+   */
+  public BulkTransaction modifier(@NotNull final HoldingsModifier modifier) {
+
+    this.modifier = modifier;
+    return this;
+  }
+
+  /**
+   * Used to set the {@link ActionSource source} of this bulk transaction.
+   *
+   * @param source The source.
+   *
+   * @return An instance of the BulkTransaction object with the new source.
+   */
+  public BulkTransaction source(@NotNull final ActionSource source) {
+
+    this.source = source;
+    return this;
+  }
+
+  /**
+   * Used to set the {@link TransactionProcessor processor} used for each account.
+   *
+   * @param processor The processor.
+   *
+   * @return An instance of the BulkTransaction object with the new processor.
+   */
+  public BulkTransaction processor(@NotNull final TransactionProcessor processor) {
+
+    this.processor = processor;
+    return this;
+  }
+
+  /**
+   * Used to set a listener that is called after each chunk of accounts has been processed.
+   *
+   * @param progress The listener.
+   *
+   * @return An instance of the BulkTransaction object with the new listener.
+   */
+  public BulkTransaction progress(@Nullable final Consumer<BulkTransaction> progress) {
+
+    this.progress = progress;
+    return this;
+  }
+
+  /**
+   * Used to set a listener that is called with the result of each account's transaction.
+   *
+   * @param result The listener.
+   *
+   * @return An instance of the BulkTransaction object with the new listener.
+   */
+  public BulkTransaction result(@Nullable final BiConsumer<Account, TransactionResult> result) {
+
+    this.result = result;
+    return this;
+  }
+
+  /**
+   * Requests that this bulk transaction stops. Accounts that were already processed keep their
+   * changes, and the chunk being processed finishes its current account.
+   */
+  public void cancel() {
+
+    cancelled = true;
+  }
+
+  public boolean isCancelled() {
+
+    return cancelled;
+  }
+
+  /**
+   * Used to determine if this bulk transaction has finished, either by processing every account or
+   * by being cancelled.
+   *
+   * @return True if this bulk transaction is done, otherwise false.
+   */
+  public boolean isDone() {
+
+    return future.isDone();
+  }
+
+  /**
+   * The future that is completed with the {@link BulkResult result} once this bulk transaction is
+   * done.
+   *
+   * @return The future for this bulk transaction.
+   */
+  public CompletableFuture<BulkResult> future() {
+
+    return future;
+  }
+
+  public String id() {
+
+    return id;
+  }
+
+  public String type() {
+
+    return type;
+  }
+
+  public Predicate<Account> filter() {
+
+    return filter;
+  }
+
+  public HoldingsModifier modifier() {
+
+    return modifier;
+  }
+
+  public ActionSource source() {
+
+    return source;
+  }
+
+  public TransactionProcessor processor() {
+
+    return processor;
+  }
+
+  /**
+   * The amount of accounts that matched the filter.
+   *
+   * @return The amount of accounts, or -1 if the accounts haven't been collected yet.
+   */
+  public int total() {
+
+    return total;
+  }
+
+  public int processed() {
+
+    return processed.get();
+  }
+
+  public int succeeded() {
+
+    return succeeded.get();
+  }
+
+  public int failed() {
+
+    return failed.get();
+  }
+
+  /**
+   * The percentage of accounts that have been processed.
+   *
+   * @return The progress, from 0 to 100.
+   */
+  public int percent() {
+
+    final int accounts = total;
+    if(accounts <= 0) {
+      return (accounts == 0)? 100 : 0;
+    }
+    return (int)((processed.get() * 100L) / accounts);
+  }
+
+  void begin() {
+
+    started = System.currentTimeMillis();
+  }
+
+  void total(final int total) {
+
+    this.total = total;
+  }
+
+  void processed(@NotNull final Account account, @Nullable final TransactionResult result) {
+
+    if(result != null && result.isSuccessful()) {
+      succeeded.incrementAndGet();
+    } else {
+      failed.incrementAndGet();
+    }
+    processed.incrementAndGet();
+
+    if(this.result != null && result != null) {
+      this.result.accept(account, result);
+    }
+  }
+
+  void chunked() {
+
+    if(progress != null) {
+      progress.accept(this);
+    }
+  }
+
+  BulkResult finish() {
+
+    final BulkResult outcome = new BulkResult(id, type, Math.max(0, total), succeeded.get(), failed.get(),
+                                              cancelled && processed.get() < total, System.currentTimeMillis() - started);
+    future.complete(outcome);
+    return outcome;
+  }
+}
@@ -0,0 +1,310 @@
+package net.tnemc.core.transaction.bulk;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+import net.tnemc.core.TNECore;
+import net.tnemc.core.account.Account;
+import net.tnemc.core.config.MainConfig;
+import net.tnemc.core.manager.TransactionManager;
+import net.tnemc.core.transaction.Receipt;
+import net.tnemc.core.transaction.Transaction;
+import net.tnemc.core.transaction.TransactionResult;
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs {@link BulkTransaction bulk transactions} on a small pool of TNE owned threads. The accounts
+ * matching a bulk transaction's filter are split into chunks, and the chunks are shared between
+ * the threads. Each account goes through a normal {@link Transaction}, so the checks, callbacks and
+ * per-account locking all still apply, but the receipts of a chunk are logged as a single batch.
+ * <p>
+ * Item currencies are kept in player inventories, which can only be changed from the server
+ * thread, so they can't be submitted to the pool. Use {@link #runInline(BulkTransaction)} from the
+ * server thread for those instead.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class BulkTransactionEngine {
+
+  private final AtomicInteger threads = new AtomicInteger(0);
+
+  private final Map<String, BulkTransaction> active = new ConcurrentHashMap<>();
+
+  private volatile ExecutorService executor = null;
+  private volatile int chunkSize = 500;
+  private volatile int parallelism = 2;
+
+  /**
+   * Reads the configuration, and starts the thread pool.
+   */
+  public void start() {
+
+    stop();
+
+    chunkSize = Math.max(1, MainConfig.yaml().getInt("Core.Transactions.Bulk.ChunkSize", 500));
+    parallelism = Math.max(1, MainConfig.yaml().getInt("Core.Transactions.Bulk.Threads", 2));
+    executor = Executors.newFixedThreadPool(parallelism, runnable->{
+
+      final Thread thread = new Thread(runnable, "TNE-Bulk-" + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Cancels every running bulk transaction, and stops the thread pool once the chunks being
+   * processed have finished.
+   */
+  public void stop() {
+
+    final ExecutorService current = executor;
+    if(current == null) {
+      return;
+    }
+    executor = null;
+
+    for(final BulkTransaction bulk : active.values()) {
+      bulk.cancel();
+    }
+
+    current.shutdown();
+    try {
+      if(!current.awaitTermination(30, TimeUnit.SECONDS)) {
+        current.shutdownNow();
+      }
+    } catch(final InterruptedException e) {
+      current.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Starts a bulk transaction. If the engine isn't running, the bulk transaction is run on the
+   * calling thread instead.
+   *
+   * @param bulk The bulk transaction to start.
+   *
+   * @return A future that is completed with the {@link BulkResult result} once every account has
+   * been processed, or the bulk transaction was cancelled. The future fails if the bulk
+   * transaction is for an item currency.
+   */
+  public CompletableFuture<BulkResult> submit(@NotNull final BulkTransaction bulk) {
+
+    if(bulk.modifier() == null || bulk.source() == null) {
+      return CompletableFuture.failedFuture(new IllegalArgumentException("Bulk transactions require a modifier and a source."));
+    }
+
+    if(items(bulk)) {
+      bulk.future().completeExceptionally(new IllegalArgumentException("Bulk transactions for item currencies must be run on the server thread with runInline."));
+      return bulk.future();
+    }
+
+    active.put(bulk.id(), bulk);
+    bulk.begin();
+
+    final ExecutorService current = executor;
+    if(current != null) {
+      try {
+        current.execute(()->prepare(bulk, current));
+        return bulk.future();
+      } catch(final RejectedExecutionException e) {
+        PluginCore.log().debug("Bulk engine is stopping, running bulk " + bulk.id() + " on the calling thread.", DebugLevel.DEVELOPER);
+      }
+    }
+
+    prepare(bulk, null);
+    return bulk.future();
+  }
+
+  /**
+   * Runs a bulk transaction on the calling thread, which is required for item currencies. This
+   * must be called from the server thread, and blocks it until every account was processed.
+   *
+   * @param bulk The bulk transaction to run.
+   *
+   * @return A future that is already completed with the {@link BulkResult result}.
+   */
+  public CompletableFuture<BulkResult> runInline(@NotNull final BulkTransaction bulk) {
+
+    if(bulk.modifier() == null || bulk.source() == null) {
+      return CompletableFuture.failedFuture(new IllegalArgumentException("Bulk transactions require a modifier and a source."));
+    }
+
+    active.put(bulk.id(), bulk);
+    bulk.begin();
+    prepare(bulk, null);
+    return bulk.future();
+  }
+
+  private static boolean items(@NotNull final BulkTransaction bulk) {
+
+    return Transaction.items(bulk.modifier());
+  }
+
+  /**
+   * Attempts to find a running bulk transaction.
+   *
+   * @param id The identifier of the bulk transaction.
+   *
+   * @return An Optional containing the bulk transaction if it's running, otherwise an empty
+   * Optional.
+   */
+  public Optional<BulkTransaction> find(@NotNull final String id) {
+
+    return Optional.ofNullable(active.get(id));
+  }
+
+  /**
+   * The bulk transactions that are currently running.
+   *
+   * @return The running bulk transactions.
+   */
+  public Collection<BulkTransaction> active() {
+
+    return new ArrayList<>(active.values());
+  }
+
+  /**
+   * Collects the accounts for a bulk transaction, and hands the chunks to the pool.
+   */
+  private void prepare(final BulkTransaction bulk, final ExecutorService pool) {
+
+    final List<Account> accounts = new ArrayList<>();
+    try {
+      for(final Account account : TNECore.eco().account().getAccounts().values()) {
+        if(bulk.filter().test(account)) {
+          accounts.add(account);
+        }
+      }
+    } catch(final Exception e) {
+      PluginCore.log().error("Unable to collect the accounts for bulk " + bulk.type() + " " + bulk.id(), e, DebugLevel.STANDARD);
+    }
+    bulk.total(accounts.size());
+
+    final int size = chunkSize;
+    final int chunks = (accounts.size() + size - 1) / size;
+    final int workers = Math.max(1, Math.min(parallelism, chunks));
+
+    final AtomicInteger cursor = new AtomicInteger(0);
+    final AtomicInteger running = new AtomicInteger(workers);
+    for(int i = 0; i < workers; i++) {
+
+      final Runnable worker = ()->{
+        try {
+          work(bulk, accounts, cursor, size, pool);
+        } finally {
+          if(running.decrementAndGet() == 0) {
+            finish(bulk);
+          }
+        }
+      };
+
+      if(pool == null) {
+        worker.run();
+        continue;
+      }
+
+      try {
+        pool.execute(worker);
+      } catch(final RejectedExecutionException e) {
+        worker.run();
+      }
+    }
+  }
+
+  /**
+   * Claims chunks until there are none left, processing every account in each.
+   */
+  private void work(final BulkTransaction bulk, final List<Account> accounts, final AtomicInteger cursor, final int size,
+                    final ExecutorService pool) {
+
+    final List<Receipt> batch = new ArrayList<>(size);
+    while(!bulk.isCancelled()) {
+
+      final int start = cursor.getAndIncrement() * size;
+      if(start >= accounts.size()) {
+        break;
+      }
+
+      //wait here for the write-behind queue, before the chunk takes any account locks.
+      if(pool != null) {
+        TNECore.instance().writeBehind().backpressure();
+      }
+
+      final int end = Math.min(start + size, accounts.size());
+      for(int i = start; i < end && !bulk.isCancelled(); i++) {
+        process(bulk, accounts.get(i), batch);
+      }
+
+      TransactionManager.receipts().logAll(batch);
+      batch.clear();
+
+      try {
+        bulk.chunked();
+      } catch(final Exception e) {
+        PluginCore.log().error("Bulk " + bulk.id() + " progress listener failed.", e, DebugLevel.STANDARD);
+      }
+    }
+  }
+
+  private void process(final BulkTransaction bulk, final Account account, final List<Receipt> batch) {
+
+    TransactionResult result = null;
+    try {
+
+      final Transaction transaction = new Transaction(bulk.type())
+              .to(account, bulk.modifier())
+              .processor(bulk.processor())
+              .source(bulk.source());
+      result = transaction.process(batch);
+    } catch(final Exception e) {
+      PluginCore.log().debug("Bulk " + bulk.id() + " failed for " + account.getIdentifier() + ": " + e.getMessage(), DebugLevel.STANDARD);
+    }
+
+    try {
+      bulk.processed(account, result);
+    } catch(final Exception e) {
+      PluginCore.log().error("Bulk " + bulk.id() + " result listener failed.", e, DebugLevel.STANDARD);
+    }
+  }
+
+  private void finish(final BulkTransaction bulk) {
+
+    active.remove(bulk.id());
+    final BulkResult result = bulk.finish();
+
+    PluginCore.log().inform("Bulk " + result.type() + " " + result.id() + " " + ((result.cancelled())? "cancelled" : "finished")
+                            + ": " + result.succeeded() + " succeeded, " + result.failed() + " failed, "
+                            + result.skipped() + " skipped in " + result.time() + "ms.");
+  }
+}
@@ -51,6 +51,17 @@ public class TrackingCheck implements TransactionCheck {
     return "track";
   }
 
+  /**
+   * This check does nothing while transaction tracking is disabled.
+   *
+   * @return True if tracking is disabled, otherwise false.
+   */
+  @Override
+  public boolean noop() {
+
+    return !TNECore.eco().transaction().isTrack();
+  }
+
   /**
    * This method is utilized to run the check on specific
    * {@link TransactionParticipant participants}. This should return an
@@ -18,9 +18,6 @@ package net.tnemc.core.transaction.history;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-import java.util.Map;
-import java.util.NavigableMap;
-import java.util.TreeMap;
 import java.util.UUID;
 
 /**
@@ -29,53 +26,19 @@ import java.util.UUID;
  * @author creatorfromhell
  * @since 0.1.2.0
  */
-public class AwayHistory {
+public class AwayHistory extends PagedHistory {
 
-  protected final NavigableMap<Long, UUID> receipts = new TreeMap<>();
+  private final long since;
 
-  private final UUID account;
+  public AwayHistory(final UUID account, final long since) {
 
-  public AwayHistory(final UUID account) {
-
-    this.account = account;
-  }
-
-  public NavigableMap<Long, UUID> getReceipts() {
-
-    return receipts;
+    super(account);
+    this.since = since;
   }
 
-  public UUID getAccount() {
-
-    return account;
-  }
-
-  public NavigableMap<Long, UUID> getPage(int page) {
-
-    if(page > maxPages()) page = 1;
-
-    final NavigableMap<Long, UUID> values = new TreeMap<>();
-    final int start = ((page * 5) - 5) + 1;
-    final int end = start + 5;
-
-    final int i = 1;
-    for(final Map.Entry<Long, UUID> entry : receipts.entrySet()) {
-      if(i < start) continue;
-
-      values.put(entry.getKey(), entry.getValue());
-
-      if(i >= end) break;
-    }
-    return values;
-  }
-
-  public int maxPages() {
-
-    int max = receipts.size() / 5;
+  @Override
+  protected long since() {
 
-    if((receipts.size() % 5) > 0) {
-      max += 1;
-    }
-    return max;
+    return since;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,153 @@
+package net.tnemc.core.transaction.history;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.manager.TransactionManager;
+import net.tnemc.core.transaction.Receipt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A participant's receipt history, read a page at a time. Pages are read by keyset, starting after
+ * the last receipt of the page before them, and are kept once read, so moving between pages that
+ * have been seen doesn't read anything. The receipts on the pages are kept along with them, as read
+ * with their participants, holdings and modifiers.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public abstract class PagedHistory {
+
+  public static final int PAGE_SIZE = 5;
+
+  private final List<NavigableMap<Long, UUID>> pages = new ArrayList<>();
+  private final Map<UUID, Receipt> receipts = new ConcurrentHashMap<>();
+
+  protected final UUID account;
+
+  private ReceiptCursor next = null;
+  private boolean more = true;
+
+  protected PagedHistory(final UUID account) {
+
+    this.account = account;
+  }
+
+  /**
+   * The time after which receipts are part of this history.
+   *
+   * @return The time after which receipts are part of this history.
+   */
+  protected abstract long since();
+
+  public UUID getAccount() {
+
+    return account;
+  }
+
+  public synchronized NavigableMap<Long, UUID> getPage(int page) {
+
+    read(page);
+    if(page < 1 || page > pages.size()) page = 1;
+
+    return (pages.isEmpty())? new TreeMap<>() : pages.get(page - 1);
+  }
+
+  /**
+   * The amount of pages known to this history, which is the pages read so far and one more if
+   * there are receipts past those.
+   *
+   * @return The amount of pages known to this history.
+   */
+  public synchronized int maxPages() {
+
+    read(1);
+    return pages.size() + ((more)? 1 : 0);
+  }
+
+  /**
+   * The receipts on the pages read so far.
+   *
+   * @return The receipts on the pages read so far, by time.
+   */
+  public synchronized NavigableMap<Long, UUID> getReceipts() {
+
+    read(1);
+
+    final NavigableMap<Long, UUID> loaded = new TreeMap<>();
+    for(final NavigableMap<Long, UUID> page : pages) {
+      loaded.putAll(page);
+    }
+    return loaded;
+  }
+
+  /**
+   * Used to find a receipt on the pages read so far.
+   *
+   * @param id The receipt's id.
+   *
+   * @return The receipt, or an empty optional if it isn't on the pages read so far.
+   */
+  public Optional<Receipt> findReceipt(final UUID id) {
+
+    return Optional.ofNullable(receipts.get(id));
+  }
+
+  /**
+   * Drops the pages read so far, so the next page requested is read again from the start.
+   */
+  public synchronized void reset() {
+
+    pages.clear();
+    receipts.clear();
+    next = null;
+    more = true;
+  }
+
+  private synchronized void read(final int target) {
+
+    while(more && pages.size() < target) {
+
+      //one extra receipt is read to tell whether there's another page.
+      final List<Receipt> page = TransactionManager.receipts().getReceiptsPage(account, since(), next, PAGE_SIZE + 1);
+      more = page.size() > PAGE_SIZE;
+
+      final NavigableMap<Long, UUID> entries = new TreeMap<>();
+      for(final Receipt receipt : page.subList(0, Math.min(PAGE_SIZE, page.size()))) {
+
+        entries.put(receipt.getTime(), receipt.getId());
+        receipts.put(receipt.getId(), receipt);
+        next = ReceiptCursor.of(receipt);
+      }
+
+      if(entries.isEmpty()) {
+        more = false;
+        break;
+      }
+      pages.add(entries);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package net.tnemc.core.transaction.history;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.transaction.Receipt;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * The position of a receipt in a participant's history, which is ordered newest first by time and
+ * then by id. A page of history holds the receipts that come after a cursor in that order. Ids are
+ * compared by their text form, which matches how the databases order them.
+ *
+ * @param time The time the receipt was performed.
+ * @param id   The receipt's id.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public record ReceiptCursor(long time, UUID id) {
+
+  public static final Comparator<Receipt> NEWEST = Comparator.comparingLong(Receipt::getTime)
+          .thenComparing(receipt->receipt.getId().toString()).reversed();
+
+  public static ReceiptCursor of(@NotNull final Receipt receipt) {
+
+    return new ReceiptCursor(receipt.getTime(), receipt.getId());
+  }
+
+  /**
+   * Used to determine if a receipt follows this cursor, which means it's older, or performed at
+   * the same time with a lower id.
+   *
+   * @param time The time the receipt was performed.
+   * @param id   The receipt's id.
+   *
+   * @return True if the receipt follows this cursor.
+   */
+  public boolean follows(final long time, @NotNull final UUID id) {
+
+    return time < this.time || (time == this.time && id.toString().compareTo(this.id.toString()) < 0);
+  }
+}
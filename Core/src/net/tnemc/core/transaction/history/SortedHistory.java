@@ -18,17 +18,9 @@ package net.tnemc.core.transaction.history;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-import net.tnemc.core.TNECore;
-import net.tnemc.core.account.Account;
 import net.tnemc.core.config.MainConfig;
-import net.tnemc.core.manager.TransactionManager;
-import net.tnemc.core.transaction.Receipt;
 
-import java.util.Date;
-import java.util.Map;
 import java.util.NavigableMap;
-import java.util.Optional;
-import java.util.TreeMap;
 import java.util.UUID;
 
 /**
@@ -37,79 +29,43 @@ import java.util.UUID;
  * @author creatorfromhell
  * @since 0.1.2.0
  */
-public class SortedHistory {
+public class SortedHistory extends PagedHistory {
 
-  protected final NavigableMap<Long, UUID> receipts = new TreeMap<>();
-
-  private final UUID account;
   private long lastSort;
 
   public SortedHistory(final UUID account) {
 
-    this.account = account;
-    this.lastSort = -1;
-
-    sort();
+    super(account);
+    this.lastSort = System.currentTimeMillis();
   }
 
+  /**
+   * Drops the pages read so far once the configured refresh time has passed, so newer receipts are
+   * picked up.
+   */
   public void sort() {
 
-    final long time = new Date().getTime();
+    final long time = System.currentTimeMillis();
 
-    if(lastSort != -1 && time - lastSort < MainConfig.yaml().getLong("Core.Transactions.History.Refresh", 1200L)) {
+    if(time - lastSort < MainConfig.yaml().getLong("Core.Transactions.History.Refresh", 1200L) * 1000L) {
       return;
     }
 
-    final Optional<Account> acc = TNECore.eco().account().findAccount(account);
-
-    if(acc.isPresent()) {
-      int i = 0;
-      for(final Receipt receipt : TransactionManager.receipts().getReceiptsByParticipant(acc.get().getIdentifier())) {
-        receipts.put(receipt.getTime(), receipt.getId());
-
-        if(i >= 200) {
-          break;
-        }
-
-        i++;
-      }
-    }
-    lastSort = new Date().getTime();
+    reset();
+    lastSort = time;
   }
 
-  public NavigableMap<Long, UUID> getPage(int page) {
-
-    sort();
-
-    if(page > maxPages()) page = 1;
+  @Override
+  protected long since() {
 
-    final NavigableMap<Long, UUID> values = new TreeMap<>();
-    final int start = ((page * 5) - 5) + 1;
-    final int end = start + 5;
-
-    final int i = 1;
-    for(final Map.Entry<Long, UUID> entry : receipts.entrySet()) {
-      if(i < start) continue;
-
-      values.put(entry.getKey(), entry.getValue());
-
-      if(i >= end) break;
-    }
-    return values;
+    return -1L;
   }
 
-  public int maxPages() {
-
-    int max = receipts.size() / 5;
+  @Override
+  public NavigableMap<Long, UUID> getPage(final int page) {
 
-    if((receipts.size() % 5) > 0) {
-      max += 1;
-    }
-    return max;
-  }
-
-  public NavigableMap<Long, UUID> getReceipts() {
+    sort();
 
-    return receipts;
+    return super.getPage(page);
   }
-}
\ No newline at end of file
+}
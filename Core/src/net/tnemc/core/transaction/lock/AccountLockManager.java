@@ -0,0 +1,159 @@
+package net.tnemc.core.transaction.lock;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A striped lock keyed by account {@link UUID}. Each account maps to one of a fixed number of
+ * stripes, so there is no global lock and no per-account lock objects to manage. When two accounts
+ * are locked together, their stripes are always acquired in ascending order, which means two
+ * transactions between the same accounts can't deadlock with each other.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class AccountLockManager {
+
+  private final ReentrantLock[] stripes;
+  private final int mask;
+  private final long timeout;
+
+  /**
+   * @param stripes The amount of stripes to use, this is rounded up to a power of two.
+   * @param timeout The max time to wait for a stripe, in milliseconds. This is only here to
+   *                recover from a callback that performs a transaction while another is locked.
+   */
+  public AccountLockManager(final int stripes, final long timeout) {
+
+    final int size = (stripes <= 1)? 1 : Integer.highestOneBit(stripes - 1) << 1;
+
+    this.stripes = new ReentrantLock[size];
+    for(int i = 0; i < size; i++) {
+      this.stripes[i] = new ReentrantLock();
+    }
+    this.mask = size - 1;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Used to get the stripe for an account.
+   *
+   * @param id The account identifier.
+   *
+   * @return The index of the stripe, or -1 if the identifier is null.
+   */
+  public int stripe(@Nullable final UUID id) {
+
+    if(id == null) {
+      return -1;
+    }
+
+    final int hash = id.hashCode();
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  /**
+   * Locks the stripes for up to two accounts, lowest stripe first.
+   *
+   * @param first  The first account, may be null.
+   * @param second The second account, may be null.
+   *
+   * @return True if the locks were acquired, otherwise false if the wait timed out or was
+   * interrupted. Nothing is held if this returns false.
+   */
+  public boolean lock(@Nullable final UUID first, @Nullable final UUID second) {
+
+    final int a = stripe(first);
+    final int b = stripe(second);
+    final int low = Math.min(a, b);
+    final int high = Math.max(a, b);
+
+    if(low >= 0 && !acquire(low)) {
+      return false;
+    }
+
+    if(high >= 0 && high != low && !acquire(high)) {
+      if(low >= 0) {
+        stripes[low].unlock();
+      }
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Locks the stripe for an account, but only if it's free right now.
+   *
+   * @param id The account identifier, may be null.
+   *
+   * @return True if the lock was acquired, release it with {@link #unlock(UUID, UUID)}.
+   */
+  public boolean tryLock(@Nullable final UUID id) {
+
+    final int stripe = stripe(id);
+    return stripe < 0 || stripes[stripe].tryLock();
+  }
+
+  /**
+   * Unlocks the stripes previously locked with {@link #lock(UUID, UUID)}.
+   *
+   * @param first  The first account, may be null.
+   * @param second The second account, may be null.
+   */
+  public void unlock(@Nullable final UUID first, @Nullable final UUID second) {
+
+    final int a = stripe(first);
+    final int b = stripe(second);
+    final int low = Math.min(a, b);
+    final int high = Math.max(a, b);
+
+    if(high >= 0 && high != low) {
+      stripes[high].unlock();
+    }
+
+    if(low >= 0) {
+      stripes[low].unlock();
+    }
+  }
+
+  private boolean acquire(final int stripe) {
+
+    final ReentrantLock lock = stripes[stripe];
+    if(lock.tryLock()) {
+      return true;
+    }
+
+    try {
+      return lock.tryLock(timeout, TimeUnit.MILLISECONDS);
+    } catch(final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  public int size() {
+
+    return stripes.length;
+  }
+}
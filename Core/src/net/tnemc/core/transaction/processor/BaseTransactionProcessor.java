@@ -18,27 +18,79 @@ package net.tnemc.core.transaction.processor;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import net.tnemc.core.TNECore;
+import net.tnemc.core.actions.EconomyResponse;
+import net.tnemc.core.config.MainConfig;
+import net.tnemc.core.manager.metrics.Histogram;
+import net.tnemc.core.transaction.Transaction;
 import net.tnemc.core.transaction.TransactionCheck;
 import net.tnemc.core.transaction.TransactionCheckGroup;
 import net.tnemc.core.transaction.TransactionProcessor;
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * BaseTransactionProcessor
+ * <p>
+ * The checks are compiled into an array of {@link TransactionCheck} instances the first time a
+ * transaction is processed, and only recompiled once the checks in this processor or the
+ * {@link net.tnemc.core.manager.TransactionManager} change. Checks that report themselves as a
+ * {@link TransactionCheck#noop() no-op} are left out of the compiled chain.
  *
  * @author creatorfromhell
  * @since 0.1.2.0
  */
 public class BaseTransactionProcessor implements TransactionProcessor {
 
-  private final LinkedList<String> checks = new LinkedList<>();
+  private final CheckList checks = new CheckList();
+
+  private volatile Chain chain = null;
 
   public BaseTransactionProcessor(final LinkedList<String> checks) {
 
     this.checks.addAll(checks);
   }
 
+  /**
+   * Runs the compiled check chain, stopping at the first check that fails.
+   *
+   * @param transaction The {@link Transaction transaction} to check.
+   *
+   * @return The response of the last check that ran, or an empty optional if no checks ran.
+   */
+  @Override
+  public Optional<EconomyResponse> processChecks(final Transaction transaction) {
+
+    final Chain current = chain();
+    final TransactionCheck[] compiled = current.checks();
+    final Histogram[] timers = current.timers();
+
+    EconomyResponse response = null;
+    for(int i = 0; i < compiled.length; i++) {
+
+      if(timers == null) {
+        response = compiled[i].process(transaction);
+      } else {
+
+        final long start = System.nanoTime();
+        response = compiled[i].process(transaction);
+        timers[i].since(start);
+      }
+
+      if(!response.success()) {
+
+        PluginCore.log().debug("Check: " + compiled[i].identifier() + " Result: false", DebugLevel.DEVELOPER);
+        break;
+      }
+    }
+    return Optional.ofNullable(response);
+  }
+
   /**
    * Used to get the checks for this processor.
    *
@@ -71,4 +123,73 @@ public class BaseTransactionProcessor implements TransactionProcessor {
 
     checks.addAll(group.getChecks());
   }
-}
\ No newline at end of file
+
+  private Chain chain() {
+
+    final int version = TNECore.eco().transaction().version();
+    final Chain current = chain;
+    if(current != null && current.version() == version && current.changes() == checks.changes()) {
+      return current;
+    }
+    return compile(version);
+  }
+
+  private synchronized Chain compile(final int version) {
+
+    final int changes = checks.changes();
+    final Chain current = chain;
+    if(current != null && current.version() == version && current.changes() == changes) {
+      return current;
+    }
+
+    final boolean timed = MainConfig.yaml().getBoolean("Core.Metrics.Checks", true);
+
+    final List<TransactionCheck> compiled = new ArrayList<>();
+    final List<Histogram> timers = new ArrayList<>();
+    for(final String identifier : checks) {
+
+      final Optional<TransactionCheck> check = TNECore.eco().transaction().findCheck(identifier);
+      if(check.isEmpty() || check.get().noop()) {
+        continue;
+      }
+
+      compiled.add(check.get());
+      if(timed) {
+        timers.add(TNECore.metrics().histogram("tne_transaction_check_seconds", "Time spent running each transaction check.",
+                                               "check", check.get().identifier()));
+      }
+    }
+
+    final Chain built = new Chain(compiled.toArray(new TransactionCheck[0]),
+                                  (timed)? timers.toArray(new Histogram[0]) : null, version, changes);
+    PluginCore.log().debug("Compiled transaction checks: " + compiled.size() + " of " + checks.size() + " will run.", DebugLevel.DEVELOPER);
+    chain = built;
+    return built;
+  }
+
+  /**
+   * The compiled check chain, along with the versions it was compiled against.
+   */
+  private record Chain(TransactionCheck[] checks, Histogram[] timers, int version, int changes) {
+
+  }
+
+  /**
+   * A list of check identifiers that counts its changes, so the chain is recompiled when the list
+   * returned by {@link #getChecks()} is modified directly.
+   */
+  private static class CheckList extends LinkedList<String> {
+
+    public int changes() {
+
+      return modCount;
+    }
+
+    @Override
+    public String set(final int index, final String element) {
+
+      modCount++;
+      return super.set(index, element);
+    }
+  }
+}
@@ -26,9 +26,7 @@ import net.tnemc.core.transaction.Receipt;
 import net.tnemc.core.transaction.history.AwayHistory;
 import net.tnemc.core.transaction.history.SortedHistory;
 
-import java.util.Date;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.TreeMap;
@@ -78,23 +76,8 @@ public class ReceiptBox {
       return Optional.empty();
     }
 
-    final AwayHistory history = new AwayHistory(account);
-    final long time = new Date().getTime();
-
-    int i = 0;
-
-    for(final Map.Entry<Long, Receipt> entry : range(((PlayerAccount)acc.get()).getLastOnline(), time).entrySet()) {
-
-      final Receipt receipt = entry.getValue();
-
-      if(receipt.getFrom() != null && receipt.getFrom().getId().equals(account)
-         || receipt.getTo() != null && receipt.getTo().getId().equals(account)) {
-        history.getReceipts().put(receipt.getTime(), receipt.getId());
-        i++;
-      }
-    }
-
-    if(i <= 0) {
+    final AwayHistory history = new AwayHistory(account, ((PlayerAccount)acc.get()).getLastOnline());
+    if(history.maxPages() <= 0) {
       return Optional.empty();
     }
 
@@ -173,6 +156,20 @@ public class ReceiptBox {
     return TransactionManager.receipts().getReceiptByUUID(identifier);
   }
 
+  /**
+   * Used to find a receipt based on the {@link UUID} it occurred, and the time it occurred. This is
+   * quicker for receipts that are no longer held in memory.
+   *
+   * @param identifier The {@link UUID} to use for the search.
+   * @param time       The time the receipt occurred.
+   *
+   * @return An optional with the {@link Receipt} if it exists, otherwise an empty Optional.
+   */
+  public Optional<Receipt> findReceipt(final UUID identifier, final long time) {
+
+    return TransactionManager.receipts().getReceiptByUUID(identifier, time);
+  }
+
   /**
    * This is used to return a range of {@link Receipt receipts}, based on a time range.
    *
@@ -43,6 +43,22 @@ public class Monetary {
     calculate(decimal, scale);
   }
 
+  public Monetary(final ScaledAmount amount) {
+
+    this.scale = amount.scale();
+    if(!amount.isScaled()) {
+      calculate(amount.toBigDecimal(), scale);
+      return;
+    }
+
+    major = BigInteger.valueOf(amount.major());
+    if(scale > 0) {
+
+      final String digits = Long.toString(amount.minor());
+      minor = (digits.length() < scale)? "0".repeat(scale - digits.length()) + digits : digits;
+    }
+  }
+
   /**
    * Used to calculate the major and minor for this BigDecimal.
    */
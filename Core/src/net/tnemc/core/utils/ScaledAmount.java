@@ -0,0 +1,225 @@
+package net.tnemc.core.utils;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+
+/**
+ * An immutable amount that is stored as a long scaled by the currency's decimal places whenever it
+ * fits, and as a {@link BigDecimal} otherwise. Typical balances stay within a long, so adding,
+ * subtracting and comparing them doesn't allocate anything beyond the result.
+ * <p>
+ * Arithmetic is overflow checked, and a result that doesn't fit is promoted to a BigDecimal. Values
+ * with more decimal places than the scale, or the size of
+ * {@link net.tnemc.core.manager.CurrencyManager#largestSupported}, are always kept as a BigDecimal
+ * so nothing is ever rounded.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public final class ScaledAmount implements Comparable<ScaledAmount> {
+
+  /**
+   * The largest scale a long can represent, anything beyond this is always a BigDecimal.
+   */
+  public static final int MAX_SCALE = 18;
+
+  private static final long[] POWERS = new long[MAX_SCALE + 1];
+
+  static {
+    POWERS[0] = 1;
+    for(int i = 1; i < POWERS.length; i++) {
+      POWERS[i] = POWERS[i - 1] * 10;
+    }
+  }
+
+  private final long scaled;
+  private final int scale;
+
+  //set when this amount doesn't fit in a long.
+  private final BigDecimal big;
+
+  //the BigDecimal form, created the first time it's asked for.
+  private BigDecimal decimal;
+
+  private ScaledAmount(final long scaled, final int scale, @Nullable final BigDecimal big, @Nullable final BigDecimal decimal) {
+
+    this.scaled = scaled;
+    this.scale = scale;
+    this.big = big;
+    this.decimal = (big != null)? big : decimal;
+  }
+
+  /**
+   * Creates an amount from a BigDecimal.
+   *
+   * @param value The value.
+   * @param scale The decimal places of the currency, or a negative number if unknown.
+   *
+   * @return The amount, which is scaled if the value fits in a long without rounding.
+   */
+  public static ScaledAmount of(@NotNull final BigDecimal value, final int scale) {
+
+    if(scale < 0 || scale > MAX_SCALE || value.scale() > scale
+       || value.precision() - value.scale() > MAX_SCALE - scale) {
+      return new ScaledAmount(0, scale, value, null);
+    }
+    return new ScaledAmount(value.scaleByPowerOfTen(scale).longValueExact(), scale, null, value);
+  }
+
+  /**
+   * Creates an amount from a long that is already scaled.
+   *
+   * @param scaled The scaled value, for example 150 for 1.50 with a scale of 2.
+   * @param scale  The decimal places of the currency.
+   *
+   * @return The amount.
+   */
+  public static ScaledAmount ofScaled(final long scaled, final int scale) {
+
+    if(scale < 0 || scale > MAX_SCALE) {
+      return new ScaledAmount(0, scale, BigDecimal.valueOf(scaled, Math.max(0, scale)), null);
+    }
+    return new ScaledAmount(scaled, scale, null, null);
+  }
+
+  /**
+   * Used to determine if this amount is stored as a long.
+   *
+   * @return True if this amount is scaled, false if it's a BigDecimal.
+   */
+  public boolean isScaled() {
+
+    return big == null;
+  }
+
+  /**
+   * The scaled long value of this amount, only meaningful if {@link #isScaled()} is true.
+   *
+   * @return The scaled value.
+   */
+  public long scaled() {
+
+    return scaled;
+  }
+
+  public int scale() {
+
+    return scale;
+  }
+
+  public ScaledAmount add(@NotNull final ScaledAmount other) {
+
+    if(big == null && other.big == null && scale == other.scale) {
+      try {
+        return new ScaledAmount(Math.addExact(scaled, other.scaled), scale, null, null);
+      } catch(final ArithmeticException ignore) {
+        //promoted below.
+      }
+    }
+    return of(toBigDecimal().add(other.toBigDecimal()), scale);
+  }
+
+  public ScaledAmount subtract(@NotNull final ScaledAmount other) {
+
+    if(big == null && other.big == null && scale == other.scale) {
+      try {
+        return new ScaledAmount(Math.subtractExact(scaled, other.scaled), scale, null, null);
+      } catch(final ArithmeticException ignore) {
+        //promoted below.
+      }
+    }
+    return of(toBigDecimal().subtract(other.toBigDecimal()), scale);
+  }
+
+  public ScaledAmount negate() {
+
+    if(big == null && scaled != Long.MIN_VALUE) {
+      return new ScaledAmount(-scaled, scale, null, null);
+    }
+    return of(toBigDecimal().negate(), scale);
+  }
+
+  public int signum() {
+
+    return (big == null)? Long.signum(scaled) : big.signum();
+  }
+
+  @Override
+  public int compareTo(@NotNull final ScaledAmount other) {
+
+    if(big == null && other.big == null && scale == other.scale) {
+      return Long.compare(scaled, other.scaled);
+    }
+    return toBigDecimal().compareTo(other.toBigDecimal());
+  }
+
+  /**
+   * Splits this amount into its major and minor parts, truncating like {@link Monetary} does.
+   *
+   * @return The major part, or {@link Long#MIN_VALUE} if this amount isn't scaled.
+   */
+  public long major() {
+
+    return (big == null)? scaled / POWERS[scale] : Long.MIN_VALUE;
+  }
+
+  /**
+   * The minor part of this amount, as a positive number.
+   *
+   * @return The minor part, or -1 if this amount isn't scaled.
+   */
+  public long minor() {
+
+    return (big == null)? Math.abs(scaled % POWERS[scale]) : -1;
+  }
+
+  /**
+   * The BigDecimal form of this amount. The value is created once and reused.
+   *
+   * @return The BigDecimal value.
+   */
+  public BigDecimal toBigDecimal() {
+
+    if(decimal == null) {
+      decimal = BigDecimal.valueOf(scaled, scale);
+    }
+    return decimal;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+
+    return obj instanceof final ScaledAmount other && compareTo(other) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+
+    return toBigDecimal().stripTrailingZeros().hashCode();
+  }
+
+  @Override
+  public String toString() {
+
+    return toBigDecimal().toPlainString();
+  }
+}
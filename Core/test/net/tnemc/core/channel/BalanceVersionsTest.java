@@ -0,0 +1,191 @@
+package net.tnemc.core.channel;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Loops balance updates from one server's {@link BalanceVersions} through a {@link BalanceFrame}
+ * into another's, the way they travel over the sync channel.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class BalanceVersionsTest {
+
+  private static final String ACCOUNT = "00000000-0000-0000-0000-000000000001";
+  private static final UUID CURRENCY = UUID.fromString("00000000-0000-0000-0000-000000000002");
+  private static final String KEY = BalanceUpdate.key(ACCOUNT, "world", CURRENCY, "tne:normal");
+
+  private final BalanceVersions sender = new BalanceVersions();
+  private final BalanceVersions receiver = new BalanceVersions();
+
+  @Test
+  public void appliesDeltasInOrder() throws IOException {
+
+    final List<BalanceUpdate> updates = send("100", "90", "70");
+
+    BigDecimal balance = new BigDecimal("100");
+    for(final BalanceUpdate update : loop(updates.subList(1, 3))) {
+      balance = receiver.resolve(update, balance);
+    }
+    assertEquals(new BigDecimal("70"), balance);
+  }
+
+  @Test
+  public void dropsReplayedDelta() throws IOException {
+
+    final List<BalanceUpdate> updates = loop(send("100", "90"));
+
+    final BigDecimal balance = receiver.resolve(updates.get(1), new BigDecimal("100"));
+    assertEquals(new BigDecimal("90"), balance);
+    assertNull(receiver.resolve(updates.get(1), balance));
+  }
+
+  @Test
+  public void appliesLateDeltaOnce() throws IOException {
+
+    final List<BalanceUpdate> updates = loop(send("100", "90", "70"));
+
+    //the third change arrives before the second
+    BigDecimal balance = receiver.resolve(updates.get(2), new BigDecimal("100"));
+    assertEquals(new BigDecimal("80"), balance);
+
+    balance = receiver.resolve(updates.get(1), balance);
+    assertEquals(new BigDecimal("70"), balance);
+
+    assertNull(receiver.resolve(updates.get(1), balance));
+    assertNull(receiver.resolve(updates.get(2), balance));
+  }
+
+  @Test
+  public void keepsConcurrentDeltasFromBothServers() throws IOException {
+
+    final BalanceVersions other = new BalanceVersions();
+    final BalanceUpdate first = loop(List.of(update("a", sender, "100"), update("a", sender, "110"))).get(1);
+    final BalanceUpdate second = loop(List.of(update("b", other, "100"), update("b", other, "95"))).get(1);
+
+    BigDecimal balance = receiver.resolve(second, new BigDecimal("100"));
+    balance = receiver.resolve(first, balance);
+    assertEquals(new BigDecimal("105"), balance);
+  }
+
+  @Test
+  public void dropsStaleFullBalance() throws IOException {
+
+    final BalanceUpdate old = update("a", sender, "100");
+    final BalanceUpdate latest = update("a", sender, "50");
+    final List<BalanceUpdate> updates = loop(List.of(full(latest), full(old)));
+
+    assertEquals(new BigDecimal("50"), receiver.resolve(updates.get(0), BigDecimal.ZERO));
+    assertNull(receiver.resolve(updates.get(1), new BigDecimal("50")));
+  }
+
+  @Test
+  public void fallsBackToFullBalanceOutsideWindow() throws IOException {
+
+    final List<String> amounts = new ArrayList<>();
+    for(int i = 0; i <= BalanceVersions.WINDOW + 2; i++) {
+      amounts.add(String.valueOf(1000 - i));
+    }
+    final List<BalanceUpdate> updates = loop(send(amounts.toArray(new String[0])));
+
+    //skip the first delta, then apply enough later ones to push it out of the window
+    BigDecimal balance = new BigDecimal("1000");
+    for(int i = updates.size() - 1; i > 1; i--) {
+      balance = receiver.resolve(updates.get(i), balance);
+    }
+    assertEquals(new BigDecimal(1000 - updates.size() + 2), balance);
+
+    //the late delta is older than the window, its full balance is older than the latest, so it's dropped
+    assertNull(receiver.resolve(updates.get(1), balance));
+  }
+
+  @Test
+  public void dropsReplayedDeltaAfterPrune() throws IOException {
+
+    final List<BalanceUpdate> updates = loop(send("100", "90", "70"));
+
+    BigDecimal balance = receiver.resolve(updates.get(1), new BigDecimal("100"));
+    assertEquals(1, receiver.prune(0));
+
+    //the replay is older than what was compacted, and its full balance isn't newer, so it's dropped
+    assertNull(receiver.resolve(updates.get(1), balance));
+
+    balance = receiver.resolve(updates.get(2), balance);
+    assertEquals(new BigDecimal("70"), balance);
+  }
+
+  @Test
+  public void keepsRecentVersionsOnPrune() throws IOException {
+
+    final List<BalanceUpdate> updates = loop(send("100", "90"));
+
+    final BigDecimal balance = receiver.resolve(updates.get(1), new BigDecimal("100"));
+    assertEquals(0, receiver.prune(60000));
+    assertNull(receiver.resolve(updates.get(1), balance));
+  }
+
+  @Test
+  public void frameKeepsVersions() throws IOException {
+
+    final List<BalanceUpdate> updates = send("100", "87.25");
+    final List<BalanceUpdate> decoded = loop(updates);
+
+    assertEquals(updates, decoded);
+    assertNull(decoded.get(0).delta());
+    assertEquals(new BigDecimal("-12.75"), decoded.get(1).delta());
+  }
+
+  private List<BalanceUpdate> send(final String... amounts) {
+
+    final List<BalanceUpdate> updates = new ArrayList<>();
+    for(final String amount : amounts) {
+      updates.add(update("a", sender, amount));
+    }
+    return updates;
+  }
+
+  private static BalanceUpdate update(final String origin, final BalanceVersions versions, final String amount) {
+
+    final BigDecimal value = new BigDecimal(amount);
+    final BalanceVersions.Stamp stamp = versions.local(KEY, origin, value);
+    return new BalanceUpdate(ACCOUNT, "Player", "world", CURRENCY, "tne:normal", value, origin, stamp.clock(), stamp.delta());
+  }
+
+  private static BalanceUpdate full(final BalanceUpdate update) {
+
+    return new BalanceUpdate(update.identifier(), update.name(), update.region(), update.currency(), update.handler(),
+                             update.amount(), update.origin(), update.clock(), null);
+  }
+
+  private static List<BalanceUpdate> loop(final List<BalanceUpdate> updates) throws IOException {
+
+    return BalanceFrame.decode(BalanceFrame.encode(updates));
+  }
+}
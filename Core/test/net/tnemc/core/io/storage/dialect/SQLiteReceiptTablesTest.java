@@ -0,0 +1,178 @@
+package net.tnemc.core.io.storage.dialect;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.io.storage.dialect.impl.SQLiteDialect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Saves a receipt's rows the way SQLReceipt does against an in-memory SQLite database, and loads
+ * them back, to make sure the table keys keep every row a receipt writes.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class SQLiteReceiptTablesTest {
+
+  private static final UUID RECEIPT = UUID.fromString("00000000-0000-0000-0000-000000000001");
+  private static final UUID PLAYER = UUID.fromString("00000000-0000-0000-0000-000000000002");
+  private static final UUID USD = UUID.fromString("00000000-0000-0000-0000-000000000003");
+  private static final UUID GOLD = UUID.fromString("00000000-0000-0000-0000-000000000004");
+
+  private final SQLiteDialect dialect = new SQLiteDialect("tne_");
+  private Connection connection;
+
+  @BeforeEach
+  public void setup() throws SQLException {
+
+    connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    try(final Statement statement = connection.createStatement()) {
+      statement.executeUpdate(dialect.receiptsTable());
+      statement.executeUpdate(dialect.receiptsHoldingsTable());
+      statement.executeUpdate(dialect.receiptsParticipantsTable());
+      statement.executeUpdate(dialect.receiptsModifiersTable());
+    }
+  }
+
+  @AfterEach
+  public void close() throws SQLException {
+
+    connection.close();
+  }
+
+  @Test
+  public void keepsStartingAndEndingBalances() throws SQLException {
+
+    saveReceipt();
+    participant("from");
+    holding(false, "world", USD, "100.0000");
+    holding(false, "world", GOLD, "5.0000");
+    holding(true, "world", USD, "75.0000");
+    holding(true, "world", GOLD, "5.0000");
+    holding(true, "world_nether", USD, "10.0000");
+
+    assertEquals(2, count(dialect.loadReceiptHolding(), RECEIPT.toString(), PLAYER.toString(), false));
+    assertEquals(3, count(dialect.loadReceiptHolding(), RECEIPT.toString(), PLAYER.toString(), true));
+  }
+
+  @Test
+  public void keepsParticipantOnBothSides() throws SQLException {
+
+    saveReceipt();
+    participant("from");
+    participant("to");
+    modifier("from", "-25.0000");
+    modifier("to", "25.0000");
+
+    assertEquals(2, count(dialect.loadParticipants(), RECEIPT.toString()));
+    assertEquals(1, count(dialect.loadModifiers(), RECEIPT.toString(), PLAYER.toString(), "from"));
+    assertEquals(1, count(dialect.loadModifiers(), RECEIPT.toString(), PLAYER.toString(), "to"));
+  }
+
+  @Test
+  public void ignoresRepeatedSaves() throws SQLException {
+
+    saveReceipt();
+    saveReceipt();
+    participant("from");
+    participant("from");
+    holding(true, "world", USD, "75.0000");
+    holding(true, "world", USD, "75.0000");
+
+    assertEquals(1, count(dialect.loadParticipants(), RECEIPT.toString()));
+    assertEquals(1, count(dialect.loadReceiptHolding(), RECEIPT.toString(), PLAYER.toString(), true));
+  }
+
+  @Test
+  public void pagesEveryRow() throws SQLException {
+
+    saveReceipt();
+    participant("from");
+    modifier("from", "-25.0000");
+    holding(false, "world", USD, "100.0000");
+    holding(true, "world", USD, "75.0000");
+
+    final Timestamp first = new Timestamp(253402300799000L);
+    assertEquals(2, count(dialect.loadReceiptsPage(), PLAYER.toString(), new Timestamp(-1L), first, first,
+                          "ffffffff-ffff-ffff-ffff-ffffffffffff", 6));
+  }
+
+  private void saveReceipt() throws SQLException {
+
+    update(dialect.saveReceipt(), RECEIPT.toString(), new Timestamp(1000L), "pay", "PLAYER", "player", false, false, false, false);
+  }
+
+  private void participant(final String type) throws SQLException {
+
+    update(dialect.saveParticipant(), RECEIPT.toString(), PLAYER.toString(), type, new BigDecimal("0.0000"));
+  }
+
+  private void modifier(final String type, final String amount) throws SQLException {
+
+    update(dialect.saveModifier(), RECEIPT.toString(), PLAYER.toString(), type, "ADD", "world", USD.toString(), new BigDecimal(amount));
+  }
+
+  private void holding(final boolean ending, final String region, final UUID currency, final String amount) throws SQLException {
+
+    update(dialect.saveReceiptHolding(), RECEIPT.toString(), PLAYER.toString(), ending, "Main Server", region,
+           currency.toString(), "tne:normal", new BigDecimal(amount));
+  }
+
+  private void update(final String query, final Object... params) throws SQLException {
+
+    try(final PreparedStatement statement = prepare(query, params)) {
+      statement.executeUpdate();
+    }
+  }
+
+  private int count(final String query, final Object... params) throws SQLException {
+
+    int count = 0;
+    try(final PreparedStatement statement = prepare(query, params);
+        final ResultSet result = statement.executeQuery()) {
+      while(result.next()) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private PreparedStatement prepare(final String query, final Object... params) throws SQLException {
+
+    final PreparedStatement statement = connection.prepareStatement(query);
+    for(int i = 0; i < params.length; i++) {
+      statement.setObject(i + 1, params[i]);
+    }
+    return statement;
+  }
+}
@@ -0,0 +1,127 @@
+package net.tnemc.core.io.storage.dialect;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.io.storage.dialect.impl.SQLiteDialect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reads the baltop holdings rows back from an in-memory SQLite database, to make sure only this
+ * server's rows for the requested region and currency are returned with the account's username.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class SQLiteTopHoldingsTest {
+
+  private static final UUID FIRST = UUID.fromString("00000000-0000-0000-0000-000000000001");
+  private static final UUID SECOND = UUID.fromString("00000000-0000-0000-0000-000000000002");
+  private static final UUID USD = UUID.fromString("00000000-0000-0000-0000-000000000003");
+  private static final UUID GOLD = UUID.fromString("00000000-0000-0000-0000-000000000004");
+
+  private final SQLiteDialect dialect = new SQLiteDialect("tne_");
+  private Connection connection;
+
+  @BeforeEach
+  public void setup() throws SQLException {
+
+    connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    try(final Statement statement = connection.createStatement()) {
+      statement.executeUpdate(dialect.accountsTable());
+      statement.executeUpdate(dialect.holdingsTable());
+    }
+  }
+
+  @AfterEach
+  public void close() throws SQLException {
+
+    connection.close();
+  }
+
+  @Test
+  public void totalsEveryHandlerOfTheRequestedBalance() throws SQLException {
+
+    account(FIRST, "First");
+    account(SECOND, "Second");
+
+    holding(FIRST, "Main Server", "world", USD, "tne:virtual_holdings", "10.0000");
+    holding(FIRST, "Main Server", "world", USD, "tne:inventory_only", "5.0000");
+    holding(SECOND, "Main Server", "world", USD, "tne:virtual_holdings", "7.0000");
+
+    //none of these belong to the requested balance.
+    holding(SECOND, "Other Server", "world", USD, "tne:virtual_holdings", "100.0000");
+    holding(SECOND, "Main Server", "world_nether", USD, "tne:virtual_holdings", "100.0000");
+    holding(SECOND, "Main Server", "world", GOLD, "tne:virtual_holdings", "100.0000");
+
+    final Map<String, BigDecimal> totals = new HashMap<>();
+    try(final PreparedStatement statement = prepare(dialect.loadTopHoldings(), "Main Server", "world", USD.toString());
+        final ResultSet result = statement.executeQuery()) {
+      while(result.next()) {
+        totals.merge(result.getString("username"), result.getBigDecimal("holdings"), BigDecimal::add);
+      }
+    }
+
+    assertEquals(2, totals.size());
+    assertEquals(0, new BigDecimal("15").compareTo(totals.get("First")));
+    assertEquals(0, new BigDecimal("7").compareTo(totals.get("Second")));
+  }
+
+  private void account(final UUID identifier, final String name) throws SQLException {
+
+    update(dialect.saveAccount(), identifier.toString(), name, "player", 1000L, null, null, name, null, null);
+  }
+
+  private void holding(final UUID identifier, final String server, final String region, final UUID currency,
+                       final String type, final String amount) throws SQLException {
+
+    update(dialect.saveHoldings(), identifier.toString(), server, region, currency.toString(), type,
+           new BigDecimal(amount), new BigDecimal(amount));
+  }
+
+  private void update(final String query, final Object... params) throws SQLException {
+
+    try(final PreparedStatement statement = prepare(query, params)) {
+      statement.executeUpdate();
+    }
+  }
+
+  private PreparedStatement prepare(final String query, final Object... params) throws SQLException {
+
+    final PreparedStatement statement = connection.prepareStatement(query);
+    for(int i = 0; i < params.length; i++) {
+      statement.setObject(i + 1, params[i]);
+    }
+    return statement;
+  }
+}
@@ -234,6 +234,33 @@ public class AdminCommand {
     net.tnemc.core.command.AdminCommand.onExtract(new PaperCMDSource(sender));
   }
 
+  @Subcommand({ "metrics" })
+  @Usage("Admin.Metrics.Arguments")
+  @Description("Admin.Metrics.Description")
+  @CommandPermission("tne.admin.metrics")
+  public void metrics(final BukkitCommandActor sender, @Default("all") final String filter) {
+
+    net.tnemc.core.command.AdminCommand.onMetrics(new PaperCMDSource(sender), filter);
+  }
+
+  @Subcommand({ "bulk" })
+  @Usage("Admin.Bulk.Arguments")
+  @Description("Admin.Bulk.Description")
+  @CommandPermission("tne.admin.bulk")
+  public void bulk(final BukkitCommandActor sender) {
+
+    net.tnemc.core.command.AdminCommand.onBulk(new PaperCMDSource(sender));
+  }
+
+  @Subcommand({ "bulkcancel" })
+  @Usage("Admin.BulkCancel.Arguments")
+  @Description("Admin.BulkCancel.Description")
+  @CommandPermission("tne.admin.bulk")
+  public void bulkCancel(final BukkitCommandActor sender, final String id) {
+
+    net.tnemc.core.command.AdminCommand.onBulkCancel(new PaperCMDSource(sender), id);
+  }
+
   @Subcommand({ "purge" })
   @Usage("Admin.Purge.Arguments")
   @Description("Admin.Purge.Description")
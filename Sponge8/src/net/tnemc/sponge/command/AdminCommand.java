@@ -95,6 +95,33 @@ public class AdminCommand {
     net.tnemc.core.command.AdminCommand.onExtract(new SpongeCMDSource(sender));
   }
 
+  @Subcommand({ "metrics" })
+  @Usage("#{Admin.Metrics.Arguments}")
+  @Description("#{Admin.Metrics.Description}")
+  @CommandPermission("tne.admin.metrics")
+  public void metrics(final SpongeCommandActor sender, @Default("all") final String filter) {
+
+    net.tnemc.core.command.AdminCommand.onMetrics(new SpongeCMDSource(sender), filter);
+  }
+
+  @Subcommand({ "bulk" })
+  @Usage("#{Admin.Bulk.Arguments}")
+  @Description("#{Admin.Bulk.Description}")
+  @CommandPermission("tne.admin.bulk")
+  public void bulk(final SpongeCommandActor sender) {
+
+    net.tnemc.core.command.AdminCommand.onBulk(new SpongeCMDSource(sender));
+  }
+
+  @Subcommand({ "bulkcancel" })
+  @Usage("#{Admin.BulkCancel.Arguments}")
+  @Description("#{Admin.BulkCancel.Description}")
+  @CommandPermission("tne.admin.bulk")
+  public void bulkCancel(final SpongeCommandActor sender, final String id) {
+
+    net.tnemc.core.command.AdminCommand.onBulkCancel(new SpongeCMDSource(sender), id);
+  }
+
   @Subcommand({ "purge" })
   @Usage("#{Admin.Purge.Arguments}")
   @Description("#{Admin.Purge.Description}")
@@ -18,6 +18,7 @@ package net.tnemc.sponge.listeners.player;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import net.tnemc.core.TNECore;
 import net.tnemc.core.handlers.player.PlayerCloseEChestHandler;
 import net.tnemc.plugincore.core.utils.HandlerResponse;
 import net.tnemc.plugincore.sponge.impl.SpongePlayerProvider;
@@ -51,7 +52,11 @@ public class PlayerCloseInventoryListener {
 
     if(isEnderChest(event.container())) {
       final HandlerResponse handle = new PlayerCloseEChestHandler().handle(new SpongePlayerProvider(player.user(), plugin));
+      return;
     }
+
+    //any other container may have moved currency items in or out of the inventory.
+    TNECore.eco().itemCache().invalidate(player.uniqueId());
   }
 
   public boolean isEnderChest(final Container container) {
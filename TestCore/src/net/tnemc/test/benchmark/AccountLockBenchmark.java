@@ -0,0 +1,96 @@
+package net.tnemc.test.benchmark;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.transaction.lock.AccountLockManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the account locks taken around every pay, give, and take transaction, with several
+ * threads transacting between random accounts.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class AccountLockBenchmark {
+
+  @Param({ "10000", "100000", "1000000" })
+  public int accounts;
+
+  @Param({ "256" })
+  public int stripes;
+
+  private UUID[] ids;
+  private AccountLockManager locks;
+
+  @Setup(Level.Trial)
+  public void setup() {
+
+    ids = BenchmarkFixtures.accounts(accounts).ids();
+    locks = new AccountLockManager(stripes, 5000L);
+  }
+
+  @Benchmark
+  public boolean pay() {
+
+    final UUID from = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    final UUID to = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+
+    final boolean locked = locks.lock(from, to);
+    if(locked) {
+      locks.unlock(from, to);
+    }
+    return locked;
+  }
+
+  @Benchmark
+  public boolean give() {
+
+    final UUID to = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+
+    final boolean locked = locks.lock(null, to);
+    if(locked) {
+      locks.unlock(null, to);
+    }
+    return locked;
+  }
+}
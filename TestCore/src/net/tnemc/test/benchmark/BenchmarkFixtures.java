@@ -0,0 +1,98 @@
+package net.tnemc.test.benchmark;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reproducible account fixtures for the benchmarks. Every fixture of a given size is generated
+ * from the same seed, so results can be compared between runs and releases.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class BenchmarkFixtures {
+
+  public static final long SEED = 0x544E45L;
+
+  private static final Map<Integer, Accounts> fixtures = new ConcurrentHashMap<>();
+
+  /**
+   * Used to get the account fixture for the specified size, generating it the first time.
+   *
+   * @param size The amount of accounts.
+   *
+   * @return The accounts.
+   */
+  public static Accounts accounts(final int size) {
+
+    return fixtures.computeIfAbsent(size, BenchmarkFixtures::generate);
+  }
+
+  private static Accounts generate(final int size) {
+
+    final Random random = new Random(SEED ^ size);
+
+    final UUID[] ids = new UUID[size];
+    final String[] names = new String[size];
+    final BigDecimal[] balances = new BigDecimal[size];
+    for(int i = 0; i < size; i++) {
+
+      ids[i] = new UUID(random.nextLong(), random.nextLong());
+      names[i] = "Player" + i;
+      balances[i] = balance(random);
+    }
+    return new Accounts(ids, names, balances, new Random(SEED));
+  }
+
+  /**
+   * A skewed balance, most accounts hold a little while a few hold a lot, like a real server.
+   */
+  public static BigDecimal balance(final Random random) {
+
+    final double scale = Math.pow(10, random.nextInt(8));
+    return BigDecimal.valueOf(random.nextDouble() * scale).setScale(2, RoundingMode.DOWN);
+  }
+
+  /**
+   * A generated set of accounts, indexed so benchmarks can pick accounts by position.
+   *
+   * @param ids      The account identifiers.
+   * @param names    The account names.
+   * @param balances The starting balances.
+   * @param random   The seeded random used to pick accounts while benchmarking.
+   */
+  public record Accounts(UUID[] ids, String[] names, BigDecimal[] balances, Random random) {
+
+    public int size() {
+
+      return ids.length;
+    }
+
+    public int pick() {
+
+      return random.nextInt(ids.length);
+    }
+  }
+}
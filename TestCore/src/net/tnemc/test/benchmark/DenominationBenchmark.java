@@ -0,0 +1,106 @@
+package net.tnemc.test.benchmark;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.TNECore;
+import net.tnemc.core.currency.Currency;
+import net.tnemc.core.currency.calculations.MonetaryCalculation;
+import net.tnemc.test.benchmark.headless.Headless;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the denomination counting done by {@link MonetaryCalculation} when an item currency
+ * balance is changed, using the denominations of the default USD currency and an inventory that
+ * holds a few of each.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DenominationBenchmark {
+
+  private static final BigDecimal LIMIT = BigDecimal.valueOf(1000);
+
+  private BenchmarkFixtures.Accounts fixture;
+  private Currency currency;
+  private BigDecimal[] amounts;
+  private final Map<BigDecimal, Integer> inventory = new HashMap<>();
+  private final MonetaryCalculation calculation = new MonetaryCalculation();
+
+  @Setup(Level.Trial)
+  public void setup() {
+
+    Headless.start();
+
+    fixture = BenchmarkFixtures.accounts(10000);
+    currency = TNECore.eco().currency().defaultCurrency();
+
+    //an inventory can't hold millions in items, so keep the amounts to what one could.
+    amounts = new BigDecimal[fixture.size()];
+    for(int i = 0; i < amounts.length; i++) {
+      amounts[i] = fixture.balances()[i].remainder(LIMIT);
+    }
+
+    for(final BigDecimal denomination : currency.getDenominations().keySet()) {
+      inventory.put(denomination, 64 + fixture.random().nextInt(1024));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+
+    Headless.stop();
+  }
+
+  @Benchmark
+  public MonetaryCalculation count() {
+
+    calculation.initialize(currency, inventory);
+    calculation.calculateDenominationCounts(amounts[fixture.pick()]);
+    return calculation;
+  }
+
+  @Benchmark
+  public Map<BigDecimal, Integer> breakdown() {
+
+    calculation.initialize(currency, inventory);
+    return calculation.breakdown(amounts[fixture.pick()]);
+  }
+}
@@ -0,0 +1,97 @@
+package net.tnemc.test.benchmark;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.EconomyManager;
+import net.tnemc.core.TNECore;
+import net.tnemc.core.account.Account;
+import net.tnemc.core.account.holdings.HoldingsEntry;
+import net.tnemc.core.currency.format.CurrencyFormatter;
+import net.tnemc.test.benchmark.headless.Headless;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link CurrencyFormatter} with the default USD format, both without an account and
+ * for a player account, on a {@link Headless headless} server.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatterBenchmark {
+
+  private BenchmarkFixtures.Accounts fixture;
+  private HoldingsEntry[] entries;
+  private Account account;
+
+  @Setup(Level.Trial)
+  public void setup() {
+
+    Headless.start();
+
+    fixture = BenchmarkFixtures.accounts(10000);
+
+    final String region = TNECore.eco().region().defaultRegion();
+    final UUID currency = TNECore.eco().currency().defaultCurrency().getUid();
+
+    entries = new HoldingsEntry[fixture.size()];
+    for(int i = 0; i < entries.length; i++) {
+      entries[i] = new HoldingsEntry(region, currency, fixture.balances()[i], EconomyManager.NORMAL);
+    }
+
+    account = Headless.player(fixture.ids()[0], fixture.names()[0], fixture.balances()[0]);
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+
+    Headless.stop();
+  }
+
+  @Benchmark
+  public String format() {
+
+    return CurrencyFormatter.format(null, entries[fixture.pick()]);
+  }
+
+  @Benchmark
+  public String formatAccount() {
+
+    return CurrencyFormatter.format(account, entries[fixture.pick()]);
+  }
+}
@@ -0,0 +1,91 @@
+package net.tnemc.test.benchmark;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.utils.Monetary;
+import net.tnemc.core.utils.ScaledAmount;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the major/minor split that every balance format goes through, and the arithmetic used
+ * by transactions, for both BigDecimal and {@link ScaledAmount} balances.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MonetaryBenchmark {
+
+  private BenchmarkFixtures.Accounts fixture;
+  private ScaledAmount[] scaled;
+
+  @Setup(Level.Trial)
+  public void setup() {
+
+    fixture = BenchmarkFixtures.accounts(10000);
+
+    scaled = new ScaledAmount[fixture.balances().length];
+    for(int i = 0; i < scaled.length; i++) {
+      scaled[i] = ScaledAmount.of(fixture.balances()[i].setScale(2, RoundingMode.DOWN), 2);
+    }
+  }
+
+  @Benchmark
+  public Monetary split() {
+
+    return new Monetary(fixture.balances()[fixture.pick()], 2);
+  }
+
+  @Benchmark
+  public Monetary splitScaled() {
+
+    return new Monetary(scaled[fixture.pick()]);
+  }
+
+  @Benchmark
+  public BigDecimal subtract() {
+
+    return fixture.balances()[fixture.pick()].subtract(fixture.balances()[fixture.pick()].negate());
+  }
+
+  @Benchmark
+  public ScaledAmount subtractScaled() {
+
+    return scaled[fixture.pick()].subtract(scaled[fixture.pick()].negate());
+  }
+}
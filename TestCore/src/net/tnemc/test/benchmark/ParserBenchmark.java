@@ -0,0 +1,115 @@
+package net.tnemc.test.benchmark;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.TNECore;
+import net.tnemc.core.currency.Currency;
+import net.tnemc.core.currency.parser.MoneyParser;
+import net.tnemc.core.currency.parser.ParseMoney;
+import net.tnemc.test.benchmark.headless.Headless;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link MoneyParser} for the amounts players type into commands. Plain and shortened
+ * amounts take the parser's fast path, while symbol prefixed amounts go through every rule.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+  private BenchmarkFixtures.Accounts fixture;
+  private MoneyParser parser;
+  private Currency currency;
+  private String region;
+  private UUID player;
+
+  private String[] plain;
+  private String[] shortened;
+  private String[] symbol;
+
+  @Setup(Level.Trial)
+  public void setup() {
+
+    Headless.start();
+
+    fixture = BenchmarkFixtures.accounts(10000);
+    parser = TNECore.eco().currency().parser();
+    currency = TNECore.eco().currency().defaultCurrency();
+    region = TNECore.eco().region().defaultRegion();
+    player = fixture.ids()[0];
+
+    plain = new String[fixture.size()];
+    shortened = new String[fixture.size()];
+    symbol = new String[fixture.size()];
+    for(int i = 0; i < plain.length; i++) {
+
+      final BigDecimal balance = fixture.balances()[i];
+      plain[i] = balance.toPlainString();
+      shortened[i] = balance.movePointLeft(3).setScale(1, RoundingMode.DOWN).toPlainString() + "k";
+      symbol[i] = currency.getSymbol() + balance.toPlainString();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+
+    Headless.stop();
+  }
+
+  @Benchmark
+  public ParseMoney plain() {
+
+    return parser.parse(player, region, currency, plain[fixture.pick()]);
+  }
+
+  @Benchmark
+  public ParseMoney shortened() {
+
+    return parser.parse(player, region, currency, shortened[fixture.pick()]);
+  }
+
+  @Benchmark
+  public ParseMoney symbol() {
+
+    return parser.parse(player, region, currency, symbol[fixture.pick()]);
+  }
+}
@@ -0,0 +1,116 @@
+package net.tnemc.test.benchmark;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.actions.source.PlayerSource;
+import net.tnemc.core.manager.ReceiptManager;
+import net.tnemc.core.manager.TransactionManager;
+import net.tnemc.core.transaction.Receipt;
+import net.tnemc.core.transaction.TransactionParticipant;
+import net.tnemc.test.benchmark.headless.Headless;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks logging receipts in the {@link ReceiptManager}, and reading a participant's latest
+ * receipts back out of its indexes, with the history spread over 10,000 accounts.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReceiptBenchmark {
+
+  @Param({ "10000", "100000", "1000000" })
+  public int receipts;
+
+  private BenchmarkFixtures.Accounts fixture;
+  private Receipt[] logged;
+
+  @Setup(Level.Trial)
+  public void setup() {
+
+    Headless.start();
+
+    fixture = BenchmarkFixtures.accounts(10000);
+
+    final long start = System.currentTimeMillis() - receipts * 1000L;
+
+    logged = new Receipt[receipts];
+    for(int i = 0; i < logged.length; i++) {
+
+      final UUID from = fixture.ids()[fixture.pick()];
+
+      final Receipt receipt = new Receipt(new UUID(fixture.random().nextLong(), fixture.random().nextLong()),
+                                          start + i * 1000L, "pay");
+      receipt.setSource(new PlayerSource(from));
+      receipt.setFrom(new TransactionParticipant(from, List.of()));
+      receipt.setTo(new TransactionParticipant(fixture.ids()[fixture.pick()], List.of()));
+      receipt.clearDirty();
+
+      logged[i] = receipt;
+    }
+    TransactionManager.receipts().logAll(List.of(logged));
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+
+    TransactionManager.receipts().clear();
+    Headless.stop();
+  }
+
+  /**
+   * Logs a receipt that's already held, which replaces it in every index like a receipt that's
+   * loaded again.
+   */
+  @Benchmark
+  public Receipt log() {
+
+    final Receipt receipt = logged[fixture.random().nextInt(logged.length)];
+    TransactionManager.receipts().log(receipt);
+    return receipt;
+  }
+
+  @Benchmark
+  public List<Receipt> latest() {
+
+    return TransactionManager.receipts().getLatestReceiptsByParticipant(fixture.ids()[fixture.pick()], 10);
+  }
+}
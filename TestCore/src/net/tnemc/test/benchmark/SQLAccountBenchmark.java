@@ -0,0 +1,101 @@
+package net.tnemc.test.benchmark;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.TNECore;
+import net.tnemc.core.account.Account;
+import net.tnemc.core.io.storage.datables.sql.standard.SQLAccount;
+import net.tnemc.plugincore.core.io.storage.StorageConnector;
+import net.tnemc.test.benchmark.headless.Headless;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks saving and loading player accounts, with their holdings, through {@link SQLAccount}
+ * against an SQLite database in the {@link Headless headless} server's directory.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SQLAccountBenchmark {
+
+  @Param({ "1000", "10000" })
+  public int accounts;
+
+  private BenchmarkFixtures.Accounts fixture;
+  private Account[] players;
+  private StorageConnector<?> connector;
+  private final SQLAccount datable = new SQLAccount();
+
+  @Setup(Level.Trial)
+  public void setup() {
+
+    Headless.start("SQLite");
+
+    connector = TNECore.instance().storage().getConnector();
+
+    //save every account with its holdings first, so the loads below find all of them.
+    fixture = BenchmarkFixtures.accounts(accounts);
+    players = new Account[fixture.size()];
+    for(int i = 0; i < players.length; i++) {
+      players[i] = Headless.player(fixture.ids()[i], fixture.names()[i], fixture.balances()[i]);
+      datable.store(connector, players[i], players[i].getIdentifier().toString());
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+
+    Headless.stop();
+  }
+
+  @Benchmark
+  public Account store() {
+
+    final Account account = players[fixture.pick()];
+    datable.store(connector, account, account.getIdentifier().toString());
+    return account;
+  }
+
+  @Benchmark
+  public Optional<Account> load() {
+
+    return datable.load(connector, fixture.ids()[fixture.pick()].toString());
+  }
+}
@@ -0,0 +1,94 @@
+package net.tnemc.test.benchmark;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.manager.top.TopIndex;
+import net.tnemc.core.manager.top.TopPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the baltop index, which is updated on every balance change and read by the top
+ * command and placeholders.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopIndexBenchmark {
+
+  @Param({ "10000", "100000", "1000000" })
+  public int accounts;
+
+  private BenchmarkFixtures.Accounts fixture;
+  private TopIndex index;
+
+  @Setup(Level.Trial)
+  public void setup() {
+
+    fixture = BenchmarkFixtures.accounts(accounts);
+    index = new TopIndex();
+    for(int i = 0; i < fixture.size(); i++) {
+      index.update(fixture.ids()[i], fixture.names()[i], fixture.balances()[i]);
+    }
+  }
+
+  @Benchmark
+  public TopIndex update() {
+
+    final int i = fixture.pick();
+    index.update(fixture.ids()[i], fixture.names()[i], BenchmarkFixtures.balance(fixture.random()));
+    return index;
+  }
+
+  @Benchmark
+  public int rank() {
+
+    return index.rank(fixture.names()[fixture.pick()]);
+  }
+
+  @Benchmark
+  public TopPage<String> firstPage() {
+
+    return index.page(1, 10);
+  }
+
+  @Benchmark
+  public TopPage<String> deepPage() {
+
+    return index.page((fixture.size() / 20) + 1, 10);
+  }
+}
@@ -0,0 +1,122 @@
+package net.tnemc.test.benchmark;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.EconomyManager;
+import net.tnemc.core.TNECore;
+import net.tnemc.core.account.Account;
+import net.tnemc.core.account.holdings.modify.HoldingsModifier;
+import net.tnemc.core.actions.source.PlayerSource;
+import net.tnemc.core.manager.TransactionManager;
+import net.tnemc.core.transaction.Transaction;
+import net.tnemc.core.transaction.TransactionResult;
+import net.tnemc.core.utils.exceptions.InvalidTransactionException;
+import net.tnemc.test.benchmark.headless.Headless;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Transaction#process()} for pay and give transactions between player accounts
+ * on a {@link Headless headless} server, including the account locks, the processor checks, and
+ * the receipt that's logged.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionBenchmark {
+
+  @Param({ "1000", "10000", "100000" })
+  public int accounts;
+
+  private BenchmarkFixtures.Accounts fixture;
+  private Account[] players;
+  private HoldingsModifier modifier;
+
+  @Setup(Level.Trial)
+  public void setup() {
+
+    Headless.start();
+
+    fixture = BenchmarkFixtures.accounts(accounts);
+    players = new Account[fixture.size()];
+    for(int i = 0; i < players.length; i++) {
+      players[i] = Headless.player(fixture.ids()[i], fixture.names()[i], fixture.balances()[i]);
+    }
+
+    modifier = new HoldingsModifier(TNECore.eco().region().defaultRegion(),
+                                    TNECore.eco().currency().defaultCurrency().getUid(),
+                                    new BigDecimal("0.01"));
+  }
+
+  @TearDown(Level.Iteration)
+  public void receipts() {
+
+    //every transaction logs a receipt, so don't let them pile up between iterations.
+    TransactionManager.receipts().clear();
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+
+    Headless.stop();
+  }
+
+  @Benchmark
+  public TransactionResult pay() throws InvalidTransactionException {
+
+    final Account from = players[fixture.pick()];
+    return new Transaction("pay")
+            .to(players[fixture.pick()], modifier)
+            .from(from, modifier.counter())
+            .processor(EconomyManager.baseProcessor())
+            .source(new PlayerSource(from.getIdentifier()))
+            .process();
+  }
+
+  @Benchmark
+  public TransactionResult give() throws InvalidTransactionException {
+
+    final Account to = players[fixture.pick()];
+    return new Transaction("give")
+            .to(to, modifier)
+            .processor(EconomyManager.baseProcessor())
+            .source(new PlayerSource(to.getIdentifier()))
+            .process();
+  }
+}
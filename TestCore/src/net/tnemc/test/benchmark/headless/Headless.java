@@ -0,0 +1,120 @@
+package net.tnemc.test.benchmark.headless;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.EconomyManager;
+import net.tnemc.core.TNECore;
+import net.tnemc.core.account.Account;
+import net.tnemc.core.account.holdings.HoldingsEntry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.UUID;
+
+/**
+ * Starts TNE's core on a {@link HeadlessServer}, so the benchmarks can run the real transaction,
+ * format, parse, and storage code. Each JMH fork is its own JVM, so the core is started once per
+ * fork, in a temporary directory that gets the default configurations and the USD currency. The
+ * core goes through the same load and enable steps a server runs, so storage, the storage
+ * executor, and the write-behind queue are all running.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class Headless {
+
+  private static HeadlessServer server = null;
+  private static HeadlessPluginCore plugin = null;
+
+  /**
+   * Starts the core with the default YAML storage, if it isn't already running.
+   *
+   * @return The headless server.
+   */
+  public static HeadlessServer start() {
+
+    return start("yaml");
+  }
+
+  /**
+   * Starts the core, if it isn't already running.
+   *
+   * @param database The database type to use, such as "yaml" or "SQLite".
+   *
+   * @return The headless server.
+   */
+  public static synchronized HeadlessServer start(final String database) {
+
+    if(server != null) {
+      return server;
+    }
+
+    server = new HeadlessServer();
+
+    try {
+      plugin = new HeadlessPluginCore(new HeadlessCore(database), server, Files.createTempDirectory("tne-headless").toFile());
+    } catch(final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    plugin.load();
+    plugin.enable();
+    return server;
+  }
+
+  /**
+   * Disables the core the way a server does on shutdown, which writes anything still queued, and
+   * then stops the scheduler threads of the headless server.
+   */
+  public static synchronized void stop() {
+
+    if(plugin != null) {
+      plugin.onDisable();
+    }
+
+    if(server != null) {
+      server.scheduler().shutdown();
+    }
+  }
+
+  /**
+   * Creates an account for a player holding the specified balance of the default currency, and
+   * joins them to the headless server.
+   *
+   * @param identifier The player's identifier.
+   * @param name       The player's name.
+   * @param balance    The player's balance.
+   *
+   * @return The account.
+   */
+  public static Account player(final UUID identifier, final String name, final BigDecimal balance) {
+
+    server.join(identifier, name);
+
+    final Account account = TNECore.eco().account().createAccount(identifier.toString(), name, false)
+            .getAccount().orElseThrow();
+
+    account.setHoldings(new HoldingsEntry(TNECore.eco().region().defaultRegion(),
+                                          TNECore.eco().currency().defaultCurrency().getUid(),
+                                          balance, EconomyManager.NORMAL));
+    return account;
+  }
+}
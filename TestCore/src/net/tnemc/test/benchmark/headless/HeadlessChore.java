@@ -0,0 +1,44 @@
+package net.tnemc.test.benchmark.headless;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.plugincore.core.compatibility.scheduler.Chore;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreExecution;
+
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * A repeating task created by the {@link HeadlessScheduler}.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class HeadlessChore extends Chore<ScheduledFuture<?>> {
+
+  public HeadlessChore(final ScheduledFuture<?> task, final ChoreExecution execution) {
+
+    super(task, execution);
+  }
+
+  @Override
+  public void cancel() {
+
+    task.cancel(false);
+  }
+}
@@ -0,0 +1,75 @@
+package net.tnemc.test.benchmark.headless;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.TNECore;
+import net.tnemc.core.config.DataConfig;
+import net.tnemc.core.config.MainConfig;
+import net.tnemc.core.currency.calculations.ItemCalculations;
+
+/**
+ * TNE's core without menus or commands, used by the {@link Headless headless} benchmark server.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class HeadlessCore extends TNECore {
+
+  private final String database;
+
+  /**
+   * @param database The database type to use, such as "yaml" or "SQLite".
+   */
+  public HeadlessCore(final String database) {
+
+    this.database = database;
+  }
+
+  @Override
+  public void registerMenuHandler() {
+
+  }
+
+  @Override
+  public void registerCommandHandler() {
+
+  }
+
+  @Override
+  public void registerCommands() {
+
+  }
+
+  @Override
+  public void registerConfigs() {
+
+    super.registerConfigs();
+
+    //the benchmarks only log the receipts they're measuring, and debug output would skew the results.
+    MainConfig.yaml().set("Core.Debugging.Mode", "off");
+    MainConfig.yaml().set("Core.Update.Check", false);
+    DataConfig.yaml().set("Data.Database.Type", database);
+  }
+
+  @Override
+  public <INV> ItemCalculations<INV> itemCalculations() {
+
+    return new ItemCalculations<>();
+  }
+}
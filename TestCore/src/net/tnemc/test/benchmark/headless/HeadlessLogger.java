@@ -0,0 +1,73 @@
+package net.tnemc.test.benchmark.headless;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.LogProvider;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
+
+/**
+ * Writes TNE's log output to the console for the benchmarks.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class HeadlessLogger implements LogProvider {
+
+  @Override
+  public void inform(final String message, final DebugLevel level) {
+
+    if(level.compare(PluginCore.instance().getLevel())) {
+      System.out.println("[TNE] " + message);
+    }
+  }
+
+  @Override
+  public void debug(final String message, final DebugLevel level) {
+
+    if(level.compare(PluginCore.instance().getLevel())) {
+      System.out.println("[TNE] [DEBUG]: " + message);
+    }
+  }
+
+  @Override
+  public void warning(final String message, final DebugLevel level) {
+
+    if(level.compare(PluginCore.instance().getLevel())) {
+      System.err.println("[TNE] " + message);
+    }
+  }
+
+  @Override
+  public void error(final String message, final DebugLevel level) {
+
+    if(level.compare(PluginCore.instance().getLevel())) {
+      System.err.println("[TNE] " + message);
+    }
+  }
+
+  @Override
+  public void error(final String message, final Exception exception, final DebugLevel level) {
+
+    if(level.compare(PluginCore.instance().getLevel())) {
+      System.err.println("[TNE] " + message);
+      exception.printStackTrace();
+    }
+  }
+}
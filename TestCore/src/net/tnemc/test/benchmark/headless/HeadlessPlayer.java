@@ -0,0 +1,132 @@
+package net.tnemc.test.benchmark.headless;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.TNECore;
+import net.tnemc.plugincore.core.compatibility.Location;
+import net.tnemc.plugincore.core.compatibility.PlayerProvider;
+import net.tnemc.plugincore.core.io.message.MessageData;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A player that only exists in the {@link HeadlessServer}. Every permission is granted and
+ * messages are discarded.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class HeadlessPlayer implements PlayerProvider {
+
+  private final UUID identifier;
+  private final String name;
+
+  private int exp = 0;
+  private int level = 0;
+
+  public HeadlessPlayer(final UUID identifier, final String name) {
+
+    this.identifier = identifier;
+    this.name = name;
+  }
+
+  @Override
+  public UUID identifier() {
+
+    return identifier;
+  }
+
+  @Override
+  public String getName() {
+
+    return name;
+  }
+
+  @Override
+  public Optional<Location> getLocation() {
+
+    return Optional.of(new Location(world(), 0, 64, 0));
+  }
+
+  @Override
+  public String world() {
+
+    return TNECore.eco().region().defaultRegion();
+  }
+
+  @Override
+  public String biome() {
+
+    return TNECore.eco().region().defaultRegion();
+  }
+
+  @Override
+  public int getExp() {
+
+    return exp;
+  }
+
+  @Override
+  public void setExp(final int exp) {
+
+    this.exp = exp;
+  }
+
+  @Override
+  public int getExpLevel() {
+
+    return level;
+  }
+
+  @Override
+  public void setExpLevel(final int level) {
+
+    this.level = level;
+  }
+
+  @Override
+  public HeadlessInventory inventory() {
+
+    return new HeadlessInventory(identifier);
+  }
+
+  @Override
+  public List<String> getEffectivePermissions() {
+
+    return List.of();
+  }
+
+  @Override
+  public boolean hasPermission(final String permission) {
+
+    return true;
+  }
+
+  @Override
+  public void message(final String message) {
+
+  }
+
+  @Override
+  public void message(final MessageData messageData) {
+
+  }
+}
@@ -0,0 +1,43 @@
+package net.tnemc.test.benchmark.headless;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.api.callback.TNECallbackProvider;
+import net.tnemc.core.io.message.BaseTranslationProvider;
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.PluginEngine;
+
+import java.io.File;
+
+/**
+ * The {@link PluginCore} for the {@link HeadlessServer}, which keeps its files in a directory of
+ * its own.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class HeadlessPluginCore extends PluginCore {
+
+  public HeadlessPluginCore(final PluginEngine engine, final HeadlessServer server, final File directory) {
+
+    super(engine, server, new HeadlessLogger(), new BaseTranslationProvider(), new TNECallbackProvider());
+
+    this.directory = directory;
+  }
+}
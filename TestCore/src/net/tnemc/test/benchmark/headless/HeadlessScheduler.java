@@ -0,0 +1,76 @@
+package net.tnemc.test.benchmark.headless;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreExecution;
+import net.tnemc.plugincore.core.compatibility.scheduler.ChoreTime;
+import net.tnemc.plugincore.core.compatibility.scheduler.SchedulerProvider;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A scheduler without a server tick. Main thread tasks run in order on a single thread, which
+ * stands in for the server thread, and secondary tasks run on a small pool.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class HeadlessScheduler extends SchedulerProvider<HeadlessChore> {
+
+  private final ScheduledExecutorService main = Executors.newSingleThreadScheduledExecutor(runnable->thread(runnable, "TNE-Headless-Main"));
+  private final ScheduledExecutorService secondary = Executors.newScheduledThreadPool(2, runnable->thread(runnable, "TNE-Headless-Async"));
+
+  @Override
+  public void createDelayedTask(final Runnable task, final ChoreTime delay, final ChoreExecution environment) {
+
+    executor(environment).schedule(task, delay.asSeconds(), TimeUnit.SECONDS);
+  }
+
+  @Override
+  public HeadlessChore createRepeatingTask(final Runnable task, final ChoreTime delay, final ChoreTime period, final ChoreExecution environment) {
+
+    //a zero period would never yield, so repeat at least once a second.
+    final long every = Math.max(1, period.asSeconds());
+    return new HeadlessChore(executor(environment).scheduleAtFixedRate(task, delay.asSeconds(), every, TimeUnit.SECONDS),
+                             environment);
+  }
+
+  /**
+   * Stops the scheduler's threads, dropping any tasks that haven't run yet.
+   */
+  public void shutdown() {
+
+    main.shutdownNow();
+    secondary.shutdownNow();
+  }
+
+  private ScheduledExecutorService executor(final ChoreExecution environment) {
+
+    return (environment == ChoreExecution.MAIN)? main : secondary;
+  }
+
+  private static Thread thread(final Runnable runnable, final String name) {
+
+    final Thread thread = new Thread(runnable, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+}
@@ -0,0 +1,247 @@
+package net.tnemc.test.benchmark.headless;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.item.AbstractItemStack;
+import net.tnemc.item.providers.CalculationsProvider;
+import net.tnemc.plugincore.PluginCore;
+import net.tnemc.plugincore.core.compatibility.CmdSource;
+import net.tnemc.plugincore.core.compatibility.PlayerProvider;
+import net.tnemc.plugincore.core.compatibility.ProxyProvider;
+import net.tnemc.plugincore.core.compatibility.ServerConnector;
+import net.tnemc.plugincore.core.compatibility.WorldProvider;
+import net.tnemc.plugincore.core.compatibility.helper.CraftingRecipe;
+import net.tnemc.plugincore.core.compatibility.log.DebugLevel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import revxrsal.commands.command.CommandActor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link ServerConnector} without a server behind it, so TNE's core can be started inside a
+ * benchmark. Players only exist once they {@link #join(UUID, String) join}, resources are read
+ * from the classpath, and anything that needs a real server, such as items and proxy messaging,
+ * is unavailable.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class HeadlessServer implements ServerConnector {
+
+  public static final String WORLD = "world";
+
+  private final Map<UUID, HeadlessPlayer> players = new ConcurrentHashMap<>();
+  private final HeadlessScheduler scheduler = new HeadlessScheduler();
+
+  /**
+   * Adds a player to this server, which makes them online.
+   *
+   * @param identifier The player's identifier.
+   * @param name       The player's name.
+   *
+   * @return The player.
+   */
+  public HeadlessPlayer join(final UUID identifier, final String name) {
+
+    return players.computeIfAbsent(identifier, id->new HeadlessPlayer(id, name));
+  }
+
+  /**
+   * Removes a player from this server.
+   *
+   * @param identifier The player's identifier.
+   */
+  public void quit(final UUID identifier) {
+
+    players.remove(identifier);
+  }
+
+  @Override
+  public String name() {
+
+    return "headless";
+  }
+
+  @Override
+  public Optional<WorldProvider> findWorld(final String world) {
+
+    return Optional.empty();
+  }
+
+  @Override
+  public String replacePlaceholder(final UUID player, final String message) {
+
+    return message;
+  }
+
+  @Override
+  public ProxyProvider proxy() {
+
+    return null;
+  }
+
+  @Override
+  public CmdSource<?> source(@NotNull final CommandActor actor) {
+
+    return null;
+  }
+
+  @Override
+  public Set<String> onlinePlayersList() {
+
+    return players.values().stream().map(HeadlessPlayer::getName).collect(Collectors.toSet());
+  }
+
+  @Override
+  public int onlinePlayers() {
+
+    return players.size();
+  }
+
+  @Override
+  public Optional<PlayerProvider> findPlayer(@NotNull final UUID identifier) {
+
+    return Optional.ofNullable(players.get(identifier));
+  }
+
+  @Override
+  public PlayerProvider initializePlayer(@NotNull final Object player) {
+
+    return (player instanceof final HeadlessPlayer headless)? headless : null;
+  }
+
+  @Override
+  public void createCustomTexture(final UUID identifier, final String username, final String texture) {
+
+  }
+
+  @Override
+  public boolean playedBefore(final UUID uuid) {
+
+    return players.containsKey(uuid);
+  }
+
+  @Override
+  public boolean playedBefore(final String name) {
+
+    return online(name);
+  }
+
+  @Override
+  public boolean online(final String name) {
+
+    return fromName(name).isPresent();
+  }
+
+  @Override
+  public Optional<UUID> fromName(final String name) {
+
+    for(final HeadlessPlayer player : players.values()) {
+      if(player.getName().equalsIgnoreCase(name)) {
+        return Optional.of(player.identifier());
+      }
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<String> fromID(final UUID id) {
+
+    return Optional.ofNullable(players.get(id)).map(HeadlessPlayer::getName);
+  }
+
+  @Override
+  public String defaultWorld() {
+
+    return WORLD;
+  }
+
+  @Override
+  public boolean pluginAvailable(final String name) {
+
+    return false;
+  }
+
+  @Override
+  public String replaceColours(final String string, final boolean strip) {
+
+    return string;
+  }
+
+  @Override
+  public AbstractItemStack<?> stackBuilder() {
+
+    return null;
+  }
+
+  @Override
+  public void saveResource(final String path, final boolean replace) {
+
+    final File file = new File(PluginCore.directory(), path);
+    if(file.exists() && !replace) {
+      return;
+    }
+
+    try(final InputStream stream = getResource(path)) {
+      if(stream == null) {
+        PluginCore.log().error("Unable to find resource " + path + " on the classpath.", DebugLevel.OFF);
+        return;
+      }
+
+      Files.createDirectories(file.getParentFile().toPath());
+      Files.copy(stream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch(final IOException e) {
+      PluginCore.log().error("Unable to save resource " + path + ".", e, DebugLevel.OFF);
+    }
+  }
+
+  @Override
+  public @Nullable InputStream getResource(@NotNull final String path) {
+
+    return HeadlessServer.class.getClassLoader().getResourceAsStream(path);
+  }
+
+  @Override
+  public HeadlessScheduler scheduler() {
+
+    return scheduler;
+  }
+
+  @Override
+  public void registerCrafting(@NotNull final String key, @NotNull final CraftingRecipe recipe) {
+
+  }
+
+  @Override
+  public CalculationsProvider<?, ?, ?> calculations() {
+
+    return null;
+  }
+}
@@ -0,0 +1,264 @@
+package net.tnemc.test;
+
+/*
+ * The New Economy
+ * Copyright (C) 2022 - 2025 Daniel "creatorfromhell" Vidmar
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.tnemc.core.EconomyManager;
+import net.tnemc.core.TNECore;
+import net.tnemc.core.account.Account;
+import net.tnemc.core.account.holdings.HoldingsEntry;
+import net.tnemc.core.account.holdings.handlers.VirtualHandler;
+import net.tnemc.core.account.holdings.modify.HoldingsModifier;
+import net.tnemc.core.actions.source.PlayerSource;
+import net.tnemc.core.manager.TransactionManager;
+import net.tnemc.core.transaction.Transaction;
+import net.tnemc.core.transaction.TransactionResult;
+import net.tnemc.core.utils.exceptions.InvalidTransactionException;
+import net.tnemc.test.benchmark.headless.Headless;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs pay and give transactions between a small set of accounts from several threads at once, and
+ * checks that no money was created or lost along the way. Holdings set outside a transaction have
+ * to wait for the account's lock as well.
+ *
+ * @author creatorfromhell
+ * @since 0.1.4.3
+ */
+public class TransactionConservationTest {
+
+  private static final int ACCOUNTS = 16;
+  private static final int THREADS = 8;
+  private static final int OPERATIONS = 2000;
+  private static final BigDecimal START = new BigDecimal("100.00");
+
+  private static final List<Account> accounts = new ArrayList<>();
+  private static String region;
+  private static UUID currency;
+
+  @BeforeAll
+  public static void start() {
+
+    Headless.start();
+
+    region = TNECore.eco().region().defaultRegion();
+    currency = TNECore.eco().currency().defaultCurrency().getUid();
+
+    for(int i = 0; i < ACCOUNTS; i++) {
+      accounts.add(Headless.player(UUID.randomUUID(), "Conserve" + i, START));
+    }
+  }
+
+  @AfterAll
+  public static void stop() {
+
+    Headless.stop();
+  }
+
+  @Test
+  public void concurrentPayAndGiveConserveBalances() throws Exception {
+
+    final BigDecimal before = total();
+
+    //the cents handed out by successful gives, every pay only moves money around.
+    final AtomicLong given = new AtomicLong();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    final List<Future<?>> futures = new ArrayList<>();
+    for(int t = 0; t < THREADS; t++) {
+      futures.add(executor.submit(()->{
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for(int i = 0; i < OPERATIONS; i++) {
+
+          final long cents = 1 + random.nextInt(500);
+          final Account to = accounts.get(random.nextInt(ACCOUNTS));
+
+          if(random.nextInt(4) == 0) {
+            if(give(to, cents).isSuccessful()) {
+              given.addAndGet(cents);
+            }
+            continue;
+          }
+          pay(accounts.get(random.nextInt(ACCOUNTS)), to, cents);
+        }
+        return null;
+      }));
+    }
+
+    for(final Future<?> future : futures) {
+      future.get(2, TimeUnit.MINUTES);
+    }
+    executor.shutdown();
+
+    assertEquals(0, before.add(BigDecimal.valueOf(given.get(), 2)).compareTo(total()));
+
+    for(final Account account : accounts) {
+      assertTrue(account.getHoldingsTotal(region, currency).signum() >= 0, "Negative balance for " + account.getName());
+    }
+  }
+
+  @Test
+  public void apiSetWaitsForTheAccountLock() throws Exception {
+
+    final Account account = accounts.get(0);
+    final UUID identifier = account.getIdentifier();
+
+    final CountDownLatch locked = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    //hold the account's lock the way a transaction would.
+    executor.submit(()->{
+      TransactionManager.locks().lock(identifier, null);
+      try {
+        locked.countDown();
+        release.await();
+      } finally {
+        TransactionManager.locks().unlock(identifier, null);
+      }
+      return null;
+    });
+    assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+    final Future<Boolean> set = executor.submit(()->TNECore.api().setHoldings(identifier.toString(), region,
+                                                                              currency.toString(),
+                                                                              new BigDecimal("42.00")));
+
+    Thread.sleep(250);
+    assertFalse(set.isDone(), "setHoldings ran while a transaction held the account's lock.");
+
+    release.countDown();
+    assertTrue(set.get(10, TimeUnit.SECONDS));
+    assertEquals(0, new BigDecimal("42.00").compareTo(account.getHoldingsTotal(region, currency)));
+
+    executor.shutdown();
+  }
+
+  @Test
+  public void snapshotDuringSetIsTakenAgain() throws Exception {
+
+    final Account account = accounts.get(1);
+    final UUID identifier = account.getIdentifier();
+
+    final BlockingHandler handler = new BlockingHandler();
+    EconomyManager.instance().addHandler(handler);
+
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+
+      account.setHoldings(new HoldingsEntry(region, currency, new BigDecimal("100.00"), EconomyManager.NORMAL));
+
+      //park a set after it has taken the account's lock, but before it has written anything.
+      handler.armed.set(true);
+      final Future<Boolean> set = executor.submit(()->account.setHoldings(new HoldingsEntry(region, currency,
+                                                                                           new BigDecimal("50.00"),
+                                                                                           EconomyManager.NORMAL)));
+      assertTrue(handler.blocked.await(10, TimeUnit.SECONDS));
+
+      //this snapshot reads the old holdings while the set is still in flight.
+      final Transaction transaction = new Transaction("give")
+              .to(account, new HoldingsModifier(region, currency, new BigDecimal("10.00")))
+              .processor(EconomyManager.baseProcessor())
+              .source(new PlayerSource(identifier));
+
+      handler.release.countDown();
+      assertTrue(set.get(10, TimeUnit.SECONDS));
+
+      assertTrue(transaction.process().isSuccessful());
+      assertEquals(0, new BigDecimal("60.00").compareTo(account.getHoldingsTotal(region, currency)));
+    } finally {
+      handler.release.countDown();
+      executor.shutdown();
+      EconomyManager.instance().addHandler(new VirtualHandler());
+    }
+  }
+
+  private TransactionResult pay(final Account from, final Account to, final long cents) throws InvalidTransactionException {
+
+    final HoldingsModifier modifier = new HoldingsModifier(region, currency, BigDecimal.valueOf(cents, 2));
+    return new Transaction("pay")
+            .to(to, modifier)
+            .from(from, modifier.counter())
+            .processor(EconomyManager.baseProcessor())
+            .source(new PlayerSource(from.getIdentifier()))
+            .process();
+  }
+
+  private TransactionResult give(final Account to, final long cents) throws InvalidTransactionException {
+
+    return new Transaction("give")
+            .to(to, new HoldingsModifier(region, currency, BigDecimal.valueOf(cents, 2)))
+            .processor(EconomyManager.baseProcessor())
+            .source(new PlayerSource(to.getIdentifier()))
+            .process();
+  }
+
+  private BigDecimal total() {
+
+    BigDecimal total = BigDecimal.ZERO;
+    for(final Account account : accounts) {
+      total = total.add(account.getHoldingsTotal(region, currency));
+    }
+    return total;
+  }
+
+  /**
+   * A virtual handler that can hold up a single set before its holdings are written.
+   */
+  private static class BlockingHandler extends VirtualHandler {
+
+    private final AtomicBoolean armed = new AtomicBoolean(false);
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Override
+    public boolean database() {
+
+      if(armed.compareAndSet(true, false)) {
+        blocked.countDown();
+        try {
+          release.await(10, TimeUnit.SECONDS);
+        } catch(final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return true;
+    }
+  }
+}